@@ -12,6 +12,7 @@ import static org.junit.Assert.*;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -19,9 +20,15 @@ import java.util.Set;
 
 import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.ecore.plugin.EcorePlugin;
+import org.eclipse.xtext.builder.standalone.daemon.BuildDaemon;
+import org.eclipse.xtext.builder.standalone.daemon.BuildDaemonClient;
+import org.eclipse.xtext.builder.standalone.daemon.BuildRequest;
+import org.eclipse.xtext.builder.standalone.daemon.BuildResult;
+import org.eclipse.xtext.builder.standalone.incremental.PersistedIndex;
 import org.eclipse.xtext.generator.IFileSystemAccess;
 import org.eclipse.xtext.generator.OutputConfiguration;
 import org.eclipse.xtext.generator.OutputConfiguration.SourceMapping;
+import org.eclipse.xtext.resource.IReferenceDescription;
 import org.eclipse.xtext.testing.InjectWith;
 import org.eclipse.xtext.testing.XtextRunner;
 import org.eclipse.xtext.util.Files;
@@ -32,6 +39,7 @@ import org.junit.runner.RunWith;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
 import com.google.inject.Inject;
 
 /**
@@ -47,6 +55,9 @@ public class StandaloneBuilderTest {
 	@Inject
 	private TestableStandaloneBuilder testBuilder;
 
+	@Inject
+	private BuildDaemon buildDaemon;
+
 	@Before
 	public void setUp() {
 		testBuilder.resetCallStatistic();
@@ -57,6 +68,7 @@ public class StandaloneBuilderTest {
 	public void cleanup() throws IOException {
 		deleteFolder("src-gen");
 		deleteFolder("src2-gen");
+		deleteFolder("incremental-src");
 		if (TMP_DIR.exists()) {
 			Files.sweepFolder(TMP_DIR);
 			TMP_DIR.delete();
@@ -164,6 +176,26 @@ public class StandaloneBuilderTest {
 				uri.toString().endsWith("test-data/model.in.eclipse.project.jar!/"));
 	}
 
+	@Test
+	public void testParallelClassPathScanning() {
+		initBuilder(new TestLanguageConfiguration(false));
+		testBuilder.setSourceDirs(ImmutableList.of("test-data/standalone.with.reference/model"));
+		testBuilder.setClassPathEntries(ImmutableList.of("test-data/standalone.with.reference/target/classes/",
+				"test-data/model.in.eclipse.project.jar"));
+		testBuilder.setTempDir(TMP_DIR);
+		testBuilder.setPersistIndex(true);
+		testBuilder.setNumberOfThreads(2);
+		EcorePlugin.getPlatformResourceMap().remove("model.in.eclipse.project");
+
+		assertTrue("Builder launch returned false", testBuilder.launch());
+		assertNotNull(EcorePlugin.getPlatformResourceMap().get("model.in.eclipse.project"));
+		assertTrue("class path cache was not persisted", getFile("tmp/classpath.bin").exists());
+
+		EcorePlugin.getPlatformResourceMap().remove("model.in.eclipse.project");
+		assertTrue("Builder launch with cached jars returned false", testBuilder.launch());
+		assertNotNull(EcorePlugin.getPlatformResourceMap().get("model.in.eclipse.project"));
+	}
+
 	@Test
 	public void testDuplicateSourceEntries() {
 		TestLanguageConfiguration config = new TestLanguageConfiguration(false);
@@ -207,10 +239,260 @@ public class StandaloneBuilderTest {
 
 	}
 
+	@Test
+	public void testParallelValidateAndGenerate() {
+		initBuilder(new TestLanguageConfiguration(true));
+		testBuilder.setNumberOfThreads(2);
+		assertTrue(testBuilder.launch());
+
+		File generatedFile = getFile("src-gen/Foo.txt");
+		assertTrue(generatedFile.exists());
+		generatedFile = getFile("src2-gen/Bar.txt");
+		assertTrue(generatedFile.exists());
+
+		File unexpectedFile = getFile("src-gen/Bar.txt");
+		assertFalse(unexpectedFile.exists());
+		unexpectedFile = getFile("src2-gen/Foo.txt");
+		assertFalse(unexpectedFile.exists());
+	}
+
+	@Test
+	public void testParallelValidateMultipleResources() {
+		TestLanguageConfiguration config = new TestLanguageConfiguration(false);
+		initBuilder(config, "src", "src-error");
+		testBuilder.setNumberOfThreads(2);
+		testBuilder.setMockGeneration(true);
+
+		assertFalse("Build should return false, but returned -success-", testBuilder.launch());
+		assertEquals("Build should fail early", 0, testBuilder.getGenerateCalled());
+
+		testBuilder.setFailOnValidationError(false);
+		assertFalse("Build should fail, but returned -success-", testBuilder.launch());
+		assertEquals("Generator was executed by both workers in spite of validation errors", 2, testBuilder.getGenerateCalled());
+	}
+
+	@Test
+	public void testParallelValidateAndGenerateClusters() {
+		initBuilder(new TestLanguageConfiguration(false));
+		testBuilder.setNumberOfThreads(2);
+		// a cluster is closed after each resource since the free memory never suffices
+		testBuilder.setClusteringConfig(new ClusteringConfig(Integer.MAX_VALUE, 1, 0));
+		assertTrue(testBuilder.launch());
+		assertEquals("Resources were loaded again for generation", 2, testBuilder.getLoadCalled());
+		assertEquals(2, testBuilder.getGenerateCalled());
+		assertTrue(getFile("src-gen/Foo.txt").exists());
+		assertTrue(getFile("src-gen/Bar.txt").exists());
+	}
+
+	@Test
+	public void testStreamingGeneration() {
+		initBuilder(new TestLanguageConfiguration(false));
+		testBuilder.setStreamingGeneration(true);
+		assertTrue("Builder launch returned false", testBuilder.launch());
+		assertEquals("Each resource should be generated on its own", 2, testBuilder.getGenerateCalled());
+		assertEquals("Resources were not evicted", 2, testBuilder.getEvicted());
+		assertTrue(getFile("src-gen/Foo.txt").exists());
+		assertTrue(getFile("src-gen/Bar.txt").exists());
+	}
+
+	@Test
+	public void testStreamingGenerationKeepsTypeResources() {
+		TestLanguageConfiguration config = new TestLanguageConfiguration(false);
+		config.setJavaSupport(true);
+		initBuilder(config);
+		testBuilder.setTempDir(TMP_DIR);
+		testBuilder.setStreamingGeneration(true);
+		testBuilder.setTypeToLoad(URI.createURI("java:/Objects/java.lang.Object"));
+		assertTrue("Builder launch returned false", testBuilder.launch());
+		assertEquals("Source resources were not evicted", 2, testBuilder.getEvicted());
+		assertFalse("Type resource was evicted", testBuilder.isTypeResourceEvicted());
+	}
+
+	@Test
+	public void testPersistIndex() {
+		initBuilder(new TestLanguageConfiguration(false));
+		testBuilder.setTempDir(TMP_DIR);
+		testBuilder.setPersistIndex(true);
+		assertTrue(testBuilder.launch());
+		assertTrue("index was not persisted", getFile("tmp/index.bin").exists());
+
+		deleteFolder("src-gen");
+		assertTrue(testBuilder.launch());
+		assertTrue(getFile("src-gen/Foo.txt").exists());
+		assertTrue(getFile("src-gen/Bar.txt").exists());
+	}
+
+	@Test
+	public void testIncrementalBuildSkipsUnchangedResources() {
+		initBuilder(new TestLanguageConfiguration(false));
+		testBuilder.setTempDir(TMP_DIR);
+		testBuilder.setIncremental(true);
+		assertTrue(testBuilder.launch());
+		assertEquals(2, testBuilder.getValidateCalled());
+		assertTrue("generated files were not persisted", getFile("tmp/generated.bin").exists());
+
+		testBuilder.resetCallStatistic();
+		assertTrue(testBuilder.launch());
+		assertEquals("Unchanged resources were validated again", 0, testBuilder.getValidateCalled());
+		assertTrue(getFile("src-gen/Foo.txt").exists());
+		assertTrue(getFile("src-gen/Bar.txt").exists());
+	}
+
+	@Test
+	public void testIncrementalBuildPersistsRecomputedDescriptions() throws IOException {
+		File upstream = getFile("incremental-src/Up.buildertestlanguage");
+		File downstream = getFile("incremental-src/Down.buildertestlanguage");
+		writeFile(upstream, "namespace up { object X }");
+		writeFile(downstream, "namespace down { object Down references up.X }");
+		initBuilder(new TestLanguageConfiguration(false), "incremental-src");
+		testBuilder.setTempDir(TMP_DIR);
+		testBuilder.setIncremental(true);
+		assertTrue(testBuilder.launch());
+
+		// the downstream resource is unchanged, but the target of its reference moves
+		long timeStamp = upstream.lastModified();
+		writeFile(upstream, "namespace up { object Y object X }");
+		assertTrue(upstream.setLastModified(timeStamp + 2000));
+		testBuilder.resetCallStatistic();
+		assertTrue(testBuilder.launch());
+		assertEquals("Downstream resource was not affected", 2, testBuilder.getValidateCalled());
+
+		testBuilder.resetCallStatistic();
+		assertTrue(testBuilder.launch());
+		assertEquals("Unchanged resources were validated again", 0, testBuilder.getValidateCalled());
+		PersistedIndex persistedIndex = PersistedIndex.read(getFile("tmp/index.bin"), "buildertestlanguage");
+		URI downstreamURI = Iterables.find(persistedIndex.getPreviousURIs(),
+				uri -> downstream.getName().equals(uri.lastSegment()));
+		IReferenceDescription reference = Iterables.getOnlyElement(
+				persistedIndex.getPreviousDescription(downstreamURI).getReferenceDescriptions());
+		assertTrue("Stale description was persisted", reference.getTargetEObjectUri().fragment().endsWith("@elements.1"));
+	}
+
+	@Test
+	public void testIncrementalBuildAfterClassPathChange() {
+		TestLanguageConfiguration config = new TestLanguageConfiguration(false);
+		config.setJavaSupport(true);
+		initBuilder(config);
+		testBuilder.setTempDir(TMP_DIR);
+		testBuilder.setIncremental(true);
+		assertTrue(testBuilder.launch());
+
+		testBuilder.resetCallStatistic();
+		testBuilder.setClassPathEntries(ImmutableList.of("test-data/model.in.eclipse.project.jar"));
+		assertTrue(testBuilder.launch());
+		assertEquals("Sources were not built again after a class path change", 2, testBuilder.getValidateCalled());
+
+		testBuilder.resetCallStatistic();
+		assertTrue(testBuilder.launch());
+		assertEquals("Unchanged resources were validated again", 0, testBuilder.getValidateCalled());
+	}
+
+	@Test
+	public void testIncrementalBuildSkipsUnchangedStubCompilation() {
+		TestLanguageConfiguration config = new TestLanguageConfiguration(false);
+		config.setJavaSupport(true);
+		initBuilder(config);
+		testBuilder.setTempDir(TMP_DIR);
+		testBuilder.setIncremental(true);
+		assertTrue(testBuilder.launch());
+		File compiledClazz = getFile("tmp/classes/JavaClass.class");
+		assertTrue("java compilation failed", compiledClazz.exists());
+		assertTrue(compiledClazz.setLastModified(1000L));
+
+		assertTrue(testBuilder.launch());
+		assertEquals("Stubs were compiled again", 1000L, compiledClazz.lastModified());
+	}
+
+	@Test
+	public void testCompileStubsInMemory() {
+		TestLanguageConfiguration config = new TestLanguageConfiguration(false);
+		config.setJavaSupport(true);
+		initBuilder(config);
+		testBuilder.setTempDir(TMP_DIR);
+		testBuilder.setCompileStubsInMemory(true);
+		assertTrue("Builder launch returned false", testBuilder.launch());
+		assertFalse("stubs were written to disk", getFile("tmp/stubs").exists());
+		assertFalse("classes were written to disk", getFile("tmp/classes").exists());
+		assertTrue(getFile("src-gen/Foo.txt").exists());
+	}
+
+	@Test
+	public void testMetricsReport() {
+		initBuilder(new TestLanguageConfiguration(false));
+		testBuilder.setMetricsReport(getFile("tmp/metrics.json"));
+		assertTrue(testBuilder.launch());
+		assertTrue("metrics report was not written", getFile("tmp/metrics.json").exists());
+		Map<BuildMetrics.Phase, BuildMetrics.Totals> phases = testBuilder.getMetrics().getPhaseTotals();
+		assertEquals(2, phases.get(BuildMetrics.Phase.VALIDATE).getCount());
+		assertEquals(2, phases.get(BuildMetrics.Phase.GENERATE).getCount());
+		assertEquals(2, testBuilder.getMetrics().getSlowestFiles(10).size());
+		URI file = testBuilder.getMetrics().getSlowestFiles(1).get(0);
+		BuildMetrics.Totals fileTotals = testBuilder.getMetrics().getFileTotals(file).get(BuildMetrics.Phase.VALIDATE);
+		testBuilder.getMetrics().stop(testBuilder.getMetrics().start(), BuildMetrics.Phase.VALIDATE, file);
+		assertEquals("totals are snapshots", 2, phases.get(BuildMetrics.Phase.VALIDATE).getCount());
+		assertEquals("totals are snapshots", 1, fileTotals.getCount());
+		assertEquals(2, testBuilder.getMetrics().getFileTotals(file).get(BuildMetrics.Phase.VALIDATE).getCount());
+	}
+
+	@Test
+	public void testBuildDaemon() throws Exception {
+		buildDaemon.setLanguages(new LanguageAccessFactory().createLanguageAccess(
+				ImmutableList.of(new TestLanguageConfiguration(false)), getClass().getClassLoader()));
+		TMP_DIR.mkdirs();
+		File tokenFile = new File(TMP_DIR, "daemon.token");
+		int port = buildDaemon.start(0, tokenFile);
+		Thread server = new Thread(() -> {
+			try {
+				buildDaemon.serve();
+			} catch (IOException e) {
+				throw new RuntimeException(e);
+			}
+		});
+		server.start();
+		try {
+			BuildRequest request = new BuildRequest();
+			request.setBaseDir(PROJECT_DIR.getAbsolutePath());
+			request.setSourceDirs(ImmutableList.of(getFile("src").getAbsolutePath(), getFile("src2").getAbsolutePath()));
+			request.setTempDir(TMP_DIR.getAbsolutePath());
+			File invalidTokenFile = new File(TMP_DIR, "invalid.token");
+			writeFile(invalidTokenFile, "invalid");
+			try {
+				new BuildDaemonClient(port, invalidTokenFile).build(request);
+				fail("Request with an invalid token was accepted");
+			} catch (IOException e) {
+				assertFalse(getFile("src-gen/Foo.txt").exists());
+			}
+
+			BuildDaemonClient client = new BuildDaemonClient(port, tokenFile);
+			assertTrue(client.build(request).isSuccess());
+			assertTrue(getFile("src-gen/Foo.txt").exists());
+
+			assertTrue("second build failed", client.build(request).isSuccess());
+			assertTrue(getFile("src-gen/Foo.txt").exists());
+
+			request.setSourceDirs(ImmutableList.of(getFile("src").getAbsolutePath(), getFile("src-error").getAbsolutePath()));
+			BuildResult result = client.build(request);
+			assertFalse("build with errors succeeded", result.isSuccess());
+			assertFalse("issues were not returned", result.getIssues().isEmpty());
+			assertNotNull(result.getIssues().get(0).getUriToProblem());
+			client.shutdown();
+			server.join(10000);
+			assertFalse(server.isAlive());
+			assertFalse("token file was not deleted", tokenFile.exists());
+		} finally {
+			buildDaemon.stop();
+		}
+	}
+
 	private File getFile(String projectRelativePath) {
 		return new File(PROJECT_DIR, projectRelativePath);
 	}
 
+	private void writeFile(File file, String content) throws IOException {
+		file.getParentFile().mkdirs();
+		java.nio.file.Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+	}
+
 	private void deleteFolder(String projectRelativePath) throws FileNotFoundException {
 		File folder = getFile(projectRelativePath);
 		if (folder.exists()) {
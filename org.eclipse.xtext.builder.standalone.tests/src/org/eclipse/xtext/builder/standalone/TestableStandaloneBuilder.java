@@ -8,15 +8,23 @@
 package org.eclipse.xtext.builder.standalone;
 
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
 
 /**
  * @author dhuebner - Initial contribution and API
  */
 public class TestableStandaloneBuilder extends StandaloneBuilder {
 	private int validateCalled = 0;
-	private int generateCalled = 0;
+	private AtomicInteger generateCalled = new AtomicInteger();
+	private AtomicInteger loadCalled = new AtomicInteger();
+	private int evicted = 0;
+	private URI typeToLoad;
+	private boolean typeResourceEvicted = false;
 	private boolean mockGeneration = false;
 
 	@Override
@@ -26,8 +34,36 @@ public class TestableStandaloneBuilder extends StandaloneBuilder {
 		return validated;
 	}
 
+	@Override
+	protected Resource loadAndLink(ResourceSet resourceSet, URI uri) {
+		loadCalled.incrementAndGet();
+		if (typeToLoad != null) {
+			resourceSet.getResource(typeToLoad, true);
+		}
+		return super.loadAndLink(resourceSet, uri);
+	}
+
+	@Override
+	protected void evictResources(ResourceSet resourceSet, Map<URI, Integer> lastUses, int position) {
+		int before = resourceSet.getResources().size();
+		super.evictResources(resourceSet, lastUses, position);
+		evicted += before - resourceSet.getResources().size();
+		if (typeToLoad != null && resourceSet.getResource(typeToLoad, false) == null) {
+			typeResourceEvicted = true;
+		}
+	}
+
+	/**
+	 * @param typeToLoad
+	 *            the URI of a JVM type that is loaded together with each source resource
+	 */
+	public void setTypeToLoad(URI typeToLoad) {
+		this.typeToLoad = typeToLoad;
+	}
+
 	public void resetTestSetup() {
 		mockGeneration = false;
+		typeToLoad = null;
 	}
 
 	@Override
@@ -35,7 +71,7 @@ public class TestableStandaloneBuilder extends StandaloneBuilder {
 		if (!mockGeneration) {
 			super.generate(sourceResources);
 		}
-		generateCalled++;
+		generateCalled.incrementAndGet();
 	}
 
 	public void setMockGeneration(boolean mockGeneration) {
@@ -44,7 +80,10 @@ public class TestableStandaloneBuilder extends StandaloneBuilder {
 
 	public void resetCallStatistic() {
 		validateCalled = 0;
-		generateCalled = 0;
+		generateCalled.set(0);
+		loadCalled.set(0);
+		evicted = 0;
+		typeResourceEvicted = false;
 	}
 
 	public int getValidateCalled() {
@@ -52,7 +91,19 @@ public class TestableStandaloneBuilder extends StandaloneBuilder {
 	}
 
 	public int getGenerateCalled() {
-		return generateCalled;
+		return generateCalled.get();
+	}
+
+	public int getLoadCalled() {
+		return loadCalled.get();
+	}
+
+	public int getEvicted() {
+		return evicted;
+	}
+
+	public boolean isTypeResourceEvicted() {
+		return typeResourceEvicted;
 	}
 
 }
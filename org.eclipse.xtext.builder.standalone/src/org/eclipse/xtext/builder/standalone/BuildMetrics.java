@@ -0,0 +1,341 @@
+/*******************************************************************************
+ * Copyright (c) 2018 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.builder.standalone;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.log4j.Logger;
+import org.eclipse.emf.common.util.URI;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * Collects the wall time, CPU time and allocated bytes that the {@link StandaloneBuilder} spends per {@link Phase},
+ * per language and per file.
+ *
+ * <p>
+ * Measurements are taken on the current thread, thus the totals of phases that run on several workers add up the
+ * time of all workers. CPU time and allocated bytes are <code>0</code> if the VM does not support measuring them.
+ * </p>
+ *
+ * @since 2.14
+ */
+public class BuildMetrics {
+
+	private static final Logger LOG = Logger.getLogger(BuildMetrics.class);
+
+	public enum Phase {
+		COLLECT, INDEX, STUB_GENERATION, STUB_COMPILATION, LOAD, LINK, VALIDATE, GENERATE, STORAGE
+	}
+
+	/**
+	 * The state of the current thread when a measurement was started.
+	 */
+	public static class Measurement {
+		private final long wallTime;
+		private final long cpuTime;
+		private final long allocatedBytes;
+
+		protected Measurement(long wallTime, long cpuTime, long allocatedBytes) {
+			this.wallTime = wallTime;
+			this.cpuTime = cpuTime;
+			this.allocatedBytes = allocatedBytes;
+		}
+	}
+
+	public static class Totals {
+		private int count;
+		private long wallTime;
+		private long cpuTime;
+		private long allocatedBytes;
+
+		protected void add(long wallTime, long cpuTime, long allocatedBytes) {
+			this.count++;
+			this.wallTime += wallTime;
+			this.cpuTime += cpuTime;
+			this.allocatedBytes += allocatedBytes;
+		}
+
+		protected Totals copy() {
+			Totals result = new Totals();
+			result.count = count;
+			result.wallTime = wallTime;
+			result.cpuTime = cpuTime;
+			result.allocatedBytes = allocatedBytes;
+			return result;
+		}
+
+		public int getCount() {
+			return count;
+		}
+
+		/**
+		 * @return the wall time in nanoseconds
+		 */
+		public long getWallTime() {
+			return wallTime;
+		}
+
+		/**
+		 * @return the CPU time in nanoseconds
+		 */
+		public long getCpuTime() {
+			return cpuTime;
+		}
+
+		public long getAllocatedBytes() {
+			return allocatedBytes;
+		}
+	}
+
+	private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+	private static final boolean CPU_TIME_SUPPORTED = THREADS.isCurrentThreadCpuTimeSupported();
+
+	private static final com.sun.management.ThreadMXBean ALLOCATIONS = getAllocationsBean();
+
+	private static com.sun.management.ThreadMXBean getAllocationsBean() {
+		try {
+			if (THREADS instanceof com.sun.management.ThreadMXBean) {
+				com.sun.management.ThreadMXBean result = (com.sun.management.ThreadMXBean) THREADS;
+				if (result.isThreadAllocatedMemorySupported() && result.isThreadAllocatedMemoryEnabled()) {
+					return result;
+				}
+			}
+		} catch (LinkageError e) {
+			LOG.debug("Allocated bytes cannot be measured.", e);
+		}
+		return null;
+	}
+
+	private final Map<Phase, Totals> phases = new EnumMap<Phase, Totals>(Phase.class);
+
+	private final Map<String, Totals> languages = Maps.newTreeMap();
+
+	private final Map<URI, Map<Phase, Totals>> files = Maps.newHashMap();
+
+	private final Totals build = new Totals();
+
+	public Measurement start() {
+		return new Measurement(System.nanoTime(), getCpuTime(), getAllocatedBytes());
+	}
+
+	/**
+	 * Adds the time and memory since the given measurement was started to the phase.
+	 */
+	public void stop(Measurement started, Phase phase) {
+		stop(started, phase, null);
+	}
+
+	/**
+	 * Adds the time and memory since the given measurement was started to the phase and, if the given URI is not
+	 * <code>null</code>, to the file and its language.
+	 */
+	public void stop(Measurement started, Phase phase, URI uri) {
+		long wallTime = System.nanoTime() - started.wallTime;
+		long cpuTime = getCpuTime() - started.cpuTime;
+		long allocatedBytes = getAllocatedBytes() - started.allocatedBytes;
+		synchronized (this) {
+			get(phases, phase).add(wallTime, cpuTime, allocatedBytes);
+			if (uri != null) {
+				get(languages, String.valueOf(uri.fileExtension())).add(wallTime, cpuTime, allocatedBytes);
+				Map<Phase, Totals> filePhases = files.get(uri);
+				if (filePhases == null) {
+					filePhases = new EnumMap<Phase, Totals>(Phase.class);
+					files.put(uri, filePhases);
+				}
+				get(filePhases, phase).add(wallTime, cpuTime, allocatedBytes);
+			}
+		}
+	}
+
+	/**
+	 * Records the totals of a complete build that has been started with the given measurement.
+	 */
+	public void stopBuild(Measurement started) {
+		long wallTime = System.nanoTime() - started.wallTime;
+		long cpuTime = getCpuTime() - started.cpuTime;
+		long allocatedBytes = getAllocatedBytes() - started.allocatedBytes;
+		synchronized (this) {
+			build.add(wallTime, cpuTime, allocatedBytes);
+		}
+	}
+
+	private static <K> Map<K, Totals> copy(Map<K, Totals> map, Map<K, Totals> result) {
+		for (Map.Entry<K, Totals> entry : map.entrySet()) {
+			result.put(entry.getKey(), entry.getValue().copy());
+		}
+		return Collections.unmodifiableMap(result);
+	}
+
+	private static <K> Totals get(Map<K, Totals> map, K key) {
+		Totals result = map.get(key);
+		if (result == null) {
+			result = new Totals();
+			map.put(key, result);
+		}
+		return result;
+	}
+
+	protected long getCpuTime() {
+		return CPU_TIME_SUPPORTED ? THREADS.getCurrentThreadCpuTime() : 0;
+	}
+
+	protected long getAllocatedBytes() {
+		return ALLOCATIONS != null ? ALLOCATIONS.getThreadAllocatedBytes(Thread.currentThread().getId()) : 0;
+	}
+
+	public synchronized void reset() {
+		phases.clear();
+		languages.clear();
+		files.clear();
+		build.count = 0;
+		build.wallTime = 0;
+		build.cpuTime = 0;
+		build.allocatedBytes = 0;
+	}
+
+	/**
+	 * The totals of the builds on the launching thread. The work of parallel workers is not included.
+	 *
+	 * @return a snapshot that is not updated by subsequent measurements
+	 */
+	public synchronized Totals getBuildTotals() {
+		return build.copy();
+	}
+
+	/**
+	 * @return a snapshot that is not updated by subsequent measurements
+	 */
+	public synchronized Map<Phase, Totals> getPhaseTotals() {
+		return copy(phases, new EnumMap<Phase, Totals>(Phase.class));
+	}
+
+	/**
+	 * @return a snapshot of the totals of all files by their file extension
+	 */
+	public synchronized Map<String, Totals> getLanguageTotals() {
+		return copy(languages, Maps.<String, Totals> newTreeMap());
+	}
+
+	/**
+	 * @return a snapshot that is not updated by subsequent measurements
+	 */
+	public synchronized Map<Phase, Totals> getFileTotals(URI uri) {
+		Map<Phase, Totals> result = files.get(uri);
+		return result == null ? Collections.<Phase, Totals> emptyMap()
+				: copy(result, new EnumMap<Phase, Totals>(Phase.class));
+	}
+
+	/**
+	 * @return the files with the highest wall time over all phases, the slowest first
+	 */
+	public synchronized List<URI> getSlowestFiles(int count) {
+		final Map<URI, Long> wallTimes = Maps.newHashMap();
+		for (Map.Entry<URI, Map<Phase, Totals>> entry : files.entrySet()) {
+			wallTimes.put(entry.getKey(), sum(entry.getValue()).getWallTime());
+		}
+		List<URI> result = Lists.newArrayList(wallTimes.keySet());
+		Collections.sort(result, new Comparator<URI>() {
+			@Override
+			public int compare(URI o1, URI o2) {
+				return Long.compare(wallTimes.get(o2), wallTimes.get(o1));
+			}
+		});
+		return result.subList(0, Math.min(count, result.size()));
+	}
+
+	private Totals sum(Map<Phase, Totals> totals) {
+		Totals result = new Totals();
+		for (Totals phase : totals.values()) {
+			result.count += phase.count;
+			result.wallTime += phase.wallTime;
+			result.cpuTime += phase.cpuTime;
+			result.allocatedBytes += phase.allocatedBytes;
+		}
+		return result;
+	}
+
+	/**
+	 * Writes the metrics as a JSON report. Times are given in milliseconds.
+	 *
+	 * @param slowestFiles
+	 *            the number of slowest files to list in the report
+	 */
+	public synchronized void writeJson(File file, int slowestFiles) throws IOException {
+		File parent = file.getAbsoluteFile().getParentFile();
+		if (parent != null) {
+			parent.mkdirs();
+		}
+		try (Writer out = new OutputStreamWriter(Files.newOutputStream(file.toPath()), StandardCharsets.UTF_8)) {
+			out.write("{\n  \"build\": ");
+			writeTotals(out, build);
+			out.write(",\n  \"phases\": {");
+			String separator = "\n    ";
+			for (Map.Entry<Phase, Totals> entry : phases.entrySet()) {
+				out.write(separator + quote(entry.getKey().name().toLowerCase()) + ": ");
+				writeTotals(out, entry.getValue());
+				separator = ",\n    ";
+			}
+			out.write("\n  },\n  \"languages\": {");
+			separator = "\n    ";
+			for (Map.Entry<String, Totals> entry : languages.entrySet()) {
+				out.write(separator + quote(entry.getKey()) + ": ");
+				writeTotals(out, entry.getValue());
+				separator = ",\n    ";
+			}
+			out.write("\n  },\n  \"slowestFiles\": [");
+			separator = "\n    ";
+			for (URI uri : getSlowestFiles(slowestFiles)) {
+				Map<Phase, Totals> filePhases = files.get(uri);
+				out.write(separator + "{\"uri\": " + quote(uri.toString()) + ", \"total\": ");
+				writeTotals(out, sum(filePhases));
+				for (Map.Entry<Phase, Totals> entry : filePhases.entrySet()) {
+					out.write(", " + quote(entry.getKey().name().toLowerCase()) + ": ");
+					writeTotals(out, entry.getValue());
+				}
+				out.write("}");
+				separator = ",\n    ";
+			}
+			out.write("\n  ]\n}\n");
+		}
+	}
+
+	private void writeTotals(Writer out, Totals totals) throws IOException {
+		out.write("{\"count\": " + totals.count + ", \"wallTime\": " + totals.wallTime / 1000000 + ", \"cpuTime\": "
+				+ totals.cpuTime / 1000000 + ", \"allocatedBytes\": " + totals.allocatedBytes + "}");
+	}
+
+	private String quote(String value) {
+		StringBuilder result = new StringBuilder("\"");
+		for (char c : value.toCharArray()) {
+			if (c == '"' || c == '\\') {
+				result.append('\\').append(c);
+			} else if (c < 0x20) {
+				result.append(String.format("\\u%04x", (int) c));
+			} else {
+				result.append(c);
+			}
+		}
+		return result.append('"').toString();
+	}
+
+}
@@ -2,6 +2,7 @@ package org.eclipse.xtext.builder.standalone
 
 import com.google.common.io.Files
 import com.google.inject.Inject
+import com.google.inject.Injector
 import com.google.inject.Provider
 import java.io.File
 import java.io.IOException
@@ -9,39 +10,62 @@ import java.net.URLClassLoader
 import java.util.Collection
 import java.util.List
 import java.util.Map
-import java.util.jar.JarFile
-import java.util.jar.Manifest
+import java.util.Set
+import java.util.concurrent.Callable
+import java.util.concurrent.Executors
+import java.util.concurrent.atomic.AtomicBoolean
 import java.util.regex.Pattern
-import java.util.zip.ZipException
 import org.apache.log4j.Logger
 import org.eclipse.emf.common.util.URI
-import org.eclipse.emf.ecore.plugin.EcorePlugin
 import org.eclipse.emf.ecore.resource.Resource
 import org.eclipse.emf.ecore.resource.ResourceSet
 import org.eclipse.xtend.lib.annotations.Accessors
+import org.eclipse.xtext.builder.standalone.BuildMetrics.Phase
 import org.eclipse.xtext.EcoreUtil2
 import org.eclipse.xtext.builder.standalone.compiler.IJavaCompiler
 import org.eclipse.xtext.builder.standalone.compiler.IJavaCompiler.CompilationResult
+import org.eclipse.xtext.builder.standalone.compiler.InMemoryJavaCompiler
+import org.eclipse.xtext.builder.standalone.incremental.ClassPathScanner
+import org.eclipse.xtext.builder.standalone.incremental.GeneratedFiles
+import org.eclipse.xtext.builder.standalone.incremental.PersistedIndex
+import org.eclipse.xtext.builder.standalone.incremental.StubCache
+import org.eclipse.xtext.common.types.JvmDeclaredType
+import org.eclipse.xtext.common.types.access.binary.BinaryClass
+import org.eclipse.xtext.common.types.access.binary.asm.BoundedClassFileBytesAccess
+import org.eclipse.xtext.common.types.access.impl.AbstractRuntimeJvmTypeProvider
+import org.eclipse.xtext.common.types.access.impl.CachingClasspathTypeProvider
+import org.eclipse.xtext.common.types.access.impl.CachingDeclaredTypeFactory
 import org.eclipse.xtext.common.types.access.impl.ClasspathTypeProvider
+import org.eclipse.xtext.common.types.access.impl.DeclaredTypeFactory
+import org.eclipse.xtext.common.types.access.impl.ITypeFactory
 import org.eclipse.xtext.common.types.access.impl.IndexedJvmTypeAccess
+import org.eclipse.xtext.common.types.access.impl.PersistentTypeCache
+import org.eclipse.xtext.common.types.access.impl.URIHelperConstants
+import org.eclipse.xtext.diagnostics.Severity
 import org.eclipse.xtext.generator.AbstractFileSystemAccess
 import org.eclipse.xtext.generator.IFileSystemAccess
 import org.eclipse.xtext.generator.JavaIoFileSystemAccess
-import org.eclipse.xtext.mwe.NameBasedFilter
-import org.eclipse.xtext.mwe.PathTraverser
+import org.eclipse.xtext.generator.JavaIoFileSystemAccess.IFileCallback
+import org.eclipse.xtext.java.resource.NameEnvironmentCache
 import org.eclipse.xtext.parser.IEncodingProvider
+import org.eclipse.xtext.resource.IResourceDescription
 import org.eclipse.xtext.resource.XtextResourceSet
 import org.eclipse.xtext.resource.clustering.DisabledClusteringPolicy
 import org.eclipse.xtext.resource.clustering.DynamicResourceClusteringPolicy
+import org.eclipse.xtext.resource.clustering.IResourceClusteringPolicy
+import org.eclipse.xtext.resource.impl.DefaultResourceDescriptionDelta
 import org.eclipse.xtext.resource.impl.ResourceDescriptionsData
+import org.eclipse.xtext.resource.persistence.SerializableResourceDescription
 import org.eclipse.xtext.resource.persistence.StorageAwareResource
 import org.eclipse.xtext.util.CancelIndicator
 import org.eclipse.xtext.util.UriUtil
 import org.eclipse.xtext.validation.CheckMode
+import org.eclipse.xtext.validation.Issue
 import org.eclipse.xtext.generator.GeneratorContext
 
 class StandaloneBuilder {
 	static final Logger LOG = Logger.getLogger(StandaloneBuilder);
+	static final String NAME_ENVIRONMENT_CACHE_ADAPTER = 'org.eclipse.xtext.java.resource.NameEnvironmentCache$NameEnvironmentCacheAdapter'
 
 	/**  Map key is a file extension provided by Language FileExtensionProvider   */
 	@Accessors Map<String, LanguageAccess> languages
@@ -62,13 +86,74 @@ class StandaloneBuilder {
 	@Accessors boolean debugLog
 	@Accessors boolean writeStorageResources
 	@Accessors ClusteringConfig clusteringConfig = null
+	/**
+	 * Number of worker threads that fill the index, validate and generate the resources.<br>
+	 * If greater than one, each worker loads its share of the resources into a resource set of its own.
+	 * The workers share the index and the cache of binary JVM types. Issues are still passed to the
+	 * {@link IIssueHandler} in the order of the source resources.
+	 * <br>Default is <code>1</code>
+	 */
+	@Accessors int numberOfThreads = 1
+	/**
+	 * If set to <code>true</code>, the index is written to the {@link #tempDir} and reused by subsequent runs
+	 * with the same temp dir. Only new and changed resources are loaded to fill the index then.
+	 * <br>Default is <code>false</code>
+	 */
+	@Accessors boolean persistIndex = false
+	/**
+	 * If set to <code>true</code>, the index is persisted like with {@link #persistIndex} and subsequent runs
+	 * validate and generate only the source resources that changed or are affected by a change.
+	 * Generated files of deleted resources and files that are not generated anymore are removed.
+	 * <br>Default is <code>false</code>
+	 */
+	@Accessors boolean incremental = false
+	/**
+	 * If set to <code>true</code>, the Java stubs are generated and compiled in memory. The type provider
+	 * reads the compiled stubs from memory, too, thus no stubs or classes are written to the {@link #tempDir}.
+	 * Java stubs are compiled again by each run in this mode.
+	 * <br>Default is <code>false</code>
+	 */
+	@Accessors boolean compileStubsInMemory = false
+	/**
+	 * The time and memory spent per phase, language and file by the last {@link #launch()}.
+	 */
+	@Accessors val BuildMetrics metrics = new BuildMetrics
+	/**
+	 * If set, each {@link #launch()} writes a JSON report of its {@link #getMetrics() metrics} to this file.
+	 */
+	@Accessors File metricsReport
+	/**
+	 * Number of files with the highest wall time that are listed in the {@link #metricsReport}.
+	 * <br>Default is <code>10</code>
+	 */
+	@Accessors int slowestFilesInReport = 10
+	/**
+	 * If set to <code>true</code>, each source resource is generated right after it has been validated. Resources are
+	 * removed from the resource set as soon as no pending source resource refers to them according to the index,
+	 * thus the heap grows with the working set rather than with the number of resources. The {@link #clusteringConfig}
+	 * is not used then. If validation fails and {@link #failOnValidationError} is set, the resources that have been
+	 * processed before are already generated.
+	 * Only applies if a single thread is used.
+	 * <br>Default is <code>false</code>
+	 */
+	@Accessors boolean streamingGeneration = false
+	/**
+	 * If set, the JVM types that are built from class files are stored in this directory and reused by subsequent
+	 * builds as long as their class files don't change. The directory may be shared by concurrent builds.
+	 */
+	@Accessors File typeCacheDir
 
 	@Inject IndexedJvmTypeAccess jvmTypeAccess
 	@Inject Provider<XtextResourceSet> resourceSetProvider
 	@Inject AbstractFileSystemAccess commonFileAccess
-	@Inject protected IIssueHandler issueHandler
+	@Inject @Accessors protected IIssueHandler issueHandler
 	@Inject IEncodingProvider.Runtime encodingProvider
 	@Inject IJavaCompiler compiler
+	@Inject Injector injector
+
+	GeneratedFiles generatedFiles
+	StubCache stubCache
+	val ClassPathScanner classPathScanner = new ClassPathScanner
 
 	def void setTempDir(String pathAsString) {
 		if (pathAsString !== null) {
@@ -81,6 +166,8 @@ class StandaloneBuilder {
 	 *  @return <code>false</code> if some of processed resources contains severe validation issues. <code>true</code> otherwise
 	 */
 	def boolean launch() {
+		metrics.reset
+		val buildStarted = metrics.start
 		val needsJava = languages.values.exists[linksAgainstJava]
 		if (baseDir === null) {
 			baseDir = System.getProperty('user.dir')
@@ -99,6 +186,7 @@ class StandaloneBuilder {
 
 		LOG.info("Collecting source models.")
 		val startedAt = System.currentTimeMillis
+		val collectStarted = metrics.start
 		var rootsToTravers = classPathEntries
 		if (classPathLookUpFilter !== null) {
 			LOG.info("Class path look up filter is active.")
@@ -107,8 +195,15 @@ class StandaloneBuilder {
 			LOG.info(
 				"Investigating " + rootsToTravers.length + " of " + classPathEntries.length + " class path entries.");
 		}
+		if (persistIndex || incremental) {
+			tempDir.mkdirs
+			classPathScanner.read(classPathCacheFile)
+		}
 		val sourceResourceURIs = collectResources(sourceDirs, resourceSet)
 		val allResourcesURIs = sourceResourceURIs + collectResources(rootsToTravers, resourceSet)
+		if (persistIndex || incremental)
+			classPathScanner.write(classPathCacheFile)
+		metrics.stop(collectStarted, Phase.COLLECT)
 		forceDebugLog("Finished collecting source models. Took: " + (System.currentTimeMillis - startedAt) + " ms.")
 
 		val allClassPathEntries = (sourceDirs + classPathEntries)
@@ -129,35 +224,138 @@ class StandaloneBuilder {
 
 		// Fill index
 		var ResourceDescriptionsData index = new ResourceDescriptionsData(newArrayList());
-		var allResourceIterator = allResourcesURIs.iterator
-		while (allResourceIterator.hasNext) {
-			var List<Resource> resources = newArrayList()
-			var int clusterIndex = 0
-			var continue = true
-			while (allResourceIterator.hasNext && continue) {
-				val uri = allResourceIterator.next
-				val resource = resourceSet.getResource(uri, true)
-				resources.add(resource)
-				fillIndex(uri, resource, index)
-				clusterIndex++
-				if (!strategy.continueProcessing(resourceSet, null, clusterIndex)) {
-					continue = false
+		val persistedIndex = if (persistIndex || incremental) readPersistedIndex
+		if (incremental && needsJava) {
+			persistedIndex.inputsKey = computeJavaInputsKey
+		}
+		var resourcesToIndex = allResourcesURIs
+		if (persistedIndex !== null) {
+			resourcesToIndex = reusePersistedDescriptions(persistedIndex, allResourcesURIs, index, resourceSet)
+		}
+		if (numberOfThreads > 1) {
+			LOG.info("Filling index using " + numberOfThreads + " threads.")
+			fillIndexInParallel(resourcesToIndex.toList, index, if (needsJava) allClassPathEntries, strategy)
+		} else if (streamingGeneration) {
+			fillIndexWithCopies(resourcesToIndex, index, resourceSet)
+		} else {
+			var allResourceIterator = resourcesToIndex.iterator
+			while (allResourceIterator.hasNext) {
+				var List<Resource> resources = newArrayList()
+				var int clusterIndex = 0
+				var continue = true
+				while (allResourceIterator.hasNext && continue) {
+					val uri = allResourceIterator.next
+					val indexStarted = metrics.start
+					val resource = resourceSet.getResource(uri, true)
+					resources.add(resource)
+					fillIndex(uri, resource, index)
+					metrics.stop(indexStarted, Phase.INDEX, uri)
+					clusterIndex++
+					if (!strategy.continueProcessing(resourceSet, null, clusterIndex)) {
+						continue = false
+					}
 				}
+				if (!continue)
+					resourceSet.clearResourceSet
 			}
-			if (!continue)
-				resourceSet.clearResourceSet
 		}
 		installIndex(resourceSet, index)
 
 		// Generate Stubs
+		var ClassLoader typeProviderClassLoader = null
 		if (needsJava) {
-			val stubsClasses = compileStubs(generateStubs(index, sourceResourceURIs))
+			if (compileStubsInMemory) {
+				val stubsStarted = metrics.start
+				val stubs = generateStubsInMemory(index, sourceResourceURIs)
+				metrics.stop(stubsStarted, Phase.STUB_GENERATION)
+				val compilationStarted = metrics.start
+				typeProviderClassLoader = compileStubsInMemory(stubs, createURLClassLoader(allClassPathEntries))
+				metrics.stop(compilationStarted, Phase.STUB_COMPILATION)
+			} else {
+				stubCache = if (incremental) StubCache.read(stubCacheFile)
+				val stubsStarted = metrics.start
+				val stubsDir = generateStubs(index, sourceResourceURIs)
+				metrics.stop(stubsStarted, Phase.STUB_GENERATION)
+				val compilationStarted = metrics.start
+				val stubsClasses = compileStubs(stubsDir)
+				metrics.stop(compilationStarted, Phase.STUB_COMPILATION)
+				stubCache?.write(stubCacheFile)
+				typeProviderClassLoader = createURLClassLoader(allClassPathEntries + newArrayList(stubsClasses))
+			}
 			LOG.info("Installing type provider for stubs.")
-			installTypeProvider(allClassPathEntries + newArrayList(stubsClasses), resourceSet, jvmTypeAccess)
+			installTypeProvider(typeProviderClassLoader, resourceSet, jvmTypeAccess)
 		}
 
 		// Validate and generate
-		LOG.info("Validate and generate.")
+		var sourcesToBuild = sourceResourceURIs
+		generatedFiles = if (incremental) GeneratedFiles.read(generatedFilesFile)
+		if (incremental && !persistedIndex.previousURIs.empty) {
+			if (persistedIndex.haveInputsChanged) {
+				LOG.info("Java sources or class path changed. Building all " + sourceResourceURIs.size + " source resources.")
+			} else {
+				sourcesToBuild = computeAffectedResources(persistedIndex, resourcesToIndex.toSet, sourceResourceURIs,
+					index, resourceSet)
+				LOG.info("Building " + sourcesToBuild.size + " of " + sourceResourceURIs.size + " source resources.")
+			}
+			for (uri : persistedIndex.previousURIs.filter[index.getResourceDescription(it) === null]) {
+				generatedFiles.deleteGeneratedFiles(uri)
+			}
+		}
+		val success = if (numberOfThreads > 1) {
+				LOG.info("Validate and generate using " + numberOfThreads + " threads.")
+				validateAndGenerateInParallel(sourcesToBuild, index, typeProviderClassLoader, strategy)
+			} else if (streamingGeneration) {
+				LOG.info("Validate and generate one resource at a time.")
+				validateAndGenerateStreaming(sourcesToBuild, index, resourceSet)
+			} else {
+				LOG.info("Validate and generate.")
+				validateAndGenerate(sourcesToBuild, resourceSet, strategy)
+			}
+		if (generatedFiles !== null) {
+			generatedFiles.write(generatedFilesFile)
+		}
+		if (persistedIndex !== null) {
+			// resources with errors have to be built again by the next run
+			if (success)
+				persistedIndex.write(persistedIndexFile, index, resourceSet.URIConverter)
+			else
+				persistedIndexFile.delete
+		}
+		metrics.stopBuild(buildStarted)
+		if (metricsReport !== null) {
+			writeMetricsReport
+		}
+		return success
+	}
+
+	def protected void writeMetricsReport() {
+		LOG.info("Writing build metrics to " + metricsReport.absolutePath)
+		try {
+			metrics.writeJson(metricsReport, slowestFilesInReport)
+		} catch (IOException e) {
+			LOG.warn("Could not write build metrics.", e)
+		}
+	}
+
+	/**
+	 * Loads the resource and resolves all its lazy cross references.
+	 */
+	def protected Resource loadAndLink(ResourceSet resourceSet, URI uri) {
+		val loadStarted = metrics.start
+		val resource = resourceSet.getResource(uri, true)
+		resource.contents // full initialize
+		metrics.stop(loadStarted, Phase.LOAD, uri)
+		val linkStarted = metrics.start
+		EcoreUtil2.resolveLazyCrossReferences(resource, CancelIndicator.NullImpl)
+		metrics.stop(linkStarted, Phase.LINK, uri)
+		return resource
+	}
+
+	/**
+	 * @return <code>false</code> if some of processed resources contains severe validation issues. <code>true</code> otherwise
+	 */
+	def protected boolean validateAndGenerate(List<URI> sourceResourceURIs, XtextResourceSet resourceSet,
+		IResourceClusteringPolicy strategy) {
 		val sourceResourceIterator = sourceResourceURIs.iterator
 		var hasValidationErrors = false
 		while (sourceResourceIterator.hasNext) {
@@ -166,10 +364,8 @@ class StandaloneBuilder {
 			var continue = true
 			while (sourceResourceIterator.hasNext && continue) {
 				val uri = sourceResourceIterator.next
-				val resource = resourceSet.getResource(uri, true)
+				val resource = loadAndLink(resourceSet, uri)
 				resources.add(resource)
-				resource.contents // full initialize
-				EcoreUtil2.resolveLazyCrossReferences(resource, CancelIndicator.NullImpl)
 				hasValidationErrors = !validate(resource) || hasValidationErrors
 				clusterIndex++
 				if (!strategy.continueProcessing(resourceSet, null, clusterIndex)) {
@@ -186,6 +382,411 @@ class StandaloneBuilder {
 		return !hasValidationErrors
 	}
 
+	/**
+	 * Validates and generates the source resources one at a time. Afterwards, the resources that no later source
+	 * resource refers to are removed from the resource set.
+	 * 
+	 * @return <code>false</code> if some of processed resources contains severe validation issues. <code>true</code> otherwise
+	 */
+	def protected boolean validateAndGenerateStreaming(List<URI> sourceResourceURIs, ResourceDescriptionsData index,
+		XtextResourceSet resourceSet) {
+		val lastUses = computeLastUses(sourceResourceURIs, index)
+		var hasValidationErrors = false
+		for (i : 0 ..< sourceResourceURIs.size) {
+			val resource = loadAndLink(resourceSet, sourceResourceURIs.get(i))
+			hasValidationErrors = !validate(resource) || hasValidationErrors
+			if (failOnValidationError && hasValidationErrors) {
+				return !hasValidationErrors
+			}
+			generate(newArrayList(resource))
+			evictResources(resourceSet, lastUses, i)
+		}
+		return !hasValidationErrors
+	}
+
+	/**
+	 * Computes the position of the last source resource that is or refers to a resource according to the index.
+	 * Resources that are not contained in the result are not needed by any source resource.
+	 */
+	def protected Map<URI, Integer> computeLastUses(List<URI> sourceResourceURIs, ResourceDescriptionsData index) {
+		val Map<URI, Integer> result = newHashMap
+		for (i : 0 ..< sourceResourceURIs.size) {
+			val uri = sourceResourceURIs.get(i)
+			result.put(uri, i)
+			val description = index.getResourceDescription(uri)
+			if (description !== null) {
+				for (reference : description.referenceDescriptions) {
+					result.put(reference.targetEObjectUri.trimFragment, i)
+				}
+			}
+		}
+		return result
+	}
+
+	/**
+	 * Removes the resources from the resource set that are not needed after the source resource at the given position.
+	 * Only resources with a last use are removed, and {@link #isTypeResource(Resource) type resources} are kept.
+	 * Like {@link #clearResourceSet(ResourceSet)}, the resources are not unloaded.
+	 */
+	def protected void evictResources(ResourceSet resourceSet, Map<URI, Integer> lastUses, int position) {
+		removeResources(resourceSet) [
+			val lastUse = lastUses.get(URI)
+			lastUse !== null && lastUse <= position && !typeResource
+		]
+	}
+
+	/**
+	 * JVM types are shared by all source resources and expensive to build, thus their resources are not evicted.
+	 */
+	def protected boolean isTypeResource(Resource resource) {
+		return URIHelperConstants.PROTOCOL == resource.URI?.scheme
+	}
+
+	def private void removeResources(ResourceSet resourceSet, (Resource)=>boolean filter) {
+		val wasDeliver = resourceSet.eDeliver()
+		try {
+			resourceSet.eSetDeliver(false)
+			resourceSet.resources.removeIf[filter.apply(it)]
+		} finally {
+			resourceSet.eSetDeliver(wasDeliver)
+		}
+	}
+
+	/**
+	 * Adds copies of the descriptions of the given resources to the index. Each resource is removed from the
+	 * resource set right after it has been described, only {@link #isTypeResource(Resource) type resources} are kept.
+	 */
+	def protected void fillIndexWithCopies(Iterable<URI> uris, ResourceDescriptionsData index,
+		XtextResourceSet resourceSet) {
+		for (uri : uris) {
+			val indexStarted = metrics.start
+			val resource = resourceSet.getResource(uri, true)
+			val description = languageAccess(uri).resourceDescriptionManager.getResourceDescription(resource)
+			index.addDescription(uri, SerializableResourceDescription.createCopy(description))
+			removeResources(resourceSet)[!typeResource]
+			metrics.stop(indexStarted, Phase.INDEX, uri)
+		}
+	}
+
+	/**
+	 * Computes the source resources that have to be validated and generated since they changed or are affected
+	 * by a changed or deleted resource. The descriptions of affected resources are computed again and replace the
+	 * persisted ones in the index. If their exported objects differ, the resources that depend on them are affected, too.
+	 * The index does not tell the type provider and the Java name environments about these changes, thus they are told
+	 * explicitly.
+	 * 
+	 * @param changedURIs the resources that were new or changed when the index was filled
+	 */
+	def protected List<URI> computeAffectedResources(PersistedIndex persistedIndex, Set<URI> changedURIs,
+		List<URI> sourceResourceURIs, ResourceDescriptionsData index, XtextResourceSet resourceSet) {
+		var List<IResourceDescription.Delta> deltas = newArrayList
+		for (uri : changedURIs) {
+			deltas += new DefaultResourceDescriptionDelta(persistedIndex.getPreviousDescription(uri),
+				index.getResourceDescription(uri))
+		}
+		for (uri : persistedIndex.previousURIs.filter[index.getResourceDescription(it) === null]) {
+			deltas += new DefaultResourceDescriptionDelta(persistedIndex.getPreviousDescription(uri), null)
+		}
+		val Set<URI> affected = newHashSet
+		affected += sourceResourceURIs.filter[changedURIs.contains(it)]
+		deltas = deltas.filter[haveEObjectDescriptionsChanged].toList
+		while (!deltas.empty) {
+			val List<IResourceDescription.Delta> newDeltas = newArrayList
+			for (uri : sourceResourceURIs) {
+				val manager = languageAccess(uri).resourceDescriptionManager
+				val description = index.getResourceDescription(uri)
+				if (!affected.contains(uri) && manager.isAffected(deltas, description, index)) {
+					affected += uri
+					val newDescription = SerializableResourceDescription.createCopy(
+						manager.getResourceDescription(resourceSet.getResource(uri, true)))
+					val delta = new DefaultResourceDescriptionDelta(description, newDescription)
+					index.addDescription(uri, newDescription)
+					indexChanged(resourceSet)
+					if (delta.haveEObjectDescriptionsChanged) {
+						newDeltas += delta
+					}
+				}
+			}
+			deltas = newDeltas
+		}
+		return sourceResourceURIs.filter[affected.contains(it)].toList
+	}
+
+	/**
+	 * Tells the caches of the resource set that its index has changed, since the index does not fire events. The cache
+	 * of the Java name environments is only attached if the optional org.eclipse.xtext.java bundle is used, thus its
+	 * class is not touched otherwise.
+	 */
+	def protected void indexChanged(XtextResourceSet resourceSet) {
+		AbstractRuntimeJvmTypeProvider.forgetNotFoundTypes(resourceSet)
+		if (resourceSet.eAdapters.exists[class.name == NAME_ENVIRONMENT_CACHE_ADAPTER]) {
+			NameEnvironmentCache.findInEmfObject(resourceSet)?.forgetIndexedPackages
+		}
+	}
+
+	/**
+	 * Computes a fingerprint of the Java sources and the class path. Changes to them do not yield deltas, thus an
+	 * incremental build validates and generates all source resources if the fingerprint differs from the previous one.
+	 */
+	def protected String computeJavaInputsKey() {
+		return new StubCache().computeCompilationKey(uniqueEntries(javaSourceDirs + sourceDirs), classPathEntries)
+	}
+
+	def protected File getGeneratedFilesFile() {
+		return new File(tempDir, "generated.bin")
+	}
+
+	def protected File getClassPathCacheFile() {
+		new File(tempDir, "classpath.bin")
+	}
+
+	def protected File getStubCacheFile() {
+		return new File(tempDir, "stubs.bin")
+	}
+
+	/**
+	 * Validates the given resources with {@link #numberOfThreads} workers and passes the issues to the
+	 * {@link IIssueHandler} in the order of the given URIs. Unless validation failed and
+	 * {@link #failOnValidationError} is set, the same workers run the generators afterwards.
+	 * If a {@link #clusteringConfig} is set, each worker generates a cluster right after it has been validated instead,
+	 * thus resources are not loaded again for generation. Clusters are not generated anymore as soon as a worker found
+	 * a validation error and {@link #failOnValidationError} is set, but the clusters that have been processed before
+	 * are already generated.
+	 * 
+	 * @param classLoader the class loader for the type providers of the workers or <code>null</code> if no language links against Java
+	 * @return <code>false</code> if some of processed resources contains severe validation issues. <code>true</code> otherwise
+	 */
+	def protected boolean validateAndGenerateInParallel(List<URI> sourceResourceURIs, ResourceDescriptionsData index,
+		ClassLoader classLoader, IResourceClusteringPolicy strategy) {
+		val workerURIs = partition(sourceResourceURIs)
+		val workerResourceSets = createWorkerResourceSets(workerURIs.size, index, classLoader)
+		val generateClusters = clusteringConfig !== null
+		val failed = new AtomicBoolean
+		val List<Callable<Map<URI, List<Issue>>>> validations = newArrayList
+		for (worker : 0 ..< workerURIs.size) {
+			val resourceSet = workerResourceSets.get(worker)
+			val uris = workerURIs.get(worker)
+			if (generateClusters)
+				validations += [|validateAndGenerateAll(resourceSet, uris, strategy, failed)]
+			else
+				validations += [|validateAll(resourceSet, uris, strategy)]
+		}
+		val Map<URI, List<Issue>> issues = newHashMap
+		for (result : runInParallel(validations)) {
+			issues.putAll(result)
+		}
+		var hasValidationErrors = false
+		for (uri : sourceResourceURIs) {
+			hasValidationErrors = !issueHandler.handleIssue(issues.get(uri)) || hasValidationErrors
+		}
+		if (failOnValidationError && hasValidationErrors || generateClusters) {
+			return !hasValidationErrors
+		}
+		val List<Callable<Boolean>> generations = newArrayList
+		for (worker : 0 ..< workerURIs.size) {
+			generations += [|generateAll(workerResourceSets.get(worker), workerURIs.get(worker), strategy); true]
+		}
+		runInParallel(generations)
+		return !hasValidationErrors
+	}
+
+	/**
+	 * Loads the given resources with {@link #numberOfThreads} workers and adds their descriptions to the
+	 * index in the order of the given URIs. The descriptions are copied, thus they don't refer to the
+	 * resources that the workers unload according to the clustering policy.
+	 * 
+	 * @param classPathRoots the class path for the type providers of the workers or <code>null</code> if no language links against Java
+	 */
+	def protected void fillIndexInParallel(List<URI> uris, ResourceDescriptionsData index,
+		Iterable<String> classPathRoots, IResourceClusteringPolicy strategy) {
+		val workerURIs = partition(uris)
+		val workerResourceSets = createWorkerResourceSets(workerURIs.size, null,
+			if (classPathRoots !== null) createURLClassLoader(classPathRoots))
+		val List<Callable<Map<URI, IResourceDescription>>> tasks = newArrayList
+		for (worker : 0 ..< workerURIs.size) {
+			tasks += [|describeAll(workerResourceSets.get(worker), workerURIs.get(worker), strategy)]
+		}
+		val Map<URI, IResourceDescription> descriptions = newHashMap
+		for (result : runInParallel(tasks)) {
+			descriptions.putAll(result)
+		}
+		for (uri : uris) {
+			index.addDescription(uri, descriptions.get(uri))
+		}
+	}
+
+	/**
+	 * Distributes the given URIs round robin to at most {@link #numberOfThreads} lists.
+	 */
+	def protected List<List<URI>> partition(List<URI> uris) {
+		val workerCount = Math.max(1, Math.min(numberOfThreads, uris.size))
+		val List<List<URI>> result = newArrayList
+		for (worker : 0 ..< workerCount) {
+			result += newArrayList
+		}
+		uris.forEach[uri, i|result.get(i % workerCount) += uri]
+		return result
+	}
+
+	def protected <T> List<T> runInParallel(List<Callable<T>> tasks) {
+		val executor = Executors.newFixedThreadPool(tasks.size)
+		try {
+			return executor.invokeAll(tasks).map[get].toList
+		} finally {
+			executor.shutdown
+		}
+	}
+
+	def protected List<XtextResourceSet> createWorkerResourceSets(int workerCount, ResourceDescriptionsData index,
+		ClassLoader classLoader) {
+		val typeFactory = if (classLoader !== null) createSharedTypeFactory(classLoader)
+		val List<XtextResourceSet> result = newArrayList
+		for (worker : 0 ..< workerCount) {
+			result += createWorkerResourceSet(index, classLoader, typeFactory)
+		}
+		return result
+	}
+
+	/**
+	 * @param index the index to install or <code>null</code> while the index is being filled. Like the sequential
+	 *        build, the type providers of the workers that fill the index don't get the {@link IndexedJvmTypeAccess}.
+	 * @param classLoader the class loader for the type provider or <code>null</code> if no language links against Java
+	 */
+	def protected XtextResourceSet createWorkerResourceSet(ResourceDescriptionsData index, ClassLoader classLoader,
+		ITypeFactory<BinaryClass, JvmDeclaredType> typeFactory) {
+		val workerResourceSet = resourceSetProvider.get
+		if (index !== null) {
+			installIndex(workerResourceSet, index)
+		}
+		if (classLoader !== null) {
+			val typeAccess = if (index !== null) jvmTypeAccess
+			new CachingClasspathTypeProvider(classLoader, workerResourceSet, typeAccess, typeFactory, null)
+			workerResourceSet.setClasspathURIContext(classLoader)
+		}
+		return workerResourceSet
+	}
+
+	/**
+	 * The returned factory is used concurrently by all workers. It caches the JVM types and
+	 * hands out copies of them. Class files are read through a size-bounded cache of their bytes.
+	 */
+	def protected ITypeFactory<BinaryClass, JvmDeclaredType> createSharedTypeFactory(ClassLoader classLoader) {
+		return new CachingDeclaredTypeFactory(new DeclaredTypeFactory(new BoundedClassFileBytesAccess, classLoader),
+			if (typeCacheDir !== null) new PersistentTypeCache(typeCacheDir))
+	}
+
+	def protected Map<URI, IResourceDescription> describeAll(XtextResourceSet resourceSet, List<URI> uris,
+		IResourceClusteringPolicy strategy) {
+		val Map<URI, IResourceDescription> result = newHashMap
+		var int clusterIndex = 0
+		for (uri : uris) {
+			val indexStarted = metrics.start
+			val resource = resourceSet.getResource(uri, true)
+			val description = languageAccess(uri).resourceDescriptionManager.getResourceDescription(resource)
+			result.put(uri, SerializableResourceDescription.createCopy(description))
+			metrics.stop(indexStarted, Phase.INDEX, uri)
+			clusterIndex++
+			if (!strategy.continueProcessing(resourceSet, null, clusterIndex)) {
+				resourceSet.clearResourceSet
+				clusterIndex = 0
+			}
+		}
+		return result
+	}
+
+	def protected Map<URI, List<Issue>> validateAll(XtextResourceSet resourceSet, List<URI> uris,
+		IResourceClusteringPolicy strategy) {
+		val Map<URI, List<Issue>> result = newHashMap
+		var int clusterIndex = 0
+		for (uri : uris) {
+			val resource = loadAndLink(resourceSet, uri)
+			result.put(uri, computeIssues(resource))
+			clusterIndex++
+			if (!strategy.continueProcessing(resourceSet, null, clusterIndex)) {
+				resourceSet.clearResourceSet
+				clusterIndex = 0
+			}
+		}
+		return result
+	}
+
+	/**
+	 * Validates the given resources and generates each cluster of them before the resource set is cleared.
+	 * 
+	 * @param failed set as soon as any worker found a validation error. If {@link #failOnValidationError} is set,
+	 * no further cluster is generated then.
+	 */
+	def protected Map<URI, List<Issue>> validateAndGenerateAll(XtextResourceSet resourceSet, List<URI> uris,
+		IResourceClusteringPolicy strategy, AtomicBoolean failed) {
+		val Map<URI, List<Issue>> result = newHashMap
+		val List<Resource> cluster = newArrayList
+		for (uri : uris) {
+			val resource = loadAndLink(resourceSet, uri)
+			val issues = computeIssues(resource)
+			result.put(uri, issues)
+			if (issues.exists[severity == Severity.ERROR])
+				failed.set(true)
+			cluster += resource
+			if (!strategy.continueProcessing(resourceSet, null, cluster.size)) {
+				generateCluster(cluster, failed)
+				resourceSet.clearResourceSet
+			}
+		}
+		generateCluster(cluster, failed)
+		return result
+	}
+
+	def private void generateCluster(List<Resource> cluster, AtomicBoolean failed) {
+		if ((!failOnValidationError || !failed.get) && !cluster.empty) {
+			generate(cluster)
+		}
+		cluster.clear
+	}
+
+	def protected void generateAll(XtextResourceSet resourceSet, List<URI> uris, IResourceClusteringPolicy strategy) {
+		var List<Resource> resources = newArrayList()
+		for (uri : uris) {
+			resources.add(resourceSet.getResource(uri, true))
+			if (!strategy.continueProcessing(resourceSet, null, resources.size)) {
+				generate(resources)
+				resourceSet.clearResourceSet
+				resources = newArrayList()
+			}
+		}
+		generate(resources)
+	}
+
+	def protected PersistedIndex readPersistedIndex() {
+		val file = persistedIndexFile
+		LOG.info("Reading persisted index from " + file.absolutePath)
+		return PersistedIndex.read(file, languages.keySet.sort.join(','))
+	}
+
+	def protected File getPersistedIndexFile() {
+		return new File(tempDir, "index.bin")
+	}
+
+	/**
+	 * Adds the persisted descriptions of unchanged resources to the index. The reused descriptions are
+	 * deserialized right away, since the index registers their exported objects when they are added.
+	 * 
+	 * @return the URIs of the resources that are new or have been changed since the index was persisted
+	 */
+	def protected List<URI> reusePersistedDescriptions(PersistedIndex persistedIndex, Iterable<URI> uris,
+		ResourceDescriptionsData index, ResourceSet resourceSet) {
+		val List<URI> changedURIs = newArrayList
+		for (uri : uris) {
+			val description = persistedIndex.getDescription(uri, resourceSet.URIConverter)
+			if (description !== null) {
+				index.addDescription(uri, description)
+			} else {
+				changedURIs += uri
+			}
+		}
+		LOG.info("Reusing " + index.allURIs.size + " descriptions from the persisted index.")
+		return changedURIs
+	}
+
 	def fillIndex(URI uri, Resource resource, ResourceDescriptionsData index) {
 		val description = languageAccess(uri).resourceDescriptionManager.getResourceDescription(resource)
 		index.addDescription(uri, description)
@@ -215,7 +816,17 @@ class StandaloneBuilder {
 		LOG.info("Compiling stubs located in " + stubsDir.absolutePath)
 		val sourcesToCompile = uniqueEntries(javaSourceDirs + sourceDirs + newArrayList(stubsDir.absolutePath))
 		forceDebugLog("Compiler source roots: " + sourcesToCompile.join(','))
+		val compilationKey = stubCache?.computeCompilationKey(sourcesToCompile, classPathEntries)
+		if (compilationKey !== null) {
+			if (stubCache.isCompiled(compilationKey, stubsClasses)) {
+				LOG.info("Stubs and Java sources did not change. Stubs compilation was skipped.")
+				return stubsClasses.absolutePath
+			}
+			// remove the classes of deleted stubs and Java files
+			org.eclipse.xtext.util.Files.sweepFolder(stubsClasses)
+		}
 		val result = compiler.compile(sourcesToCompile, stubsClasses)
+		stubCache?.setCompiled(if (result != CompilationResult.FAILED) compilationKey)
 		switch (result) {
 			case CompilationResult.SKIPPED:
 				LOG.info("Nothing to compile. Stubs compilation was skipped.")
@@ -227,6 +838,32 @@ class StandaloneBuilder {
 		return stubsClasses.absolutePath
 	}
 
+	/**
+	 * The in-memory compiler is only created in this mode since it requires the optional JDT and
+	 * org.eclipse.xtext.java bundles.
+	 * 
+	 * @return a class loader for the compiled stubs and Java sources
+	 */
+	def protected ClassLoader compileStubsInMemory(Map<String, CharSequence> stubs, ClassLoader parent) {
+		val inMemoryCompiler = injector.getInstance(InMemoryJavaCompiler)
+		inMemoryCompiler.configuration = compiler.configuration
+		inMemoryCompiler.classPath = classPathEntries
+		inMemoryCompiler.encoding = encoding
+		LOG.info("Compiling " + stubs.size + " stubs in memory")
+		val sourcesToCompile = uniqueEntries(javaSourceDirs + sourceDirs)
+		forceDebugLog("Compiler source roots: " + sourcesToCompile.join(','))
+		val Map<String, byte[]> result = newHashMap
+		switch (inMemoryCompiler.compile(stubs, sourcesToCompile, result)) {
+			case CompilationResult.SKIPPED:
+				LOG.info("Nothing to compile. Stubs compilation was skipped.")
+			case CompilationResult.FAILED:
+				forceDebugLog("Stubs compilation finished with errors.")
+			case CompilationResult.SUCCEEDED:
+				forceDebugLog("Stubs compilation successfully finished.")
+		}
+		return inMemoryCompiler.createClassLoader(result, parent)
+	}
+
 	def protected uniqueEntries(Iterable<String> pathes) {
 		pathes.map[new File(it).absolutePath].toSet
 	}
@@ -238,17 +875,56 @@ class StandaloneBuilder {
 			encodingProvider.setDefaultEncoding(encoding)
 		commonFileAccess.setOutputPath(IFileSystemAccess.DEFAULT_OUTPUT, stubsDir.absolutePath)
 		val generateStubs = sourceResourceURIs.filter[languageAccess.linksAgainstJava]
+		val stubAccess = stubCache?.createStubAccess(commonFileAccess, stubsDir) ?: commonFileAccess
 		generateStubs.forEach [
-			languageAccess.stubGenerator.doGenerateStubs(commonFileAccess, data.getResourceDescription(it))
+			languageAccess.stubGenerator.doGenerateStubs(stubAccess, data.getResourceDescription(it))
 		]
+		if (stubCache !== null) {
+			val deleted = stubCache.deleteStaleStubs(stubsDir)
+			if (deleted > 0)
+				LOG.info("Deleted " + deleted + " stale stubs.")
+		}
 		return stubsDir
 	}
 
+	/**
+	 * @return the sources of the stubs by their file name
+	 */
+	def protected Map<String, CharSequence> generateStubsInMemory(ResourceDescriptionsData data,
+		List<URI> sourceResourceURIs) {
+		val Map<String, CharSequence> result = newLinkedHashMap
+		val stubAccess = new IFileSystemAccess() {
+			override generateFile(String fileName, CharSequence contents) {
+				result.put(fileName, contents)
+			}
+
+			override generateFile(String fileName, String outputConfigurationName, CharSequence contents) {
+				result.put(fileName, contents)
+			}
+
+			override deleteFile(String fileName) {
+				result.remove(fileName)
+			}
+		}
+		val generateStubs = sourceResourceURIs.filter[languageAccess.linksAgainstJava]
+		generateStubs.forEach [
+			languageAccess.stubGenerator.doGenerateStubs(stubAccess, data.getResourceDescription(it))
+		]
+		return result
+	}
+
 	def protected boolean validate(Resource resource) {
+		val validationResult = computeIssues(resource)
+		return issueHandler.handleIssue(validationResult)
+	}
+
+	def protected List<Issue> computeIssues(Resource resource) {
 		LOG.info("Starting validation for input: '" + resource.getURI().lastSegment() + "'");
+		val validationStarted = metrics.start
 		val resourceValidator = languageAccess(resource.URI).getResourceValidator();
-		val validationResult = resourceValidator.validate(resource, CheckMode.ALL, null);
-		return issueHandler.handleIssue(validationResult)
+		val result = resourceValidator.validate(resource, CheckMode.ALL, null);
+		metrics.stop(validationStarted, Phase.VALIDATE, resource.URI)
+		return result
 	}
 
 	def protected generate(List<Resource> sourceResources) {
@@ -259,14 +935,32 @@ class StandaloneBuilder {
 			registerCurrentSource(it.URI)
 			val access = URI.languageAccess
 			val fileSystemAccess = access.fileSystemAccess
-			if (isWriteStorageResources) {
-				switch it {
-					StorageAwareResource case resourceStorageFacade !== null: {
-						resourceStorageFacade.saveResource(it, fileSystemAccess)
+			val previouslyGenerated = generatedFiles?.removeSource(URI)
+			val originalCallBack = if (generatedFiles !== null) fileSystemAccess.installedCallBack
+			if (generatedFiles !== null) {
+				fileSystemAccess.callBack = generatedFiles.recordGeneratedFiles(URI, originalCallBack)
+			}
+			try {
+				if (isWriteStorageResources) {
+					switch it {
+						StorageAwareResource case resourceStorageFacade !== null: {
+							val storageStarted = metrics.start
+							resourceStorageFacade.saveResource(it, fileSystemAccess)
+							metrics.stop(storageStarted, Phase.STORAGE, URI)
+						}
 					}
 				}
+				val generationStarted = metrics.start
+				access.generator.generate(it, fileSystemAccess, context);
+				metrics.stop(generationStarted, Phase.GENERATE, URI)
+			} finally {
+				if (generatedFiles !== null) {
+					fileSystemAccess.callBack = originalCallBack
+				}
+			}
+			if (previouslyGenerated !== null) {
+				generatedFiles.deleteStaleFiles(URI, previouslyGenerated, fileSystemAccess.nonOverridingOutputDirectories)
 			}
-			access.generator.generate(it, fileSystemAccess, context);
 		}
 	}
 
@@ -293,18 +987,39 @@ class StandaloneBuilder {
 		}
 	}
 
-	Map<LanguageAccess, JavaIoFileSystemAccess> configuredFsas = newHashMap()
+	/** The current source of a file system access is mutable thus each worker thread uses its own instances. */
+	ThreadLocal<Map<LanguageAccess, JavaIoFileSystemAccess>> configuredFsas = ThreadLocal.withInitial[newHashMap()]
 
 	private def getFileSystemAccess(LanguageAccess language) {
-		var fsa = configuredFsas.get(language)
+		val fsas = configuredFsas.get
+		var fsa = fsas.get(language)
 		if (fsa === null) {
 			fsa = language.createFileSystemAccess(new File(baseDir))
 			fsa = fsa.configureFileSystemAccess(language)
-			configuredFsas.put(language, fsa)
+			fsas.put(language, fsa)
 		}
 		return fsa
 	}
 
+	/**
+	 * @return the callback that has been installed in the given file system access, e.g. by
+	 *         {@link #configureFileSystemAccess(JavaIoFileSystemAccess, LanguageAccess)}, which does not expose it.
+	 */
+	def private IFileCallback getInstalledCallBack(JavaIoFileSystemAccess fsa) {
+		try {
+			val field = JavaIoFileSystemAccess.getDeclaredField('callBack')
+			field.accessible = true
+			return field.get(fsa) as IFileCallback
+		} catch (ReflectiveOperationException e) {
+			LOG.warn("Could not read the callback of the file system access.", e)
+			return null
+		}
+	}
+
+	def private Set<String> getNonOverridingOutputDirectories(JavaIoFileSystemAccess fsa) {
+		return fsa.outputConfigurations.values.filter[!overrideExistingResources].map[outputDirectories].flatten.toSet
+	}
+
 	protected def configureFileSystemAccess(JavaIoFileSystemAccess fsa, LanguageAccess language) {
 		fsa
 	}
@@ -321,8 +1036,16 @@ class StandaloneBuilder {
 
 	def protected void installTypeProvider(Iterable<String> classPathRoots, XtextResourceSet resSet,
 		IndexedJvmTypeAccess typeAccess) {
-		val classLoader = createURLClassLoader(classPathRoots)
-		new ClasspathTypeProvider(classLoader, resSet, typeAccess, null)
+		installTypeProvider(createURLClassLoader(classPathRoots), resSet, typeAccess)
+	}
+
+	def protected void installTypeProvider(ClassLoader classLoader, XtextResourceSet resSet,
+		IndexedJvmTypeAccess typeAccess) {
+		if (typeCacheDir !== null) {
+			new CachingClasspathTypeProvider(classLoader, resSet, typeAccess, createSharedTypeFactory(classLoader), null)
+		} else {
+			new ClasspathTypeProvider(classLoader, resSet, typeAccess, null)
+		}
 		resSet.setClasspathURIContext(classLoader);
 	}
 
@@ -331,66 +1054,30 @@ class StandaloneBuilder {
 		return new URLClassLoader(classPathUrls)
 	}
 
+	/**
+	 * Collects the model files of the given roots with {@link #numberOfThreads} workers. The contents of jars are
+	 * cached by their path, size and modification time, and persisted with the index.
+	 */
 	def protected List<URI> collectResources(Iterable<String> roots, ResourceSet resourceSet) {
-		val extensions = languages.keySet.join("|")
-		val nameBasedFilter = new NameBasedFilter
-
-		// TODO test with whitespaced file extensions
-		nameBasedFilter.setRegularExpression(".*\\.(?:(" + extensions + "))$");
+		val scannedRoots = classPathScanner.scan(roots, languages.keySet, numberOfThreads)
 		val List<URI> resources = newArrayList();
-
-		val modelsFound = new PathTraverser().resolvePathes(
-			roots.toList,
-			[ input |
-				val matches = nameBasedFilter.matches(input)
-				if (matches) {
-					forceDebugLog("Adding file '" + input + "'");
-					resources.add(input);
-				}
-				return matches
-			]
-		)
-		modelsFound.asMap.forEach [ uri, resource |
-			val file = new File(uri)
-			if (resource !== null && !file.directory && file.name.endsWith(".jar")) {
-				registerBundle(file)
+		for (root : scannedRoots) {
+			for (uri : root.URIs) {
+				forceDebugLog("Adding file '" + uri + "'");
+				resources.add(uri);
 			}
-		]
+		}
+		ClassPathScanner.registerBundles(scannedRoots) [ file, name | registerBundle(file, name) ]
 		return resources;
 	}
 
-	def protected registerBundle(File file) {
-
-		// copied from org.eclipse.emf.mwe.utils.StandaloneSetup.registerBundle(File)
-		var JarFile jarFile = null;
-		try {
-			jarFile = new JarFile(file);
-			val Manifest manifest = jarFile.getManifest();
-			if (manifest === null)
-				return;
-			var String name = manifest.getMainAttributes().getValue("Bundle-SymbolicName");
-			if (name !== null) {
-				val int indexOf = name.indexOf(';');
-				if (indexOf > 0)
-					name = name.substring(0, indexOf);
-				if (EcorePlugin.getPlatformResourceMap().containsKey(name))
-					return;
-				val String path = "archive:" + file.toURI() + "!/";
-				val URI uri = URI.createURI(path);
-				EcorePlugin.getPlatformResourceMap().put(name, uri);
-			}
-		} catch (ZipException e) {
-			forceDebugLog("Could not open Jar file " + file.getAbsolutePath() + ".");
-		} catch (Exception e) {
-			LOG.error(file.absolutePath, e);
-		} finally {
-			try {
-				if (jarFile !== null)
-					jarFile.close();
-			} catch (IOException e) {
-				LOG.error(jarFile, e);
-			}
-		}
+	/**
+	 * Registers a jar that contains model files as a bundle. The symbolic name has already been read from its
+	 * manifest by the {@link ClassPathScanner}.
+	 * @since 2.14
+	 */
+	def protected void registerBundle(File file, String bundleSymbolicName) {
+		ClassPathScanner.registerBundle(file, bundleSymbolicName)
 	}
 
 	def getCompiler() {
@@ -0,0 +1,274 @@
+/*******************************************************************************
+ * Copyright (c) 2018 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.builder.standalone.compiler;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.log4j.Logger;
+import org.eclipse.jdt.core.compiler.CategorizedProblem;
+import org.eclipse.jdt.internal.compiler.ClassFile;
+import org.eclipse.jdt.internal.compiler.Compiler;
+import org.eclipse.jdt.internal.compiler.DefaultErrorHandlingPolicies;
+import org.eclipse.jdt.internal.compiler.ICompilerRequestor;
+import org.eclipse.jdt.internal.compiler.batch.CompilationUnit;
+import org.eclipse.jdt.internal.compiler.classfmt.ClassFileReader;
+import org.eclipse.jdt.internal.compiler.classfmt.ClassFormatException;
+import org.eclipse.jdt.internal.compiler.env.ICompilationUnit;
+import org.eclipse.jdt.internal.compiler.env.INameEnvironment;
+import org.eclipse.jdt.internal.compiler.env.NameEnvironmentAnswer;
+import org.eclipse.jdt.internal.compiler.impl.CompilerOptions;
+import org.eclipse.jdt.internal.compiler.problem.DefaultProblemFactory;
+import org.eclipse.xtext.builder.standalone.compiler.IJavaCompiler.CompilationResult;
+import org.eclipse.xtext.java.resource.InMemoryClassLoader;
+import org.eclipse.xtext.util.Strings;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.inject.Inject;
+
+/**
+ * Compiles Java sources that are given in memory, e.g. the stubs of the Xtext resources, together with the Java
+ * files of some source roots. The class files are kept in memory and can be loaded with an
+ * {@link InMemoryClassLoader}.
+ *
+ * <p>
+ * This class requires the JDT compiler and org.eclipse.xtext.java, which are optional dependencies of the standalone
+ * builder. Thus it should only be instantiated if stubs are compiled in memory.
+ * </p>
+ *
+ * @since 2.14
+ */
+public class InMemoryJavaCompiler {
+
+	private static final Logger LOG = Logger.getLogger(InMemoryJavaCompiler.class);
+
+	@Inject
+	private CompilerConfiguration configuration;
+
+	private Iterable<String> classPath;
+
+	private String encoding;
+
+	/**
+	 * @param sources
+	 *            the in memory sources by their file name, e.g. <code>org/example/Foo.java</code>
+	 * @param sourceRoots
+	 *            folders that contain further Java files to compile
+	 * @param classFiles
+	 *            receives the bytes of the compiled classes by their binary name
+	 */
+	public CompilationResult compile(Map<String, ? extends CharSequence> sources, Iterable<String> sourceRoots,
+			final Map<String, byte[]> classFiles) {
+		List<ICompilationUnit> units = Lists.newArrayList();
+		Set<String> sourceTypes = Sets.newHashSet();
+		for (Map.Entry<String, ? extends CharSequence> source : sources.entrySet()) {
+			units.add(new CompilationUnit(source.getValue().toString().toCharArray(), source.getKey(), encoding));
+			sourceTypes.add(toTypePath(source.getKey()));
+		}
+		for (String root : sourceRoots) {
+			collectJavaFiles(new File(root), "", units, sourceTypes);
+		}
+		if (units.isEmpty()) {
+			return CompilationResult.SKIPPED;
+		}
+		final boolean[] hasErrors = new boolean[1];
+		ICompilerRequestor requestor = new ICompilerRequestor() {
+			@Override
+			public void acceptResult(org.eclipse.jdt.internal.compiler.CompilationResult result) {
+				if (result.hasErrors()) {
+					hasErrors[0] = true;
+					if (configuration.isVerbose()) {
+						for (CategorizedProblem problem : result.getErrors()) {
+							LOG.warn(new String(problem.getOriginatingFileName()) + ":" + problem.getSourceLineNumber()
+									+ ": " + problem.getMessage());
+						}
+					}
+				}
+				for (ClassFile classFile : result.getClassFiles()) {
+					classFiles.put(Strings.concat(".", toStrings(classFile.getCompoundName())), classFile.getBytes());
+				}
+			}
+		};
+		try (URLClassLoader classPathLoader = createClassPathLoader()) {
+			ClassLoaderNameEnvironment nameEnvironment = new ClassLoaderNameEnvironment(classPathLoader, sourceTypes);
+			try {
+				Compiler compiler = new Compiler(nameEnvironment, DefaultErrorHandlingPolicies.proceedWithAllProblems(),
+						createCompilerOptions(), requestor, new DefaultProblemFactory());
+				compiler.compile(units.toArray(new ICompilationUnit[units.size()]));
+			} finally {
+				nameEnvironment.cleanup();
+			}
+		} catch (IOException e) {
+			LOG.warn("Could not close the class path of the compiler.", e);
+		}
+		return hasErrors[0] ? CompilationResult.FAILED : CompilationResult.SUCCEEDED;
+	}
+
+	/**
+	 * @param classFiles
+	 *            the bytes of compiled classes by their binary name
+	 * @return a class loader for the given classes
+	 */
+	public ClassLoader createClassLoader(Map<String, byte[]> classFiles, ClassLoader parent) {
+		return new InMemoryClassLoader(classFiles, parent);
+	}
+
+	protected CompilerOptions createCompilerOptions() {
+		Map<String, String> settings = Maps.newHashMap();
+		settings.put(CompilerOptions.OPTION_Source, configuration.getSourceLevel());
+		settings.put(CompilerOptions.OPTION_Compliance, configuration.getSourceLevel());
+		settings.put(CompilerOptions.OPTION_TargetPlatform, configuration.getTargetLevel());
+		return new CompilerOptions(settings);
+	}
+
+	/**
+	 * The class path is looked up without the classes of the running VM except for the JDK. The loader is closed once
+	 * the compilation is done.
+	 */
+	protected URLClassLoader createClassPathLoader() {
+		List<URL> urls = Lists.newArrayList();
+		if (classPath != null) {
+			for (String entry : classPath) {
+				File file = new File(entry);
+				if (file.exists()) {
+					try {
+						urls.add(file.toURI().toURL());
+					} catch (MalformedURLException e) {
+						LOG.warn("Skipping class path entry '" + entry + "'.", e);
+					}
+				}
+			}
+		}
+		return new URLClassLoader(urls.toArray(new URL[urls.size()]), null);
+	}
+
+	private void collectJavaFiles(File file, String path, List<ICompilationUnit> units, Set<String> sourceTypes) {
+		if (file.isDirectory()) {
+			File[] children = file.listFiles();
+			if (children != null) {
+				for (File child : children) {
+					String childPath = path.isEmpty() ? child.getName() : path + "/" + child.getName();
+					collectJavaFiles(child, childPath, units, sourceTypes);
+				}
+			}
+		} else if (file.isFile() && file.getName().endsWith(".java")) {
+			units.add(new CompilationUnit(null, file.getAbsolutePath(), encoding));
+			sourceTypes.add(toTypePath(path));
+		}
+	}
+
+	private static String toTypePath(String fileName) {
+		String result = fileName.replace('\\', '/');
+		if (result.startsWith("/")) {
+			result = result.substring(1);
+		}
+		return result.substring(0, result.length() - ".java".length());
+	}
+
+	private static List<String> toStrings(char[][] segments) {
+		List<String> result = Lists.newArrayListWithCapacity(segments.length);
+		for (char[] segment : segments) {
+			result.add(String.valueOf(segment));
+		}
+		return result;
+	}
+
+	public void setClassPath(Iterable<String> classPath) {
+		this.classPath = classPath;
+	}
+
+	/**
+	 * @param encoding
+	 *            the encoding of the Java files or <code>null</code> for the platform encoding
+	 */
+	public void setEncoding(String encoding) {
+		this.encoding = encoding;
+	}
+
+	public CompilerConfiguration getConfiguration() {
+		return configuration;
+	}
+
+	public void setConfiguration(CompilerConfiguration configuration) {
+		this.configuration = configuration;
+	}
+
+	/**
+	 * Looks up binary types through a class loader. A name denotes a package if there is neither a binary type nor a
+	 * compiled source type with that name.
+	 */
+	protected static class ClassLoaderNameEnvironment implements INameEnvironment {
+
+		private final ClassLoader classLoader;
+
+		private final Set<String> sourceTypes;
+
+		private final Map<String, NameEnvironmentAnswer> cache = Maps.newHashMap();
+
+		protected ClassLoaderNameEnvironment(ClassLoader classLoader, Set<String> sourceTypes) {
+			this.classLoader = classLoader;
+			this.sourceTypes = sourceTypes;
+		}
+
+		@Override
+		public NameEnvironmentAnswer findType(char[][] compoundTypeName) {
+			return findType(Strings.concat("/", toStrings(compoundTypeName)));
+		}
+
+		@Override
+		public NameEnvironmentAnswer findType(char[] typeName, char[][] packageName) {
+			return findType(toPath(packageName, typeName));
+		}
+
+		@Override
+		public boolean isPackage(char[][] parentPackageName, char[] packageName) {
+			String path = toPath(parentPackageName, packageName);
+			return !sourceTypes.contains(path) && findType(path) == null;
+		}
+
+		protected NameEnvironmentAnswer findType(String path) {
+			if (cache.containsKey(path)) {
+				return cache.get(path);
+			}
+			NameEnvironmentAnswer result = null;
+			String fileName = path + ".class";
+			URL url = classLoader.getResource(fileName);
+			if (url != null) {
+				try (InputStream in = url.openStream()) {
+					result = new NameEnvironmentAnswer(ClassFileReader.read(in, fileName), null);
+				} catch (IOException | ClassFormatException e) {
+					LOG.warn("Could not read '" + url + "'.", e);
+				}
+			}
+			cache.put(path, result);
+			return result;
+		}
+
+		private String toPath(char[][] packageName, char[] name) {
+			if (packageName == null || packageName.length == 0) {
+				return String.valueOf(name);
+			}
+			return Strings.concat("/", toStrings(packageName)) + "/" + String.valueOf(name);
+		}
+
+		@Override
+		public void cleanup() {
+			cache.clear();
+		}
+	}
+
+}
@@ -0,0 +1,308 @@
+/*******************************************************************************
+ * Copyright (c) 2018 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.builder.standalone.daemon;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import org.apache.log4j.Logger;
+import org.eclipse.xtext.builder.standalone.IIssueHandler;
+import org.eclipse.xtext.builder.standalone.LanguageAccess;
+import org.eclipse.xtext.builder.standalone.StandaloneBuilder;
+import org.eclipse.xtext.validation.Issue;
+
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+
+/**
+ * A long-lived build server that keeps the languages and a {@link StandaloneBuilder} per project between builds. The
+ * builders run in {@link StandaloneBuilder#setIncremental(boolean) incremental} mode, thus subsequent builds of a
+ * project only process changed and affected resources with warmed up injectors and a warmed up JIT.
+ *
+ * <p>
+ * Build tools send {@link BuildRequest}s with a {@link BuildDaemonClient} over a local socket and receive a
+ * {@link BuildResult} with the validation issues. The daemon only accepts connections from the loopback interface and
+ * processes one request at a time. Each request has to carry a random token that the daemon writes to a file that only
+ * the current user may read. A request that is not received within the {@link #setRequestTimeout(int) request
+ * timeout} is rejected, thus a client that does not finish its request cannot block the daemon.
+ * </p>
+ *
+ * <p>
+ * The daemon keeps the builders of the {@link #setMaximumBuilders(int) most recently built} projects only.
+ * </p>
+ *
+ * <p>
+ * Every build uses a fresh class loader since the class path and the compiled stubs may change between builds. The JVM
+ * types that are read from class files are kept warm by a persistent type cache in the temp dir of each project, and
+ * the package index of the jars is shared by all class loaders of the process as long as the jars do not change.
+ * </p>
+ *
+ * @since 2.14
+ */
+public class BuildDaemon {
+
+	private static final Logger LOG = Logger.getLogger(BuildDaemon.class);
+
+	public static final String COMMAND = "command";
+	public static final String COMMAND_BUILD = "build";
+	public static final String COMMAND_SHUTDOWN = "shutdown";
+	public static final String SUCCESS = "success";
+	public static final String ERROR = "error";
+	public static final String TOKEN = "token";
+
+	public static final int DEFAULT_REQUEST_TIMEOUT = 10000;
+
+	public static final int DEFAULT_MAXIMUM_BUILDERS = 16;
+
+	@Inject
+	private Provider<StandaloneBuilder> builderProvider;
+
+	private Map<String, LanguageAccess> languages;
+
+	private int requestTimeout = DEFAULT_REQUEST_TIMEOUT;
+
+	private int maximumBuilders = DEFAULT_MAXIMUM_BUILDERS;
+
+	@SuppressWarnings("serial")
+	private final Map<String, StandaloneBuilder> builders = new LinkedHashMap<String, StandaloneBuilder>(16, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, StandaloneBuilder> eldest) {
+			return size() > maximumBuilders;
+		}
+	};
+
+	private ServerSocket serverSocket;
+
+	private String token;
+
+	private File tokenFile;
+
+	/**
+	 * Binds the daemon to the given port of the loopback interface and writes a new token to the given file.
+	 *
+	 * @param port
+	 *            the port or <code>0</code> to choose a free one
+	 * @param tokenFile
+	 *            the file that receives the token a {@link BuildDaemonClient} has to send with its requests. It is
+	 *            readable by the current user only and deleted when the daemon stops.
+	 * @return the port the daemon is listening on
+	 */
+	public int start(int port, File tokenFile) throws IOException {
+		byte[] secret = new byte[32];
+		new SecureRandom().nextBytes(secret);
+		StringBuilder hex = new StringBuilder(secret.length * 2);
+		for (byte b : secret) {
+			hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+		}
+		token = hex.toString();
+		this.tokenFile = tokenFile;
+		writeToken(tokenFile.toPath(), token);
+		serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+		LOG.info("Build daemon listening on port " + serverSocket.getLocalPort());
+		return serverSocket.getLocalPort();
+	}
+
+	/**
+	 * Creates the token file with owner-only permissions before the token is written to it.
+	 */
+	protected void writeToken(Path path, String token) throws IOException {
+		Files.deleteIfExists(path);
+		try {
+			Files.createFile(path, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+		} catch (UnsupportedOperationException e) {
+			Files.createFile(path);
+			File file = path.toFile();
+			file.setReadable(false, false);
+			file.setWritable(false, false);
+			file.setReadable(true, true);
+			file.setWritable(true, true);
+		}
+		Files.write(path, token.getBytes(StandardCharsets.US_ASCII));
+	}
+
+	/**
+	 * Processes requests until a shutdown request is received or {@link #stop()} is called.
+	 */
+	public void serve() throws IOException {
+		try {
+			while (!serverSocket.isClosed()) {
+				try (Socket socket = serverSocket.accept()) {
+					if (!handle(socket)) {
+						break;
+					}
+				} catch (SocketException e) {
+					if (!serverSocket.isClosed()) {
+						LOG.warn("Connection failed.", e);
+					}
+				}
+			}
+		} finally {
+			stop();
+		}
+	}
+
+	public void stop() {
+		if (serverSocket != null && !serverSocket.isClosed()) {
+			try {
+				serverSocket.close();
+			} catch (IOException e) {
+				LOG.warn("Could not close build daemon socket.", e);
+			}
+		}
+		if (tokenFile != null) {
+			tokenFile.delete();
+		}
+	}
+
+	/**
+	 * @return <code>false</code> if the daemon has been asked to shut down
+	 */
+	protected boolean handle(Socket socket) throws IOException {
+		Properties request = new Properties();
+		Properties response = new Properties();
+		boolean proceed = true;
+		boolean timedOut = false;
+		socket.setSoTimeout(requestTimeout);
+		try {
+			request.load(socket.getInputStream());
+		} catch (SocketTimeoutException e) {
+			timedOut = true;
+		}
+		String command = request.getProperty(COMMAND, COMMAND_BUILD);
+		if (timedOut) {
+			LOG.warn("Rejecting request that has not been received within " + requestTimeout + " ms.");
+			response.setProperty(SUCCESS, "false");
+			response.setProperty(ERROR, "Request timed out");
+		} else if (!isValidToken(request.getProperty(TOKEN))) {
+			LOG.warn("Rejecting request with an invalid token.");
+			response.setProperty(SUCCESS, "false");
+			response.setProperty(ERROR, "Invalid token");
+		} else if (COMMAND_SHUTDOWN.equals(command)) {
+			LOG.info("Shutting down build daemon.");
+			response.setProperty(SUCCESS, "true");
+			proceed = false;
+		} else if (COMMAND_BUILD.equals(command)) {
+			try {
+				build(BuildRequest.fromProperties(request)).toProperties(response);
+			} catch (RuntimeException e) {
+				LOG.error("Build failed.", e);
+				response.setProperty(SUCCESS, "false");
+				response.setProperty(ERROR, String.valueOf(e.getMessage()));
+			}
+		} else {
+			response.setProperty(SUCCESS, "false");
+			response.setProperty(ERROR, "Unknown command '" + command + "'");
+		}
+		response.store(socket.getOutputStream(), null);
+		socket.getOutputStream().flush();
+		return proceed;
+	}
+
+	protected boolean isValidToken(String candidate) {
+		return candidate != null && token != null && MessageDigest.isEqual(
+				candidate.getBytes(StandardCharsets.US_ASCII), token.getBytes(StandardCharsets.US_ASCII));
+	}
+
+	/**
+	 * Builds the project of the request with the builder that is kept for its base dir.
+	 *
+	 * @return whether the build succeeded and the issues that were passed to the issue handler of the builder
+	 */
+	public synchronized BuildResult build(BuildRequest request) {
+		long startedAt = System.currentTimeMillis();
+		StandaloneBuilder builder = getBuilder(request);
+		builder.setSourceDirs(request.getSourceDirs());
+		builder.setJavaSourceDirs(request.getJavaSourceDirs());
+		builder.setClassPathEntries(request.getClassPathEntries());
+		builder.setEncoding(request.getEncoding());
+		builder.setFailOnValidationError(request.isFailOnValidationError());
+		builder.setNumberOfThreads(request.getNumberOfThreads());
+		List<Issue> issues = Lists.newArrayList();
+		IIssueHandler issueHandler = builder.getIssueHandler();
+		builder.setIssueHandler(newIssues -> {
+			Iterables.addAll(issues, newIssues);
+			return issueHandler.handleIssue(newIssues);
+		});
+		boolean success;
+		try {
+			success = builder.launch();
+		} finally {
+			builder.setIssueHandler(issueHandler);
+		}
+		LOG.info("Built '" + request.getBaseDir() + "' in " + (System.currentTimeMillis() - startedAt) + " ms.");
+		return new BuildResult(success, issues);
+	}
+
+	protected StandaloneBuilder getBuilder(BuildRequest request) {
+		String key = new File(request.getBaseDir()).getAbsolutePath();
+		StandaloneBuilder builder = builders.get(key);
+		if (builder == null || request.getTempDir() != null && !new File(request.getTempDir()).equals(builder.getTempDir())) {
+			builder = builderProvider.get();
+			builder.setLanguages(languages);
+			builder.setBaseDir(request.getBaseDir());
+			builder.setIncremental(true);
+			if (request.getTempDir() != null) {
+				builder.setTempDir(new File(request.getTempDir()));
+			}
+			builder.setTypeCacheDir(new File(builder.getTempDir(), "types"));
+			builders.put(key, builder);
+		}
+		return builder;
+	}
+
+	public Map<String, LanguageAccess> getLanguages() {
+		return languages;
+	}
+
+	public void setLanguages(Map<String, LanguageAccess> languages) {
+		this.languages = languages;
+	}
+
+	public int getRequestTimeout() {
+		return requestTimeout;
+	}
+
+	/**
+	 * @param requestTimeout
+	 *            the milliseconds a client may take to send its request. The build itself is not limited.
+	 */
+	public void setRequestTimeout(int requestTimeout) {
+		this.requestTimeout = requestTimeout;
+	}
+
+	public int getMaximumBuilders() {
+		return maximumBuilders;
+	}
+
+	/**
+	 * @param maximumBuilders
+	 *            the number of projects whose builders are kept. The builder of the least recently built project is
+	 *            discarded first.
+	 */
+	public synchronized void setMaximumBuilders(int maximumBuilders) {
+		this.maximumBuilders = maximumBuilders;
+	}
+
+}
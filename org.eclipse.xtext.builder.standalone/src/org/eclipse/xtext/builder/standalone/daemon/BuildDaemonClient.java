@@ -0,0 +1,73 @@
+/*******************************************************************************
+ * Copyright (c) 2018 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.builder.standalone.daemon;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Properties;
+
+/**
+ * Sends requests to a {@link BuildDaemon} that runs on the same machine.
+ *
+ * @since 2.14
+ */
+public class BuildDaemonClient {
+
+	private final int port;
+
+	private final String token;
+
+	/**
+	 * @param tokenFile
+	 *            the file the daemon has written its token to
+	 */
+	public BuildDaemonClient(int port, File tokenFile) throws IOException {
+		this.port = port;
+		this.token = new String(Files.readAllBytes(tokenFile.toPath()), StandardCharsets.US_ASCII).trim();
+	}
+
+	/**
+	 * @return whether the build succeeded and the validation issues that were found
+	 * @throws IOException
+	 *             if the daemon could not be reached or rejected the request
+	 */
+	public BuildResult build(BuildRequest request) throws IOException {
+		Properties properties = request.toProperties();
+		properties.setProperty(BuildDaemon.COMMAND, BuildDaemon.COMMAND_BUILD);
+		Properties response = send(properties);
+		if (response.getProperty(BuildDaemon.ERROR) != null) {
+			throw new IOException("Build daemon failed: " + response.getProperty(BuildDaemon.ERROR));
+		}
+		return BuildResult.fromProperties(response);
+	}
+
+	public void shutdown() throws IOException {
+		Properties properties = new Properties();
+		properties.setProperty(BuildDaemon.COMMAND, BuildDaemon.COMMAND_SHUTDOWN);
+		Properties response = send(properties);
+		if (response.getProperty(BuildDaemon.ERROR) != null) {
+			throw new IOException("Build daemon failed: " + response.getProperty(BuildDaemon.ERROR));
+		}
+	}
+
+	protected Properties send(Properties request) throws IOException {
+		request.setProperty(BuildDaemon.TOKEN, token);
+		try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+			request.store(socket.getOutputStream(), null);
+			socket.shutdownOutput();
+			Properties response = new Properties();
+			response.load(socket.getInputStream());
+			return response;
+		}
+	}
+
+}
@@ -0,0 +1,143 @@
+/*******************************************************************************
+ * Copyright (c) 2018 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.builder.standalone.daemon;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+import org.eclipse.xtext.util.Strings;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.Lists;
+
+/**
+ * The settings of a project that a {@link BuildDaemon} is asked to build. A request is transferred as
+ * {@link Properties}, lists of paths are separated by the {@link File#pathSeparator}.
+ *
+ * @since 2.14
+ */
+public class BuildRequest {
+
+	private String baseDir;
+	private List<String> sourceDirs = Collections.emptyList();
+	private List<String> javaSourceDirs = Collections.emptyList();
+	private List<String> classPathEntries = Collections.emptyList();
+	private String tempDir;
+	private String encoding;
+	private boolean failOnValidationError = true;
+	private int numberOfThreads = 1;
+
+	public Properties toProperties() {
+		Properties result = new Properties();
+		put(result, "baseDir", baseDir);
+		put(result, "sourceDirs", Strings.concat(File.pathSeparator, sourceDirs));
+		put(result, "javaSourceDirs", Strings.concat(File.pathSeparator, javaSourceDirs));
+		put(result, "classPathEntries", Strings.concat(File.pathSeparator, classPathEntries));
+		put(result, "tempDir", tempDir);
+		put(result, "encoding", encoding);
+		put(result, "failOnValidationError", String.valueOf(failOnValidationError));
+		put(result, "numberOfThreads", String.valueOf(numberOfThreads));
+		return result;
+	}
+
+	public static BuildRequest fromProperties(Properties properties) {
+		BuildRequest result = new BuildRequest();
+		result.setBaseDir(properties.getProperty("baseDir"));
+		result.setSourceDirs(split(properties.getProperty("sourceDirs")));
+		result.setJavaSourceDirs(split(properties.getProperty("javaSourceDirs")));
+		result.setClassPathEntries(split(properties.getProperty("classPathEntries")));
+		result.setTempDir(properties.getProperty("tempDir"));
+		result.setEncoding(properties.getProperty("encoding"));
+		result.setFailOnValidationError(Boolean.parseBoolean(properties.getProperty("failOnValidationError", "true")));
+		result.setNumberOfThreads(Integer.parseInt(properties.getProperty("numberOfThreads", "1")));
+		return result;
+	}
+
+	private static void put(Properties properties, String key, String value) {
+		if (value != null) {
+			properties.setProperty(key, value);
+		}
+	}
+
+	private static List<String> split(String paths) {
+		if (Strings.isEmpty(paths)) {
+			return Collections.emptyList();
+		}
+		return Lists.newArrayList(Splitter.on(File.pathSeparator).omitEmptyStrings().split(paths));
+	}
+
+	public String getBaseDir() {
+		return baseDir;
+	}
+
+	public void setBaseDir(String baseDir) {
+		this.baseDir = baseDir;
+	}
+
+	public List<String> getSourceDirs() {
+		return sourceDirs;
+	}
+
+	public void setSourceDirs(List<String> sourceDirs) {
+		this.sourceDirs = sourceDirs;
+	}
+
+	public List<String> getJavaSourceDirs() {
+		return javaSourceDirs;
+	}
+
+	public void setJavaSourceDirs(List<String> javaSourceDirs) {
+		this.javaSourceDirs = javaSourceDirs;
+	}
+
+	public List<String> getClassPathEntries() {
+		return classPathEntries;
+	}
+
+	public void setClassPathEntries(List<String> classPathEntries) {
+		this.classPathEntries = classPathEntries;
+	}
+
+	/**
+	 * @return the temp dir for the persisted build state or <code>null</code> if the daemon may choose one
+	 */
+	public String getTempDir() {
+		return tempDir;
+	}
+
+	public void setTempDir(String tempDir) {
+		this.tempDir = tempDir;
+	}
+
+	public String getEncoding() {
+		return encoding;
+	}
+
+	public void setEncoding(String encoding) {
+		this.encoding = encoding;
+	}
+
+	public boolean isFailOnValidationError() {
+		return failOnValidationError;
+	}
+
+	public void setFailOnValidationError(boolean failOnValidationError) {
+		this.failOnValidationError = failOnValidationError;
+	}
+
+	public int getNumberOfThreads() {
+		return numberOfThreads;
+	}
+
+	public void setNumberOfThreads(int numberOfThreads) {
+		this.numberOfThreads = numberOfThreads;
+	}
+
+}
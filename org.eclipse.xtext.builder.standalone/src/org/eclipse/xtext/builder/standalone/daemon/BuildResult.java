@@ -0,0 +1,114 @@
+/*******************************************************************************
+ * Copyright (c) 2018 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.builder.standalone.daemon;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.xtext.diagnostics.Severity;
+import org.eclipse.xtext.validation.Issue;
+
+import com.google.common.collect.Lists;
+
+/**
+ * The outcome of a build that a {@link BuildDaemon} ran for a {@link BuildRequest}, i.e. whether it succeeded and the
+ * validation issues that were found. A result is transferred as {@link Properties}.
+ *
+ * @since 2.14
+ */
+public class BuildResult {
+
+	private boolean success;
+	private List<Issue> issues = Collections.emptyList();
+
+	public BuildResult() {
+	}
+
+	public BuildResult(boolean success, List<Issue> issues) {
+		this.success = success;
+		this.issues = issues;
+	}
+
+	public void toProperties(Properties properties) {
+		properties.setProperty(BuildDaemon.SUCCESS, String.valueOf(success));
+		properties.setProperty("issues", String.valueOf(issues.size()));
+		for (int i = 0; i < issues.size(); i++) {
+			Issue issue = issues.get(i);
+			String prefix = "issue." + i + ".";
+			put(properties, prefix + "severity", issue.getSeverity());
+			put(properties, prefix + "code", issue.getCode());
+			put(properties, prefix + "message", issue.getMessage());
+			put(properties, prefix + "uri", issue.getUriToProblem());
+			put(properties, prefix + "line", issue.getLineNumber());
+			put(properties, prefix + "column", issue.getColumn());
+			put(properties, prefix + "offset", issue.getOffset());
+			put(properties, prefix + "length", issue.getLength());
+		}
+	}
+
+	public static BuildResult fromProperties(Properties properties) {
+		int size = Integer.parseInt(properties.getProperty("issues", "0"));
+		List<Issue> issues = Lists.newArrayListWithCapacity(size);
+		for (int i = 0; i < size; i++) {
+			String prefix = "issue." + i + ".";
+			Issue.IssueImpl issue = new Issue.IssueImpl();
+			String severity = properties.getProperty(prefix + "severity");
+			if (severity != null) {
+				issue.setSeverity(Severity.valueOf(severity));
+			}
+			issue.setCode(properties.getProperty(prefix + "code"));
+			issue.setMessage(properties.getProperty(prefix + "message"));
+			String uri = properties.getProperty(prefix + "uri");
+			if (uri != null) {
+				issue.setUriToProblem(URI.createURI(uri));
+			}
+			issue.setLineNumber(getInteger(properties, prefix + "line"));
+			issue.setColumn(getInteger(properties, prefix + "column"));
+			issue.setOffset(getInteger(properties, prefix + "offset"));
+			issue.setLength(getInteger(properties, prefix + "length"));
+			issues.add(issue);
+		}
+		return new BuildResult(Boolean.parseBoolean(properties.getProperty(BuildDaemon.SUCCESS)), issues);
+	}
+
+	private static void put(Properties properties, String key, Object value) {
+		if (value != null) {
+			properties.setProperty(key, value.toString());
+		}
+	}
+
+	private static Integer getInteger(Properties properties, String key) {
+		String value = properties.getProperty(key);
+		return value != null ? Integer.valueOf(value) : null;
+	}
+
+	/**
+	 * @return <code>false</code> if the build failed, e.g. due to validation errors
+	 */
+	public boolean isSuccess() {
+		return success;
+	}
+
+	public void setSuccess(boolean success) {
+		this.success = success;
+	}
+
+	/**
+	 * @return the validation issues of the built resources in the order they were passed to the issue handler
+	 */
+	public List<Issue> getIssues() {
+		return issues;
+	}
+
+	public void setIssues(List<Issue> issues) {
+		this.issues = issues;
+	}
+
+}
@@ -0,0 +1,339 @@
+/*******************************************************************************
+ * Copyright (c) 2018 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.builder.standalone.incremental;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+
+import org.apache.log4j.Logger;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.common.util.WrappedException;
+import org.eclipse.emf.ecore.plugin.EcorePlugin;
+import org.eclipse.xtext.mwe.PathTraverser;
+
+import com.google.common.base.Joiner;
+import com.google.common.base.Predicate;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+/**
+ * Collects the model files of source folders and class path entries. The roots are traversed concurrently and each
+ * jar is read in a single pass that yields both the model entries and the <code>Bundle-SymbolicName</code> of its
+ * manifest.
+ *
+ * <p>
+ * The results of jars are cached by their path, size and modification time. The cache is kept by the scanner
+ * instance and can be {@link #write(File) written} to disk to be {@link #read(File) reused} by subsequent runs.
+ * Folders are traversed again by each scan.
+ * </p>
+ *
+ * @since 2.14
+ */
+public class ClassPathScanner {
+
+	private static final Logger LOG = Logger.getLogger(ClassPathScanner.class);
+
+	private static final int VERSION = 1;
+
+	/**
+	 * The model files of a single root.
+	 */
+	public static class ScannedRoot {
+		private final String path;
+		private final List<URI> uris;
+		private final String bundleSymbolicName;
+
+		protected ScannedRoot(String path, List<URI> uris, String bundleSymbolicName) {
+			this.path = path;
+			this.uris = uris;
+			this.bundleSymbolicName = bundleSymbolicName;
+		}
+
+		public String getPath() {
+			return path;
+		}
+
+		public List<URI> getURIs() {
+			return uris;
+		}
+
+		/**
+		 * @return the symbolic name of the bundle if the root is a jar with an OSGi manifest, <code>null</code>
+		 *         otherwise
+		 */
+		public String getBundleSymbolicName() {
+			return bundleSymbolicName;
+		}
+	}
+
+	protected static class CachedJar {
+		private final long size;
+		private final long lastModified;
+		private final String fileExtensions;
+		private final List<String> entries;
+		private final String bundleSymbolicName;
+
+		protected CachedJar(long size, long lastModified, String fileExtensions, List<String> entries,
+				String bundleSymbolicName) {
+			this.size = size;
+			this.lastModified = lastModified;
+			this.fileExtensions = fileExtensions;
+			this.entries = entries;
+			this.bundleSymbolicName = bundleSymbolicName;
+		}
+
+		protected boolean isUpToDate(File file, String fileExtensions) {
+			return file.length() == size && file.lastModified() == lastModified
+					&& this.fileExtensions.equals(fileExtensions);
+		}
+	}
+
+	private final Map<String, CachedJar> jars = new ConcurrentHashMap<String, CachedJar>();
+
+	/**
+	 * Scans the given roots for files with one of the given extensions.
+	 *
+	 * @param numberOfThreads
+	 *            the number of roots that are scanned concurrently
+	 * @return the results in the order of the roots
+	 */
+	public List<ScannedRoot> scan(Iterable<String> roots, final Set<String> fileExtensions, int numberOfThreads) {
+		List<String> rootList = Lists.newArrayList(roots);
+		final String extensionsKey = Joiner.on(',').join(Sets.newTreeSet(fileExtensions));
+		if (numberOfThreads <= 1 || rootList.size() <= 1) {
+			List<ScannedRoot> result = Lists.newArrayListWithCapacity(rootList.size());
+			for (String root : rootList) {
+				result.add(scan(root, fileExtensions, extensionsKey));
+			}
+			return result;
+		}
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(numberOfThreads, rootList.size()));
+		try {
+			List<Future<ScannedRoot>> futures = Lists.newArrayListWithCapacity(rootList.size());
+			for (final String root : rootList) {
+				futures.add(executor.submit(new Callable<ScannedRoot>() {
+					@Override
+					public ScannedRoot call() throws Exception {
+						return scan(root, fileExtensions, extensionsKey);
+					}
+				}));
+			}
+			List<ScannedRoot> result = Lists.newArrayListWithCapacity(rootList.size());
+			for (Future<ScannedRoot> future : futures) {
+				result.add(future.get());
+			}
+			return result;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new WrappedException(e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new WrappedException((Exception) e.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	protected ScannedRoot scan(String root, final Set<String> fileExtensions, String extensionsKey) {
+		File file = new File(root);
+		if (file.isFile()) {
+			return scanJar(root, file, fileExtensions, extensionsKey);
+		}
+		List<URI> uris = Lists.newArrayList(new PathTraverser()
+				.resolvePathes(Collections.singletonList(root), new Predicate<URI>() {
+					@Override
+					public boolean apply(URI input) {
+						return fileExtensions.contains(input.fileExtension());
+					}
+				}).values());
+		return new ScannedRoot(root, uris, null);
+	}
+
+	protected ScannedRoot scanJar(String root, File file, Set<String> fileExtensions, String extensionsKey) {
+		String key = file.getAbsolutePath();
+		CachedJar cached = jars.get(key);
+		if (cached == null || !cached.isUpToDate(file, extensionsKey)) {
+			cached = readJar(file, fileExtensions, extensionsKey);
+			jars.put(key, cached);
+		}
+		String archive = "archive:" + URI.createFileURI(key) + "!/";
+		List<URI> uris = Lists.newArrayListWithCapacity(cached.entries.size());
+		for (String entry : cached.entries) {
+			uris.add(URI.createURI(archive + entry));
+		}
+		return new ScannedRoot(root, uris, cached.bundleSymbolicName);
+	}
+
+	protected CachedJar readJar(File file, Set<String> fileExtensions, String extensionsKey) {
+		long size = file.length();
+		long lastModified = file.lastModified();
+		List<String> entries = Lists.newArrayList();
+		String bundleSymbolicName = null;
+		try (JarFile jarFile = new JarFile(file)) {
+			Enumeration<? extends ZipEntry> zipEntries = jarFile.entries();
+			while (zipEntries.hasMoreElements()) {
+				ZipEntry entry = zipEntries.nextElement();
+				if (!entry.isDirectory() && fileExtensions.contains(getFileExtension(entry.getName()))) {
+					entries.add(entry.getName());
+				}
+			}
+			Manifest manifest = jarFile.getManifest();
+			if (manifest != null) {
+				bundleSymbolicName = manifest.getMainAttributes().getValue("Bundle-SymbolicName");
+				if (bundleSymbolicName != null) {
+					int indexOf = bundleSymbolicName.indexOf(';');
+					if (indexOf > 0) {
+						bundleSymbolicName = bundleSymbolicName.substring(0, indexOf);
+					}
+				}
+			}
+		} catch (ZipException e) {
+			LOG.debug("Could not open Jar file " + file.getAbsolutePath() + ".");
+		} catch (IOException e) {
+			LOG.error(file.getAbsolutePath(), e);
+		}
+		return new CachedJar(size, lastModified, extensionsKey, ImmutableList.copyOf(entries), bundleSymbolicName);
+	}
+
+	private static String getFileExtension(String entryName) {
+		int lastSlash = entryName.lastIndexOf('/');
+		int lastDot = entryName.lastIndexOf('.');
+		return lastDot > lastSlash ? entryName.substring(lastDot + 1) : null;
+	}
+
+	/**
+	 * Maps the symbolic names of the scanned bundles to their jars in the {@link EcorePlugin#getPlatformResourceMap()
+	 * platform resource map}. Only jars that contain model files are registered and a name that is already mapped is
+	 * kept.
+	 */
+	public static void registerBundles(Iterable<ScannedRoot> roots) {
+		registerBundles(roots, new BiConsumer<File, String>() {
+			@Override
+			public void accept(File jar, String bundleSymbolicName) {
+				registerBundle(jar, bundleSymbolicName);
+			}
+		});
+	}
+
+	/**
+	 * Passes each scanned jar that contains model files and has a <code>Bundle-SymbolicName</code> to the given
+	 * registrar, together with the symbolic name that was read from its manifest.
+	 */
+	public static void registerBundles(Iterable<ScannedRoot> roots, BiConsumer<File, String> registrar) {
+		for (ScannedRoot root : roots) {
+			if (root.bundleSymbolicName != null && !root.uris.isEmpty()) {
+				registrar.accept(new File(root.path), root.bundleSymbolicName);
+			}
+		}
+	}
+
+	/**
+	 * Maps the given symbolic name to the jar in the {@link EcorePlugin#getPlatformResourceMap() platform resource
+	 * map} unless the name is already mapped.
+	 */
+	public static void registerBundle(File jar, String bundleSymbolicName) {
+		Map<String, URI> platformResourceMap = EcorePlugin.getPlatformResourceMap();
+		if (!platformResourceMap.containsKey(bundleSymbolicName)) {
+			String path = "archive:" + URI.createFileURI(jar.getAbsolutePath()) + "!/";
+			platformResourceMap.put(bundleSymbolicName, URI.createURI(path));
+		}
+	}
+
+	/**
+	 * Reads the jars of a previous run from the given file. Unreadable files are ignored.
+	 */
+	public void read(File file) {
+		if (!file.isFile()) {
+			return;
+		}
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			if (in.readInt() != VERSION) {
+				return;
+			}
+			int size = in.readInt();
+			for (int i = 0; i < size; i++) {
+				String path = in.readUTF();
+				long length = in.readLong();
+				long lastModified = in.readLong();
+				String fileExtensions = in.readUTF();
+				String bundleSymbolicName = in.readBoolean() ? in.readUTF() : null;
+				int entryCount = in.readInt();
+				List<String> entries = Lists.newArrayListWithCapacity(entryCount);
+				for (int j = 0; j < entryCount; j++) {
+					entries.add(in.readUTF());
+				}
+				if (!jars.containsKey(path)) {
+					jars.put(path, new CachedJar(length, lastModified, fileExtensions, ImmutableList.copyOf(entries),
+							bundleSymbolicName));
+				}
+			}
+		} catch (IOException e) {
+			LOG.warn("Could not read class path cache '" + file + "'.", e);
+		}
+	}
+
+	public void write(File file) {
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+			out.writeInt(VERSION);
+			Map<String, CachedJar> snapshot = Maps.newHashMap(jars);
+			out.writeInt(snapshot.size());
+			for (Map.Entry<String, CachedJar> entry : snapshot.entrySet()) {
+				CachedJar jar = entry.getValue();
+				out.writeUTF(entry.getKey());
+				out.writeLong(jar.size);
+				out.writeLong(jar.lastModified);
+				out.writeUTF(jar.fileExtensions);
+				out.writeBoolean(jar.bundleSymbolicName != null);
+				if (jar.bundleSymbolicName != null) {
+					out.writeUTF(jar.bundleSymbolicName);
+				}
+				out.writeInt(jar.entries.size());
+				for (String name : jar.entries) {
+					out.writeUTF(name);
+				}
+			}
+		} catch (IOException e) {
+			LOG.warn("Could not write class path cache '" + file + "'.", e);
+			file.delete();
+		}
+	}
+
+	/**
+	 * Forgets all cached jars.
+	 */
+	public void clear() {
+		jars.clear();
+	}
+
+}
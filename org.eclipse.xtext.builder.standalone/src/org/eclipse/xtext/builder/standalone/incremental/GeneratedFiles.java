@@ -0,0 +1,179 @@
+/*******************************************************************************
+ * Copyright (c) 2018 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.builder.standalone.incremental;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Collection;
+import java.util.List;
+
+import org.apache.log4j.Logger;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.xtext.build.Source2GeneratedMapping;
+import org.eclipse.xtext.generator.JavaIoFileSystemAccess;
+
+/**
+ * Remembers the files that were generated from each source resource. An incremental build uses it to delete the
+ * files of deleted sources and the files that a source does not produce anymore.
+ *
+ * <p>
+ * It may be used by several generator threads concurrently.
+ * </p>
+ *
+ * @since 2.14
+ */
+public class GeneratedFiles {
+
+	private static final Logger LOG = Logger.getLogger(GeneratedFiles.class);
+
+	private final Source2GeneratedMapping mapping;
+
+	public GeneratedFiles() {
+		this(new Source2GeneratedMapping());
+	}
+
+	protected GeneratedFiles(Source2GeneratedMapping mapping) {
+		this.mapping = mapping;
+	}
+
+	/**
+	 * Reads the mapping from the given file. If the file does not exist or cannot be read, an empty mapping is
+	 * returned.
+	 */
+	public static GeneratedFiles read(File file) {
+		if (!file.isFile()) {
+			return new GeneratedFiles();
+		}
+		try (ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			Source2GeneratedMapping mapping = new Source2GeneratedMapping();
+			mapping.readExternal(in);
+			return new GeneratedFiles(mapping);
+		} catch (IOException | ClassNotFoundException e) {
+			LOG.warn("Could not read generated files from '" + file + "'.", e);
+			return new GeneratedFiles();
+		}
+	}
+
+	public synchronized void write(File file) {
+		try (ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+			mapping.writeExternal(out);
+		} catch (IOException e) {
+			LOG.warn("Could not write generated files to '" + file + "'.", e);
+			file.delete();
+		}
+	}
+
+	/**
+	 * Returns a callback for a {@link JavaIoFileSystemAccess} that records the files it writes as generated from the
+	 * given source and then notifies the given callback, if any.
+	 */
+	public JavaIoFileSystemAccess.IFileCallback recordGeneratedFiles(final URI source,
+			final JavaIoFileSystemAccess.IFileCallback delegate) {
+		return new JavaIoFileSystemAccess.IFileCallback() {
+
+			@Override
+			public void afterFileUpdate(File file) {
+				addGenerated(source, file);
+				if (delegate != null) {
+					delegate.afterFileUpdate(file);
+				}
+			}
+
+			@Override
+			public void afterFileCreation(File file) {
+				addGenerated(source, file);
+				if (delegate != null) {
+					delegate.afterFileCreation(file);
+				}
+			}
+
+			@Override
+			public boolean beforeFileDeletion(File file) {
+				return delegate == null || delegate.beforeFileDeletion(file);
+			}
+		};
+	}
+
+	protected synchronized void addGenerated(URI source, File file) {
+		URI generated = URI.createFileURI(file.getAbsolutePath());
+		if (!mapping.getGenerated(source).contains(generated)) {
+			mapping.addSource2Generated(source, generated);
+		}
+	}
+
+	/**
+	 * Forgets the files that were generated from the given source.
+	 *
+	 * @return the files that were generated from the source
+	 */
+	public synchronized List<URI> removeSource(URI source) {
+		return mapping.deleteSource(source);
+	}
+
+	/**
+	 * Deletes the previously generated files that have not been generated from the given source again. A
+	 * {@link JavaIoFileSystemAccess} skips existing files without a callback if their output configuration does not
+	 * override existing resources, thus files that still exist in such an output directory are kept and remain recorded
+	 * for the source.
+	 *
+	 * @param nonOverridingOutputDirs
+	 *            the absolute paths of the output directories that do not override existing resources
+	 */
+	public synchronized void deleteStaleFiles(URI source, List<URI> previouslyGenerated,
+			Collection<String> nonOverridingOutputDirs) {
+		List<URI> generated = mapping.getGenerated(source);
+		for (URI file : previouslyGenerated) {
+			if (!generated.contains(file)) {
+				if (isSkipped(file, nonOverridingOutputDirs)) {
+					mapping.addSource2Generated(source, file);
+				} else {
+					delete(file);
+				}
+			}
+		}
+	}
+
+	protected boolean isSkipped(URI generated, Collection<String> nonOverridingOutputDirs) {
+		File file = new File(generated.toFileString());
+		if (!file.isFile()) {
+			return false;
+		}
+		for (String dir : nonOverridingOutputDirs) {
+			if (file.getAbsolutePath().startsWith(new File(dir).getAbsolutePath() + File.separator)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Deletes all files that were generated from the given source, e.g. since it has been deleted.
+	 */
+	public synchronized void deleteGeneratedFiles(URI source) {
+		for (URI file : removeSource(source)) {
+			delete(file);
+		}
+	}
+
+	protected void delete(URI generated) {
+		File file = new File(generated.toFileString());
+		if (file.isFile()) {
+			LOG.info("Deleting stale generated file '" + file + "'");
+			if (!file.delete()) {
+				LOG.warn("Could not delete '" + file + "'");
+			}
+		}
+	}
+
+}
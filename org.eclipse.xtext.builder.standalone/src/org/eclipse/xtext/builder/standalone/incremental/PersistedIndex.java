@@ -0,0 +1,286 @@
+/*******************************************************************************
+ * Copyright (c) 2018 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.builder.standalone.incremental;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.apache.log4j.Logger;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.URIConverter;
+import org.eclipse.xtext.resource.IResourceDescription;
+import org.eclipse.xtext.resource.impl.ResourceDescriptionsData;
+import org.eclipse.xtext.resource.persistence.SerializableResourceDescription;
+
+import com.google.common.collect.Maps;
+
+/**
+ * The resource descriptions of a previous build together with a fingerprint of each resource. A description is reused
+ * as long as the time stamp or, if the time stamp differs, the content hash of its resource is unchanged.
+ *
+ * <p>
+ * The descriptions are kept as serialized bytes. A description is deserialized as a whole when it is reused for an
+ * unchanged resource, since the {@link ResourceDescriptionsData} registers the exported objects of a description as
+ * soon as it is added. The previous descriptions of deleted or modified resources are only deserialized on request,
+ * e.g. to compute the deltas of an incremental build. Reused descriptions are written back without serializing them
+ * again.
+ * </p>
+ *
+ * @since 2.14
+ */
+public class PersistedIndex {
+
+	private static final Logger LOG = Logger.getLogger(PersistedIndex.class);
+
+	private static final int VERSION = 2;
+
+	private static final byte[] NO_HASH = new byte[0];
+
+	protected static class Entry {
+		private final long timeStamp;
+		private final byte[] hash;
+		private final byte[] description;
+
+		protected Entry(long timeStamp, byte[] hash, byte[] description) {
+			this.timeStamp = timeStamp;
+			this.hash = hash;
+			this.description = description;
+		}
+	}
+
+	private final String key;
+
+	private final Map<URI, Entry> previous;
+
+	private final Map<URI, Entry> reused = Maps.newHashMap();
+
+	private final Map<URI, IResourceDescription> reusedDescriptions = Maps.newHashMap();
+
+	private final String previousInputsKey;
+
+	private String inputsKey;
+
+	/**
+	 * @param key
+	 *            identifies the configuration of the build, e.g. the file extensions of the languages. A persisted
+	 *            index that was written with a different key is discarded.
+	 */
+	public PersistedIndex(String key) {
+		this(key, Maps.<URI, Entry> newHashMap(), null);
+	}
+
+	protected PersistedIndex(String key, Map<URI, Entry> previous, String previousInputsKey) {
+		this.key = key;
+		this.previous = previous;
+		this.previousInputsKey = previousInputsKey;
+	}
+
+	/**
+	 * Reads the index from the given file. If the file does not exist, cannot be read or was written for another
+	 * key, an empty index is returned.
+	 */
+	public static PersistedIndex read(File file, String key) {
+		if (!file.isFile()) {
+			return new PersistedIndex(key);
+		}
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			if (in.readInt() != VERSION || !key.equals(in.readUTF())) {
+				LOG.info("Discarding persisted index '" + file + "' since the configuration has changed.");
+				return new PersistedIndex(key);
+			}
+			String inputsKey = in.readBoolean() ? in.readUTF() : null;
+			int size = in.readInt();
+			Map<URI, Entry> entries = Maps.newHashMapWithExpectedSize(size);
+			for (int i = 0; i < size; i++) {
+				URI uri = URI.createURI(in.readUTF());
+				long timeStamp = in.readLong();
+				byte[] hash = new byte[in.readInt()];
+				in.readFully(hash);
+				byte[] description = new byte[in.readInt()];
+				in.readFully(description);
+				entries.put(uri, new Entry(timeStamp, hash, description));
+			}
+			return new PersistedIndex(key, entries, inputsKey);
+		} catch (IOException e) {
+			LOG.warn("Could not read persisted index '" + file + "'. Rebuilding the index.", e);
+			return new PersistedIndex(key);
+		}
+	}
+
+	/**
+	 * Returns the deserialized description of the previous build if the resource with the given URI did not change in
+	 * the meantime, <code>null</code> otherwise. The content of a resource is only read if its time stamp differs.
+	 */
+	public IResourceDescription getDescription(URI uri, URIConverter converter) {
+		Entry entry = previous.get(uri);
+		if (entry == null) {
+			return null;
+		}
+		long timeStamp = getTimeStamp(uri);
+		if (timeStamp == -1 || timeStamp != entry.timeStamp) {
+			byte[] hash = getContentHash(uri, converter);
+			if (hash == NO_HASH || !Arrays.equals(hash, entry.hash)) {
+				return null;
+			}
+			entry = new Entry(timeStamp, hash, entry.description);
+		}
+		try {
+			IResourceDescription result = deserialize(entry.description);
+			reused.put(uri, entry);
+			reusedDescriptions.put(uri, result);
+			return result;
+		} catch (IOException | ClassNotFoundException e) {
+			LOG.warn("Could not read persisted description of '" + uri + "'.", e);
+			return null;
+		}
+	}
+
+	/**
+	 * Sets the fingerprint of the inputs of the build that are not described by the index, e.g. the Java sources and
+	 * the class path. It is written with the index.
+	 */
+	public void setInputsKey(String inputsKey) {
+		this.inputsKey = inputsKey;
+	}
+
+	/**
+	 * @return <code>true</code> if the {@link #setInputsKey(String) inputs key} differs from the one of the previous
+	 *         build.
+	 */
+	public boolean haveInputsChanged() {
+		return !Objects.equals(previousInputsKey, inputsKey);
+	}
+
+	/**
+	 * Returns the URIs of all resources that were part of the previous build.
+	 */
+	public Set<URI> getPreviousURIs() {
+		return Collections.unmodifiableSet(previous.keySet());
+	}
+
+	/**
+	 * Returns the description of the previous build regardless of whether the resource changed in the meantime, or
+	 * <code>null</code> if there is none.
+	 */
+	public IResourceDescription getPreviousDescription(URI uri) {
+		Entry entry = previous.get(uri);
+		if (entry == null) {
+			return null;
+		}
+		try {
+			return deserialize(entry.description);
+		} catch (IOException | ClassNotFoundException e) {
+			LOG.warn("Could not read persisted description of '" + uri + "'.", e);
+			return null;
+		}
+	}
+
+	/**
+	 * Writes all descriptions of the given index to the file. Descriptions that were reused from the previous build
+	 * are written without serializing them again, unless they have been replaced in the index since.
+	 */
+	public void write(File file, ResourceDescriptionsData index, URIConverter converter) {
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+			out.writeInt(VERSION);
+			out.writeUTF(key);
+			out.writeBoolean(inputsKey != null);
+			if (inputsKey != null) {
+				out.writeUTF(inputsKey);
+			}
+			Iterable<IResourceDescription> descriptions = index.getAllResourceDescriptions();
+			out.writeInt(index.getAllURIs().size());
+			for (IResourceDescription description : descriptions) {
+				URI uri = description.getURI();
+				Entry entry = reused.get(uri);
+				if (entry == null || reusedDescriptions.get(uri) != description) {
+					entry = new Entry(getTimeStamp(uri), getContentHash(uri, converter), serialize(description));
+				}
+				out.writeUTF(uri.toString());
+				out.writeLong(entry.timeStamp);
+				out.writeInt(entry.hash.length);
+				out.write(entry.hash);
+				out.writeInt(entry.description.length);
+				out.write(entry.description);
+			}
+		} catch (IOException e) {
+			LOG.warn("Could not write persisted index '" + file + "'.", e);
+			file.delete();
+		}
+	}
+
+	protected byte[] serialize(IResourceDescription description) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(SerializableResourceDescription.createCopy(description));
+		}
+		return bytes.toByteArray();
+	}
+
+	protected IResourceDescription deserialize(byte[] description) throws IOException, ClassNotFoundException {
+		try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(description))) {
+			return (IResourceDescription) in.readObject();
+		}
+	}
+
+	/**
+	 * Returns the time stamp of the file that contains the resource or <code>-1</code> if it is unknown. Entries in
+	 * archives use the time stamp of the archive.
+	 */
+	protected long getTimeStamp(URI uri) {
+		File file = getFile(uri);
+		if (file == null || !file.exists()) {
+			return -1;
+		}
+		return file.lastModified();
+	}
+
+	protected File getFile(URI uri) {
+		if (uri.isFile()) {
+			return new File(uri.toFileString());
+		}
+		if (uri.isArchive()) {
+			String authority = uri.authority();
+			URI archive = URI.createURI(authority.substring(0, authority.length() - 1));
+			if (archive.isFile()) {
+				return new File(archive.toFileString());
+			}
+		}
+		return null;
+	}
+
+	protected byte[] getContentHash(URI uri, URIConverter converter) {
+		try (DigestInputStream in = new DigestInputStream(converter.createInputStream(uri), MessageDigest.getInstance("SHA-1"))) {
+			byte[] buffer = new byte[8192];
+			while (in.read(buffer) != -1) {
+				// digest the content
+			}
+			return in.getMessageDigest().digest();
+		} catch (IOException | NoSuchAlgorithmException e) {
+			return NO_HASH;
+		}
+	}
+
+}
@@ -8,14 +8,9 @@
 package org.eclipse.xtext.builder.standalone.incremental
 
 import java.io.File
-import java.io.IOException
 import java.util.Set
-import java.util.jar.JarFile
-import java.util.jar.Manifest
-import java.util.zip.ZipException
 import org.eclipse.emf.common.util.URI
-import org.eclipse.emf.ecore.plugin.EcorePlugin
-import org.eclipse.xtext.mwe.PathTraverser
+import org.eclipse.xtend.lib.annotations.Accessors
 import org.eclipse.xtext.util.internal.Log
 
 /**
@@ -24,6 +19,15 @@ import org.eclipse.xtext.util.internal.Log
  */
 @Log class ResourceURICollector {
 	
+	/**
+	 * Number of roots that are traversed concurrently.
+	 * <br>Default is 1
+	 * @since 2.14
+	 */
+	@Accessors int numberOfThreads = 1
+	
+	val classPathScanner = new ClassPathScanner
+	
 	def Set<URI> collectAllResources(Iterable<URI> roots, Set<String> fileExtensions) {
 		if (LOG.infoEnabled) 
 			LOG.info("Collecting source models.")
@@ -37,44 +41,17 @@ import org.eclipse.xtext.util.internal.Log
 	def protected collectResources(Iterable<URI> roots, Set<String> fileExtensions) {
 		val extensions = (fileExtensions + #['java']).toSet
 
-		val modelsFound = new PathTraverser().resolvePathes(roots.map[toFileString].toList) [ extensions.contains(fileExtension) ]
-		modelsFound.asMap.forEach [ path, resource |
-			val file = new File(path)
-			if (resource !== null && !file.directory && file.name.endsWith(".jar")) {
-				registerBundle(file)
-			}
-		]
-		return modelsFound.values.toSet;
+		val scannedRoots = classPathScanner.scan(roots.map[toFileString], extensions, numberOfThreads)
+		ClassPathScanner.registerBundles(scannedRoots) [ file, name | registerBundle(file, name) ]
+		return scannedRoots.map[URIs].flatten.toSet
 	}
 
-	def protected registerBundle(File file) {
-		var JarFile jarFile = null;
-		try {
-			jarFile = new JarFile(file);
-			val Manifest manifest = jarFile.getManifest();
-			if (manifest === null)
-				return;
-			var String name = manifest.getMainAttributes().getValue("Bundle-SymbolicName");
-			if (name !== null) {
-				val int indexOf = name.indexOf(';');
-				if (indexOf > 0)
-					name = name.substring(0, indexOf);
-				if (EcorePlugin.getPlatformResourceMap().containsKey(name))
-					return;
-				val String path = "archive:" + URI.createFileURI(file.absolutePath) + "!/";
-				EcorePlugin.getPlatformResourceMap().put(name, URI.createURI(path));
-			}
-		} catch (ZipException e) {
-			LOG.info("Could not open Jar file " + file.getAbsolutePath() + ".");
-		} catch (Exception e) {
-			LOG.error(file.absolutePath, e);
-		} finally {
-			try {
-				if (jarFile !== null)
-					jarFile.close();
-			} catch (IOException e) {
-				LOG.error(jarFile, e);
-			}
-		}
+	/**
+	 * Registers a jar that contains model files as a bundle. The symbolic name has already been read from its
+	 * manifest by the {@link ClassPathScanner}.
+	 * @since 2.14
+	 */
+	def protected void registerBundle(File file, String bundleSymbolicName) {
+		ClassPathScanner.registerBundle(file, bundleSymbolicName)
 	}
 }
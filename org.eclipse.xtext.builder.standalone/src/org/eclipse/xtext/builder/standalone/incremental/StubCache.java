@@ -0,0 +1,226 @@
+/*******************************************************************************
+ * Copyright (c) 2018 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.builder.standalone.incremental;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Map;
+
+import org.apache.log4j.Logger;
+import org.eclipse.xtext.generator.IFileSystemAccess;
+
+import com.google.common.collect.Maps;
+
+/**
+ * Remembers the Java stubs and the stub compilation of a previous build. Stubs are only written if their content
+ * changed, stubs that are not generated anymore are deleted, and the stub compilation is skipped if none of its inputs
+ * changed since the last successful compilation.
+ *
+ * <p>
+ * The stubs are keyed by their content rather than by the signature hash of the stubbed types since a stub only
+ * contains the name, kind and type parameters of a type. Changes to members that alter the signature hash but not
+ * the stub do not require a new stub compilation.
+ * </p>
+ *
+ * @since 2.14
+ */
+public class StubCache {
+
+	private static final Logger LOG = Logger.getLogger(StubCache.class);
+
+	private static final int VERSION = 1;
+
+	private final Map<String, String> previousStubs;
+
+	private final Map<String, String> currentStubs = Maps.newHashMap();
+
+	private String compilationKey;
+
+	public StubCache() {
+		this(Maps.<String, String> newHashMap(), null);
+	}
+
+	protected StubCache(Map<String, String> previousStubs, String compilationKey) {
+		this.previousStubs = previousStubs;
+		this.compilationKey = compilationKey;
+	}
+
+	/**
+	 * Reads the cache from the given file. If the file does not exist or cannot be read, an empty cache is returned.
+	 */
+	public static StubCache read(File file) {
+		if (!file.isFile()) {
+			return new StubCache();
+		}
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			if (in.readInt() != VERSION) {
+				return new StubCache();
+			}
+			String compilationKey = in.readBoolean() ? in.readUTF() : null;
+			int size = in.readInt();
+			Map<String, String> stubs = Maps.newHashMapWithExpectedSize(size);
+			for (int i = 0; i < size; i++) {
+				stubs.put(in.readUTF(), in.readUTF());
+			}
+			return new StubCache(stubs, compilationKey);
+		} catch (IOException e) {
+			LOG.warn("Could not read stub cache '" + file + "'.", e);
+			return new StubCache();
+		}
+	}
+
+	public synchronized void write(File file) {
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+			out.writeInt(VERSION);
+			out.writeBoolean(compilationKey != null);
+			if (compilationKey != null) {
+				out.writeUTF(compilationKey);
+			}
+			out.writeInt(currentStubs.size());
+			for (Map.Entry<String, String> entry : currentStubs.entrySet()) {
+				out.writeUTF(entry.getKey());
+				out.writeUTF(entry.getValue());
+			}
+		} catch (IOException e) {
+			LOG.warn("Could not write stub cache '" + file + "'.", e);
+			file.delete();
+		}
+	}
+
+	/**
+	 * Returns a file system access for the stub generators that passes only new, changed or missing stubs to the
+	 * given delegate.
+	 */
+	public IFileSystemAccess createStubAccess(final IFileSystemAccess delegate, final File stubsDir) {
+		return new IFileSystemAccess() {
+
+			@Override
+			public void generateFile(String fileName, CharSequence contents) {
+				generateFile(fileName, DEFAULT_OUTPUT, contents);
+			}
+
+			@Override
+			public void generateFile(String fileName, String outputConfigurationName, CharSequence contents) {
+				if (addStub(fileName, contents) || !new File(stubsDir, fileName).isFile()) {
+					delegate.generateFile(fileName, outputConfigurationName, contents);
+				}
+			}
+
+			@Override
+			public void deleteFile(String fileName) {
+				delegate.deleteFile(fileName);
+			}
+		};
+	}
+
+	/**
+	 * @return <code>true</code> if the stub is new or changed.
+	 */
+	protected synchronized boolean addStub(String fileName, CharSequence contents) {
+		String hash = hash(contents.toString().getBytes(StandardCharsets.UTF_8));
+		currentStubs.put(fileName, hash);
+		return !hash.equals(previousStubs.get(fileName));
+	}
+
+	/**
+	 * Deletes the stubs of the previous build that have not been generated again.
+	 *
+	 * @return the number of deleted stubs
+	 */
+	public synchronized int deleteStaleStubs(File stubsDir) {
+		int result = 0;
+		for (String fileName : previousStubs.keySet()) {
+			if (!currentStubs.containsKey(fileName)) {
+				File stub = new File(stubsDir, fileName);
+				if (stub.isFile() && stub.delete()) {
+					result++;
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Computes a fingerprint of the inputs of the stub compilation, i.e. the Java files in the source roots and the
+	 * class path entries.
+	 */
+	public String computeCompilationKey(Iterable<String> sourceRoots, Iterable<String> classPathEntries) {
+		MessageDigest digest = newDigest();
+		for (String root : sourceRoots) {
+			appendFingerprint(digest, new File(root), true);
+		}
+		for (String entry : classPathEntries) {
+			appendFingerprint(digest, new File(entry), false);
+		}
+		return toHex(digest.digest());
+	}
+
+	protected void appendFingerprint(MessageDigest digest, File file, boolean javaFilesOnly) {
+		if (file.isDirectory()) {
+			File[] children = file.listFiles();
+			if (children != null) {
+				Arrays.sort(children);
+				for (File child : children) {
+					appendFingerprint(digest, child, javaFilesOnly);
+				}
+			}
+		} else if (file.isFile() && (!javaFilesOnly || file.getName().endsWith(".java"))) {
+			String fingerprint = file.getAbsolutePath() + '|' + file.lastModified() + '|' + file.length() + '\n';
+			digest.update(fingerprint.getBytes(StandardCharsets.UTF_8));
+		}
+	}
+
+	/**
+	 * @return <code>true</code> if the last successful compilation into the given folder had the same inputs.
+	 */
+	public synchronized boolean isCompiled(String compilationKey, File classesDir) {
+		String[] classes = classesDir.list();
+		return compilationKey.equals(this.compilationKey) && classes != null && classes.length > 0;
+	}
+
+	/**
+	 * Records the result of a stub compilation.
+	 *
+	 * @param compilationKey
+	 *            the key of the compiled inputs or <code>null</code> if the compilation failed.
+	 */
+	public synchronized void setCompiled(String compilationKey) {
+		this.compilationKey = compilationKey;
+	}
+
+	protected String hash(byte[] bytes) {
+		return toHex(newDigest().digest(bytes));
+	}
+
+	protected MessageDigest newDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-1");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	protected String toHex(byte[] bytes) {
+		StringBuilder result = new StringBuilder(bytes.length * 2);
+		for (byte b : bytes) {
+			result.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+		}
+		return result.toString();
+	}
+
+}
@@ -1,14 +1,14 @@
 package org.eclipse.xtext.builder.standalone;
 
 import com.google.common.base.Objects;
-import com.google.common.base.Predicate;
 import com.google.common.collect.Iterables;
-import com.google.common.collect.Multimap;
 import com.google.common.io.Files;
 import com.google.inject.Inject;
+import com.google.inject.Injector;
 import com.google.inject.Provider;
 import java.io.File;
 import java.io.IOException;
+import java.lang.reflect.Field;
 import java.net.URL;
 import java.net.URLClassLoader;
 import java.util.ArrayList;
@@ -17,41 +17,64 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
-import java.util.jar.JarFile;
-import java.util.jar.Manifest;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.regex.Pattern;
-import java.util.zip.ZipException;
 import org.apache.log4j.Logger;
+import org.eclipse.emf.common.notify.Adapter;
 import org.eclipse.emf.common.util.URI;
-import org.eclipse.emf.ecore.plugin.EcorePlugin;
 import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.emf.ecore.resource.ResourceSet;
 import org.eclipse.xtend.lib.annotations.Accessors;
 import org.eclipse.xtend2.lib.StringConcatenation;
 import org.eclipse.xtext.EcoreUtil2;
+import org.eclipse.xtext.builder.standalone.BuildMetrics;
 import org.eclipse.xtext.builder.standalone.ClusteringConfig;
 import org.eclipse.xtext.builder.standalone.IIssueHandler;
 import org.eclipse.xtext.builder.standalone.LanguageAccess;
 import org.eclipse.xtext.builder.standalone.compiler.IJavaCompiler;
+import org.eclipse.xtext.builder.standalone.compiler.InMemoryJavaCompiler;
+import org.eclipse.xtext.builder.standalone.incremental.ClassPathScanner;
+import org.eclipse.xtext.builder.standalone.incremental.GeneratedFiles;
+import org.eclipse.xtext.builder.standalone.incremental.PersistedIndex;
+import org.eclipse.xtext.builder.standalone.incremental.StubCache;
+import org.eclipse.xtext.common.types.JvmDeclaredType;
+import org.eclipse.xtext.common.types.access.binary.BinaryClass;
+import org.eclipse.xtext.common.types.access.binary.asm.BoundedClassFileBytesAccess;
+import org.eclipse.xtext.common.types.access.impl.AbstractRuntimeJvmTypeProvider;
+import org.eclipse.xtext.common.types.access.impl.CachingClasspathTypeProvider;
+import org.eclipse.xtext.common.types.access.impl.CachingDeclaredTypeFactory;
 import org.eclipse.xtext.common.types.access.impl.ClasspathTypeProvider;
+import org.eclipse.xtext.common.types.access.impl.DeclaredTypeFactory;
+import org.eclipse.xtext.common.types.access.impl.ITypeFactory;
 import org.eclipse.xtext.common.types.access.impl.IndexedJvmTypeAccess;
+import org.eclipse.xtext.common.types.access.impl.PersistentTypeCache;
+import org.eclipse.xtext.common.types.access.impl.URIHelperConstants;
+import org.eclipse.xtext.diagnostics.Severity;
 import org.eclipse.xtext.generator.AbstractFileSystemAccess;
 import org.eclipse.xtext.generator.GeneratorContext;
 import org.eclipse.xtext.generator.IFileSystemAccess;
 import org.eclipse.xtext.generator.JavaIoFileSystemAccess;
 import org.eclipse.xtext.generator.OutputConfiguration;
-import org.eclipse.xtext.mwe.NameBasedFilter;
-import org.eclipse.xtext.mwe.PathTraverser;
+import org.eclipse.xtext.java.resource.NameEnvironmentCache;
 import org.eclipse.xtext.parser.IEncodingProvider;
+import org.eclipse.xtext.resource.IReferenceDescription;
 import org.eclipse.xtext.resource.IResourceDescription;
 import org.eclipse.xtext.resource.XtextResourceSet;
 import org.eclipse.xtext.resource.clustering.DisabledClusteringPolicy;
 import org.eclipse.xtext.resource.clustering.DynamicResourceClusteringPolicy;
 import org.eclipse.xtext.resource.clustering.IResourceClusteringPolicy;
+import org.eclipse.xtext.resource.impl.DefaultResourceDescriptionDelta;
 import org.eclipse.xtext.resource.impl.ResourceDescriptionsData;
 import org.eclipse.xtext.resource.persistence.IResourceStorageFacade;
+import org.eclipse.xtext.resource.persistence.SerializableResourceDescription;
 import org.eclipse.xtext.resource.persistence.StorageAwareResource;
 import org.eclipse.xtext.util.CancelIndicator;
 import org.eclipse.xtext.util.UriUtil;
@@ -61,16 +84,21 @@ import org.eclipse.xtext.validation.Issue;
 import org.eclipse.xtext.xbase.lib.CollectionLiterals;
 import org.eclipse.xtext.xbase.lib.Conversions;
 import org.eclipse.xtext.xbase.lib.Exceptions;
+import org.eclipse.xtext.xbase.lib.ExclusiveRange;
 import org.eclipse.xtext.xbase.lib.Functions.Function1;
 import org.eclipse.xtext.xbase.lib.IterableExtensions;
+import org.eclipse.xtext.xbase.lib.ListExtensions;
 import org.eclipse.xtext.xbase.lib.ObjectExtensions;
 import org.eclipse.xtext.xbase.lib.Procedures.Procedure1;
+import org.eclipse.xtext.xbase.lib.Procedures.Procedure2;
 import org.eclipse.xtext.xbase.lib.Pure;
 
 @SuppressWarnings("all")
 public class StandaloneBuilder {
   private final static Logger LOG = Logger.getLogger(StandaloneBuilder.class);
   
+  private final static String NAME_ENVIRONMENT_CACHE_ADAPTER = "org.eclipse.xtext.java.resource.NameEnvironmentCache$NameEnvironmentCacheAdapter";
+  
   /**
    * Map key is a file extension provided by Language FileExtensionProvider
    */
@@ -116,6 +144,80 @@ public class StandaloneBuilder {
   @Accessors
   private ClusteringConfig clusteringConfig = null;
   
+  /**
+   * Number of worker threads that fill the index, validate and generate the resources.<br>
+   * If greater than one, each worker loads its share of the resources into a resource set of its own.
+   * The workers share the index and the cache of binary JVM types. Issues are still passed to the
+   * {@link IIssueHandler} in the order of the source resources.
+   * <br>Default is <code>1</code>
+   */
+  @Accessors
+  private int numberOfThreads = 1;
+  
+  /**
+   * If set to <code>true</code>, the index is written to the {@link #tempDir} and reused by subsequent runs
+   * with the same temp dir. Only new and changed resources are loaded to fill the index then.
+   * <br>Default is <code>false</code>
+   */
+  @Accessors
+  private boolean persistIndex = false;
+  
+  /**
+   * If set to <code>true</code>, the index is persisted like with {@link #persistIndex} and subsequent runs
+   * validate and generate only the source resources that changed or are affected by a change.
+   * Generated files of deleted resources and files that are not generated anymore are removed.
+   * <br>Default is <code>false</code>
+   */
+  @Accessors
+  private boolean incremental = false;
+  
+  /**
+   * If set to <code>true</code>, the Java stubs are generated and compiled in memory. The type provider
+   * reads the compiled stubs from memory, too, thus no stubs or classes are written to the {@link #tempDir}.
+   * Java stubs are compiled again by each run in this mode.
+   * <br>Default is <code>false</code>
+   */
+  @Accessors
+  private boolean compileStubsInMemory = false;
+  
+  /**
+   * The time and memory spent per phase, language and file by the last {@link #launch()}.
+   */
+  @Accessors
+  private final BuildMetrics metrics = new BuildMetrics();
+  
+  /**
+   * If set, each {@link #launch()} writes a JSON report of its {@link #getMetrics() metrics} to this file.
+   */
+  @Accessors
+  private File metricsReport;
+  
+  /**
+   * Number of files with the highest wall time that are listed in the {@link #metricsReport}.
+   * <br>Default is <code>10</code>
+   */
+  @Accessors
+  private int slowestFilesInReport = 10;
+  
+  /**
+   * If set to <code>true</code>, each source resource is generated right after it has been validated. Resources are
+   * removed from the resource set as soon as no pending source resource refers to them according to the index,
+   * thus the heap grows with the working set rather than with the number of resources. The {@link #clusteringConfig}
+   * is not used then. If validation fails and {@link #failOnValidationError} is set, the resources that have been
+   * processed before are already generated.
+   * Only applies if a single thread is used.
+   * <br>Default is <code>false</code>
+   */
+  @Accessors
+  private boolean streamingGeneration = false;
+  
+  /**
+   * If set, the JVM types that are built from class files are stored in this directory and reused by subsequent
+   * builds as long as their class files don't change. The directory may be shared by concurrent builds.
+   */
+  @Accessors
+  private File typeCacheDir;
+  
   @Inject
   private IndexedJvmTypeAccess jvmTypeAccess;
   
@@ -134,6 +236,15 @@ public class StandaloneBuilder {
   @Inject
   private IJavaCompiler compiler;
   
+  @Inject
+  private Injector injector;
+  
+  private GeneratedFiles generatedFiles;
+  
+  private StubCache stubCache;
+  
+  private final ClassPathScanner classPathScanner = new ClassPathScanner();
+  
   public void setTempDir(final String pathAsString) {
     if ((pathAsString != null)) {
       File _file = new File(pathAsString);
@@ -145,6 +256,8 @@ public class StandaloneBuilder {
    * @return <code>false</code> if some of processed resources contains severe validation issues. <code>true</code> otherwise
    */
   public boolean launch() {
+    this.metrics.reset();
+    final BuildMetrics.Measurement buildStarted = this.metrics.start();
     final Function1<LanguageAccess, Boolean> _function = (LanguageAccess it) -> {
       return Boolean.valueOf(it.isLinksAgainstJava());
     };
@@ -163,6 +276,7 @@ public class StandaloneBuilder {
     }
     StandaloneBuilder.LOG.info("Collecting source models.");
     final long startedAt = System.currentTimeMillis();
+    final BuildMetrics.Measurement collectStarted = this.metrics.start();
     Iterable<String> rootsToTravers = this.classPathEntries;
     if ((this.classPathLookUpFilter != null)) {
       StandaloneBuilder.LOG.info("Class path look up filter is active.");
@@ -180,9 +294,17 @@ public class StandaloneBuilder {
       String _plus_3 = (_plus_2 + " class path entries.");
       StandaloneBuilder.LOG.info(_plus_3);
     }
+    if ((this.persistIndex || this.incremental)) {
+      this.tempDir.mkdirs();
+      this.classPathScanner.read(this.getClassPathCacheFile());
+    }
     final List<URI> sourceResourceURIs = this.collectResources(this.sourceDirs, resourceSet);
     List<URI> _collectResources = this.collectResources(rootsToTravers, resourceSet);
     final Iterable<URI> allResourcesURIs = Iterables.<URI>concat(sourceResourceURIs, _collectResources);
+    if ((this.persistIndex || this.incremental)) {
+      this.classPathScanner.write(this.getClassPathCacheFile());
+    }
+    this.metrics.stop(collectStarted, BuildMetrics.Phase.COLLECT);
     long _currentTimeMillis = System.currentTimeMillis();
     long _minus = (_currentTimeMillis - startedAt);
     String _plus_4 = ("Finished collecting source models. Took: " + Long.valueOf(_minus));
@@ -216,40 +338,201 @@ public class StandaloneBuilder {
     final IResourceClusteringPolicy strategy = _xifexpression;
     ArrayList<IResourceDescription> _newArrayList = CollectionLiterals.<IResourceDescription>newArrayList();
     ResourceDescriptionsData index = new ResourceDescriptionsData(_newArrayList);
-    Iterator<URI> allResourceIterator = allResourcesURIs.iterator();
-    while (allResourceIterator.hasNext()) {
-      {
-        List<Resource> resources = CollectionLiterals.<Resource>newArrayList();
-        int clusterIndex = 0;
-        boolean continue_ = true;
-        while ((allResourceIterator.hasNext() && continue_)) {
+    PersistedIndex _xifexpression_1 = null;
+    if ((this.persistIndex || this.incremental)) {
+      _xifexpression_1 = this.readPersistedIndex();
+    }
+    final PersistedIndex persistedIndex = _xifexpression_1;
+    if ((this.incremental && needsJava)) {
+      persistedIndex.setInputsKey(this.computeJavaInputsKey());
+    }
+    Iterable<URI> resourcesToIndex = allResourcesURIs;
+    if ((persistedIndex != null)) {
+      resourcesToIndex = this.reusePersistedDescriptions(persistedIndex, allResourcesURIs, index, resourceSet);
+    }
+    if ((this.numberOfThreads > 1)) {
+      StandaloneBuilder.LOG.info((("Filling index using " + Integer.valueOf(this.numberOfThreads)) + " threads."));
+      List<URI> _list = IterableExtensions.<URI>toList(resourcesToIndex);
+      Iterable<String> _xifexpression_2 = null;
+      if (needsJava) {
+        _xifexpression_2 = allClassPathEntries;
+      }
+      this.fillIndexInParallel(_list, index, _xifexpression_2, strategy);
+    } else {
+      if (this.streamingGeneration) {
+        this.fillIndexWithCopies(resourcesToIndex, index, resourceSet);
+      } else {
+        Iterator<URI> allResourceIterator = resourcesToIndex.iterator();
+        while (allResourceIterator.hasNext()) {
           {
-            final URI uri = allResourceIterator.next();
-            final Resource resource = resourceSet.getResource(uri, true);
-            resources.add(resource);
-            this.fillIndex(uri, resource, index);
-            clusterIndex++;
-            boolean _continueProcessing = strategy.continueProcessing(resourceSet, null, clusterIndex);
-            boolean _not = (!_continueProcessing);
-            if (_not) {
-              continue_ = false;
+            List<Resource> resources = CollectionLiterals.<Resource>newArrayList();
+            int clusterIndex = 0;
+            boolean continue_ = true;
+            while ((allResourceIterator.hasNext() && continue_)) {
+              {
+                final URI uri = allResourceIterator.next();
+                final BuildMetrics.Measurement indexStarted = this.metrics.start();
+                final Resource resource = resourceSet.getResource(uri, true);
+                resources.add(resource);
+                this.fillIndex(uri, resource, index);
+                this.metrics.stop(indexStarted, BuildMetrics.Phase.INDEX, uri);
+                clusterIndex++;
+                boolean _continueProcessing = strategy.continueProcessing(resourceSet, null, clusterIndex);
+                boolean _not = (!_continueProcessing);
+                if (_not) {
+                  continue_ = false;
+                }
+              }
+            }
+            if ((!continue_)) {
+              this.clearResourceSet(resourceSet);
             }
           }
         }
-        if ((!continue_)) {
-          this.clearResourceSet(resourceSet);
-        }
       }
     }
     this.installIndex(resourceSet, index);
+    ClassLoader typeProviderClassLoader = null;
     if (needsJava) {
-      final String stubsClasses = this.compileStubs(this.generateStubs(index, sourceResourceURIs));
+      if (this.compileStubsInMemory) {
+        final BuildMetrics.Measurement stubsStarted = this.metrics.start();
+        final Map<String, CharSequence> stubs = this.generateStubsInMemory(index, sourceResourceURIs);
+        this.metrics.stop(stubsStarted, BuildMetrics.Phase.STUB_GENERATION);
+        final BuildMetrics.Measurement compilationStarted = this.metrics.start();
+        typeProviderClassLoader = this.compileStubsInMemory(stubs, this.createURLClassLoader(allClassPathEntries));
+        this.metrics.stop(compilationStarted, BuildMetrics.Phase.STUB_COMPILATION);
+      } else {
+        StubCache _xifexpression_3 = null;
+        if (this.incremental) {
+          _xifexpression_3 = StubCache.read(this.getStubCacheFile());
+        }
+        this.stubCache = _xifexpression_3;
+        final BuildMetrics.Measurement stubsStarted_1 = this.metrics.start();
+        final File stubsDir = this.generateStubs(index, sourceResourceURIs);
+        this.metrics.stop(stubsStarted_1, BuildMetrics.Phase.STUB_GENERATION);
+        final BuildMetrics.Measurement compilationStarted_1 = this.metrics.start();
+        final String stubsClasses_1 = this.compileStubs(stubsDir);
+        this.metrics.stop(compilationStarted_1, BuildMetrics.Phase.STUB_COMPILATION);
+        if (this.stubCache!=null) {
+          this.stubCache.write(this.getStubCacheFile());
+        }
+        ArrayList<String> _newArrayList_1 = CollectionLiterals.<String>newArrayList(stubsClasses_1);
+        typeProviderClassLoader = this.createURLClassLoader(Iterables.<String>concat(allClassPathEntries, _newArrayList_1));
+      }
       StandaloneBuilder.LOG.info("Installing type provider for stubs.");
-      ArrayList<String> _newArrayList_1 = CollectionLiterals.<String>newArrayList(stubsClasses);
-      Iterable<String> _plus_6 = Iterables.<String>concat(allClassPathEntries, _newArrayList_1);
-      this.installTypeProvider(_plus_6, resourceSet, this.jvmTypeAccess);
+      this.installTypeProvider(typeProviderClassLoader, resourceSet, this.jvmTypeAccess);
+    }
+    List<URI> sourcesToBuild = sourceResourceURIs;
+    GeneratedFiles _xifexpression_4 = null;
+    if (this.incremental) {
+      _xifexpression_4 = GeneratedFiles.read(this.getGeneratedFilesFile());
+    }
+    this.generatedFiles = _xifexpression_4;
+    if ((this.incremental && (!persistedIndex.getPreviousURIs().isEmpty()))) {
+      boolean _haveInputsChanged = persistedIndex.haveInputsChanged();
+      if (_haveInputsChanged) {
+        int _size = sourceResourceURIs.size();
+        String _plus_7 = ("Java sources or class path changed. Building all " + Integer.valueOf(_size));
+        String _plus_8 = (_plus_7 + " source resources.");
+        StandaloneBuilder.LOG.info(_plus_8);
+      } else {
+        sourcesToBuild = this.computeAffectedResources(persistedIndex, IterableExtensions.<URI>toSet(resourcesToIndex), sourceResourceURIs, index, resourceSet);
+        int _size_1 = sourcesToBuild.size();
+        String _plus_9 = ("Building " + Integer.valueOf(_size_1));
+        String _plus_10 = (_plus_9 + " of ");
+        int _size_2 = sourceResourceURIs.size();
+        String _plus_11 = (_plus_10 + Integer.valueOf(_size_2));
+        String _plus_12 = (_plus_11 + " source resources.");
+        StandaloneBuilder.LOG.info(_plus_12);
+      }
+      final Function1<URI, Boolean> _function_3 = (URI it) -> {
+        IResourceDescription _resourceDescription = index.getResourceDescription(it);
+        return Boolean.valueOf((_resourceDescription == null));
+      };
+      Iterable<URI> _filter = IterableExtensions.<URI>filter(persistedIndex.getPreviousURIs(), _function_3);
+      for (final URI uri : _filter) {
+        this.generatedFiles.deleteGeneratedFiles(uri);
+      }
+    }
+    boolean _xifexpression_5 = false;
+    if ((this.numberOfThreads > 1)) {
+      boolean _xblockexpression_1 = false;
+      {
+        StandaloneBuilder.LOG.info((("Validate and generate using " + Integer.valueOf(this.numberOfThreads)) + " threads."));
+        _xblockexpression_1 = this.validateAndGenerateInParallel(sourcesToBuild, index, typeProviderClassLoader, strategy);
+      }
+      _xifexpression_5 = _xblockexpression_1;
+    } else {
+      boolean _xifexpression_6 = false;
+      if (this.streamingGeneration) {
+        boolean _xblockexpression_2 = false;
+        {
+          StandaloneBuilder.LOG.info("Validate and generate one resource at a time.");
+          _xblockexpression_2 = this.validateAndGenerateStreaming(sourcesToBuild, index, resourceSet);
+        }
+        _xifexpression_6 = _xblockexpression_2;
+      } else {
+        boolean _xblockexpression_3 = false;
+        {
+          StandaloneBuilder.LOG.info("Validate and generate.");
+          _xblockexpression_3 = this.validateAndGenerate(sourcesToBuild, resourceSet, strategy);
+        }
+        _xifexpression_6 = _xblockexpression_3;
+      }
+      _xifexpression_5 = _xifexpression_6;
     }
-    StandaloneBuilder.LOG.info("Validate and generate.");
+    final boolean success = _xifexpression_5;
+    if ((this.generatedFiles != null)) {
+      this.generatedFiles.write(this.getGeneratedFilesFile());
+    }
+    if ((persistedIndex != null)) {
+      if (success) {
+        persistedIndex.write(this.getPersistedIndexFile(), index, resourceSet.getURIConverter());
+      } else {
+        this.getPersistedIndexFile().delete();
+      }
+    }
+    this.metrics.stopBuild(buildStarted);
+    if ((this.metricsReport != null)) {
+      this.writeMetricsReport();
+    }
+    return success;
+  }
+  
+  protected void writeMetricsReport() {
+    String _absolutePath = this.metricsReport.getAbsolutePath();
+    String _plus = ("Writing build metrics to " + _absolutePath);
+    StandaloneBuilder.LOG.info(_plus);
+    try {
+      this.metrics.writeJson(this.metricsReport, this.slowestFilesInReport);
+    } catch (final Throwable _t) {
+      if (_t instanceof IOException) {
+        final IOException e = (IOException)_t;
+        StandaloneBuilder.LOG.warn("Could not write build metrics.", e);
+      } else {
+        throw Exceptions.sneakyThrow(_t);
+      }
+    }
+  }
+  
+  /**
+   * Loads the resource and resolves all its lazy cross references.
+   */
+  protected Resource loadAndLink(final ResourceSet resourceSet, final URI uri) {
+    final BuildMetrics.Measurement loadStarted = this.metrics.start();
+    final Resource resource = resourceSet.getResource(uri, true);
+    resource.getContents();
+    this.metrics.stop(loadStarted, BuildMetrics.Phase.LOAD, uri);
+    final BuildMetrics.Measurement linkStarted = this.metrics.start();
+    EcoreUtil2.resolveLazyCrossReferences(resource, CancelIndicator.NullImpl);
+    this.metrics.stop(linkStarted, BuildMetrics.Phase.LINK, uri);
+    return resource;
+  }
+  
+  /**
+   * @return <code>false</code> if some of processed resources contains severe validation issues. <code>true</code> otherwise
+   */
+  protected boolean validateAndGenerate(final List<URI> sourceResourceURIs, final XtextResourceSet resourceSet, final IResourceClusteringPolicy strategy) {
     final Iterator<URI> sourceResourceIterator = sourceResourceURIs.iterator();
     boolean hasValidationErrors = false;
     while (sourceResourceIterator.hasNext()) {
@@ -260,10 +543,8 @@ public class StandaloneBuilder {
         while ((sourceResourceIterator.hasNext() && continue_)) {
           {
             final URI uri = sourceResourceIterator.next();
-            final Resource resource = resourceSet.getResource(uri, true);
+            final Resource resource = this.loadAndLink(resourceSet, uri);
             resources.add(resource);
-            resource.getContents();
-            EcoreUtil2.resolveLazyCrossReferences(resource, CancelIndicator.NullImpl);
             hasValidationErrors = ((!this.validate(resource)) || hasValidationErrors);
             clusterIndex++;
             boolean _continueProcessing = strategy.continueProcessing(resourceSet, null, clusterIndex);
@@ -285,6 +566,554 @@ public class StandaloneBuilder {
     return (!hasValidationErrors);
   }
   
+  /**
+   * Validates and generates the source resources one at a time. Afterwards, the resources that no later source
+   * resource refers to are removed from the resource set.
+   * 
+   * @return <code>false</code> if some of processed resources contains severe validation issues. <code>true</code> otherwise
+   */
+  protected boolean validateAndGenerateStreaming(final List<URI> sourceResourceURIs, final ResourceDescriptionsData index, final XtextResourceSet resourceSet) {
+    final Map<URI, Integer> lastUses = this.computeLastUses(sourceResourceURIs, index);
+    boolean hasValidationErrors = false;
+    int _size = sourceResourceURIs.size();
+    ExclusiveRange _doubleDotLessThan = new ExclusiveRange(0, _size, true);
+    for (final Integer i : _doubleDotLessThan) {
+      {
+        final Resource resource = this.loadAndLink(resourceSet, sourceResourceURIs.get((i).intValue()));
+        hasValidationErrors = ((!this.validate(resource)) || hasValidationErrors);
+        if ((this.failOnValidationError && hasValidationErrors)) {
+          return (!hasValidationErrors);
+        }
+        this.generate(CollectionLiterals.<Resource>newArrayList(resource));
+        this.evictResources(resourceSet, lastUses, (i).intValue());
+      }
+    }
+    return (!hasValidationErrors);
+  }
+  
+  /**
+   * Computes the position of the last source resource that is or refers to a resource according to the index.
+   * Resources that are not contained in the result are not needed by any source resource.
+   */
+  protected Map<URI, Integer> computeLastUses(final List<URI> sourceResourceURIs, final ResourceDescriptionsData index) {
+    final Map<URI, Integer> result = CollectionLiterals.<URI, Integer>newHashMap();
+    int _size = sourceResourceURIs.size();
+    ExclusiveRange _doubleDotLessThan = new ExclusiveRange(0, _size, true);
+    for (final Integer i : _doubleDotLessThan) {
+      {
+        final URI uri = sourceResourceURIs.get((i).intValue());
+        result.put(uri, i);
+        final IResourceDescription description = index.getResourceDescription(uri);
+        if ((description != null)) {
+          Iterable<IReferenceDescription> _referenceDescriptions = description.getReferenceDescriptions();
+          for (final IReferenceDescription reference : _referenceDescriptions) {
+            result.put(reference.getTargetEObjectUri().trimFragment(), i);
+          }
+        }
+      }
+    }
+    return result;
+  }
+  
+  /**
+   * Removes the resources from the resource set that are not needed after the source resource at the given position.
+   * Only resources with a last use are removed, and {@link #isTypeResource(Resource) type resources} are kept.
+   * Like {@link #clearResourceSet(ResourceSet)}, the resources are not unloaded.
+   */
+  protected void evictResources(final ResourceSet resourceSet, final Map<URI, Integer> lastUses, final int position) {
+    final Function1<Resource, Boolean> _function = (Resource it) -> {
+      boolean _xblockexpression = false;
+      {
+        final Integer lastUse = lastUses.get(it.getURI());
+        _xblockexpression = (((lastUse != null) && ((lastUse).intValue() <= position)) && (!this.isTypeResource(it)));
+      }
+      return Boolean.valueOf(_xblockexpression);
+    };
+    this.removeResources(resourceSet, _function);
+  }
+  
+  /**
+   * JVM types are shared by all source resources and expensive to build, thus their resources are not evicted.
+   */
+  protected boolean isTypeResource(final Resource resource) {
+    URI _uRI = resource.getURI();
+    String _scheme = null;
+    if (_uRI!=null) {
+      _scheme=_uRI.scheme();
+    }
+    return Objects.equal(URIHelperConstants.PROTOCOL, _scheme);
+  }
+  
+  private void removeResources(final ResourceSet resourceSet, final Function1<? super Resource, ? extends Boolean> filter) {
+    final boolean wasDeliver = resourceSet.eDeliver();
+    try {
+      resourceSet.eSetDeliver(false);
+      final Predicate<Resource> _function = (Resource it) -> {
+        return (filter.apply(it)).booleanValue();
+      };
+      resourceSet.getResources().removeIf(_function);
+    } finally {
+      resourceSet.eSetDeliver(wasDeliver);
+    }
+  }
+  
+  /**
+   * Adds copies of the descriptions of the given resources to the index. Each resource is removed from the
+   * resource set right after it has been described, only {@link #isTypeResource(Resource) type resources} are kept.
+   */
+  protected void fillIndexWithCopies(final Iterable<URI> uris, final ResourceDescriptionsData index, final XtextResourceSet resourceSet) {
+    for (final URI uri : uris) {
+      {
+        final BuildMetrics.Measurement indexStarted = this.metrics.start();
+        final Resource resource = resourceSet.getResource(uri, true);
+        final IResourceDescription description = this.languageAccess(uri).getResourceDescriptionManager().getResourceDescription(resource);
+        index.addDescription(uri, SerializableResourceDescription.createCopy(description));
+        final Function1<Resource, Boolean> _function = (Resource it) -> {
+          boolean _isTypeResource = this.isTypeResource(it);
+          return Boolean.valueOf((!_isTypeResource));
+        };
+        this.removeResources(resourceSet, _function);
+        this.metrics.stop(indexStarted, BuildMetrics.Phase.INDEX, uri);
+      }
+    }
+  }
+  
+  /**
+   * Computes the source resources that have to be validated and generated since they changed or are affected
+   * by a changed or deleted resource. The descriptions of affected resources are computed again and replace the
+   * persisted ones in the index. If their exported objects differ, the resources that depend on them are affected, too.
+   * The index does not tell the type provider and the Java name environments about these changes, thus they are told
+   * explicitly.
+   * 
+   * @param changedURIs the resources that were new or changed when the index was filled
+   */
+  protected List<URI> computeAffectedResources(final PersistedIndex persistedIndex, final Set<URI> changedURIs, final List<URI> sourceResourceURIs, final ResourceDescriptionsData index, final XtextResourceSet resourceSet) {
+    List<IResourceDescription.Delta> deltas = CollectionLiterals.<IResourceDescription.Delta>newArrayList();
+    for (final URI uri : changedURIs) {
+      IResourceDescription _previousDescription = persistedIndex.getPreviousDescription(uri);
+      IResourceDescription _resourceDescription = index.getResourceDescription(uri);
+      DefaultResourceDescriptionDelta _defaultResourceDescriptionDelta = new DefaultResourceDescriptionDelta(_previousDescription, _resourceDescription);
+      deltas.add(_defaultResourceDescriptionDelta);
+    }
+    final Function1<URI, Boolean> _function = (URI it) -> {
+      IResourceDescription _resourceDescription = index.getResourceDescription(it);
+      return Boolean.valueOf((_resourceDescription == null));
+    };
+    Iterable<URI> _filter = IterableExtensions.<URI>filter(persistedIndex.getPreviousURIs(), _function);
+    for (final URI uri_1 : _filter) {
+      IResourceDescription _previousDescription = persistedIndex.getPreviousDescription(uri_1);
+      DefaultResourceDescriptionDelta _defaultResourceDescriptionDelta = new DefaultResourceDescriptionDelta(_previousDescription, null);
+      deltas.add(_defaultResourceDescriptionDelta);
+    }
+    final Set<URI> affected = CollectionLiterals.<URI>newHashSet();
+    final Function1<URI, Boolean> _function_1 = (URI it) -> {
+      return Boolean.valueOf(changedURIs.contains(it));
+    };
+    Iterable<URI> _filter_1 = IterableExtensions.<URI>filter(sourceResourceURIs, _function_1);
+    Iterables.<URI>addAll(affected, _filter_1);
+    final Function1<IResourceDescription.Delta, Boolean> _function_2 = (IResourceDescription.Delta it) -> {
+      return Boolean.valueOf(it.haveEObjectDescriptionsChanged());
+    };
+    deltas = IterableExtensions.<IResourceDescription.Delta>toList(IterableExtensions.<IResourceDescription.Delta>filter(deltas, _function_2));
+    while ((!deltas.isEmpty())) {
+      {
+        final List<IResourceDescription.Delta> newDeltas = CollectionLiterals.<IResourceDescription.Delta>newArrayList();
+        for (final URI uri_2 : sourceResourceURIs) {
+          {
+            final IResourceDescription.Manager manager = this.languageAccess(uri_2).getResourceDescriptionManager();
+            final IResourceDescription description = index.getResourceDescription(uri_2);
+            if (((!affected.contains(uri_2)) && manager.isAffected(deltas, description, index))) {
+              affected.add(uri_2);
+              final SerializableResourceDescription newDescription = SerializableResourceDescription.createCopy(
+                manager.getResourceDescription(resourceSet.getResource(uri_2, true)));
+              final DefaultResourceDescriptionDelta delta = new DefaultResourceDescriptionDelta(description, newDescription);
+              index.addDescription(uri_2, newDescription);
+              this.indexChanged(resourceSet);
+              boolean _haveEObjectDescriptionsChanged = delta.haveEObjectDescriptionsChanged();
+              if (_haveEObjectDescriptionsChanged) {
+                newDeltas.add(delta);
+              }
+            }
+          }
+        }
+        deltas = newDeltas;
+      }
+    }
+    final Function1<URI, Boolean> _function_3 = (URI it) -> {
+      return Boolean.valueOf(affected.contains(it));
+    };
+    return IterableExtensions.<URI>toList(IterableExtensions.<URI>filter(sourceResourceURIs, _function_3));
+  }
+  
+  /**
+   * Tells the caches of the resource set that its index has changed, since the index does not fire events. The cache
+   * of the Java name environments is only attached if the optional org.eclipse.xtext.java bundle is used, thus its
+   * class is not touched otherwise.
+   */
+  protected void indexChanged(final XtextResourceSet resourceSet) {
+    AbstractRuntimeJvmTypeProvider.forgetNotFoundTypes(resourceSet);
+    final Function1<Adapter, Boolean> _function = (Adapter it) -> {
+      String _name = it.getClass().getName();
+      return Boolean.valueOf(Objects.equal(_name, StandaloneBuilder.NAME_ENVIRONMENT_CACHE_ADAPTER));
+    };
+    boolean _exists = IterableExtensions.<Adapter>exists(resourceSet.eAdapters(), _function);
+    if (_exists) {
+      NameEnvironmentCache _findInEmfObject = NameEnvironmentCache.findInEmfObject(resourceSet);
+      if (_findInEmfObject!=null) {
+        _findInEmfObject.forgetIndexedPackages();
+      }
+    }
+  }
+  
+  /**
+   * Computes a fingerprint of the Java sources and the class path. Changes to them do not yield deltas, thus an
+   * incremental build validates and generates all source resources if the fingerprint differs from the previous one.
+   */
+  protected String computeJavaInputsKey() {
+    Iterable<String> _plus = Iterables.<String>concat(this.javaSourceDirs, this.sourceDirs);
+    return new StubCache().computeCompilationKey(this.uniqueEntries(_plus), this.classPathEntries);
+  }
+  
+  protected File getGeneratedFilesFile() {
+    return new File(this.tempDir, "generated.bin");
+  }
+  
+  protected File getClassPathCacheFile() {
+    return new File(this.tempDir, "classpath.bin");
+  }
+  
+  protected File getStubCacheFile() {
+    return new File(this.tempDir, "stubs.bin");
+  }
+  
+  /**
+   * Validates the given resources with {@link #numberOfThreads} workers and passes the issues to the
+   * {@link IIssueHandler} in the order of the given URIs. Unless validation failed and
+   * {@link #failOnValidationError} is set, the same workers run the generators afterwards.
+   * If a {@link #clusteringConfig} is set, each worker generates a cluster right after it has been validated instead,
+   * thus resources are not loaded again for generation. Clusters are not generated anymore as soon as a worker found
+   * a validation error and {@link #failOnValidationError} is set, but the clusters that have been processed before
+   * are already generated.
+   * 
+   * @param classLoader the class loader for the type providers of the workers or <code>null</code> if no language links against Java
+   * @return <code>false</code> if some of processed resources contains severe validation issues. <code>true</code> otherwise
+   */
+  protected boolean validateAndGenerateInParallel(final List<URI> sourceResourceURIs, final ResourceDescriptionsData index, final ClassLoader classLoader, final IResourceClusteringPolicy strategy) {
+    final List<List<URI>> workerURIs = this.partition(sourceResourceURIs);
+    final List<XtextResourceSet> workerResourceSets = this.createWorkerResourceSets(workerURIs.size(), index, classLoader);
+    final boolean generateClusters = (this.clusteringConfig != null);
+    final AtomicBoolean failed = new AtomicBoolean();
+    final List<Callable<Map<URI, List<Issue>>>> validations = CollectionLiterals.<Callable<Map<URI, List<Issue>>>>newArrayList();
+    int _size = workerURIs.size();
+    ExclusiveRange _doubleDotLessThan = new ExclusiveRange(0, _size, true);
+    for (final Integer worker : _doubleDotLessThan) {
+      {
+        final XtextResourceSet resourceSet = workerResourceSets.get((worker).intValue());
+        final List<URI> uris = workerURIs.get((worker).intValue());
+        if (generateClusters) {
+          final Callable<Map<URI, List<Issue>>> _function = () -> {
+            return this.validateAndGenerateAll(resourceSet, uris, strategy, failed);
+          };
+          validations.add(_function);
+        } else {
+          final Callable<Map<URI, List<Issue>>> _function_1 = () -> {
+            return this.validateAll(resourceSet, uris, strategy);
+          };
+          validations.add(_function_1);
+        }
+      }
+    }
+    final Map<URI, List<Issue>> issues = CollectionLiterals.<URI, List<Issue>>newHashMap();
+    List<Map<URI, List<Issue>>> _runInParallel = this.<Map<URI, List<Issue>>>runInParallel(validations);
+    for (final Map<URI, List<Issue>> result : _runInParallel) {
+      issues.putAll(result);
+    }
+    boolean hasValidationErrors = false;
+    for (final URI uri : sourceResourceURIs) {
+      hasValidationErrors = ((!this.issueHandler.handleIssue(issues.get(uri))) || hasValidationErrors);
+    }
+    if (((this.failOnValidationError && hasValidationErrors) || generateClusters)) {
+      return (!hasValidationErrors);
+    }
+    final List<Callable<Boolean>> generations = CollectionLiterals.<Callable<Boolean>>newArrayList();
+    int _size_1 = workerURIs.size();
+    ExclusiveRange _doubleDotLessThan_1 = new ExclusiveRange(0, _size_1, true);
+    for (final Integer worker_1 : _doubleDotLessThan_1) {
+      final Callable<Boolean> _function_2 = () -> {
+        boolean _xblockexpression = false;
+        {
+          this.generateAll(workerResourceSets.get((worker_1).intValue()), workerURIs.get((worker_1).intValue()), strategy);
+          _xblockexpression = true;
+        }
+        return Boolean.valueOf(_xblockexpression);
+      };
+      generations.add(_function_2);
+    }
+    this.<Boolean>runInParallel(generations);
+    return (!hasValidationErrors);
+  }
+  
+  /**
+   * Loads the given resources with {@link #numberOfThreads} workers and adds their descriptions to the
+   * index in the order of the given URIs. The descriptions are copied, thus they don't refer to the
+   * resources that the workers unload according to the clustering policy.
+   * 
+   * @param classPathRoots the class path for the type providers of the workers or <code>null</code> if no language links against Java
+   */
+  protected void fillIndexInParallel(final List<URI> uris, final ResourceDescriptionsData index, final Iterable<String> classPathRoots, final IResourceClusteringPolicy strategy) {
+    final List<List<URI>> workerURIs = this.partition(uris);
+    int _size = workerURIs.size();
+    URLClassLoader _xifexpression = null;
+    if ((classPathRoots != null)) {
+      _xifexpression = this.createURLClassLoader(classPathRoots);
+    }
+    final List<XtextResourceSet> workerResourceSets = this.createWorkerResourceSets(_size, null, _xifexpression);
+    final List<Callable<Map<URI, IResourceDescription>>> tasks = CollectionLiterals.<Callable<Map<URI, IResourceDescription>>>newArrayList();
+    int _size_1 = workerURIs.size();
+    ExclusiveRange _doubleDotLessThan = new ExclusiveRange(0, _size_1, true);
+    for (final Integer worker : _doubleDotLessThan) {
+      final Callable<Map<URI, IResourceDescription>> _function = () -> {
+        return this.describeAll(workerResourceSets.get((worker).intValue()), workerURIs.get((worker).intValue()), strategy);
+      };
+      tasks.add(_function);
+    }
+    final Map<URI, IResourceDescription> descriptions = CollectionLiterals.<URI, IResourceDescription>newHashMap();
+    List<Map<URI, IResourceDescription>> _runInParallel = this.<Map<URI, IResourceDescription>>runInParallel(tasks);
+    for (final Map<URI, IResourceDescription> result : _runInParallel) {
+      descriptions.putAll(result);
+    }
+    for (final URI uri : uris) {
+      index.addDescription(uri, descriptions.get(uri));
+    }
+  }
+  
+  /**
+   * Distributes the given URIs round robin to at most {@link #numberOfThreads} lists.
+   */
+  protected List<List<URI>> partition(final List<URI> uris) {
+    final int workerCount = Math.max(1, Math.min(this.numberOfThreads, uris.size()));
+    final List<List<URI>> result = CollectionLiterals.<List<URI>>newArrayList();
+    ExclusiveRange _doubleDotLessThan = new ExclusiveRange(0, workerCount, true);
+    for (final Integer worker : _doubleDotLessThan) {
+      ArrayList<URI> _newArrayList = CollectionLiterals.<URI>newArrayList();
+      result.add(_newArrayList);
+    }
+    final Procedure2<URI, Integer> _function = (URI uri, Integer i) -> {
+      List<URI> _get = result.get(((i).intValue() % workerCount));
+      _get.add(uri);
+    };
+    IterableExtensions.<URI>forEach(uris, _function);
+    return result;
+  }
+  
+  protected <T extends Object> List<T> runInParallel(final List<Callable<T>> tasks) {
+    try {
+      final ExecutorService executor = Executors.newFixedThreadPool(tasks.size());
+      try {
+        final Function1<Future<T>, T> _function = (Future<T> it) -> {
+          try {
+            return it.get();
+          } catch (Throwable _e) {
+            throw Exceptions.sneakyThrow(_e);
+          }
+        };
+        return IterableExtensions.<T>toList(ListExtensions.<Future<T>, T>map(executor.<T>invokeAll(tasks), _function));
+      } finally {
+        executor.shutdown();
+      }
+    } catch (Throwable _e) {
+      throw Exceptions.sneakyThrow(_e);
+    }
+  }
+  
+  protected List<XtextResourceSet> createWorkerResourceSets(final int workerCount, final ResourceDescriptionsData index, final ClassLoader classLoader) {
+    ITypeFactory<BinaryClass, JvmDeclaredType> _xifexpression = null;
+    if ((classLoader != null)) {
+      _xifexpression = this.createSharedTypeFactory(classLoader);
+    }
+    final ITypeFactory<BinaryClass, JvmDeclaredType> typeFactory = _xifexpression;
+    final List<XtextResourceSet> result = CollectionLiterals.<XtextResourceSet>newArrayList();
+    ExclusiveRange _doubleDotLessThan = new ExclusiveRange(0, workerCount, true);
+    for (final Integer worker : _doubleDotLessThan) {
+      XtextResourceSet _createWorkerResourceSet = this.createWorkerResourceSet(index, classLoader, typeFactory);
+      result.add(_createWorkerResourceSet);
+    }
+    return result;
+  }
+  
+  /**
+   * @param index the index to install or <code>null</code> while the index is being filled. Like the sequential
+   *        build, the type providers of the workers that fill the index don't get the {@link IndexedJvmTypeAccess}.
+   * @param classLoader the class loader for the type provider or <code>null</code> if no language links against Java
+   */
+  protected XtextResourceSet createWorkerResourceSet(final ResourceDescriptionsData index, final ClassLoader classLoader, final ITypeFactory<BinaryClass, JvmDeclaredType> typeFactory) {
+    final XtextResourceSet workerResourceSet = this.resourceSetProvider.get();
+    if ((index != null)) {
+      this.installIndex(workerResourceSet, index);
+    }
+    if ((classLoader != null)) {
+      IndexedJvmTypeAccess _xifexpression = null;
+      if ((index != null)) {
+        _xifexpression = this.jvmTypeAccess;
+      }
+      final IndexedJvmTypeAccess typeAccess = _xifexpression;
+      new CachingClasspathTypeProvider(classLoader, workerResourceSet, typeAccess, typeFactory, null);
+      workerResourceSet.setClasspathURIContext(classLoader);
+    }
+    return workerResourceSet;
+  }
+  
+  /**
+   * The returned factory is used concurrently by all workers. It caches the JVM types and
+   * hands out copies of them. Class files are read through a size-bounded cache of their bytes.
+   */
+  protected ITypeFactory<BinaryClass, JvmDeclaredType> createSharedTypeFactory(final ClassLoader classLoader) {
+    BoundedClassFileBytesAccess _boundedClassFileBytesAccess = new BoundedClassFileBytesAccess();
+    DeclaredTypeFactory _declaredTypeFactory = new DeclaredTypeFactory(_boundedClassFileBytesAccess, classLoader);
+    PersistentTypeCache _xifexpression = null;
+    if ((this.typeCacheDir != null)) {
+      _xifexpression = new PersistentTypeCache(this.typeCacheDir);
+    }
+    return new CachingDeclaredTypeFactory(_declaredTypeFactory, _xifexpression);
+  }
+  
+  protected Map<URI, IResourceDescription> describeAll(final XtextResourceSet resourceSet, final List<URI> uris, final IResourceClusteringPolicy strategy) {
+    final Map<URI, IResourceDescription> result = CollectionLiterals.<URI, IResourceDescription>newHashMap();
+    int clusterIndex = 0;
+    for (final URI uri : uris) {
+      {
+        final BuildMetrics.Measurement indexStarted = this.metrics.start();
+        final Resource resource = resourceSet.getResource(uri, true);
+        final IResourceDescription description = this.languageAccess(uri).getResourceDescriptionManager().getResourceDescription(resource);
+        result.put(uri, SerializableResourceDescription.createCopy(description));
+        this.metrics.stop(indexStarted, BuildMetrics.Phase.INDEX, uri);
+        clusterIndex++;
+        boolean _continueProcessing = strategy.continueProcessing(resourceSet, null, clusterIndex);
+        boolean _not = (!_continueProcessing);
+        if (_not) {
+          this.clearResourceSet(resourceSet);
+          clusterIndex = 0;
+        }
+      }
+    }
+    return result;
+  }
+  
+  protected Map<URI, List<Issue>> validateAll(final XtextResourceSet resourceSet, final List<URI> uris, final IResourceClusteringPolicy strategy) {
+    final Map<URI, List<Issue>> result = CollectionLiterals.<URI, List<Issue>>newHashMap();
+    int clusterIndex = 0;
+    for (final URI uri : uris) {
+      {
+        final Resource resource = this.loadAndLink(resourceSet, uri);
+        result.put(uri, this.computeIssues(resource));
+        clusterIndex++;
+        boolean _continueProcessing = strategy.continueProcessing(resourceSet, null, clusterIndex);
+        boolean _not = (!_continueProcessing);
+        if (_not) {
+          this.clearResourceSet(resourceSet);
+          clusterIndex = 0;
+        }
+      }
+    }
+    return result;
+  }
+  
+  /**
+   * Validates the given resources and generates each cluster of them before the resource set is cleared.
+   * 
+   * @param failed set as soon as any worker found a validation error. If {@link #failOnValidationError} is set,
+   * no further cluster is generated then.
+   */
+  protected Map<URI, List<Issue>> validateAndGenerateAll(final XtextResourceSet resourceSet, final List<URI> uris, final IResourceClusteringPolicy strategy, final AtomicBoolean failed) {
+    final Map<URI, List<Issue>> result = CollectionLiterals.<URI, List<Issue>>newHashMap();
+    final List<Resource> cluster = CollectionLiterals.<Resource>newArrayList();
+    for (final URI uri : uris) {
+      {
+        final Resource resource = this.loadAndLink(resourceSet, uri);
+        final List<Issue> issues = this.computeIssues(resource);
+        result.put(uri, issues);
+        final Function1<Issue, Boolean> _function = (Issue it) -> {
+          Severity _severity = it.getSeverity();
+          return Boolean.valueOf(Objects.equal(_severity, Severity.ERROR));
+        };
+        boolean _exists = IterableExtensions.<Issue>exists(issues, _function);
+        if (_exists) {
+          failed.set(true);
+        }
+        cluster.add(resource);
+        boolean _continueProcessing = strategy.continueProcessing(resourceSet, null, cluster.size());
+        boolean _not = (!_continueProcessing);
+        if (_not) {
+          this.generateCluster(cluster, failed);
+          this.clearResourceSet(resourceSet);
+        }
+      }
+    }
+    this.generateCluster(cluster, failed);
+    return result;
+  }
+  
+  private void generateCluster(final List<Resource> cluster, final AtomicBoolean failed) {
+    if ((((!this.failOnValidationError) || (!failed.get())) && (!cluster.isEmpty()))) {
+      this.generate(cluster);
+    }
+    cluster.clear();
+  }
+  
+  protected void generateAll(final XtextResourceSet resourceSet, final List<URI> uris, final IResourceClusteringPolicy strategy) {
+    List<Resource> resources = CollectionLiterals.<Resource>newArrayList();
+    for (final URI uri : uris) {
+      {
+        resources.add(resourceSet.getResource(uri, true));
+        boolean _continueProcessing = strategy.continueProcessing(resourceSet, null, resources.size());
+        boolean _not = (!_continueProcessing);
+        if (_not) {
+          this.generate(resources);
+          this.clearResourceSet(resourceSet);
+          resources = CollectionLiterals.<Resource>newArrayList();
+        }
+      }
+    }
+    this.generate(resources);
+  }
+  
+  protected PersistedIndex readPersistedIndex() {
+    final File file = this.getPersistedIndexFile();
+    String _absolutePath = file.getAbsolutePath();
+    String _plus = ("Reading persisted index from " + _absolutePath);
+    StandaloneBuilder.LOG.info(_plus);
+    return PersistedIndex.read(file, IterableExtensions.join(IterableExtensions.<String>sort(this.languages.keySet()), ","));
+  }
+  
+  protected File getPersistedIndexFile() {
+    return new File(this.tempDir, "index.bin");
+  }
+  
+  /**
+   * Adds the persisted descriptions of unchanged resources to the index. The reused descriptions are
+   * deserialized right away, since the index registers their exported objects when they are added.
+   * 
+   * @return the URIs of the resources that are new or have been changed since the index was persisted
+   */
+  protected List<URI> reusePersistedDescriptions(final PersistedIndex persistedIndex, final Iterable<URI> uris, final ResourceDescriptionsData index, final ResourceSet resourceSet) {
+    final List<URI> changedURIs = CollectionLiterals.<URI>newArrayList();
+    for (final URI uri : uris) {
+      {
+        final IResourceDescription description = persistedIndex.getDescription(uri, resourceSet.getURIConverter());
+        if ((description != null)) {
+          index.addDescription(uri, description);
+        } else {
+          changedURIs.add(uri);
+        }
+      }
+    }
+    int _size = index.getAllURIs().size();
+    String _plus = ("Reusing " + Integer.valueOf(_size));
+    String _plus_1 = (_plus + " descriptions from the persisted index.");
+    StandaloneBuilder.LOG.info(_plus_1);
+    return changedURIs;
+  }
+  
   public void fillIndex(final URI uri, final Resource resource, final ResourceDescriptionsData index) {
     final IResourceDescription description = this.languageAccess(uri).getResourceDescriptionManager().getResourceDescription(resource);
     index.addDescription(uri, description);
@@ -311,21 +1140,86 @@ public class StandaloneBuilder {
   }
   
   protected String compileStubs(final File stubsDir) {
-    final File stubsClasses = this.createTempDir("classes");
-    this.compiler.setClassPath(this.classPathEntries);
-    String _absolutePath = stubsDir.getAbsolutePath();
-    String _plus = ("Compiling stubs located in " + _absolutePath);
-    StandaloneBuilder.LOG.info(_plus);
-    Iterable<String> _plus_1 = Iterables.<String>concat(this.javaSourceDirs, this.sourceDirs);
-    ArrayList<String> _newArrayList = CollectionLiterals.<String>newArrayList(stubsDir.getAbsolutePath());
-    Iterable<String> _plus_2 = Iterables.<String>concat(_plus_1, _newArrayList);
+    try {
+      final File stubsClasses = this.createTempDir("classes");
+      this.compiler.setClassPath(this.classPathEntries);
+      String _absolutePath = stubsDir.getAbsolutePath();
+      String _plus = ("Compiling stubs located in " + _absolutePath);
+      StandaloneBuilder.LOG.info(_plus);
+      Iterable<String> _plus_1 = Iterables.<String>concat(this.javaSourceDirs, this.sourceDirs);
+      ArrayList<String> _newArrayList = CollectionLiterals.<String>newArrayList(stubsDir.getAbsolutePath());
+      Iterable<String> _plus_2 = Iterables.<String>concat(_plus_1, _newArrayList);
+      final Set<String> sourcesToCompile = this.uniqueEntries(_plus_2);
+      String _join = IterableExtensions.join(sourcesToCompile, ",");
+      String _plus_3 = ("Compiler source roots: " + _join);
+      this.forceDebugLog(_plus_3);
+      String _computeCompilationKey = null;
+      if (this.stubCache!=null) {
+        _computeCompilationKey=this.stubCache.computeCompilationKey(sourcesToCompile, this.classPathEntries);
+      }
+      final String compilationKey = _computeCompilationKey;
+      if ((compilationKey != null)) {
+        boolean _isCompiled = this.stubCache.isCompiled(compilationKey, stubsClasses);
+        if (_isCompiled) {
+          StandaloneBuilder.LOG.info("Stubs and Java sources did not change. Stubs compilation was skipped.");
+          return stubsClasses.getAbsolutePath();
+        }
+        org.eclipse.xtext.util.Files.sweepFolder(stubsClasses);
+      }
+      final IJavaCompiler.CompilationResult result = this.compiler.compile(sourcesToCompile, stubsClasses);
+      if (this.stubCache!=null) {
+        String _xifexpression = null;
+        boolean _notEquals = (!Objects.equal(result, IJavaCompiler.CompilationResult.FAILED));
+        if (_notEquals) {
+          _xifexpression = compilationKey;
+        }
+        this.stubCache.setCompiled(_xifexpression);
+      }
+      if (result != null) {
+        switch (result) {
+          case SKIPPED:
+            StandaloneBuilder.LOG.info("Nothing to compile. Stubs compilation was skipped.");
+            break;
+          case FAILED:
+            this.forceDebugLog("Stubs compilation finished with errors.");
+            break;
+          case SUCCEEDED:
+            this.forceDebugLog("Stubs compilation successfully finished.");
+            break;
+          default:
+            break;
+        }
+      }
+      return stubsClasses.getAbsolutePath();
+    } catch (Throwable _e) {
+      throw Exceptions.sneakyThrow(_e);
+    }
+  }
+  
+  /**
+   * The in-memory compiler is only created in this mode since it requires the optional JDT and
+   * org.eclipse.xtext.java bundles.
+   * 
+   * @return a class loader for the compiled stubs and Java sources
+   */
+  protected ClassLoader compileStubsInMemory(final Map<String, CharSequence> stubs, final ClassLoader parent) {
+    final InMemoryJavaCompiler inMemoryCompiler = this.injector.<InMemoryJavaCompiler>getInstance(InMemoryJavaCompiler.class);
+    inMemoryCompiler.setConfiguration(this.compiler.getConfiguration());
+    inMemoryCompiler.setClassPath(this.classPathEntries);
+    inMemoryCompiler.setEncoding(this.encoding);
+    int _size = stubs.size();
+    String _plus = ("Compiling " + Integer.valueOf(_size));
+    String _plus_1 = (_plus + " stubs in memory");
+    StandaloneBuilder.LOG.info(_plus_1);
+    Iterable<String> _plus_2 = Iterables.<String>concat(this.javaSourceDirs, this.sourceDirs);
     final Set<String> sourcesToCompile = this.uniqueEntries(_plus_2);
     String _join = IterableExtensions.join(sourcesToCompile, ",");
     String _plus_3 = ("Compiler source roots: " + _join);
     this.forceDebugLog(_plus_3);
-    final IJavaCompiler.CompilationResult result = this.compiler.compile(sourcesToCompile, stubsClasses);
-    if (result != null) {
-      switch (result) {
+    final Map<String, byte[]> result = CollectionLiterals.<String, byte[]>newHashMap();
+    IJavaCompiler.CompilationResult _compile = inMemoryCompiler.compile(stubs, sourcesToCompile, result);
+    if (_compile != null) {
+      switch (_compile) {
         case SKIPPED:
           StandaloneBuilder.LOG.info("Nothing to compile. Stubs compilation was skipped.");
           break;
@@ -339,7 +1233,7 @@ public class StandaloneBuilder {
           break;
       }
     }
-    return stubsClasses.getAbsolutePath();
+    return inMemoryCompiler.createClassLoader(result, parent);
   }
   
   protected Set<String> uniqueEntries(final Iterable<String> pathes) {
@@ -362,21 +1256,77 @@ public class StandaloneBuilder {
       return Boolean.valueOf(this.languageAccess(it).isLinksAgainstJava());
     };
     final Iterable<URI> generateStubs = IterableExtensions.<URI>filter(sourceResourceURIs, _function);
+    IFileSystemAccess _elvis = null;
+    IFileSystemAccess _createStubAccess = null;
+    if (this.stubCache!=null) {
+      _createStubAccess=this.stubCache.createStubAccess(this.commonFileAccess, stubsDir);
+    }
+    if (_createStubAccess != null) {
+      _elvis = _createStubAccess;
+    } else {
+      _elvis = this.commonFileAccess;
+    }
+    final IFileSystemAccess stubAccess = _elvis;
     final Consumer<URI> _function_1 = (URI it) -> {
-      this.languageAccess(it).getStubGenerator().doGenerateStubs(this.commonFileAccess, data.getResourceDescription(it));
+      this.languageAccess(it).getStubGenerator().doGenerateStubs(stubAccess, data.getResourceDescription(it));
     };
     generateStubs.forEach(_function_1);
+    if ((this.stubCache != null)) {
+      final int deleted = this.stubCache.deleteStaleStubs(stubsDir);
+      if ((deleted > 0)) {
+        StandaloneBuilder.LOG.info((("Deleted " + Integer.valueOf(deleted)) + " stale stubs."));
+      }
+    }
     return stubsDir;
   }
   
+  /**
+   * @return the sources of the stubs by their file name
+   */
+  protected Map<String, CharSequence> generateStubsInMemory(final ResourceDescriptionsData data, final List<URI> sourceResourceURIs) {
+    final Map<String, CharSequence> result = CollectionLiterals.<String, CharSequence>newLinkedHashMap();
+    final IFileSystemAccess stubAccess = new IFileSystemAccess() {
+      @Override
+      public void generateFile(final String fileName, final CharSequence contents) {
+        result.put(fileName, contents);
+      }
+      
+      @Override
+      public void generateFile(final String fileName, final String outputConfigurationName, final CharSequence contents) {
+        result.put(fileName, contents);
+      }
+      
+      @Override
+      public void deleteFile(final String fileName) {
+        result.remove(fileName);
+      }
+    };
+    final Function1<URI, Boolean> _function = (URI it) -> {
+      return Boolean.valueOf(this.languageAccess(it).isLinksAgainstJava());
+    };
+    final Iterable<URI> generateStubs = IterableExtensions.<URI>filter(sourceResourceURIs, _function);
+    final Consumer<URI> _function_1 = (URI it) -> {
+      this.languageAccess(it).getStubGenerator().doGenerateStubs(stubAccess, data.getResourceDescription(it));
+    };
+    generateStubs.forEach(_function_1);
+    return result;
+  }
+  
   protected boolean validate(final Resource resource) {
+    final List<Issue> validationResult = this.computeIssues(resource);
+    return this.issueHandler.handleIssue(validationResult);
+  }
+  
+  protected List<Issue> computeIssues(final Resource resource) {
     String _lastSegment = resource.getURI().lastSegment();
     String _plus = ("Starting validation for input: \'" + _lastSegment);
     String _plus_1 = (_plus + "\'");
     StandaloneBuilder.LOG.info(_plus_1);
+    final BuildMetrics.Measurement validationStarted = this.metrics.start();
     final IResourceValidator resourceValidator = this.languageAccess(resource.getURI()).getResourceValidator();
-    final List<Issue> validationResult = resourceValidator.validate(resource, CheckMode.ALL, null);
-    return this.issueHandler.handleIssue(validationResult);
+    final List<Issue> result = resourceValidator.validate(resource, CheckMode.ALL, null);
+    this.metrics.stop(validationStarted, BuildMetrics.Phase.VALIDATE, resource.getURI());
+    return result;
   }
   
   protected void generate(final List<Resource> sourceResources) {
@@ -391,19 +1341,45 @@ public class StandaloneBuilder {
         this.registerCurrentSource(it.getURI());
         final LanguageAccess access = this.languageAccess(it.getURI());
         final JavaIoFileSystemAccess fileSystemAccess = this.getFileSystemAccess(access);
-        boolean _isWriteStorageResources = this.isWriteStorageResources();
-        if (_isWriteStorageResources) {
-          boolean _matched = false;
-          if (it instanceof StorageAwareResource) {
-            IResourceStorageFacade _resourceStorageFacade = ((StorageAwareResource)it).getResourceStorageFacade();
-            boolean _tripleNotEquals = (_resourceStorageFacade != null);
-            if (_tripleNotEquals) {
-              _matched=true;
-              ((StorageAwareResource)it).getResourceStorageFacade().saveResource(((StorageAwareResource)it), fileSystemAccess);
+        List<URI> _removeSource = null;
+        if (this.generatedFiles!=null) {
+          _removeSource=this.generatedFiles.removeSource(it.getURI());
+        }
+        final List<URI> previouslyGenerated = _removeSource;
+        JavaIoFileSystemAccess.IFileCallback _xifexpression = null;
+        if ((this.generatedFiles != null)) {
+          _xifexpression = this.getInstalledCallBack(fileSystemAccess);
+        }
+        final JavaIoFileSystemAccess.IFileCallback originalCallBack = _xifexpression;
+        if ((this.generatedFiles != null)) {
+          fileSystemAccess.setCallBack(this.generatedFiles.recordGeneratedFiles(it.getURI(), originalCallBack));
+        }
+        try {
+          boolean _isWriteStorageResources = this.isWriteStorageResources();
+          if (_isWriteStorageResources) {
+            boolean _matched = false;
+            if (it instanceof StorageAwareResource) {
+              IResourceStorageFacade _resourceStorageFacade = ((StorageAwareResource)it).getResourceStorageFacade();
+              boolean _tripleNotEquals = (_resourceStorageFacade != null);
+              if (_tripleNotEquals) {
+                _matched=true;
+                final BuildMetrics.Measurement storageStarted = this.metrics.start();
+                ((StorageAwareResource)it).getResourceStorageFacade().saveResource(((StorageAwareResource)it), fileSystemAccess);
+                this.metrics.stop(storageStarted, BuildMetrics.Phase.STORAGE, it.getURI());
+              }
             }
           }
+          final BuildMetrics.Measurement generationStarted = this.metrics.start();
+          access.getGenerator().generate(it, fileSystemAccess, context);
+          this.metrics.stop(generationStarted, BuildMetrics.Phase.GENERATE, it.getURI());
+        } finally {
+          if ((this.generatedFiles != null)) {
+            fileSystemAccess.setCallBack(originalCallBack);
+          }
+        }
+        if ((previouslyGenerated != null)) {
+          this.generatedFiles.deleteStaleFiles(it.getURI(), previouslyGenerated, this.getNonOverridingOutputDirectories(fileSystemAccess));
         }
-        access.getGenerator().generate(it, fileSystemAccess, context);
       }
     }
   }
@@ -448,19 +1424,57 @@ public class StandaloneBuilder {
     }
   }
   
-  private Map<LanguageAccess, JavaIoFileSystemAccess> configuredFsas = CollectionLiterals.<LanguageAccess, JavaIoFileSystemAccess>newHashMap();
+  /**
+   * The current source of a file system access is mutable thus each worker thread uses its own instances.
+   */
+  private ThreadLocal<Map<LanguageAccess, JavaIoFileSystemAccess>> configuredFsas = ThreadLocal.<Map<LanguageAccess, JavaIoFileSystemAccess>>withInitial(((Supplier<Map<LanguageAccess, JavaIoFileSystemAccess>>) () -> {
+    return CollectionLiterals.<LanguageAccess, JavaIoFileSystemAccess>newHashMap();
+  }));
   
   private JavaIoFileSystemAccess getFileSystemAccess(final LanguageAccess language) {
-    JavaIoFileSystemAccess fsa = this.configuredFsas.get(language);
+    final Map<LanguageAccess, JavaIoFileSystemAccess> fsas = this.configuredFsas.get();
+    JavaIoFileSystemAccess fsa = fsas.get(language);
     if ((fsa == null)) {
       File _file = new File(this.baseDir);
       fsa = language.createFileSystemAccess(_file);
       fsa = this.configureFileSystemAccess(fsa, language);
-      this.configuredFsas.put(language, fsa);
+      fsas.put(language, fsa);
     }
     return fsa;
   }
   
+  /**
+   * @return the callback that has been installed in the given file system access, e.g. by
+   *         {@link #configureFileSystemAccess(JavaIoFileSystemAccess, LanguageAccess)}, which does not expose it.
+   */
+  private JavaIoFileSystemAccess.IFileCallback getInstalledCallBack(final JavaIoFileSystemAccess fsa) {
+    try {
+      final Field field = JavaIoFileSystemAccess.class.getDeclaredField("callBack");
+      field.setAccessible(true);
+      Object _get = field.get(fsa);
+      return ((JavaIoFileSystemAccess.IFileCallback) _get);
+    } catch (final Throwable _t) {
+      if (_t instanceof ReflectiveOperationException) {
+        final ReflectiveOperationException e = (ReflectiveOperationException)_t;
+        StandaloneBuilder.LOG.warn("Could not read the callback of the file system access.", e);
+        return null;
+      } else {
+        throw Exceptions.sneakyThrow(_t);
+      }
+    }
+  }
+  
+  private Set<String> getNonOverridingOutputDirectories(final JavaIoFileSystemAccess fsa) {
+    final Function1<OutputConfiguration, Boolean> _function = (OutputConfiguration it) -> {
+      boolean _isOverrideExistingResources = it.isOverrideExistingResources();
+      return Boolean.valueOf((!_isOverrideExistingResources));
+    };
+    final Function1<OutputConfiguration, Set<String>> _function_1 = (OutputConfiguration it) -> {
+      return it.getOutputDirectories();
+    };
+    return IterableExtensions.<String>toSet(Iterables.<String>concat(IterableExtensions.<OutputConfiguration, Set<String>>map(IterableExtensions.<OutputConfiguration>filter(fsa.getOutputConfigurations().values(), _function), _function_1)));
+  }
+  
   protected JavaIoFileSystemAccess configureFileSystemAccess(final JavaIoFileSystemAccess fsa, final LanguageAccess language) {
     return fsa;
   }
@@ -485,8 +1499,16 @@ public class StandaloneBuilder {
   }
   
   protected void installTypeProvider(final Iterable<String> classPathRoots, final XtextResourceSet resSet, final IndexedJvmTypeAccess typeAccess) {
-    final URLClassLoader classLoader = this.createURLClassLoader(classPathRoots);
-    new ClasspathTypeProvider(classLoader, resSet, typeAccess, null);
+    this.installTypeProvider(this.createURLClassLoader(classPathRoots), resSet, typeAccess);
+  }
+  
+  protected void installTypeProvider(final ClassLoader classLoader, final XtextResourceSet resSet, final IndexedJvmTypeAccess typeAccess) {
+    if ((this.typeCacheDir != null)) {
+      ITypeFactory<BinaryClass, JvmDeclaredType> _createSharedTypeFactory = this.createSharedTypeFactory(classLoader);
+      new CachingClasspathTypeProvider(classLoader, resSet, typeAccess, _createSharedTypeFactory, null);
+    } else {
+      new ClasspathTypeProvider(classLoader, resSet, typeAccess, null);
+    }
     resSet.setClasspathURIContext(classLoader);
   }
   
@@ -502,82 +1524,36 @@ public class StandaloneBuilder {
     return new URLClassLoader(((URL[])Conversions.unwrapArray(classPathUrls, URL.class)));
   }
   
+  /**
+   * Collects the model files of the given roots with {@link #numberOfThreads} workers. The contents of jars are
+   * cached by their path, size and modification time, and persisted with the index.
+   */
   protected List<URI> collectResources(final Iterable<String> roots, final ResourceSet resourceSet) {
-    final String extensions = IterableExtensions.join(this.languages.keySet(), "|");
-    final NameBasedFilter nameBasedFilter = new NameBasedFilter();
-    nameBasedFilter.setRegularExpression(((".*\\.(?:(" + extensions) + "))$"));
+    final List<ClassPathScanner.ScannedRoot> scannedRoots = this.classPathScanner.scan(roots, this.languages.keySet(), this.numberOfThreads);
     final List<URI> resources = CollectionLiterals.<URI>newArrayList();
-    final Predicate<URI> _function = (URI input) -> {
-      final boolean matches = nameBasedFilter.matches(input);
-      if (matches) {
-        this.forceDebugLog((("Adding file \'" + input) + "\'"));
-        resources.add(input);
-      }
-      return matches;
-    };
-    final Multimap<String, URI> modelsFound = new PathTraverser().resolvePathes(
-      IterableExtensions.<String>toList(roots), _function);
-    final BiConsumer<String, Collection<URI>> _function_1 = (String uri, Collection<URI> resource) -> {
-      final File file = new File(uri);
-      if ((((resource != null) && (!file.isDirectory())) && file.getName().endsWith(".jar"))) {
-        this.registerBundle(file);
+    for (final ClassPathScanner.ScannedRoot root : scannedRoots) {
+      List<URI> _uRIs = root.getURIs();
+      for (final URI uri : _uRIs) {
+        {
+          this.forceDebugLog((("Adding file \'" + uri) + "\'"));
+          resources.add(uri);
+        }
       }
+    }
+    final BiConsumer<File, String> _function = (File file, String name) -> {
+      this.registerBundle(file, name);
     };
-    modelsFound.asMap().forEach(_function_1);
+    ClassPathScanner.registerBundles(scannedRoots, _function);
     return resources;
   }
   
-  protected void registerBundle(final File file) {
-    JarFile jarFile = null;
-    try {
-      JarFile _jarFile = new JarFile(file);
-      jarFile = _jarFile;
-      final Manifest manifest = jarFile.getManifest();
-      if ((manifest == null)) {
-        return;
-      }
-      String name = manifest.getMainAttributes().getValue("Bundle-SymbolicName");
-      if ((name != null)) {
-        final int indexOf = name.indexOf(";");
-        if ((indexOf > 0)) {
-          name = name.substring(0, indexOf);
-        }
-        boolean _containsKey = EcorePlugin.getPlatformResourceMap().containsKey(name);
-        if (_containsKey) {
-          return;
-        }
-        java.net.URI _uRI = file.toURI();
-        String _plus = ("archive:" + _uRI);
-        final String path = (_plus + "!/");
-        final URI uri = URI.createURI(path);
-        EcorePlugin.getPlatformResourceMap().put(name, uri);
-      }
-    } catch (final Throwable _t) {
-      if (_t instanceof ZipException) {
-        String _absolutePath = file.getAbsolutePath();
-        String _plus_1 = ("Could not open Jar file " + _absolutePath);
-        String _plus_2 = (_plus_1 + ".");
-        this.forceDebugLog(_plus_2);
-      } else if (_t instanceof Exception) {
-        final Exception e_1 = (Exception)_t;
-        StandaloneBuilder.LOG.error(file.getAbsolutePath(), e_1);
-      } else {
-        throw Exceptions.sneakyThrow(_t);
-      }
-    } finally {
-      try {
-        if ((jarFile != null)) {
-          jarFile.close();
-        }
-      } catch (final Throwable _t_1) {
-        if (_t_1 instanceof IOException) {
-          final IOException e_2 = (IOException)_t_1;
-          StandaloneBuilder.LOG.error(jarFile, e_2);
-        } else {
-          throw Exceptions.sneakyThrow(_t_1);
-        }
-      }
-    }
+  /**
+   * Registers a jar that contains model files as a bundle. The symbolic name has already been read from its
+   * manifest by the {@link ClassPathScanner}.
+   * @since 2.14
+   */
+  protected void registerBundle(final File file, final String bundleSymbolicName) {
+    ClassPathScanner.registerBundle(file, bundleSymbolicName);
   }
   
   public IJavaCompiler getCompiler() {
@@ -716,4 +1692,90 @@ public class StandaloneBuilder {
   public void setClusteringConfig(final ClusteringConfig clusteringConfig) {
     this.clusteringConfig = clusteringConfig;
   }
+  
+  @Pure
+  public int getNumberOfThreads() {
+    return this.numberOfThreads;
+  }
+  
+  public void setNumberOfThreads(final int numberOfThreads) {
+    this.numberOfThreads = numberOfThreads;
+  }
+  
+  @Pure
+  public boolean isPersistIndex() {
+    return this.persistIndex;
+  }
+  
+  public void setPersistIndex(final boolean persistIndex) {
+    this.persistIndex = persistIndex;
+  }
+  
+  @Pure
+  public boolean isIncremental() {
+    return this.incremental;
+  }
+  
+  public void setIncremental(final boolean incremental) {
+    this.incremental = incremental;
+  }
+  
+  @Pure
+  public boolean isCompileStubsInMemory() {
+    return this.compileStubsInMemory;
+  }
+  
+  public void setCompileStubsInMemory(final boolean compileStubsInMemory) {
+    this.compileStubsInMemory = compileStubsInMemory;
+  }
+  
+  @Pure
+  public BuildMetrics getMetrics() {
+    return this.metrics;
+  }
+  
+  @Pure
+  public File getMetricsReport() {
+    return this.metricsReport;
+  }
+  
+  public void setMetricsReport(final File metricsReport) {
+    this.metricsReport = metricsReport;
+  }
+  
+  @Pure
+  public int getSlowestFilesInReport() {
+    return this.slowestFilesInReport;
+  }
+  
+  public void setSlowestFilesInReport(final int slowestFilesInReport) {
+    this.slowestFilesInReport = slowestFilesInReport;
+  }
+  
+  @Pure
+  public boolean isStreamingGeneration() {
+    return this.streamingGeneration;
+  }
+  
+  public void setStreamingGeneration(final boolean streamingGeneration) {
+    this.streamingGeneration = streamingGeneration;
+  }
+  
+  @Pure
+  public File getTypeCacheDir() {
+    return this.typeCacheDir;
+  }
+  
+  public void setTypeCacheDir(final File typeCacheDir) {
+    this.typeCacheDir = typeCacheDir;
+  }
+  
+  @Pure
+  public IIssueHandler getIssueHandler() {
+    return this.issueHandler;
+  }
+  
+  public void setIssueHandler(final IIssueHandler issueHandler) {
+    this.issueHandler = issueHandler;
+  }
 }
@@ -7,27 +7,21 @@
  */
 package org.eclipse.xtext.builder.standalone.incremental;
 
-import com.google.common.base.Predicate;
 import com.google.common.collect.Iterables;
-import com.google.common.collect.Multimap;
 import java.io.File;
-import java.io.IOException;
-import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 import java.util.Set;
 import java.util.function.BiConsumer;
-import java.util.jar.JarFile;
-import java.util.jar.Manifest;
-import java.util.zip.ZipException;
 import org.apache.log4j.Logger;
 import org.eclipse.emf.common.util.URI;
-import org.eclipse.emf.ecore.plugin.EcorePlugin;
-import org.eclipse.xtext.mwe.PathTraverser;
+import org.eclipse.xtend.lib.annotations.Accessors;
 import org.eclipse.xtext.util.internal.Log;
 import org.eclipse.xtext.xbase.lib.CollectionLiterals;
-import org.eclipse.xtext.xbase.lib.Exceptions;
 import org.eclipse.xtext.xbase.lib.Functions.Function1;
 import org.eclipse.xtext.xbase.lib.IterableExtensions;
+import org.eclipse.xtext.xbase.lib.ListExtensions;
+import org.eclipse.xtext.xbase.lib.Pure;
 
 /**
  * @author Jan Koehnlein - Initial contribution and API
@@ -36,6 +30,16 @@ import org.eclipse.xtext.xbase.lib.IterableExtensions;
 @Log
 @SuppressWarnings("all")
 public class ResourceURICollector {
+  /**
+   * Number of roots that are traversed concurrently.
+   * <br>Default is 1
+   * @since 2.14
+   */
+  @Accessors
+  private int numberOfThreads = 1;
+  
+  private final ClassPathScanner classPathScanner = new ClassPathScanner();
+  
   public Set<URI> collectAllResources(final Iterable<URI> roots, final Set<String> fileExtensions) {
     boolean _isInfoEnabled = ResourceURICollector.LOG.isInfoEnabled();
     if (_isInfoEnabled) {
@@ -59,71 +63,34 @@ public class ResourceURICollector {
     final Function1<URI, String> _function = (URI it) -> {
       return it.toFileString();
     };
-    final Predicate<URI> _function_1 = (URI it) -> {
-      return extensions.contains(it.fileExtension());
+    final List<ClassPathScanner.ScannedRoot> scannedRoots = this.classPathScanner.scan(IterableExtensions.<URI, String>map(roots, _function), extensions, this.numberOfThreads);
+    final BiConsumer<File, String> _function_1 = (File file, String name) -> {
+      this.registerBundle(file, name);
     };
-    final Multimap<String, URI> modelsFound = new PathTraverser().resolvePathes(IterableExtensions.<String>toList(IterableExtensions.<URI, String>map(roots, _function)), _function_1);
-    final BiConsumer<String, Collection<URI>> _function_2 = (String path, Collection<URI> resource) -> {
-      final File file = new File(path);
-      if ((((resource != null) && (!file.isDirectory())) && file.getName().endsWith(".jar"))) {
-        this.registerBundle(file);
-      }
+    ClassPathScanner.registerBundles(scannedRoots, _function_1);
+    final Function1<ClassPathScanner.ScannedRoot, List<URI>> _function_2 = (ClassPathScanner.ScannedRoot it) -> {
+      return it.getURIs();
     };
-    modelsFound.asMap().forEach(_function_2);
-    return IterableExtensions.<URI>toSet(modelsFound.values());
+    return IterableExtensions.<URI>toSet(Iterables.<URI>concat(ListExtensions.<ClassPathScanner.ScannedRoot, List<URI>>map(scannedRoots, _function_2)));
   }
   
-  protected void registerBundle(final File file) {
-    JarFile jarFile = null;
-    try {
-      JarFile _jarFile = new JarFile(file);
-      jarFile = _jarFile;
-      final Manifest manifest = jarFile.getManifest();
-      if ((manifest == null)) {
-        return;
-      }
-      String name = manifest.getMainAttributes().getValue("Bundle-SymbolicName");
-      if ((name != null)) {
-        final int indexOf = name.indexOf(";");
-        if ((indexOf > 0)) {
-          name = name.substring(0, indexOf);
-        }
-        boolean _containsKey = EcorePlugin.getPlatformResourceMap().containsKey(name);
-        if (_containsKey) {
-          return;
-        }
-        URI _createFileURI = URI.createFileURI(file.getAbsolutePath());
-        String _plus = ("archive:" + _createFileURI);
-        final String path = (_plus + "!/");
-        EcorePlugin.getPlatformResourceMap().put(name, URI.createURI(path));
-      }
-    } catch (final Throwable _t) {
-      if (_t instanceof ZipException) {
-        String _absolutePath = file.getAbsolutePath();
-        String _plus_1 = ("Could not open Jar file " + _absolutePath);
-        String _plus_2 = (_plus_1 + ".");
-        ResourceURICollector.LOG.info(_plus_2);
-      } else if (_t instanceof Exception) {
-        final Exception e_1 = (Exception)_t;
-        ResourceURICollector.LOG.error(file.getAbsolutePath(), e_1);
-      } else {
-        throw Exceptions.sneakyThrow(_t);
-      }
-    } finally {
-      try {
-        if ((jarFile != null)) {
-          jarFile.close();
-        }
-      } catch (final Throwable _t_1) {
-        if (_t_1 instanceof IOException) {
-          final IOException e_2 = (IOException)_t_1;
-          ResourceURICollector.LOG.error(jarFile, e_2);
-        } else {
-          throw Exceptions.sneakyThrow(_t_1);
-        }
-      }
-    }
+  /**
+   * Registers a jar that contains model files as a bundle. The symbolic name has already been read from its
+   * manifest by the {@link ClassPathScanner}.
+   * @since 2.14
+   */
+  protected void registerBundle(final File file, final String bundleSymbolicName) {
+    ClassPathScanner.registerBundle(file, bundleSymbolicName);
   }
   
   private final static Logger LOG = Logger.getLogger(ResourceURICollector.class);
+  
+  @Pure
+  public int getNumberOfThreads() {
+    return this.numberOfThreads;
+  }
+  
+  public void setNumberOfThreads(final int numberOfThreads) {
+    this.numberOfThreads = numberOfThreads;
+  }
 }
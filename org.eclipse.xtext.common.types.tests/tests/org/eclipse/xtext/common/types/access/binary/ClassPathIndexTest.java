@@ -0,0 +1,135 @@
+/*******************************************************************************
+ * Copyright (c) 2018 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.common.types.access.binary;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
+
+import org.eclipse.xtext.util.Files;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ClassPathIndexTest extends Assert {
+
+	private File directory;
+
+	private File jar;
+
+	private File classes;
+
+	@Before
+	public void setUp() throws IOException {
+		directory = com.google.common.io.Files.createTempDir();
+		jar = new File(directory, "test.jar");
+		try (JarOutputStream out = new JarOutputStream(new FileOutputStream(jar))) {
+			out.putNextEntry(new ZipEntry("foo/bar/Baz.class"));
+			out.write(new byte[] { 1, 2, 3 });
+			out.closeEntry();
+		}
+		classes = new File(directory, "classes");
+		classes.mkdirs();
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		ClassPathIndex.clear();
+		Files.sweepFolder(directory);
+		directory.delete();
+	}
+
+	@Test
+	public void testJar() throws Exception {
+		ClassPathIndex index = ClassPathIndex.get(createClassLoader());
+		assertNotNull(index);
+		assertTrue(index.mightContain("foo/bar/Baz.class"));
+		assertTrue(index.mightContain("foo/bar/Other.class"));
+		assertFalse(index.mightContain("foo/Baz.class"));
+		assertTrue(index.isPackage("foo/bar"));
+		assertTrue(index.isPackage("foo"));
+		assertFalse(index.isPackage("bar"));
+		assertFalse(index.isPackage("foo/bar/Baz"));
+		assertEquals(jar.getAbsoluteFile(), index.getJars("foo/bar").get(0).getAbsoluteFile());
+	}
+
+	@Test
+	public void testDefaultPackage() throws Exception {
+		assertFalse(ClassPathIndex.get(createClassLoader()).mightContain("Root.class"));
+		File rootJar = new File(directory, "root.jar");
+		try (JarOutputStream out = new JarOutputStream(new FileOutputStream(rootJar))) {
+			out.putNextEntry(new ZipEntry("Root.class"));
+			out.write(new byte[] { 1, 2, 3 });
+			out.closeEntry();
+		}
+		URLClassLoader classLoader = new URLClassLoader(new URL[] { rootJar.toURI().toURL(), jar.toURI().toURL() }, null);
+		ClassPathIndex index = ClassPathIndex.get(classLoader);
+		assertTrue(index.mightContain("Root.class"));
+		assertTrue(index.mightContain("Other.class"));
+		assertEquals("Root", BinaryClass.forName("Root", classLoader).getName());
+	}
+
+	@Test
+	public void testBootClassPath() throws Exception {
+		ClassPathIndex index = ClassPathIndex.get(createClassLoader());
+		assertTrue(index.mightContain("java/lang/String.class"));
+		assertTrue(index.isPackage("java/util"));
+		assertTrue(index.isPackage("java"));
+	}
+
+	@Test
+	public void testFolderIsNotCached() throws Exception {
+		ClassPathIndex index = ClassPathIndex.get(createClassLoader());
+		assertFalse(index.mightContain("x/y/Z.class"));
+		File file = new File(classes, "x/y/Z.class");
+		file.getParentFile().mkdirs();
+		file.createNewFile();
+		assertTrue(index.mightContain("x/y/Z.class"));
+		assertTrue(index.isPackage("x/y"));
+	}
+
+	@Test
+	public void testSameIndexPerClassLoader() throws Exception {
+		URLClassLoader classLoader = createClassLoader();
+		assertSame(ClassPathIndex.get(classLoader), ClassPathIndex.get(classLoader));
+	}
+
+	@Test
+	public void testUnknownClassLoader() throws Exception {
+		ClassLoader classLoader = new URLClassLoader(new URL[0], null) {
+			@Override
+			public URL getResource(String name) {
+				return null;
+			}
+		};
+		assertNull(ClassPathIndex.get(classLoader));
+	}
+
+	@Test
+	public void testBinaryClass() throws Exception {
+		URLClassLoader classLoader = createClassLoader();
+		assertEquals("foo.bar.Baz", BinaryClass.forName("foo.bar.Baz", classLoader).getName());
+		assertEquals("foo.bar.Baz", new BinaryClass("foo.bar.Baz$Inner", classLoader).getOutermostClassName());
+		try {
+			BinaryClass.forName("foo.Baz", classLoader);
+			fail("Expected ClassNotFoundException");
+		} catch (ClassNotFoundException e) {
+			// expected
+		}
+	}
+
+	private URLClassLoader createClassLoader() throws Exception {
+		return new URLClassLoader(new URL[] { jar.toURI().toURL(), classes.toURI().toURL() }, null);
+	}
+
+}
@@ -0,0 +1,40 @@
+/*******************************************************************************
+ * Copyright (c) 2018 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.common.types.access.binary.asm;
+
+import org.eclipse.emf.common.util.URI;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BinaryTypeSignatureURITest extends Assert {
+
+	@Test
+	public void testObjectType() {
+		URI uri = BinarySignatures.createObjectTypeSignature("java/lang/String").getURI();
+		assertEquals("java:/Objects/java.lang.String#java.lang.String", uri.toString());
+		assertSame(uri, BinarySignatures.createTypeSignature("Ljava/lang/String;").getURI());
+	}
+
+	@Test
+	public void testPrimitiveAndClassWithSameDescriptor() {
+		assertEquals("java:/Primitives#int", BinarySignatures.createTypeSignature("I").getURI().toString());
+		assertEquals("java:/Objects/I#I", BinarySignatures.createObjectTypeSignature("I").getURI().toString());
+		assertEquals("java:/Primitives#int[]", BinarySignatures.createTypeSignature("[I").getURI().toString());
+	}
+
+	@Test
+	public void testArrayAndErasure() {
+		BinaryTypeSignature generic = BinarySignatures.createTypeSignature("[Ljava/util/List<Ljava/lang/String;>;");
+		URI uri = generic.getTypeErasure().getURI();
+		assertEquals("java:/Objects/java.util.List#java.util.List[]", uri.toString());
+		assertSame(uri, BinarySignatures.createTypeSignature("[Ljava/util/List;").getURI());
+		assertEquals("java:/Objects/java.util.List#java.util.List",
+				generic.getArrayComponentType().getTypeErasure().getURI().toString());
+	}
+
+}
@@ -0,0 +1,54 @@
+/*******************************************************************************
+ * Copyright (c) 2018 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.common.types.access.binary.asm;
+
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.xtext.common.types.access.binary.BinaryClass;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BoundedClassFileBytesAccessTest extends Assert {
+
+	private final ClassLoader classLoader = getClass().getClassLoader();
+
+	@Test
+	public void testHitsAndMisses() throws Exception {
+		BoundedClassFileBytesAccess access = new BoundedClassFileBytesAccess();
+		BinaryClass clazz = BinaryClass.forName(List.class.getName(), classLoader);
+		byte[] bytes = access.getBytes(clazz);
+		assertNotNull(bytes);
+		assertSame(bytes, access.getBytes(clazz));
+		assertEquals(1, access.getMissCount());
+		assertEquals(1, access.getHitCount());
+	}
+
+	@Test
+	public void testMissingClass() {
+		BoundedClassFileBytesAccess access = new BoundedClassFileBytesAccess();
+		BinaryClass clazz = new BinaryClass("does.not.Exist", classLoader);
+		assertNull(access.getBytes(clazz));
+		assertNull(access.getBytes(clazz));
+		assertEquals(1, access.getHitCount());
+	}
+
+	@Test
+	public void testEviction() throws Exception {
+		BoundedClassFileBytesAccess access = new BoundedClassFileBytesAccess(0);
+		BinaryClass list = BinaryClass.forName(List.class.getName(), classLoader);
+		BinaryClass map = BinaryClass.forName(Map.class.getName(), classLoader);
+		assertNotNull(access.getBytes(list));
+		assertNotNull(access.getBytes(map));
+		assertNotNull(access.getBytes(list));
+		assertEquals(0, access.getHitCount());
+		assertEquals(3, access.getMissCount());
+		assertTrue(access.getEvictionCount() >= 2);
+	}
+
+}
@@ -7,6 +7,7 @@
  *******************************************************************************/
 package org.eclipse.xtext.common.types.access.impl;
 
+import java.util.List;
 import java.util.Map;
 
 import org.eclipse.emf.common.util.URI;
@@ -37,6 +38,7 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
 import com.google.inject.Inject;
 
 /**
@@ -332,4 +334,66 @@ public class ClasspathTypeProviderTest extends AbstractTypeProviderTest {
 		JvmType actual2 = getTypeProvider().findTypeByName("package.name.SimpleName");
 		assertEquals(expected2, actual2);
 	}
+
+	@Test
+	public void testTypeNotFoundInIndex() {
+		assertNull(getTypeProvider().findTypeByName("package.name.SimpleName"));
+		Resource resource = resourceSet.createResource(URI.createURI("foo.typesRefactoring"));
+		JvmGenericType expected = TypesFactory.eINSTANCE.createJvmGenericType();
+		expected.setSimpleName("SimpleName");
+		expected.setPackageName("package.name");
+		resource.getContents().add(expected);
+		assertEquals(expected, getTypeProvider().findTypeByName("package.name.SimpleName"));
+		assertNull(getTypeProvider().findTypeByName("package.name.OtherName"));
+		JvmGenericType other = TypesFactory.eINSTANCE.createJvmGenericType();
+		other.setSimpleName("OtherName");
+		other.setPackageName("package.name");
+		resource.getContents().add(other);
+		assertEquals(other, getTypeProvider().findTypeByName("package.name.OtherName"));
+	}
+
+	@Test
+	public void testRenamedTypeFoundInIndex() {
+		Resource resource = resourceSet.createResource(URI.createURI("foo.typesRefactoring"));
+		JvmGenericType type = TypesFactory.eINSTANCE.createJvmGenericType();
+		type.setSimpleName("SimpleName");
+		type.setPackageName("package.name");
+		resource.getContents().add(type);
+		assertEquals(type, getTypeProvider().findTypeByName("package.name.SimpleName"));
+		assertNull(getTypeProvider().findTypeByName("package.name.RenamedName"));
+		type.setSimpleName("RenamedName");
+		assertEquals(type, getTypeProvider().findTypeByName("package.name.RenamedName"));
+	}
+
+	@Test
+	public void testRenamedNestedTypeFoundInIndex() {
+		Resource resource = resourceSet.createResource(URI.createURI("foo.typesRefactoring"));
+		JvmGenericType type = TypesFactory.eINSTANCE.createJvmGenericType();
+		type.setSimpleName("SimpleName");
+		type.setPackageName("package.name");
+		JvmGenericType nested = TypesFactory.eINSTANCE.createJvmGenericType();
+		nested.setSimpleName("NestedName");
+		type.getMembers().add(nested);
+		resource.getContents().add(type);
+		assertEquals(nested, getTypeProvider().findTypeByName("package.name.SimpleName$NestedName"));
+		assertNull(getTypeProvider().findTypeByName("package.name.SimpleName$RenamedName"));
+		assertNull(getTypeProvider().findTypeByName("package.name.SimpleName.RenamedName"));
+		nested.setSimpleName("RenamedName");
+		assertEquals(nested, getTypeProvider().findTypeByName("package.name.SimpleName$RenamedName"));
+		assertEquals(nested, getTypeProvider().findTypeByName("package.name.SimpleName.RenamedName"));
+	}
+	
+	@Test
+	public void testFindTypesByName() {
+		List<String> names = Lists.newArrayList("java.util.Map.Entry", "java.lang.String", "does.not.Exist", "int",
+				"java.util.List", "java.lang.String[]", "java.lang.String");
+		Map<String, JvmType> types = getTypeProvider().findTypesByName(names, false);
+		assertEquals(Lists.newArrayList("java.util.Map.Entry", "java.lang.String", "does.not.Exist", "int",
+				"java.util.List", "java.lang.String[]"), Lists.newArrayList(types.keySet()));
+		assertNull(types.get("does.not.Exist"));
+		for (String name : types.keySet()) {
+			assertSame(name, getTypeProvider().findTypeByName(name, false), types.get(name));
+		}
+		assertEquals("java.util.Map$Entry", types.get("java.util.Map.Entry").getIdentifier());
+	}
 }
@@ -0,0 +1,139 @@
+/*******************************************************************************
+ * Copyright (c) 2018 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.common.types.access.impl;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.xtext.common.types.JvmDeclaredType;
+import org.eclipse.xtext.common.types.JvmType;
+import org.eclipse.xtext.common.types.JvmTypeReference;
+import org.eclipse.xtext.resource.SynchronizedXtextResourceSet;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+public class ConcurrentClasspathTypeProviderTest extends ClasspathTypeProviderTest {
+
+	private static final int THREADS = 8;
+
+	private static final int ROUNDS = 20;
+
+	private static final List<String> TYPE_NAMES = Collections.unmodifiableList(Lists.newArrayList(
+			"java.lang.Object", "java.lang.String", "java.lang.Integer", "java.lang.Thread", "java.lang.Thread$State",
+			"java.util.List", "java.util.ArrayList", "java.util.Map", "java.util.Map$Entry", "java.util.HashMap",
+			"java.util.TreeMap", "java.util.Collections", "java.util.concurrent.ConcurrentHashMap",
+			"java.util.concurrent.ExecutorService", "java.io.File", "java.io.InputStream", "java.net.URL",
+			"java.lang.String[]", "int", "does.not.Exist"));
+
+	@Override
+	protected ClasspathTypeProvider createTypeProvider() {
+		return new ConcurrentClasspathTypeProvider(getClass().getClassLoader(), getResourceSet(),
+				getIndexedJvmTypeAccess(), null);
+	}
+
+	@Test
+	public void testConcurrentLookup() throws Exception {
+		SynchronizedXtextResourceSet resourceSet = new SynchronizedXtextResourceSet();
+		resourceSet.setClasspathURIContext(getClass().getClassLoader());
+		final ConcurrentClasspathTypeProvider typeProvider = new ConcurrentClasspathTypeProvider(
+				getClass().getClassLoader(), resourceSet, null, null);
+		final CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		try {
+			List<Future<Map<String, JvmType>>> futures = Lists.newArrayList();
+			for (int i = 0; i < THREADS; i++) {
+				final Random random = new Random(i);
+				futures.add(executor.submit(new Callable<Map<String, JvmType>>() {
+					@Override
+					public Map<String, JvmType> call() throws Exception {
+						start.await();
+						Map<String, JvmType> result = Maps.newHashMap();
+						for (int round = 0; round < ROUNDS; round++) {
+							List<String> names = Lists.newArrayList(TYPE_NAMES);
+							Collections.shuffle(names, random);
+							for (String name : names) {
+								JvmType type = typeProvider.findTypeByName(name);
+								JvmType previous = result.put(name, type);
+								assertTrue(name, previous == null || previous == type);
+								if (type instanceof JvmDeclaredType) {
+									for (JvmTypeReference superType : ((JvmDeclaredType) type).getSuperTypes()) {
+										assertFalse(superType.getIdentifier(), superType.getType().eIsProxy());
+									}
+								}
+							}
+						}
+						return result;
+					}
+				}));
+			}
+			start.countDown();
+			Map<String, JvmType> expected = null;
+			for (Future<Map<String, JvmType>> future : futures) {
+				Map<String, JvmType> actual = future.get(2, TimeUnit.MINUTES);
+				if (expected == null) {
+					expected = actual;
+				} else {
+					for (String name : TYPE_NAMES) {
+						assertSame(name, expected.get(name), actual.get(name));
+					}
+				}
+			}
+			assertNull(expected.get("does.not.Exist"));
+			assertEquals("java.lang.Thread$State", expected.get("java.lang.Thread$State").getIdentifier());
+		} finally {
+			executor.shutdownNow();
+		}
+		Set<String> uris = Sets.newHashSet();
+		for (Resource resource : resourceSet.getResources()) {
+			assertTrue("duplicate resource " + resource.getURI(), uris.add(resource.getURI().toString()));
+		}
+	}
+
+	@Test
+	public void testParallelBatchLookup() throws Exception {
+		SynchronizedXtextResourceSet resourceSet = new SynchronizedXtextResourceSet();
+		resourceSet.setClasspathURIContext(getClass().getClassLoader());
+		ConcurrentClasspathTypeProvider typeProvider = new ConcurrentClasspathTypeProvider(
+				getClass().getClassLoader(), resourceSet, null, null);
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(THREADS, THREADS, 0, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<Runnable>());
+		try {
+			typeProvider.setExecutor(executor);
+			Map<String, JvmType> types = typeProvider.findTypesByName(TYPE_NAMES, true);
+			assertTrue("types were not built by the executor", executor.getCompletedTaskCount() > 1);
+			assertEquals(TYPE_NAMES, Lists.newArrayList(types.keySet()));
+			for (String name : TYPE_NAMES) {
+				assertSame(name, typeProvider.findTypeByName(name), types.get(name));
+			}
+			assertNull(types.get("does.not.Exist"));
+			assertEquals("java.lang.Thread$State", types.get("java.lang.Thread$State").getIdentifier());
+		} finally {
+			executor.shutdownNow();
+		}
+		Set<String> uris = Sets.newHashSet();
+		for (Resource resource : resourceSet.getResources()) {
+			assertTrue("duplicate resource " + resource.getURI(), uris.add(resource.getURI().toString()));
+		}
+	}
+
+}
@@ -0,0 +1,114 @@
+/*******************************************************************************
+ * Copyright (c) 2018 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.common.types.access.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+import org.eclipse.xtext.common.types.JvmDeclaredType;
+import org.eclipse.xtext.common.types.JvmMember;
+import org.eclipse.xtext.common.types.access.binary.BinaryClass;
+import org.eclipse.xtext.common.types.access.binary.asm.ClassFileBytesAccess;
+import org.eclipse.xtext.util.Files;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+
+public class JdkTypeSnapshotTest extends Assert {
+
+	private File directory;
+
+	private File file;
+
+	private ClassLoader classLoader;
+
+	private List<JdkTypeSnapshot> snapshots = Lists.newArrayList();
+
+	@Before
+	public void setUp() throws IOException {
+		directory = com.google.common.io.Files.createTempDir();
+		file = new File(directory, "jdk.types");
+		classLoader = getClass().getClassLoader();
+		JdkTypeSnapshot.write(file, classLoader, Collections.singletonList("java.util.function"));
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		for (JdkTypeSnapshot snapshot : snapshots) {
+			snapshot.close();
+		}
+		Files.sweepFolder(directory);
+		directory.delete();
+	}
+
+	private JdkTypeSnapshot open() {
+		JdkTypeSnapshot snapshot = JdkTypeSnapshot.open(file);
+		if (snapshot != null) {
+			snapshots.add(snapshot);
+		}
+		return snapshot;
+	}
+
+	@Test
+	public void testLoad() throws Exception {
+		JdkTypeSnapshot snapshot = open();
+		assertNotNull(snapshot);
+		assertTrue(snapshot.contains(Function.class.getName()));
+		assertFalse(snapshot.contains(String.class.getName()));
+
+		BinaryClass clazz = BinaryClass.forName(Function.class.getName(), classLoader);
+		JvmDeclaredType loaded = snapshot.load(clazz, classLoader);
+		assertNotNull(loaded);
+		assertNull(loaded.eResource());
+		DeclaredTypeFactory factory = new DeclaredTypeFactory(new ClassFileBytesAccess(), classLoader);
+		factory.setJdkTypeSnapshot(null);
+		JvmDeclaredType created = factory.createType(clazz);
+		assertEquals(created.getIdentifier(), loaded.getIdentifier());
+		assertEquals(created.getMembers().size(), loaded.getMembers().size());
+		for (int i = 0; i < created.getMembers().size(); i++) {
+			JvmMember expected = created.getMembers().get(i);
+			assertEquals(expected.getIdentifier(), loaded.getMembers().get(i).getIdentifier());
+		}
+		assertNotSame(loaded, snapshot.load(clazz, classLoader));
+
+		snapshot.close();
+		assertNotNull("closed snapshot was not reopened", snapshot.load(clazz, classLoader));
+	}
+
+	@Test
+	public void testOtherJdk() throws Exception {
+		JdkTypeSnapshot snapshot = open();
+		ClassLoader otherJdk = new URLClassLoader(new URL[0], classLoader) {
+			@Override
+			public InputStream getResourceAsStream(String name) {
+				if ("java/lang/Object.class".equals(name)) {
+					return new ByteArrayInputStream(new byte[] { 1, 2, 3 });
+				}
+				return super.getResourceAsStream(name);
+			}
+		};
+		BinaryClass clazz = BinaryClass.forName(Function.class.getName(), otherJdk);
+		assertNull(snapshot.load(clazz, otherJdk));
+	}
+
+	@Test
+	public void testMissingFile() {
+		assertNull(JdkTypeSnapshot.open(new File(directory, "missing.types")));
+	}
+
+}
@@ -0,0 +1,51 @@
+/*******************************************************************************
+ * Copyright (c) 2018 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.common.types.access.impl;
+
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.xtext.common.types.JvmDeclaredType;
+import org.eclipse.xtext.common.types.JvmGenericType;
+import org.eclipse.xtext.common.types.access.binary.BinaryClass;
+import org.eclipse.xtext.common.types.access.binary.asm.ClassFileBytesAccess;
+import org.eclipse.xtext.common.types.impl.JvmDeclaredTypeImplCustom;
+import org.junit.Test;
+
+public class LazyMembersClasspathTypeProviderTest extends ClasspathTypeProviderTest {
+
+	@Override
+	protected ClasspathTypeProvider createTypeProvider() {
+		return new ClasspathTypeProvider(getClass().getClassLoader(), getResourceSet(), getIndexedJvmTypeAccess(), null) {
+			@Override
+			protected ITypeFactory<BinaryClass, JvmDeclaredType> createDeclaredTypeFactory(
+					ClassFileBytesAccess readerAccess, ClassLoader classLoader) {
+				return new DeclaredTypeFactory(readerAccess, classLoader, true, true);
+			}
+		};
+	}
+
+	@Test
+	public void testMembersAreBuiltOnDemand() {
+		JvmGenericType type = (JvmGenericType) getTypeProvider().findTypeByName(List.class.getName());
+		assertTrue(((JvmDeclaredTypeImplCustom) type).basicGetMembers().isEmpty());
+		assertTrue(type.isInterface());
+		assertEquals(1, type.getSuperTypes().size());
+		assertTrue(((JvmDeclaredTypeImplCustom) type).basicGetMembers().isEmpty());
+		assertFalse(type.getMembers().isEmpty());
+		assertTrue(type.findAllFeaturesByName("size").iterator().hasNext());
+	}
+
+	@Test
+	public void testNestedTypeResolvesMembers() {
+		JvmDeclaredType type = (JvmDeclaredType) getTypeProvider().findTypeByName(Map.Entry.class.getName());
+		assertEquals("java.util.Map$Entry", type.getIdentifier());
+		assertFalse(type.getMembers().isEmpty());
+	}
+
+}
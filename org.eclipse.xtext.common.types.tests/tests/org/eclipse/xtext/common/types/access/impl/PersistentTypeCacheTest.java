@@ -0,0 +1,110 @@
+/*******************************************************************************
+ * Copyright (c) 2018 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.common.types.access.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Map;
+
+import org.eclipse.xtext.common.types.JvmDeclaredType;
+import org.eclipse.xtext.common.types.JvmMember;
+import org.eclipse.xtext.common.types.access.binary.BinaryClass;
+import org.eclipse.xtext.common.types.access.binary.asm.ClassFileBytesAccess;
+import org.eclipse.xtext.util.Files;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.io.ByteStreams;
+
+public class PersistentTypeCacheTest extends Assert {
+
+	private File directory;
+
+	private ClassLoader classLoader;
+
+	@Before
+	public void setUp() {
+		directory = com.google.common.io.Files.createTempDir();
+		classLoader = getClass().getClassLoader();
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		Files.sweepFolder(directory);
+		directory.delete();
+	}
+
+	@Test
+	public void testStoreAndLoad() throws Exception {
+		BinaryClass clazz = BinaryClass.forName(Map.class.getName(), classLoader);
+		CachingDeclaredTypeFactory factory = new CachingDeclaredTypeFactory(
+				new DeclaredTypeFactory(new ClassFileBytesAccess(), classLoader), new PersistentTypeCache(directory));
+		JvmDeclaredType created = factory.createType(clazz);
+
+		JvmDeclaredType loaded = new PersistentTypeCache(directory).load(clazz, classLoader);
+		assertNotNull("type was not cached", loaded);
+		assertNull(loaded.eResource());
+		assertEquals(created.getIdentifier(), loaded.getIdentifier());
+		assertEquals(created.getMembers().size(), loaded.getMembers().size());
+		for (int i = 0; i < created.getMembers().size(); i++) {
+			JvmMember expected = created.getMembers().get(i);
+			assertEquals(expected.getIdentifier(), loaded.getMembers().get(i).getIdentifier());
+		}
+	}
+
+	@Test
+	public void testMissingEntry() throws Exception {
+		BinaryClass clazz = BinaryClass.forName(Map.class.getName(), classLoader);
+		assertNull(new PersistentTypeCache(directory).load(clazz, classLoader));
+	}
+
+	@Test
+	public void testChangedClassFile() throws Exception {
+		File classes = com.google.common.io.Files.createTempDir();
+		try {
+			String classFile = getClass().getName().replace('.', '/') + ".class";
+			File file = new File(classes, classFile);
+			file.getParentFile().mkdirs();
+			try (InputStream in = classLoader.getResourceAsStream(classFile)) {
+				com.google.common.io.Files.write(ByteStreams.toByteArray(in), file);
+			}
+			try (URLClassLoader folderLoader = new URLClassLoader(new URL[] { classes.toURI().toURL() }, null)) {
+				BinaryClass clazz = new BinaryClass(getClass().getName(), folderLoader);
+				JvmDeclaredType type = new DeclaredTypeFactory(new ClassFileBytesAccess(), classLoader)
+						.createType(new BinaryClass(getClass().getName(), classLoader));
+				PersistentTypeCache cache = new PersistentTypeCache(directory);
+				cache.store(clazz, folderLoader, type);
+				assertNotNull(cache.load(clazz, folderLoader));
+
+				file.setLastModified(file.lastModified() + 10000);
+				assertNull("changed class file was not detected", cache.load(clazz, folderLoader));
+			}
+		} finally {
+			Files.sweepFolder(classes);
+			classes.delete();
+		}
+	}
+
+	@Test
+	public void testPrune() throws Exception {
+		BinaryClass clazz = BinaryClass.forName(Map.class.getName(), classLoader);
+		new CachingDeclaredTypeFactory(new DeclaredTypeFactory(new ClassFileBytesAccess(), classLoader),
+				new PersistentTypeCache(directory)).createType(clazz);
+		new PersistentTypeCache(directory).prune();
+		assertNotNull(new PersistentTypeCache(directory).load(clazz, classLoader));
+
+		new PersistentTypeCache(directory, 0).prune();
+		assertNull(new PersistentTypeCache(directory).load(clazz, classLoader));
+	}
+
+}
@@ -0,0 +1,137 @@
+/*******************************************************************************
+ * Copyright (c) 2018 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.common.types.access.reflect;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.xtext.common.types.JvmDeclaredType;
+import org.eclipse.xtext.common.types.JvmMember;
+import org.eclipse.xtext.common.types.JvmTypeReference;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.common.collect.Sets;
+import com.google.common.io.ByteStreams;
+
+public class ClassFileReflectionTypeFactoryTest extends Assert {
+
+	private final ReflectionTypeFactory reflection = new ReflectionTypeFactory(new ReflectURIHelper());
+
+	private final ClassFileReflectionTypeFactory classFiles = new ClassFileReflectionTypeFactory(new ReflectURIHelper(),
+			getClass().getClassLoader());
+
+	@Test
+	public void testSameMembersAndSuperTypes() {
+		assertSameStructure(AbstractList.class);
+		assertSameStructure(List.class);
+	}
+
+	@Test
+	public void testProxyClassIsReflected() {
+		Object proxy = Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { Runnable.class },
+				new InvocationHandler() {
+					@Override
+					public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+						return null;
+					}
+				});
+		JvmDeclaredType type = classFiles.createType(proxy.getClass());
+		assertEquals(proxy.getClass().getName(), type.getIdentifier());
+	}
+
+	@Test
+	public void testClassFilesAreReadPerClassLoader() throws Exception {
+		FixtureClassLoader first = new FixtureClassLoader();
+		FixtureClassLoader second = new FixtureClassLoader();
+		Class<?> firstClass = first.loadClass(Fixture.class.getName());
+		Class<?> secondClass = second.loadClass(Fixture.class.getName());
+		assertNotSame(firstClass, secondClass);
+		assertEquals(Fixture.class.getName(), classFiles.createType(firstClass).getIdentifier());
+		assertEquals(Fixture.class.getName(), classFiles.createType(secondClass).getIdentifier());
+		assertTrue(first.classFileReads > 0);
+		assertTrue("the class file of the second class loader was not read", second.classFileReads > 0);
+	}
+
+	public static class Fixture {
+		public String name;
+	}
+
+	/**
+	 * Defines its own {@link Fixture} class and counts the reads of its class file.
+	 */
+	private static class FixtureClassLoader extends ClassLoader {
+
+		private static final String CLASS_FILE = Fixture.class.getName().replace('.', '/') + ".class";
+
+		private int classFileReads;
+
+		FixtureClassLoader() {
+			super(FixtureClassLoader.class.getClassLoader());
+		}
+
+		@Override
+		protected synchronized Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+			if (!Fixture.class.getName().equals(name)) {
+				return super.loadClass(name, resolve);
+			}
+			Class<?> result = findLoadedClass(name);
+			if (result == null) {
+				try (InputStream in = getParent().getResourceAsStream(CLASS_FILE)) {
+					byte[] bytes = ByteStreams.toByteArray(in);
+					result = defineClass(name, bytes, 0, bytes.length);
+				} catch (IOException e) {
+					throw new ClassNotFoundException(name, e);
+				}
+			}
+			return result;
+		}
+
+		@Override
+		public InputStream getResourceAsStream(String name) {
+			if (CLASS_FILE.equals(name)) {
+				classFileReads++;
+			}
+			return super.getResourceAsStream(name);
+		}
+	}
+
+	private void assertSameStructure(Class<?> clazz) {
+		JvmDeclaredType expected = reflection.createType(clazz);
+		JvmDeclaredType actual = classFiles.createType(clazz);
+		assertEquals(expected.getIdentifier(), actual.getIdentifier());
+		assertEquals(identifiers(expected.getMembers()), identifiers(actual.getMembers()));
+		Set<String> expectedSuperTypes = Sets.newHashSet();
+		for (JvmTypeReference superType : expected.getSuperTypes()) {
+			expectedSuperTypes.add(EcoreUtil.getURI(superType.getType()).toString());
+		}
+		Set<String> actualSuperTypes = Sets.newHashSet();
+		for (JvmTypeReference superType : actual.getSuperTypes()) {
+			actualSuperTypes.add(EcoreUtil.getURI(superType.getType()).toString());
+		}
+		assertEquals(expectedSuperTypes, actualSuperTypes);
+	}
+
+	private Set<String> identifiers(List<JvmMember> members) {
+		Set<String> result = Sets.newHashSet();
+		for (JvmMember member : members) {
+			if (!member.getSimpleName().contains("$")) {
+				result.add(member.getIdentifier());
+			}
+		}
+		return result;
+	}
+
+}
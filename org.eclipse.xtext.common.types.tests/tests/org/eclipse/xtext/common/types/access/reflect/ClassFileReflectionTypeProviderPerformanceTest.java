@@ -0,0 +1,63 @@
+/*******************************************************************************
+ * Copyright (c) 2018 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.common.types.access.reflect;
+
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.xtext.common.types.JvmDeclaredType;
+import org.eclipse.xtext.common.types.access.impl.AbstractTypeProviderPerformanceTest;
+import org.eclipse.xtext.common.types.access.impl.TypeResourceServices;
+import org.eclipse.xtext.common.types.xtext.ui.tests.RefactoringTestLanguageInjectorProvider;
+import org.eclipse.xtext.testing.InjectWith;
+import org.eclipse.xtext.testing.XtextRunner;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.runner.RunWith;
+
+import com.google.inject.Inject;
+
+/**
+ * The counterpart of the {@link CachingReflectionTypeProviderPerformanceTest} that reads the class files.
+ */
+@RunWith(XtextRunner.class)
+@InjectWith(RefactoringTestLanguageInjectorProvider.class)
+public class ClassFileReflectionTypeProviderPerformanceTest extends AbstractTypeProviderPerformanceTest {
+
+	@Inject
+	private ResourceSet resourceSet;
+
+	@Inject
+	private TypeResourceServices services;
+
+	private ReflectionTypeProvider typeProvider;
+
+	@Before
+	public void setUp() throws Exception {
+		CachingReflectionTypeProviderFactory typeProviderFactory = new CachingReflectionTypeProviderFactory(
+				getClass().getClassLoader(), services, true);
+		typeProvider = typeProviderFactory.createTypeProvider(resourceSet);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		typeProvider = null;
+	}
+
+	@Override
+	public ReflectionTypeProvider getTypeProvider() {
+		return typeProvider;
+	}
+
+	@Override
+	protected JvmDeclaredType loadAndResolve(String name, boolean accessMembers, boolean accessAnnotations,
+			boolean accessTypeParams, boolean accessParameter, boolean accessParameterNames) {
+		resourceSet.getResources().clear();
+		return super.loadAndResolve(name, accessMembers, accessAnnotations, accessTypeParams, accessParameter,
+				accessParameterNames);
+	}
+
+}
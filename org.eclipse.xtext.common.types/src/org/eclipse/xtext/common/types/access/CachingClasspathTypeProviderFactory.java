@@ -8,11 +8,12 @@
 package org.eclipse.xtext.common.types.access;
 
 import org.eclipse.emf.ecore.resource.ResourceSet;
-import org.eclipse.xtext.common.types.access.binary.asm.ClassFileBytesAccess;
+import org.eclipse.xtext.common.types.access.binary.asm.BoundedClassFileBytesAccess;
 import org.eclipse.xtext.common.types.access.impl.CachingClasspathTypeProvider;
 import org.eclipse.xtext.common.types.access.impl.CachingDeclaredTypeFactory;
 import org.eclipse.xtext.common.types.access.impl.ClasspathTypeProvider;
 import org.eclipse.xtext.common.types.access.impl.DeclaredTypeFactory;
+import org.eclipse.xtext.common.types.access.impl.PersistentTypeCache;
 import org.eclipse.xtext.common.types.access.impl.TypeResourceServices;
 
 import com.google.inject.Inject;
@@ -33,8 +34,8 @@ public class CachingClasspathTypeProviderFactory extends ClasspathTypeProviderFa
 	}
 
 	private CachingDeclaredTypeFactory newClassReaderTypeFactory(ClassLoader classLoader) {
-		DeclaredTypeFactory factoryDelegate = new DeclaredTypeFactory(new ClassFileBytesAccess(), classLoader);
-		return new CachingDeclaredTypeFactory(factoryDelegate);
+		DeclaredTypeFactory factoryDelegate = new DeclaredTypeFactory(new BoundedClassFileBytesAccess(), classLoader);
+		return new CachingDeclaredTypeFactory(factoryDelegate, PersistentTypeCache.fromSystemProperty());
 	}
 	
 	@Override
@@ -0,0 +1,35 @@
+/*******************************************************************************
+ * Copyright (c) 2018 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.common.types.access;
+
+import java.util.Collection;
+import java.util.Map;
+
+import org.eclipse.xtext.common.types.JvmType;
+
+/**
+ * A {@link IJvmTypeProvider} that can look up several types at once faster than one after another, e.g. the imported
+ * types of a file. Clients check whether the provider of a resource set implements this interface and fall back to
+ * {@link #findTypeByName(String, boolean) single lookups} otherwise. Providers that cannot do better than single
+ * lookups should not implement it, since clients may look up names in advance that are never requested otherwise.
+ * 
+ * @since 2.14
+ */
+public interface IBatchJvmTypeProvider extends IJvmTypeProvider {
+
+	/**
+	 * Finds the types with the given names. The result is the same as the one of
+	 * {@link #findTypeByName(String, boolean)} for each of the names, but implementations may look up the names
+	 * together, e.g. in parallel.
+	 * 
+	 * @return the found types by their names in the order of the given names. Names of types that cannot be found
+	 *         are mapped to <code>null</code>.
+	 */
+	Map<String, JvmType> findTypesByName(Collection<String> names, boolean binaryNestedTypeDelimiter);
+
+}
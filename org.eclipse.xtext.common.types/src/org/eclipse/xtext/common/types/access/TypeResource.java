@@ -9,6 +9,8 @@ package org.eclipse.xtext.common.types.access;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 import org.eclipse.emf.common.notify.Adapter;
@@ -23,6 +25,7 @@ import org.eclipse.xtext.common.types.access.impl.IndexedJvmTypeAccess;
 import org.eclipse.xtext.common.types.access.impl.IndexedJvmTypeAccess.UnknownNestedTypeException;
 import org.eclipse.xtext.common.types.access.impl.TypeResourceServices;
 import org.eclipse.xtext.common.types.access.impl.URIHelperConstants;
+import org.eclipse.xtext.common.types.xtext.JvmMemberInitializableResource;
 import org.eclipse.xtext.resource.IFragmentProvider;
 import org.eclipse.xtext.resource.ISynchronizable;
 import org.eclipse.xtext.service.OperationCanceledManager;
@@ -31,7 +34,7 @@ import org.eclipse.xtext.util.concurrent.IUnitOfWork;
 /**
  * @author Sebastian Zarnekow - Initial contribution and API
  */
-public class TypeResource extends ResourceImpl implements ISynchronizable<TypeResource>, IJavaSchemeUriResolver {
+public class TypeResource extends ResourceImpl implements ISynchronizable<TypeResource>, IJavaSchemeUriResolver, JvmMemberInitializableResource {
 
 	/**
 	 * @since 2.7
@@ -44,6 +47,10 @@ public class TypeResource extends ResourceImpl implements ISynchronizable<TypeRe
 	
 	private TypeResourceServices typeResourceServices;
 	
+	private List<Runnable> jvmMemberInitializers;
+	
+	private boolean isInitializingJvmMembers = false;
+	
 	public void setTypeResourceServices(TypeResourceServices typeResourceServices) {
 		this.typeResourceServices = typeResourceServices;
 	}
@@ -148,6 +155,75 @@ public class TypeResource extends ResourceImpl implements ISynchronizable<TypeRe
 		}
 	}
 	
+	@Override
+	protected void doUnload() {
+		synchronized (getLock()) {
+			jvmMemberInitializers = null;
+		}
+		super.doUnload();
+	}
+	
+	/**
+	 * Executes the {@link Runnable runnables} that add the members of the types of this resource.
+	 * 
+	 * @since 2.14
+	 */
+	@Override
+	public void ensureJvmMembersInitialized() {
+		synchronized (getLock()) {
+			List<Runnable> initializers = jvmMemberInitializers;
+			if (initializers == null) {
+				return;
+			}
+			jvmMemberInitializers = null;
+			boolean wasDeliver = eDeliver();
+			try {
+				eSetDeliver(false);
+				isInitializingJvmMembers = true;
+				for (Runnable initializer : initializers) {
+					initializer.run();
+				}
+			} finally {
+				isInitializingJvmMembers = false;
+				eSetDeliver(wasDeliver);
+			}
+		}
+	}
+	
+	/**
+	 * @since 2.14
+	 */
+	@Override
+	public boolean isInitializingJvmMembers() {
+		return isInitializingJvmMembers;
+	}
+	
+	/**
+	 * Registers a {@link Runnable runnable} that adds the members of a type of this resource on first access.
+	 * 
+	 * @since 2.14
+	 */
+	@Override
+	public void addJvmMemberInitializer(Runnable runnable) {
+		synchronized (getLock()) {
+			if (isInitializingJvmMembers) {
+				throw new IllegalStateException("Cannot enqueue runnables during JvmMemberInitialization");
+			}
+			if (jvmMemberInitializers == null) {
+				jvmMemberInitializers = new ArrayList<Runnable>(1);
+			}
+			jvmMemberInitializers.add(runnable);
+		}
+	}
+	
+	/**
+	 * @since 2.14
+	 */
+	@Override
+	public boolean hasJvmMemberInitializers() {
+		return jvmMemberInitializers != null;
+	}
+	
 	protected static class CannotLoadTypeResourceException extends IOException {
 
 		private static final long serialVersionUID = 1L;
@@ -9,7 +9,6 @@ package org.eclipse.xtext.common.types.access.binary;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.net.URL;
 
 import org.eclipse.emf.common.util.URI;
 import org.eclipse.xtext.common.types.access.impl.URIHelperConstants;
@@ -56,7 +55,7 @@ public class BinaryClass {
 		int dollar = name.indexOf('$', offset);
 		while (dollar != -1) {
 			String outerName = name.substring(0, dollar);
-			if (classLoader.getResource(toClassFile(outerName)) != null) {
+			if (exists(toClassFile(outerName), classLoader)) {
 				return outerName;
 			}
 			dollar = name.indexOf('$', dollar + 1);
@@ -215,8 +214,7 @@ public class BinaryClass {
 				}
 			}
 		}
-		URL url = classLoader.getResource(toClassFile(clazzName));
-		if (url != null) {
+		if (exists(toClassFile(clazzName), classLoader)) {
 			return new BinaryClass(clazzName, classLoader);
 		}
 		throw new ClassNotFoundException(clazzName) {
@@ -229,6 +227,20 @@ public class BinaryClass {
 		};
 	}
 
+	/**
+	 * Consults the {@link ClassPathIndex} of the class loader before the class loader is asked for the resource, since
+	 * the class loader has to search all of its jars if the resource does not exist.
+	 * 
+	 * @since 2.14
+	 */
+	protected static boolean exists(String classFile, ClassLoader classLoader) {
+		ClassPathIndex index = ClassPathIndex.get(classLoader);
+		if (index != null && !index.mightContain(classFile)) {
+			return false;
+		}
+		return classLoader.getResource(classFile) != null;
+	}
+
 	protected static String toClassFile(String name) {
 		return name.replace('.', '/') + ".class";
 	}
@@ -8,6 +8,8 @@
 package org.eclipse.xtext.common.types.access.binary;
 
 import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.xtext.common.types.access.impl.AbstractClassFinder;
 import org.eclipse.xtext.common.types.access.impl.Primitives;
@@ -26,14 +28,35 @@ public class BinaryClassFinder extends AbstractClassFinder<BinaryClass> {
 	private static class Cache extends HashMap<String, BinaryClass> {
 		public Cache() {
 			super(500);
-			for (Class<?> primitiveType : Primitives.ALL_PRIMITIVE_TYPES) {
-				put(primitiveType.getName(), new BinaryClass.Primitive(primitiveType));
-			}
+			putPrimitives(this);
+		}
+	}
+	
+	@SuppressWarnings("serial")
+	private static class ConcurrentCache extends ConcurrentHashMap<String, BinaryClass> {
+		public ConcurrentCache() {
+			super(500);
+			putPrimitives(this);
+		}
+	}
+	
+	private static void putPrimitives(Map<String, BinaryClass> cache) {
+		for (Class<?> primitiveType : Primitives.ALL_PRIMITIVE_TYPES) {
+			cache.put(primitiveType.getName(), new BinaryClass.Primitive(primitiveType));
 		}
 	}
 	
 	public BinaryClassFinder(ClassLoader classLoader) {
-		super(classLoader, NULL_CLASS, new Cache());
+		this(classLoader, false);
+	}
+	
+	/**
+	 * @param concurrent
+	 *            whether the finder may be used by several threads at once.
+	 * @since 2.14
+	 */
+	public BinaryClassFinder(ClassLoader classLoader, boolean concurrent) {
+		super(classLoader, NULL_CLASS, concurrent ? new ConcurrentCache() : new Cache());
 	}
 
 	@Override
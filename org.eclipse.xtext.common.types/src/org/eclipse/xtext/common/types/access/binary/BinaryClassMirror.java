@@ -10,6 +10,7 @@ package org.eclipse.xtext.common.types.access.binary;
 import org.eclipse.xtext.common.types.JvmDeclaredType;
 import org.eclipse.xtext.common.types.access.TypeResource;
 import org.eclipse.xtext.common.types.access.impl.AbstractClassMirror;
+import org.eclipse.xtext.common.types.access.impl.DeclaredTypeFactory;
 import org.eclipse.xtext.common.types.access.impl.ITypeFactory;
 
 /**
@@ -39,7 +40,11 @@ public class BinaryClassMirror extends AbstractClassMirror {
 
 	@Override
 	public void initialize(TypeResource typeResource) {
-		typeResource.getContents().add(typeFactory.createType(binaryClass));
+		if (typeFactory instanceof DeclaredTypeFactory) {
+			typeResource.getContents().add(((DeclaredTypeFactory) typeFactory).createType(binaryClass, typeResource));
+		} else {
+			typeResource.getContents().add(typeFactory.createType(binaryClass));
+		}
 	}
 	
 	public BinaryClass getMirroredBinaryClass() {
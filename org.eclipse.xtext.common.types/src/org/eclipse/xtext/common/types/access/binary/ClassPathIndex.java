@@ -0,0 +1,414 @@
+/*******************************************************************************
+ * Copyright (c) 2018 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.common.types.access.binary;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystemNotFoundException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.jar.Attributes;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+import java.util.zip.ZipEntry;
+
+import org.apache.log4j.Logger;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Splitter;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+/**
+ * An index of the packages that are available in the jars of a class loader. It is used to answer the question whether
+ * a class file may exist without asking the class loader, which has to scan all of its jars when the class file does not
+ * exist.
+ *
+ * <p>
+ * An index is only available for class loaders whose lookup is known, that is plain {@link URLClassLoader
+ * URLClassLoaders} with file URLs, the system class loader and the boot class path, and it is built once per class
+ * loader. The packages of a jar are cached by its path, size and modification time and shared by all indexes. Folders
+ * are not indexed but checked on each request, since their contents may change while the class loader is in use.
+ * </p>
+ *
+ * @since 2.14
+ */
+public class ClassPathIndex {
+
+	private static final Logger log = Logger.getLogger(ClassPathIndex.class);
+
+	private static final Splitter MANIFEST_CLASSPATH_SPLITTER = Splitter.on(' ').omitEmptyStrings();
+
+	private static final String VERSIONS_PREFIX = "META-INF/versions/";
+
+	/**
+	 * The name of the default package, which is recorded for jars with classes in their root.
+	 */
+	private static final String DEFAULT_PACKAGE = "";
+
+	/**
+	 * The pseudo root of the packages of the runtime image, if there is no boot class path.
+	 */
+	private static final File JRT = new File("jrt:");
+
+	private static final Cache<ClassLoader, Optional<ClassPathIndex>> indexes = CacheBuilder.newBuilder().weakKeys()
+			.build();
+
+	private static final Cache<String, IndexedJar> jars = CacheBuilder.newBuilder().softValues().build();
+
+	/**
+	 * The packages and the class path of the manifest of a single jar.
+	 */
+	protected static class IndexedJar {
+		private final long size;
+		private final long lastModified;
+		private final Set<String> packages;
+		private final List<String> manifestClassPath;
+
+		protected IndexedJar(long size, long lastModified, Set<String> packages, List<String> manifestClassPath) {
+			this.size = size;
+			this.lastModified = lastModified;
+			this.packages = packages;
+			this.manifestClassPath = manifestClassPath;
+		}
+
+		protected boolean isUpToDate(File file) {
+			return file.length() == size && file.lastModified() == lastModified;
+		}
+	}
+
+	/**
+	 * Thrown while the index is built if the class loader finds resources at locations that are not indexed.
+	 */
+	@SuppressWarnings("serial")
+	protected static class NotIndexableException extends Exception {
+		protected NotIndexableException(String message) {
+			super(message);
+		}
+	}
+
+	private final Map<String, List<File>> packages;
+
+	private final List<File> directories;
+
+	/**
+	 * The packages that only contain other packages in the jars, e.g. <code>java</code>.
+	 */
+	private final Set<String> parentPackages;
+
+	protected ClassPathIndex(Map<String, List<File>> packages, List<File> directories) {
+		this.packages = packages;
+		this.directories = directories;
+		Set<String> parents = Sets.newHashSet();
+		for (String packageName : packages.keySet()) {
+			int slash = packageName.lastIndexOf('/');
+			// the ancestors of a known parent have been added before
+			while (slash > 0 && parents.add(packageName.substring(0, slash))) {
+				slash = packageName.lastIndexOf('/', slash - 1);
+			}
+		}
+		this.parentPackages = parents;
+	}
+
+	/**
+	 * @return the index of the given class loader or <code>null</code> if its lookup cannot be indexed.
+	 */
+	public static ClassPathIndex get(final ClassLoader classLoader) {
+		if (classLoader == null) {
+			return null;
+		}
+		try {
+			return indexes.get(classLoader, new Callable<Optional<ClassPathIndex>>() {
+				@Override
+				public Optional<ClassPathIndex> call() throws Exception {
+					return Optional.fromNullable(create(classLoader));
+				}
+			}).orNull();
+		} catch (ExecutionException e) {
+			log.error("Could not index the class path of " + classLoader, e.getCause());
+			return null;
+		}
+	}
+
+	/**
+	 * @return the index of the given class loader or <code>null</code> if its lookup cannot be indexed.
+	 */
+	protected static ClassPathIndex create(ClassLoader classLoader) {
+		List<File> roots = Lists.newArrayList();
+		try {
+			collectRoots(classLoader, roots);
+		} catch (NotIndexableException e) {
+			if (log.isDebugEnabled()) {
+				log.debug("Class path of " + classLoader + " is not indexed: " + e.getMessage());
+			}
+			return null;
+		}
+		Map<String, List<File>> packages = Maps.newHashMap();
+		List<File> directories = Lists.newArrayList();
+		Set<File> visited = Sets.newHashSet();
+		try {
+			for (File root : roots) {
+				indexRoot(root, packages, directories, visited);
+			}
+		} catch (NotIndexableException e) {
+			if (log.isDebugEnabled()) {
+				log.debug("Class path of " + classLoader + " is not indexed: " + e.getMessage());
+			}
+			return null;
+		}
+		return new ClassPathIndex(packages, ImmutableList.copyOf(directories));
+	}
+
+	/**
+	 * Adds the jars and folders that are searched by the given class loader to the list of roots, starting with the
+	 * ones of its parents. The packages of the runtime image are added as pseudo root <code>jrt:/</code>.
+	 */
+	protected static void collectRoots(ClassLoader classLoader, List<File> roots) throws NotIndexableException {
+		ClassLoader systemClassLoader = ClassLoader.getSystemClassLoader();
+		List<ClassLoader> hierarchy = Lists.newArrayList();
+		for (ClassLoader cl = classLoader; cl != null; cl = cl.getParent()) {
+			hierarchy.add(0, cl);
+		}
+		collectBootRoots(roots);
+		for (ClassLoader cl : hierarchy) {
+			boolean builtIn = isBuiltIn(cl, systemClassLoader);
+			if (cl.getClass() == URLClassLoader.class || builtIn && cl instanceof URLClassLoader) {
+				for (URL url : ((URLClassLoader) cl).getURLs()) {
+					roots.add(toFile(url));
+				}
+			} else if (builtIn && cl == systemClassLoader) {
+				if (System.getProperty("jdk.module.path") != null) {
+					throw new NotIndexableException("module path");
+				}
+				collectPathRoots(System.getProperty("java.class.path"), roots);
+			} else if (!builtIn) {
+				throw new NotIndexableException(cl.getClass().getName());
+			}
+		}
+	}
+
+	protected static void collectBootRoots(List<File> roots) {
+		String bootClassPath = System.getProperty("sun.boot.class.path");
+		if (bootClassPath != null) {
+			collectPathRoots(bootClassPath, roots);
+		} else {
+			roots.add(JRT);
+			collectPathRoots(System.getProperty("jdk.boot.class.path.append"), roots);
+		}
+	}
+
+	private static void collectPathRoots(String path, List<File> roots) {
+		if (path != null) {
+			for (String entry : Splitter.on(File.pathSeparatorChar).omitEmptyStrings().split(path)) {
+				roots.add(new File(entry));
+			}
+		}
+	}
+
+	/**
+	 * The system class loader and its parents as they are created by the JVM.
+	 */
+	private static boolean isBuiltIn(ClassLoader classLoader, ClassLoader systemClassLoader) {
+		for (ClassLoader cl = systemClassLoader; cl != null; cl = cl.getParent()) {
+			if (cl == classLoader) {
+				String name = cl.getClass().getName();
+				return name.startsWith("sun.misc.Launcher$") || name.startsWith("jdk.internal.loader.ClassLoaders$");
+			}
+		}
+		return false;
+	}
+
+	private static File toFile(URL url) throws NotIndexableException {
+		if (!"file".equals(url.getProtocol())) {
+			throw new NotIndexableException(url.toString());
+		}
+		try {
+			return new File(url.toURI());
+		} catch (URISyntaxException | IllegalArgumentException e) {
+			throw new NotIndexableException(url.toString());
+		}
+	}
+
+	protected static void indexRoot(File root, Map<String, List<File>> packages, List<File> directories,
+			Set<File> visited) throws NotIndexableException {
+		if (!visited.add(root)) {
+			return;
+		}
+		if (root == JRT) {
+			for (String packageName : getRuntimePackages()) {
+				addPackage(packageName, root, packages);
+			}
+		} else if (root.isDirectory()) {
+			directories.add(root);
+		} else if (root.isFile()) {
+			IndexedJar jar = getIndexedJar(root);
+			for (String packageName : jar.packages) {
+				addPackage(packageName, root, packages);
+			}
+			for (String entry : jar.manifestClassPath) {
+				try {
+					indexRoot(toFile(new URL(root.toURI().toURL(), entry)), packages, directories, visited);
+				} catch (MalformedURLException e) {
+					// ignored by the class loader as well
+				}
+			}
+		}
+	}
+
+	private static void addPackage(String packageName, File root, Map<String, List<File>> packages) {
+		List<File> roots = packages.get(packageName);
+		if (roots == null) {
+			roots = Lists.newArrayListWithCapacity(1);
+			packages.put(packageName, roots);
+		}
+		roots.add(root);
+	}
+
+	protected static IndexedJar getIndexedJar(File file) {
+		String key = file.getAbsolutePath();
+		IndexedJar result = jars.getIfPresent(key);
+		if (result == null || !result.isUpToDate(file)) {
+			result = readJar(file);
+			jars.put(key, result);
+		}
+		return result;
+	}
+
+	protected static IndexedJar readJar(File file) {
+		long size = file.length();
+		long lastModified = file.lastModified();
+		Set<String> packages = Sets.newHashSet();
+		List<String> manifestClassPath = Collections.emptyList();
+		try (JarFile jarFile = new JarFile(file, false)) {
+			Enumeration<? extends ZipEntry> entries = jarFile.entries();
+			while (entries.hasMoreElements()) {
+				String name = entries.nextElement().getName();
+				if (name.startsWith(VERSIONS_PREFIX)) {
+					int versionEnd = name.indexOf('/', VERSIONS_PREFIX.length());
+					name = versionEnd >= 0 ? name.substring(versionEnd + 1) : "";
+				}
+				int lastSlash = name.lastIndexOf('/');
+				if (lastSlash > 0) {
+					packages.add(name.substring(0, lastSlash));
+				} else if (lastSlash < 0 && name.endsWith(".class")) {
+					packages.add(DEFAULT_PACKAGE);
+				}
+			}
+			Manifest manifest = jarFile.getManifest();
+			if (manifest != null) {
+				String classPath = manifest.getMainAttributes().getValue(Attributes.Name.CLASS_PATH);
+				if (classPath != null) {
+					manifestClassPath = ImmutableList.copyOf(MANIFEST_CLASSPATH_SPLITTER.split(classPath));
+				}
+			}
+		} catch (IOException e) {
+			if (log.isDebugEnabled()) {
+				log.debug("Could not read jar " + file, e);
+			}
+		}
+		return new IndexedJar(size, lastModified, ImmutableSet.copyOf(packages), manifestClassPath);
+	}
+
+	/**
+	 * @return the packages of the modules of the runtime image, in the format of resource names.
+	 */
+	protected static Set<String> getRuntimePackages() throws NotIndexableException {
+		FileSystem fileSystem;
+		try {
+			fileSystem = FileSystems.getFileSystem(URI.create("jrt:/"));
+		} catch (FileSystemNotFoundException | IllegalArgumentException | UnsupportedOperationException e) {
+			throw new NotIndexableException("no boot class path");
+		}
+		Set<String> result = Sets.newHashSet();
+		try (DirectoryStream<Path> stream = java.nio.file.Files.newDirectoryStream(fileSystem.getPath("/packages"))) {
+			for (Path path : stream) {
+				result.add(path.getFileName().toString().replace('.', '/'));
+			}
+		} catch (IOException e) {
+			throw new NotIndexableException("runtime image: " + e.getMessage());
+		}
+		return result;
+	}
+
+	/**
+	 * @param resourceName
+	 *            the name of a resource in a package, e.g. <code>java/lang/String.class</code>, or in the default
+	 *            package.
+	 * @return <code>false</code> if the class loader of this index will not find the given resource.
+	 */
+	public boolean mightContain(String resourceName) {
+		int lastSlash = resourceName.lastIndexOf('/');
+		String packageName = lastSlash > 0 ? resourceName.substring(0, lastSlash) : DEFAULT_PACKAGE;
+		if (packages.containsKey(packageName)) {
+			return true;
+		}
+		for (int i = 0; i < directories.size(); i++) {
+			if (new File(directories.get(i), resourceName).isFile()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @param packageName
+	 *            the name of a package in the format of resource names, e.g. <code>java/lang</code>.
+	 * @return <code>true</code> if the package or one of its subpackages contains resources of the class loader of
+	 *         this index.
+	 */
+	public boolean isPackage(String packageName) {
+		if (packages.containsKey(packageName) || parentPackages.contains(packageName)) {
+			return true;
+		}
+		for (int i = 0; i < directories.size(); i++) {
+			if (new File(directories.get(i), packageName).isDirectory()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return the jars that contain the given package. Folders are not included.
+	 */
+	public List<File> getJars(String packageName) {
+		List<File> result = packages.get(packageName);
+		if (result == null) {
+			return Collections.emptyList();
+		}
+		return Collections.unmodifiableList(result);
+	}
+
+	/**
+	 * Forgets the indexes of all class loaders and the packages of all jars.
+	 */
+	public static void clear() {
+		indexes.invalidateAll();
+		jars.invalidateAll();
+	}
+
+}
@@ -44,10 +44,10 @@ public class BinaryObjectTypeSignature extends BinaryTypeSignature {
 	}
 	
 	@Override
-	public URI getURI() {
+	protected URI createURI(String fragment) {
 		BinaryTypeSignature typeErasure = getArrayComponentType().getTypeErasure();
 		String identifier = typeErasure.toIdentifier();
-		URI result = URIHelperConstants.OBJECTS_URI.appendSegment(identifier).appendFragment(toIdentifier());
+		URI result = URIHelperConstants.OBJECTS_URI.appendSegment(identifier).appendFragment(fragment);
 		return result;
 	}
 
@@ -135,6 +135,16 @@ public class BinaryTypeSignature extends AbstractBinarySignature {
 	}
 
 	public URI getURI() {
+		return SignatureInterner.getURI(this);
+	}
+
+	/**
+	 * Creates the URI of this signature. The URI is determined by the {@link #toIdentifier() identifier} of the
+	 * signature, which is passed as the fragment.
+	 * 
+	 * @since 2.14
+	 */
+	protected URI createURI(String fragment) {
 		BinaryTypeSignature typeErasure = getArrayComponentType().getTypeErasure();
 		switch(typeErasure.chars.charAt(typeErasure.offset)) {
 			case 'B':
@@ -146,11 +156,11 @@ public class BinaryTypeSignature extends AbstractBinarySignature {
 			case 'S':
 			case 'Z':
 			case 'V': {
-				return URIHelperConstants.PRIMITIVES_URI.appendFragment(toIdentifier());
+				return URIHelperConstants.PRIMITIVES_URI.appendFragment(fragment);
 			}
 		}
 		String identifier = typeErasure.toIdentifier();
-		URI result = URIHelperConstants.OBJECTS_URI.appendSegment(identifier).appendFragment(toIdentifier());
+		URI result = URIHelperConstants.OBJECTS_URI.appendSegment(identifier).appendFragment(fragment);
 		return result;
 	}
 
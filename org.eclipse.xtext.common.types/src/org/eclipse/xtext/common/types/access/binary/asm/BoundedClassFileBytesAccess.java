@@ -0,0 +1,101 @@
+/*******************************************************************************
+ * Copyright (c) 2018 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.common.types.access.binary.asm;
+
+import java.util.HashMap;
+
+import org.eclipse.xtext.common.types.access.binary.BinaryClass;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.Weigher;
+
+/**
+ * A {@link ClassFileBytesAccess} that may be used concurrently and keeps the bytes of recently read classes up to a
+ * maximum total size. The bytes that have not been used for the longest time are evicted first.
+ *
+ * <p>
+ * The bytes of a class are usually only needed while its type and the types that it refers to are built, thus a
+ * small cache avoids most of the repeated reads without keeping the bytes of the whole class path alive.
+ * </p>
+ *
+ * @since 2.14
+ */
+public class BoundedClassFileBytesAccess extends ClassFileBytesAccess {
+
+	/**
+	 * The default maximum of cached bytes, 32 MB.
+	 */
+	public static final long DEFAULT_MAXIMUM_SIZE = 32L * 1024 * 1024;
+
+	private static final byte[] NOT_AVAILABLE = new byte[0];
+
+	private final Cache<String, byte[]> bytes;
+
+	public BoundedClassFileBytesAccess() {
+		this(DEFAULT_MAXIMUM_SIZE);
+	}
+
+	/**
+	 * @param maximumSize
+	 *            the maximum number of bytes to cache. If <code>0</code>, the bytes are read again on each request.
+	 */
+	public BoundedClassFileBytesAccess(long maximumSize) {
+		this.bytes = CacheBuilder.newBuilder().maximumWeight(maximumSize).weigher(new Weigher<String, byte[]>() {
+			@Override
+			public int weigh(String className, byte[] value) {
+				return value.length + 2 * className.length();
+			}
+		}).recordStats().build();
+	}
+
+	/**
+	 * The bytes are kept in a concurrent cache rather than in the map of the super class.
+	 */
+	@Override
+	protected HashMap<String, byte[]> createCache() {
+		return new HashMap<String, byte[]>(0);
+	}
+
+	@Override
+	public byte[] getBytes(BinaryClass clazz) {
+		String className = clazz.getName();
+		byte[] result = bytes.getIfPresent(className);
+		if (result != null) {
+			return result != NOT_AVAILABLE ? result : null;
+		}
+		result = clazz.getBytes();
+		bytes.put(className, result != null ? result : NOT_AVAILABLE);
+		return result;
+	}
+
+	public long getHitCount() {
+		return getStats().hitCount();
+	}
+
+	public long getMissCount() {
+		return getStats().missCount();
+	}
+
+	public long getEvictionCount() {
+		return getStats().evictionCount();
+	}
+
+	public CacheStats getStats() {
+		return bytes.stats();
+	}
+
+	/**
+	 * Discards all cached bytes. The counters are not reset.
+	 */
+	public void clear() {
+		bytes.invalidateAll();
+	}
+
+}
@@ -20,7 +20,8 @@ import com.google.common.collect.Maps;
  * or parsing them again and again, a small struct with the necessary
  * information is cached.
  * 
- * <p>It is not expected to be used concurrently.</p>
+ * <p>It is not expected to be used concurrently. The {@link BoundedClassFileBytesAccess} may be used
+ * concurrently and limits the number of cached bytes.</p>
  * 
  * @author Sebastian Zarnekow - Initial contribution and API
  * @author Arne Deutsch - Introduce hack to work with Java 10 and ASM 6.0
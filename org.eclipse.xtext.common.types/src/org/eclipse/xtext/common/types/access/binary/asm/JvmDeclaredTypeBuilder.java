@@ -48,6 +48,16 @@ public class JvmDeclaredTypeBuilder extends ClassVisitor implements Opcodes {
 
 	private final ClassFileBytesAccess bytesAccess;
 
+	/**
+	 * Whether the inner classes, fields and methods are skipped.
+	 */
+	private boolean skipMembers = false;
+
+	/**
+	 * Whether only the inner classes, fields and methods are visited.
+	 */
+	private boolean membersOnly = false;
+
     public JvmDeclaredTypeBuilder(BinaryClass binaryClass, ClassFileBytesAccess bytesAccess, ClassLoader classLoader) {
 		this(binaryClass, bytesAccess, classLoader, null, new Proxies());
 	}
@@ -62,17 +72,64 @@ public class JvmDeclaredTypeBuilder extends ClassVisitor implements Opcodes {
     }
 
     public JvmDeclaredType buildType() {
+    	if (!accept(binaryClass, this)) {
+    		return null;
+    	}
+		return result;
+	}
+
+	/**
+	 * Lets the given visitor visit the class file of the given class. Subclasses may override this method to visit
+	 * classes that are not available as class files. The builders of the nested types delegate to this method, too.
+	 * 
+	 * @return <code>false</code> if the class is not available.
+	 * @since 2.14
+	 */
+	protected boolean accept(BinaryClass binaryClass, ClassVisitor visitor) {
     	byte[] bytes = bytesAccess.getBytes(binaryClass);
     	if (bytes == null) {
-    		return null;
+    		return false;
     	}
 		ClassReader reader = new ClassReader(bytes);
-		reader.accept(this, 
+		reader.accept(visitor, 
 			  ClassReader.SKIP_DEBUG 
 			| ClassReader.SKIP_FRAMES 
 			| ClassReader.SKIP_CODE
 		);
-		return result;
+		return true;
+	}
+
+	/**
+	 * Builds the type with its annotations, type parameters and super types but without its members. The members are
+	 * added by a subsequent call to {@link #buildMembers()}.
+	 * 
+	 * @since 2.14
+	 */
+	public JvmDeclaredType buildTypeWithoutMembers() {
+		skipMembers = true;
+		try {
+			return buildType();
+		} finally {
+			skipMembers = false;
+		}
+	}
+
+	/**
+	 * Adds the nested types, fields, constructors and operations to the type that has been built by
+	 * {@link #buildTypeWithoutMembers()}.
+	 * 
+	 * @since 2.14
+	 */
+	public void buildMembers() {
+		if (result == null) {
+			throw new IllegalStateException("Type has not been built");
+		}
+		membersOnly = true;
+		try {
+			buildType();
+		} finally {
+			membersOnly = false;
+		}
 	}
     
     // ------------------------------------------------------------------------
@@ -88,6 +145,9 @@ public class JvmDeclaredTypeBuilder extends ClassVisitor implements Opcodes {
         final String superName,
         final String[] interfaces)
     {
+    	if (membersOnly) {
+    		return;
+    	}
     	if ((access & ACC_SYNTHETIC) != 0)
 			throw new IllegalStateException("Cannot create type for anonymous or synthetic classes");
     	if ((ACC_ENUM & access) != 0) {
@@ -123,6 +183,9 @@ public class JvmDeclaredTypeBuilder extends ClassVisitor implements Opcodes {
     
 	@Override
 	public AnnotationVisitor visitAnnotation(final String desc, final boolean visible) {
+		if (membersOnly) {
+			return null;
+		}
 		return new JvmAnnotationReferenceBuilder((InternalEList<JvmAnnotationReference>) result
 				.getAnnotations(), desc, proxies);
 	}
@@ -178,7 +241,7 @@ public class JvmDeclaredTypeBuilder extends ClassVisitor implements Opcodes {
     		String identifier = binaryName.replace('/', '.');
     		String simpleName = identifier.substring(slash + 1);
     		result.setSimpleName(simpleName);
-    		String packageName = identifier.substring(0, slash);
+    		String packageName = SignatureInterner.intern(identifier.substring(0, slash));
     		result.setPackageName(packageName);
     		result.internalSetIdentifier(identifier);
     	}
@@ -217,10 +280,14 @@ public class JvmDeclaredTypeBuilder extends ClassVisitor implements Opcodes {
         final String innerName,
         final int access)
     {
+    	if (skipMembers) {
+    		return;
+    	}
     	if (outerName != null && innerName != null && outerName.replace('/', '.').equals(result.getIdentifier())) {
     		BinaryClass binaryClass = new BinaryClass(name, classLoader);
     		boolean isStatic = (access & ACC_STATIC) != 0;
 			NestedJvmDeclaredTypeBuilder builder = new NestedJvmDeclaredTypeBuilder(
+    				this,
     				innerName,
     				!isStatic? 1 : 0, 
     				binaryClass,
@@ -241,9 +308,12 @@ public class JvmDeclaredTypeBuilder extends ClassVisitor implements Opcodes {
     
     static class NestedJvmDeclaredTypeBuilder extends JvmDeclaredTypeBuilder {
 
+		private final JvmDeclaredTypeBuilder outer;
+
 		private final String innerName;
 
 		protected NestedJvmDeclaredTypeBuilder(
+				JvmDeclaredTypeBuilder outer,
 				String innerName,
 				int offset,
 				BinaryClass binaryClass,
@@ -252,9 +322,15 @@ public class JvmDeclaredTypeBuilder extends ClassVisitor implements Opcodes {
 				Map<String, JvmTypeParameter> typeParameters,
 				Proxies proxies) {
 			super(binaryClass, bytesAccess, classLoader, typeParameters, proxies);
+			this.outer = outer;
 			this.innerName = innerName;
 			this.offset = offset;
 		}
+
+		@Override
+		protected boolean accept(BinaryClass binaryClass, ClassVisitor visitor) {
+			return outer.accept(binaryClass, visitor);
+		}
 		
 		@Override
 		protected void setTypeModifiers(int accessFlags) {
@@ -288,7 +364,7 @@ public class JvmDeclaredTypeBuilder extends ClassVisitor implements Opcodes {
         final String signature,
         final Object value)
     {
-    	if ((access & ACC_SYNTHETIC) == 0) {
+    	if ((access & ACC_SYNTHETIC) == 0 && !skipMembers) {
 	        JvmFieldBuilder fieldBuilder = new JvmFieldBuilder(
 	        		result,
 	        		(access & ACC_STATIC) == 0 ? typeParameters : null,
@@ -311,7 +387,7 @@ public class JvmDeclaredTypeBuilder extends ClassVisitor implements Opcodes {
         final String signature,
         final String[] exceptions)
     {
-    	if ((access & (ACC_SYNTHETIC | ACC_BRIDGE)) == 0 && !isClinit(name)) {
+    	if ((access & (ACC_SYNTHETIC | ACC_BRIDGE)) == 0 && !isClinit(name) && !skipMembers) {
     		JvmExecutableBuilder builder = new JvmExecutableBuilder(
     				result,
     				offset,
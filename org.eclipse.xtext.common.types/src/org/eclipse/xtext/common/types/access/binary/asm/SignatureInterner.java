@@ -0,0 +1,61 @@
+/*******************************************************************************
+ * Copyright (c) 2018 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.common.types.access.binary.asm;
+
+import org.eclipse.emf.common.util.URI;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+
+/**
+ * Process wide tables for the names and proxy URIs that are derived from binary signatures. The same few thousand
+ * types are referenced from almost every class file, thus their URIs are computed once and shared by all the proxies
+ * that point to them.
+ * 
+ * @since 2.14
+ */
+final class SignatureInterner {
+
+	/**
+	 * The maximum number of type URIs that are kept.
+	 */
+	static final int MAXIMUM_URIS = 1 << 16;
+
+	private static final Interner<String> names = Interners.newWeakInterner();
+
+	private static final Cache<String, URI> typeURIs = CacheBuilder.newBuilder().maximumSize(MAXIMUM_URIS).build();
+
+	private SignatureInterner() {
+		throw new UnsupportedOperationException("only static utilities");
+	}
+
+	/**
+	 * Returns the canonical instance of the given name, e.g. of a package name.
+	 */
+	static String intern(String name) {
+		return names.intern(name);
+	}
+
+	/**
+	 * Returns the proxy URI of the given type signature, e.g. {@code java:/Objects/java.lang.String#java.lang.String}.
+	 * The URI of a type is determined by its identifier, which is also the fragment of the URI. Primitives and
+	 * classes cannot share an identifier since the names of the primitives are keywords.
+	 */
+	static URI getURI(BinaryTypeSignature signature) {
+		String identifier = signature.toIdentifier();
+		URI result = typeURIs.getIfPresent(identifier);
+		if (result == null) {
+			result = signature.createURI(identifier);
+			typeURIs.put(result.fragment(), result);
+		}
+		return result;
+	}
+
+}
@@ -7,7 +7,9 @@
  *******************************************************************************/
 package org.eclipse.xtext.common.types.access.impl;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.ecore.resource.Resource;
@@ -19,6 +21,7 @@ import org.eclipse.xtext.common.types.access.IMirror;
 import org.eclipse.xtext.common.types.access.TypeResource;
 
 import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.Maps;
 
 /**
  * @author Sebastian Zarnekow - Initial contribution and API
@@ -99,6 +102,26 @@ public abstract class AbstractJvmTypeProvider implements IJvmTypeProvider, Resou
 	@Override
 	public abstract JvmType findTypeByName(String name, boolean binaryNestedTypeDelimiter);
 
+	/**
+	 * Finds the types with the given names, e.g. the imported types of a file. The result is the same as the one of
+	 * {@link #findTypeByName(String, boolean)} for each of the names. The names are looked up one after another, but
+	 * providers that implement {@link org.eclipse.xtext.common.types.access.IBatchJvmTypeProvider} look them up
+	 * together.
+	 * 
+	 * @return the found types by their names in the order of the given names. Names of types that cannot be found
+	 *         are mapped to <code>null</code>.
+	 * @since 2.14
+	 */
+	public Map<String, JvmType> findTypesByName(Collection<String> names, boolean binaryNestedTypeDelimiter) {
+		Map<String, JvmType> result = Maps.newLinkedHashMap();
+		for (String name : names) {
+			if (!result.containsKey(name)) {
+				result.put(name, findTypeByName(name, binaryNestedTypeDelimiter));
+			}
+		}
+		return result;
+	}
+
 	@Override
 	public TypeResource createResource(URI uri) {
 		TypeResource result = doCreateResource(uri);
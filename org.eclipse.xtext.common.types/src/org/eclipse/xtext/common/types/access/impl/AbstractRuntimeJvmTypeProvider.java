@@ -7,16 +7,25 @@
  *******************************************************************************/
 package org.eclipse.xtext.common.types.access.impl;
 
+import java.lang.ref.WeakReference;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
+import org.eclipse.emf.common.notify.Notification;
 import org.eclipse.emf.common.notify.impl.AdapterImpl;
 import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.emf.ecore.resource.ResourceSet;
 import org.eclipse.emf.ecore.util.EcoreUtil;
 import org.eclipse.xtext.common.types.JvmType;
+import org.eclipse.xtext.common.types.access.JvmTypeChangeDispatcher;
 import org.eclipse.xtext.common.types.access.impl.IndexedJvmTypeAccess.UnknownNestedTypeException;
 import org.eclipse.xtext.naming.QualifiedName;
+import org.eclipse.xtext.resource.IResourceDescription;
+import org.eclipse.xtext.resource.IResourceDescriptions;
 import org.eclipse.xtext.util.Strings;
 
 import com.google.common.collect.Maps;
@@ -35,10 +44,38 @@ public abstract class AbstractRuntimeJvmTypeProvider extends AbstractJvmTypeProv
 		super(resourceSet, indexedJvmTypeAccess, services);
 	}
 
+	/**
+	 * Remembers the types that have been found in the index of a resource set, and the names that have not been found.
+	 * The names that have not been found are forgotten as soon as the index, the resources of the resource set or their
+	 * root objects change, e.g. if a top level type is added or renamed. The root objects are observed with the
+	 * {@link JvmTypeChangeDispatcher} of the resource set, which does not observe the objects below them. Nested type
+	 * names are not remembered if their outer type has been found, since the index access fails with an
+	 * {@link UnknownNestedTypeException}, thus a renamed or an added nested type is found without being observed.
+	 * 
+	 * An index that is not an {@link IResourceDescription.Event.Source}, e.g. a
+	 * {@link org.eclipse.xtext.resource.impl.ResourceDescriptionsData ResourceDescriptionsData}, does not tell about its
+	 * changes. Clients that change such an index while types are looked up have to call
+	 * {@link AbstractRuntimeJvmTypeProvider#forgetNotFoundTypes(ResourceSet)}.
+	 */
 	protected static class TypeInResourceSetAdapter extends AdapterImpl {
 		
 		private Map<String, JvmType> typeByQueryString = Maps.newHashMap();
 		
+		private final Set<String> notFoundByQueryString = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+		private final Set<String> notFoundByBinaryName = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+		private volatile boolean listeningForChanges = false;
+
+		private IResourceDescriptions observedIndex;
+
+		private final Runnable contentsListener = new Runnable() {
+			@Override
+			public void run() {
+				forgetNotFoundTypes();
+			}
+		};
+		
 		@Override
 		public boolean isAdapterForType(Object type) {
 			return TypeInResourceSetAdapter.class.equals(type);
@@ -53,15 +90,125 @@ public abstract class AbstractRuntimeJvmTypeProvider extends AbstractJvmTypeProv
 					return result;
 				}
 			}
+			Set<String> notFound = binaryNestedTypeDelimiter ? notFoundByBinaryName : notFoundByQueryString;
+			if (listeningForChanges && notFound.contains(name)) {
+				return null;
+			}
+			// a missing nested type of a found outer type fails before its name is remembered
 			JvmType candidate = typeProvider.doTryFindInIndex(name, binaryNestedTypeDelimiter);
 			if (candidate != null) {
 				typeByQueryString.put(name, candidate);
 				return candidate;
 			}
+			if (listenForChanges(typeProvider)) {
+				notFound.add(name);
+			}
 			return null;
 		}
+
+		/**
+		 * Names that are not found while the index is being built are not remembered, since their types may be indexed
+		 * later on.
+		 * 
+		 * The first remembered name makes the {@link JvmTypeChangeDispatcher} observe every resource of the resource
+		 * set that is not a {@link TypeResource}, i.e. an adapter is added to each of these resources and their root
+		 * objects. The adapters are added once per resource, but after each observed change the next remembered name
+		 * iterates the resources of the resource set again.
+		 * 
+		 * @return whether the adapter is notified about the changes that invalidate the remembered names.
+		 */
+		protected boolean listenForChanges(AbstractRuntimeJvmTypeProvider typeProvider) {
+			if (listeningForChanges) {
+				return true;
+			}
+			ResourceSet resourceSet = typeProvider.getResourceSet();
+			IndexedJvmTypeAccess indexAccess = typeProvider.getIndexedJvmTypeAccess();
+			if (resourceSet == null || indexAccess == null || indexAccess.isIndexingPhase(resourceSet)) {
+				return false;
+			}
+			IResourceDescriptions index = indexAccess.getResourceDescriptions(resourceSet);
+			if (index != observedIndex && index instanceof IResourceDescription.Event.Source) {
+				((IResourceDescription.Event.Source) index).addListener(new IndexListener(this, (IResourceDescription.Event.Source) index));
+			}
+			observedIndex = index;
+			JvmTypeChangeDispatcher dispatcher = JvmTypeChangeDispatcher.findResourceChangeDispatcher(resourceSet);
+			Runnable listener = contentsListener;
+			for (Resource resource : resourceSet.getResources()) {
+				if (!(resource instanceof TypeResource)) {
+					dispatcher.requestNotificationOnChange(resource, listener);
+					// the listeners of a dispatcher are run on a change of any of the observed resources
+					listener = null;
+				}
+			}
+			listeningForChanges = true;
+			return true;
+		}
+
+		/**
+		 * Resources that are added to the resource set may contain types that have not been found before. The type
+		 * resources of the classpath types are ignored, since they only contain types that have been found.
+		 */
+		@Override
+		public void notifyChanged(Notification msg) {
+			if (msg.getFeatureID(ResourceSet.class) != ResourceSet.RESOURCE_SET__RESOURCES) {
+				return;
+			}
+			switch (msg.getEventType()) {
+				case Notification.ADD:
+				case Notification.SET:
+					if (!(msg.getNewValue() instanceof TypeResource)) {
+						forgetNotFoundTypes();
+					}
+					break;
+				case Notification.ADD_MANY:
+					for (Object resource : (List<?>) msg.getNewValue()) {
+						if (!(resource instanceof TypeResource)) {
+							forgetNotFoundTypes();
+							break;
+						}
+					}
+					break;
+				default:
+					break;
+			}
+		}
+
+		/**
+		 * @since 2.14
+		 */
+		public void forgetNotFoundTypes() {
+			listeningForChanges = false;
+			notFoundByQueryString.clear();
+			notFoundByBinaryName.clear();
+		}
 		
 	}
+
+	/**
+	 * Tells a {@link TypeInResourceSetAdapter} about index changes without keeping its resource set alive.
+	 */
+	private static class IndexListener implements IResourceDescription.Event.Listener {
+
+		private final WeakReference<TypeInResourceSetAdapter> adapter;
+
+		private final IResourceDescription.Event.Source source;
+
+		IndexListener(TypeInResourceSetAdapter adapter, IResourceDescription.Event.Source source) {
+			this.adapter = new WeakReference<TypeInResourceSetAdapter>(adapter);
+			this.source = source;
+		}
+
+		@Override
+		public void descriptionsChanged(IResourceDescription.Event event) {
+			TypeInResourceSetAdapter target = adapter.get();
+			if (target == null || target.observedIndex != source) {
+				source.removeListener(this);
+			} else {
+				target.forgetNotFoundTypes();
+			}
+		}
+
+	}
 	
 	protected static class ClassNotFoundExceptionWithBaseName extends ClassNotFoundException {
 
@@ -77,6 +224,19 @@ public abstract class AbstractRuntimeJvmTypeProvider extends AbstractJvmTypeProv
 		}
 	}
 	
+	/**
+	 * Forgets the names that have not been found in the index of the given resource set. Clients have to call this if
+	 * they change an index that does not fire events while types are looked up.
+	 * 
+	 * @since 2.14
+	 */
+	public static void forgetNotFoundTypes(ResourceSet resourceSet) {
+		TypeInResourceSetAdapter adapter = (TypeInResourceSetAdapter) EcoreUtil.getAdapter(resourceSet.eAdapters(), TypeInResourceSetAdapter.class);
+		if (adapter != null) {
+			adapter.forgetNotFoundTypes();
+		}
+	}
+
 	@Override
 	protected void registerProtocol(ResourceSet resourceSet) {
 		super.registerProtocol(resourceSet);
@@ -41,12 +41,25 @@ public class CachingDeclaredTypeFactory implements ITypeFactory<BinaryClass, Jvm
 
 	private final DeclaredTypeFactory delegate;
 
+	private final PersistentTypeCache persistentCache;
+
 	private final Map<String, JvmDeclaredType> typeCache = new ConcurrentHashMap<String, JvmDeclaredType>();
 	
 	private final JvmDeclaredType nullValue = TypesFactory.eINSTANCE.createJvmGenericType();
 
 	public CachingDeclaredTypeFactory(DeclaredTypeFactory delegate) {
+		this(delegate, null);
+	}
+
+	/**
+	 * @param persistentCache
+	 *            the cache that is asked for a type before it is built from the class file. Built types are added to
+	 *            the cache. May be <code>null</code>.
+	 * @since 2.14
+	 */
+	public CachingDeclaredTypeFactory(DeclaredTypeFactory delegate, PersistentTypeCache persistentCache) {
 		this.delegate = delegate;
+		this.persistentCache = persistentCache;
 	}
 	
 	@Override
@@ -86,6 +99,16 @@ public class CachingDeclaredTypeFactory implements ITypeFactory<BinaryClass, Jvm
 	private JvmDeclaredType load(BinaryClass key) {
 		if (log.isDebugEnabled())
 			log.debug("Hit:" + key.getName());
+		if (persistentCache != null) {
+			JvmDeclaredType result = persistentCache.load(key, delegate.getClassLoader());
+			if (result == null) {
+				result = delegate.createType(key);
+				if (result != null) {
+					persistentCache.store(key, delegate.getClassLoader(), result);
+				}
+			}
+			return result;
+		}
 		return delegate.createType(key);
 	}
 	
@@ -0,0 +1,261 @@
+/*******************************************************************************
+ * Copyright (c) 2018 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.common.types.access.impl;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import org.apache.log4j.Logger;
+
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.xtext.common.types.JvmDeclaredType;
+import org.eclipse.xtext.common.types.JvmType;
+import org.eclipse.xtext.common.types.access.IBatchJvmTypeProvider;
+import org.eclipse.xtext.common.types.access.binary.BinaryClass;
+import org.eclipse.xtext.common.types.access.binary.BinaryClassFinder;
+import org.eclipse.xtext.common.types.access.binary.BinaryClassMirror;
+import org.eclipse.xtext.common.types.access.binary.asm.BoundedClassFileBytesAccess;
+import org.eclipse.xtext.common.types.access.binary.asm.ClassFileBytesAccess;
+import org.eclipse.xtext.resource.ISynchronizable;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * A {@link ClasspathTypeProvider} that may be used by several threads at once to request types from a shared resource
+ * set.
+ *
+ * <p>
+ * The class finder and the class file bytes are cached in concurrent maps. The types are built from the class files
+ * before the lock of the resource set is acquired, thus threads that request different types build them in parallel.
+ * The lock is only held while the type resource is created and added to the resource set. The lock is the one of the
+ * resource set if it is {@link ISynchronizable}, otherwise the resource set itself. Clients that resolve proxies of the
+ * returned types concurrently should use a resource set that synchronizes its resource lookup on that lock, e.g. a
+ * {@link org.eclipse.xtext.resource.SynchronizedXtextResourceSet SynchronizedXtextResourceSet}.
+ * </p>
+ *
+ * <p>
+ * {@link #findTypesByName(Collection, boolean) Batch lookups} build the types of the different packages in parallel
+ * and add them to the resource set afterwards.
+ * </p>
+ *
+ * @since 2.14
+ */
+public class ConcurrentClasspathTypeProvider extends ClasspathTypeProvider implements IBatchJvmTypeProvider {
+
+	private static final Logger log = Logger.getLogger(ConcurrentClasspathTypeProvider.class);
+
+	/**
+	 * The types that have been built but not yet been added to a resource, by the name of their class.
+	 */
+	private final Map<String, JvmDeclaredType> preparedTypes = new ConcurrentHashMap<String, JvmDeclaredType>();
+
+	private final Set<String> installedTypes = ConcurrentHashMap.newKeySet();
+
+	private ExecutorService executor = ForkJoinPool.commonPool();
+
+	private final ITypeFactory<BinaryClass, JvmDeclaredType> preparedTypeFactory = new ITypeFactory<BinaryClass, JvmDeclaredType>() {
+		@Override
+		public JvmDeclaredType createType(BinaryClass clazz) {
+			JvmDeclaredType result = preparedTypes.remove(clazz.getName());
+			if (result == null) {
+				result = getDeclaredTypeFactory().createType(clazz);
+			}
+			installedTypes.add(clazz.getName());
+			return result;
+		}
+	};
+
+	public ConcurrentClasspathTypeProvider(ClassLoader classLoader, ResourceSet resourceSet,
+			IndexedJvmTypeAccess indexedJvmTypeAccess, TypeResourceServices services) {
+		super(classLoader, resourceSet, indexedJvmTypeAccess, services);
+	}
+
+	@Override
+	protected ClassFileBytesAccess createClassFileReaderAccess() {
+		return new BoundedClassFileBytesAccess();
+	}
+
+	@Override
+	protected BinaryClassFinder createBinaryClassFinder(ClassLoader classLoader) {
+		return new BinaryClassFinder(classLoader, true);
+	}
+
+	/**
+	 * @return the lock that guards the resource set.
+	 */
+	public Object getLock() {
+		ResourceSet resourceSet = getResourceSet();
+		if (resourceSet instanceof ISynchronizable<?>) {
+			return ((ISynchronizable<?>) resourceSet).getLock();
+		}
+		return resourceSet;
+	}
+
+	@Override
+	public JvmType findTypeByName(String name) {
+		String prepared = prepareType(name);
+		try {
+			synchronized (getLock()) {
+				return super.findTypeByName(name);
+			}
+		} finally {
+			forgetPreparedType(prepared);
+		}
+	}
+
+	@Override
+	public JvmType findTypeByName(String name, boolean binaryNestedTypeDelimiter) {
+		String prepared = prepareType(name);
+		try {
+			synchronized (getLock()) {
+				return super.findTypeByName(name, binaryNestedTypeDelimiter);
+			}
+		} finally {
+			forgetPreparedType(prepared);
+		}
+	}
+
+	@Override
+	public Map<String, JvmType> findTypesByName(Collection<String> names, boolean binaryNestedTypeDelimiter) {
+		Collection<String> prepared = prepareTypes(names);
+		try {
+			synchronized (getLock()) {
+				return super.findTypesByName(names, binaryNestedTypeDelimiter);
+			}
+		} finally {
+			for (String className : prepared) {
+				forgetPreparedType(className);
+			}
+		}
+	}
+
+	/**
+	 * Drops a prepared type that has not been added to the resource set by the lookup it has been prepared for, e.g.
+	 * since the index or the resource set already contained a type with that name.
+	 */
+	protected void forgetPreparedType(String className) {
+		if (className != null) {
+			preparedTypes.remove(className);
+		}
+	}
+
+	/**
+	 * Sets the executor that builds the types of a {@link #findTypesByName(Collection, boolean) batch lookup}.
+	 * Defaults to the {@link ForkJoinPool#commonPool() common pool}.
+	 */
+	public void setExecutor(ExecutorService executor) {
+		this.executor = executor;
+	}
+
+	@Override
+	public BinaryClassMirror createMirror(BinaryClass clazz) {
+		return BinaryClassMirror.createClassMirror(clazz, preparedTypeFactory);
+	}
+
+	/**
+	 * Builds the types of the given names in parallel. The names are grouped by their package, since the classes of
+	 * one package are usually read from the same jar.
+	 * 
+	 * @return the names of the classes whose types have been prepared.
+	 */
+	protected Collection<String> prepareTypes(Collection<String> names) {
+		final Set<String> result = ConcurrentHashMap.newKeySet();
+		Map<String, List<String>> namesByPackage = Maps.newLinkedHashMap();
+		for (String name : names) {
+			int lastDot = name.lastIndexOf('.');
+			String packageName = lastDot > 0 ? name.substring(0, lastDot) : "";
+			List<String> packageNames = namesByPackage.get(packageName);
+			if (packageNames == null) {
+				packageNames = Lists.newArrayList();
+				namesByPackage.put(packageName, packageNames);
+			}
+			packageNames.add(name);
+		}
+		if (namesByPackage.size() < 2) {
+			for (String name : names) {
+				addIfNotNull(result, prepareType(name));
+			}
+			return result;
+		}
+		List<Callable<Void>> tasks = Lists.newArrayListWithCapacity(namesByPackage.size());
+		for (final List<String> packageNames : namesByPackage.values()) {
+			tasks.add(new Callable<Void>() {
+				@Override
+				public Void call() throws Exception {
+					for (String name : packageNames) {
+						addIfNotNull(result, prepareType(name));
+					}
+					return null;
+				}
+			});
+		}
+		try {
+			for (Future<Void> future : executor.invokeAll(tasks)) {
+				future.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException e) {
+			// the types that could not be prepared are built when they are added to the resource set
+			if (log.isDebugEnabled()) {
+				log.debug("Could not prepare types", e.getCause());
+			}
+		}
+		return result;
+	}
+
+	private static void addIfNotNull(Set<String> names, String name) {
+		if (name != null) {
+			names.add(name);
+		}
+	}
+
+	/**
+	 * Builds the top level type of the class with the given name if it has not been added to the resource set yet.
+	 * Names that are not found by the class finder are resolved with the lock held.
+	 * 
+	 * @return the name of the class whose type has been prepared or <code>null</code> if none has been prepared.
+	 */
+	protected String prepareType(String name) {
+		BinaryClass clazz;
+		try {
+			clazz = getClassFinder().forName(name);
+			if (clazz.isArray()) {
+				clazz = clazz.getRootComponentType();
+			}
+			if (clazz.isPrimitive()) {
+				return null;
+			}
+			String outermostClassName = clazz.getOutermostClassName();
+			if (installedTypes.contains(outermostClassName) || preparedTypes.containsKey(outermostClassName)) {
+				return null;
+			}
+			if (!outermostClassName.equals(clazz.getName())) {
+				clazz = getClassFinder().forName(outermostClassName);
+			}
+		} catch (ClassNotFoundException e) {
+			return null;
+		}
+		JvmDeclaredType type = getDeclaredTypeFactory().createType(clazz);
+		if (type != null && !installedTypes.contains(clazz.getName())
+				&& preparedTypes.putIfAbsent(clazz.getName(), type) == null) {
+			return clazz.getName();
+		}
+		return null;
+	}
+
+}
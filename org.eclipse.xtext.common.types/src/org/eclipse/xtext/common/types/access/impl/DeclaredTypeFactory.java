@@ -16,7 +16,9 @@ import org.eclipse.xtext.common.types.access.binary.asm.ClassFileBytesAccess;
 import org.eclipse.xtext.common.types.access.binary.asm.JvmDeclaredTypeBuilder;
 import org.eclipse.xtext.common.types.access.reflect.ReflectURIHelper;
 import org.eclipse.xtext.common.types.access.reflect.ReflectionTypeFactory;
+import org.eclipse.xtext.common.types.impl.JvmDeclaredTypeImplCustom;
 import org.eclipse.xtext.common.types.util.TypeReferences;
+import org.eclipse.xtext.common.types.xtext.JvmMemberInitializableResource;
 import org.eclipse.xtext.util.internal.Stopwatches;
 import org.eclipse.xtext.util.internal.Stopwatches.StoppedTask;
 import org.objectweb.asm.Opcodes;
@@ -54,15 +56,38 @@ public class DeclaredTypeFactory implements ITypeFactory<BinaryClass, JvmDeclare
 	
 	private final boolean useASM;
 
+	/**
+	 * The system property that enables {@link #isLazyMembers() lazy members} for the factories that do not specify it
+	 * explicitly.
+	 * 
+	 * @since 2.14
+	 */
+	public static final String LAZY_MEMBERS_PROPERTY = "org.eclipse.xtext.common.types.lazyMembers";
+
+	private final boolean lazyMembers;
+
+	private JdkTypeSnapshot jdkTypeSnapshot = JdkTypeSnapshot.fromSystemProperty();
+
 	@Inject
 	public DeclaredTypeFactory(ClassFileBytesAccess bytesAccess, ClassLoader loader) {
 		this(bytesAccess, loader, ASM_AVAILABLE);
 	}
 	
 	public DeclaredTypeFactory(ClassFileBytesAccess bytesAccess, ClassLoader loader, boolean useASM) {
+		this(bytesAccess, loader, useASM, Boolean.getBoolean(LAZY_MEMBERS_PROPERTY));
+	}
+
+	/**
+	 * @param lazyMembers
+	 *            whether the members of the types that are created for a {@link JvmMemberInitializableResource} are
+	 *            built on first access.
+	 * @since 2.14
+	 */
+	public DeclaredTypeFactory(ClassFileBytesAccess bytesAccess, ClassLoader loader, boolean useASM, boolean lazyMembers) {
 		this.bytesAccess = bytesAccess;
 		this.classLoader = loader;
 		this.useASM = useASM;
+		this.lazyMembers = lazyMembers && useASM;
 	}
 
 	private static boolean isAsm5Available() {
@@ -92,6 +117,10 @@ public class DeclaredTypeFactory implements ITypeFactory<BinaryClass, JvmDeclare
 		if (useASM) {
 			try {
 				createTypeTask.start();
+				JvmDeclaredType result = loadFromSnapshot(binaryClass);
+				if (result != null) {
+					return result;
+				}
 				return doCreateType(binaryClass);
 			} catch (Exception e) {
 				throw new RuntimeException(e);
@@ -110,6 +139,91 @@ public class DeclaredTypeFactory implements ITypeFactory<BinaryClass, JvmDeclare
 		}
 	}
 
+	/**
+	 * Creates a new {@link JvmDeclaredType type} from the given binary class that is added to the given resource. If
+	 * {@link #isLazyMembers() lazy members} are enabled, the type is created without its members and an initializer
+	 * that adds them on first access is registered with the resource.
+	 * 
+	 * @noreference This method is not intended to be referenced by clients.
+	 * @since 2.14
+	 */
+	public JvmDeclaredType createType(BinaryClass binaryClass, JvmMemberInitializableResource resource) {
+		if (!lazyMembers) {
+			return createType(binaryClass);
+		}
+		try {
+			createTypeTask.start();
+			JvmDeclaredType snapshotType = loadFromSnapshot(binaryClass);
+			if (snapshotType != null) {
+				return snapshotType;
+			}
+			final JvmDeclaredTypeBuilder builder = new JvmDeclaredTypeBuilder(binaryClass, bytesAccess, classLoader);
+			final JvmDeclaredType result = builder.buildTypeWithoutMembers();
+			if (result instanceof JvmDeclaredTypeImplCustom) {
+				resource.addJvmMemberInitializer(new Runnable() {
+					@Override
+					public void run() {
+						builder.buildMembers();
+						((JvmDeclaredTypeImplCustom) result).setPendingMembers(false);
+					}
+				});
+				((JvmDeclaredTypeImplCustom) result).setPendingMembers(true);
+			} else if (result != null) {
+				builder.buildMembers();
+			}
+			return result;
+		} catch (Exception e) {
+			throw new RuntimeException(e);
+		} finally {
+			createTypeTask.stop();
+		}
+	}
+
+	/**
+	 * @return whether the members of the types that are created for a {@link JvmMemberInitializableResource} are built
+	 *         on first access.
+	 * @since 2.14
+	 */
+	public boolean isLazyMembers() {
+		return lazyMembers;
+	}
+
+	/**
+	 * @return the snapshot that is asked for JDK types before they are built from their class files. May be
+	 *         <code>null</code>.
+	 * @since 2.14
+	 */
+	public JdkTypeSnapshot getJdkTypeSnapshot() {
+		return jdkTypeSnapshot;
+	}
+
+	/**
+	 * Sets the snapshot of JDK types. Defaults to the {@link JdkTypeSnapshot#fromSystemProperty() snapshot} that is
+	 * configured by a system property.
+	 * 
+	 * @since 2.14
+	 */
+	public void setJdkTypeSnapshot(JdkTypeSnapshot jdkTypeSnapshot) {
+		this.jdkTypeSnapshot = jdkTypeSnapshot;
+	}
+
+	/**
+	 * @since 2.14
+	 */
+	protected JvmDeclaredType loadFromSnapshot(BinaryClass binaryClass) {
+		if (jdkTypeSnapshot == null || !jdkTypeSnapshot.contains(binaryClass.getName())) {
+			return null;
+		}
+		return jdkTypeSnapshot.load(binaryClass, classLoader);
+	}
+
+	/**
+	 * @since 2.14
+	 */
+	public ClassLoader getClassLoader() {
+		return classLoader;
+	}
+
 	protected JvmDeclaredType doCreateType(BinaryClass binaryClass) {
 		JvmDeclaredTypeBuilder builder = new JvmDeclaredTypeBuilder(binaryClass, bytesAccess, classLoader);
 		return builder.buildType();
@@ -52,6 +52,14 @@ public class IndexedJvmTypeAccess {
 	public boolean isIndexingPhase(Notifier notifier) {
 		return compilerPhases.isIndexing(notifier);
 	}
+
+	/**
+	 * @return the index that is used to find the types of the given resource set.
+	 * @since 2.14
+	 */
+	public IResourceDescriptions getResourceDescriptions(ResourceSet resourceSet) {
+		return resourceDescriptionsProvider.getResourceDescriptions(resourceSet);
+	}
 	
 	/**
 	 * Locate and resolve a {@link JvmType} in the context of the given resource set. It'll try to
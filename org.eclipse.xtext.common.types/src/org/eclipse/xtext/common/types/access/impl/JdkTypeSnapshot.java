@@ -0,0 +1,388 @@
+/*******************************************************************************
+ * Copyright (c) 2018 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.common.types.access.impl;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.net.URI;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystemNotFoundException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+import org.apache.log4j.Logger;
+import org.eclipse.emf.ecore.resource.impl.BinaryResourceImpl;
+import org.eclipse.xtext.common.types.JvmDeclaredType;
+import org.eclipse.xtext.common.types.access.binary.BinaryClass;
+import org.eclipse.xtext.common.types.access.binary.asm.ClassFileBytesAccess;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Splitter;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.io.CountingInputStream;
+
+/**
+ * A prebuilt snapshot of the {@link JvmDeclaredType types} of some JDK packages, e.g. <code>java.lang</code>,
+ * <code>java.util</code> and <code>java.util.function</code>. A snapshot is written once for a JDK, usually at build
+ * time with {@link #main(String[])}, and is used by the {@link DeclaredTypeFactory} instead of reading the class files
+ * of these types with ASM.
+ *
+ * The snapshot records the version of the JDK and a fingerprint of some of its class files. It is only used for the
+ * class loaders that load the same class files, thus a snapshot of another JDK or a class loader with a different boot
+ * class path falls back to the class files. Only packages below <code>java.</code> may be stored, since their classes
+ * cannot be shadowed by other class path entries.
+ *
+ * Types are read on demand. Like the types of the {@link PersistentTypeCache}, they are not contained in a resource
+ * and contain proxies. The snapshot file is opened when the first type is read and stays open until the snapshot is
+ * {@link #close() closed}.
+ *
+ * @since 2.14
+ */
+public class JdkTypeSnapshot implements Closeable {
+
+	private static final Logger log = Logger.getLogger(JdkTypeSnapshot.class);
+
+	/**
+	 * The system property that configures the snapshot file of the {@link #fromSystemProperty() default} snapshot.
+	 */
+	public static final String SNAPSHOT_FILE_PROPERTY = "org.eclipse.xtext.common.types.jdkSnapshot";
+
+	/**
+	 * The packages that are stored if no packages are given to {@link #main(String[])}.
+	 */
+	public static final List<String> DEFAULT_PACKAGES = Collections
+			.unmodifiableList(Arrays.asList("java.lang", "java.util", "java.util.function"));
+
+	private static final int VERSION = 1;
+
+	/**
+	 * The classes whose class files identify the JDK.
+	 */
+	private static final List<String> FINGERPRINT_CLASSES = Collections
+			.unmodifiableList(Arrays.asList("java.lang.Object", "java.lang.String", "java.util.Map"));
+
+	private static final Map<String, Optional<JdkTypeSnapshot>> snapshots = new ConcurrentHashMap<String, Optional<JdkTypeSnapshot>>();
+
+	private final File file;
+
+	private final String fingerprint;
+
+	private final Map<String, long[]> entries;
+
+	private final Map<ClassLoader, Boolean> validClassLoaders = Collections
+			.synchronizedMap(new WeakHashMap<ClassLoader, Boolean>());
+
+	private RandomAccessFile data;
+
+	protected JdkTypeSnapshot(File file, String fingerprint, Map<String, long[]> entries) {
+		this.file = file;
+		this.fingerprint = fingerprint;
+		this.entries = entries;
+	}
+
+	/**
+	 * @return the snapshot in the file that is given by the system property {@value #SNAPSHOT_FILE_PROPERTY} or
+	 *         <code>null</code> if the property is not set or the file is not a snapshot of the running JDK. The
+	 *         snapshot of a file is only read once per process.
+	 */
+	public static JdkTypeSnapshot fromSystemProperty() {
+		String fileName = System.getProperty(SNAPSHOT_FILE_PROPERTY);
+		if (fileName == null || fileName.isEmpty()) {
+			return null;
+		}
+		Optional<JdkTypeSnapshot> result = snapshots.get(fileName);
+		if (result == null) {
+			result = Optional.fromNullable(open(new File(fileName)));
+			snapshots.put(fileName, result);
+		}
+		return result.orNull();
+	}
+
+	/**
+	 * Reads the index of the given snapshot file.
+	 *
+	 * @return the snapshot or <code>null</code> if the file cannot be read or has been written for another JDK version.
+	 */
+	public static JdkTypeSnapshot open(File file) {
+		if (!file.isFile()) {
+			return null;
+		}
+		try (CountingInputStream counting = new CountingInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			DataInputStream in = new DataInputStream(counting);
+			if (in.readInt() != VERSION) {
+				return null;
+			}
+			String javaVersion = in.readUTF();
+			if (!javaVersion.equals(System.getProperty("java.version"))) {
+				log.info("Ignoring the JDK type snapshot " + file + " of Java " + javaVersion);
+				return null;
+			}
+			String fingerprint = in.readUTF();
+			int size = in.readInt();
+			Map<String, long[]> entries = Maps.newHashMapWithExpectedSize(size);
+			long offset = 0;
+			for (int i = 0; i < size; i++) {
+				String name = in.readUTF();
+				int length = in.readInt();
+				entries.put(name, new long[] { offset, length });
+				offset += length;
+			}
+			long dataStart = counting.getCount();
+			for (long[] entry : entries.values()) {
+				entry[0] += dataStart;
+			}
+			return new JdkTypeSnapshot(file, fingerprint, entries);
+		} catch (IOException e) {
+			log.warn("Could not read the JDK type snapshot " + file, e);
+			return null;
+		}
+	}
+
+	public File getFile() {
+		return file;
+	}
+
+	/**
+	 * @return whether the snapshot contains a type with the given binary name.
+	 */
+	public boolean contains(String name) {
+		return entries.containsKey(name);
+	}
+
+	/**
+	 * @return the type of the given class or <code>null</code> if the snapshot does not contain it or the class loader
+	 *         loads other class files than the ones of the snapshot.
+	 */
+	public JvmDeclaredType load(BinaryClass clazz, ClassLoader classLoader) {
+		long[] entry = entries.get(clazz.getName());
+		if (entry == null || !isValidFor(classLoader)) {
+			return null;
+		}
+		try {
+			byte[] bytes = new byte[(int) entry[1]];
+			synchronized (this) {
+				if (data == null) {
+					data = new RandomAccessFile(file, "r");
+				}
+				data.seek(entry[0]);
+				data.readFully(bytes);
+			}
+			BinaryResourceImpl resource = new BinaryResourceImpl(clazz.getResourceURI());
+			resource.load(new ByteArrayInputStream(bytes), null);
+			JvmDeclaredType result = (JvmDeclaredType) resource.getContents().get(0);
+			resource.getContents().clear();
+			return result;
+		} catch (IOException | RuntimeException e) {
+			if (log.isDebugEnabled()) {
+				log.debug("Could not read " + clazz.getName() + " from the JDK type snapshot " + file, e);
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * Closes the snapshot file. A closed snapshot opens the file again if another type is read.
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		if (data != null) {
+			try {
+				data.close();
+			} finally {
+				data = null;
+			}
+		}
+	}
+
+	/**
+	 * @return whether the given class loader loads the same JDK class files as the ones the snapshot was written for.
+	 */
+	protected boolean isValidFor(ClassLoader classLoader) {
+		Boolean result = validClassLoaders.get(classLoader);
+		if (result == null) {
+			result = fingerprint.equals(computeFingerprint(classLoader));
+			if (!result) {
+				log.info("The class loader " + classLoader + " does not load the JDK of the type snapshot " + file);
+			}
+			validClassLoaders.put(classLoader, result);
+		}
+		return result;
+	}
+
+	/**
+	 * Writes the top level types of the given packages and their nested types as they are loaded by the given class
+	 * loader to the given file.
+	 *
+	 * @param packageNames
+	 *            the names of the packages, e.g. <code>java.util</code>. Sub packages are not included.
+	 * @return the number of stored top level types.
+	 */
+	public static int write(File file, ClassLoader classLoader, Collection<String> packageNames) throws IOException {
+		DeclaredTypeFactory factory = new DeclaredTypeFactory(new ClassFileBytesAccess(), classLoader, true, false);
+		factory.setJdkTypeSnapshot(null);
+		Map<String, byte[]> types = Maps.newLinkedHashMap();
+		for (String packageName : packageNames) {
+			if (!packageName.startsWith("java.")) {
+				throw new IllegalArgumentException("Only packages below java. can be stored: " + packageName);
+			}
+			for (String name : listTopLevelClasses(packageName)) {
+				BinaryClass clazz = new BinaryClass(name, classLoader);
+				JvmDeclaredType type = factory.createType(clazz);
+				if (type == null) {
+					continue;
+				}
+				BinaryResourceImpl resource = new BinaryResourceImpl(clazz.getResourceURI());
+				resource.getContents().add(type);
+				ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+				resource.save(bytes, null);
+				types.put(name, bytes.toByteArray());
+			}
+		}
+		File parent = file.getAbsoluteFile().getParentFile();
+		if (parent != null) {
+			parent.mkdirs();
+		}
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+			out.writeInt(VERSION);
+			out.writeUTF(System.getProperty("java.version"));
+			out.writeUTF(computeFingerprint(classLoader));
+			out.writeInt(types.size());
+			for (Map.Entry<String, byte[]> type : types.entrySet()) {
+				out.writeUTF(type.getKey());
+				out.writeInt(type.getValue().length);
+			}
+			for (byte[] bytes : types.values()) {
+				out.write(bytes);
+			}
+		}
+		return types.size();
+	}
+
+	/**
+	 * Writes a snapshot of the running JDK.
+	 *
+	 * @param args
+	 *            the snapshot file, optionally followed by the packages to store. Defaults to the
+	 *            {@link #DEFAULT_PACKAGES}.
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length == 0) {
+			System.err.println("Usage: JdkTypeSnapshot <file> [<package>...]");
+			System.exit(1);
+		}
+		List<String> packageNames = args.length > 1 ? Arrays.asList(args).subList(1, args.length) : DEFAULT_PACKAGES;
+		int count = write(new File(args[0]), JdkTypeSnapshot.class.getClassLoader(), packageNames);
+		System.out.println("Wrote " + count + " types of Java " + System.getProperty("java.version") + " to " + args[0]);
+	}
+
+	protected static String computeFingerprint(ClassLoader classLoader) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-1");
+			for (String name : FINGERPRINT_CLASSES) {
+				byte[] bytes = new BinaryClass(name, classLoader).getBytes();
+				if (bytes == null) {
+					return "";
+				}
+				digest.update(bytes);
+			}
+			StringBuilder result = new StringBuilder();
+			for (byte b : digest.digest()) {
+				result.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+			}
+			return result.toString();
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Lists the binary names of the top level classes of the given package of the runtime image or, before Java 9, of
+	 * the boot class path.
+	 */
+	protected static List<String> listTopLevelClasses(String packageName) throws IOException {
+		String packagePath = packageName.replace('.', '/');
+		List<String> result = Lists.newArrayList();
+		FileSystem fileSystem = null;
+		try {
+			fileSystem = FileSystems.getFileSystem(URI.create("jrt:/"));
+		} catch (FileSystemNotFoundException | IllegalArgumentException | UnsupportedOperationException e) {
+			// no runtime image, use the boot class path
+		}
+		if (fileSystem != null) {
+			Path packageDirectory = fileSystem.getPath("/packages", packageName);
+			if (java.nio.file.Files.isDirectory(packageDirectory)) {
+				try (DirectoryStream<Path> modules = java.nio.file.Files.newDirectoryStream(packageDirectory)) {
+					for (Path module : modules) {
+						try (DirectoryStream<Path> classes = java.nio.file.Files
+								.newDirectoryStream(module.resolve(packagePath), "*.class")) {
+							for (Path clazz : classes) {
+								addTopLevelClass(packageName, clazz.getFileName().toString(), result);
+							}
+						}
+					}
+				}
+			}
+		} else {
+			String bootClassPath = System.getProperty("sun.boot.class.path", "");
+			for (String entry : Splitter.on(File.pathSeparatorChar).omitEmptyStrings().split(bootClassPath)) {
+				File root = new File(entry);
+				if (root.isDirectory()) {
+					String[] names = new File(root, packagePath).list();
+					if (names != null) {
+						for (String name : names) {
+							addTopLevelClass(packageName, name, result);
+						}
+					}
+				} else if (root.isFile()) {
+					try (JarFile jarFile = new JarFile(root)) {
+						Enumeration<JarEntry> jarEntries = jarFile.entries();
+						while (jarEntries.hasMoreElements()) {
+							String name = jarEntries.nextElement().getName();
+							if (name.startsWith(packagePath) && name.lastIndexOf('/') == packagePath.length()) {
+								addTopLevelClass(packageName, name.substring(packagePath.length() + 1), result);
+							}
+						}
+					}
+				}
+			}
+		}
+		Collections.sort(result);
+		return result;
+	}
+
+	private static void addTopLevelClass(String packageName, String fileName, List<String> result) {
+		if (fileName.endsWith(".class") && fileName.indexOf('$') < 0 && fileName.indexOf('-') < 0) {
+			result.add(packageName + "." + fileName.substring(0, fileName.length() - 6));
+		}
+	}
+
+}
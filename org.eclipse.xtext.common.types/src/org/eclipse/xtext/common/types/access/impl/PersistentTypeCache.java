@@ -0,0 +1,351 @@
+/*******************************************************************************
+ * Copyright (c) 2018 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.common.types.access.impl;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.log4j.Logger;
+import org.eclipse.emf.ecore.resource.impl.BinaryResourceImpl;
+import org.eclipse.xtext.EcoreUtil2;
+import org.eclipse.xtext.common.types.JvmDeclaredType;
+import org.eclipse.xtext.common.types.access.binary.BinaryClass;
+
+import com.google.common.base.Strings;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * An on-disk cache of the {@link JvmDeclaredType types} that have been built from class files. The entries are keyed
+ * by the location of the class file, that is the path, size and modification time of its jar or its file, and store
+ * the locations of the class files of the nested types. Thus a cached type is only used as long as none of its jars
+ * or class files changed, and looking up an entry does not read any class file. Class files that are neither in a jar
+ * nor in a folder are keyed by the hash of their contents.
+ *
+ * Entries are read lazily when a type is requested. They are written to a temporary file that is moved into place
+ * afterwards, thus a cache directory can be shared by concurrent builds and processes on one machine. Since outdated
+ * entries are never looked up again, the least recently used entries are deleted once the cache exceeds its
+ * {@link #getMaxSize() maximum size}.
+ *
+ * Like the types of the {@link CachingDeclaredTypeFactory}, the cached types are not contained in a resource and
+ * contain proxies.
+ *
+ * @since 2.14
+ */
+public class PersistentTypeCache {
+
+	private static final Logger log = Logger.getLogger(PersistentTypeCache.class);
+
+	/**
+	 * The system property that configures the cache directory of the {@link #fromSystemProperty() default} cache.
+	 */
+	public static final String CACHE_DIR_PROPERTY = "org.eclipse.xtext.common.types.cacheDir";
+
+	/**
+	 * The system property that configures the maximum size in megabytes of the {@link #fromSystemProperty() default}
+	 * cache.
+	 */
+	public static final String CACHE_SIZE_PROPERTY = "org.eclipse.xtext.common.types.cacheSize";
+
+	public static final long DEFAULT_MAX_SIZE = 256L * 1024 * 1024;
+
+	private static final int VERSION = 2;
+
+	private static final long STALE_TEMP_FILE_AGE = TimeUnit.HOURS.toMillis(1);
+
+	private final File directory;
+
+	private final long maxSize;
+
+	private final AtomicBoolean pruned = new AtomicBoolean();
+
+	public PersistentTypeCache(File directory) {
+		this(directory, DEFAULT_MAX_SIZE);
+	}
+
+	public PersistentTypeCache(File directory, long maxSize) {
+		this.directory = directory;
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * @return the cache in the directory that is given by the system property {@value #CACHE_DIR_PROPERTY} or
+	 *         <code>null</code> if the property is not set.
+	 */
+	public static PersistentTypeCache fromSystemProperty() {
+		String directory = System.getProperty(CACHE_DIR_PROPERTY);
+		if (directory == null || directory.isEmpty()) {
+			return null;
+		}
+		long maxSize = DEFAULT_MAX_SIZE;
+		String size = System.getProperty(CACHE_SIZE_PROPERTY);
+		if (size != null && !size.isEmpty()) {
+			try {
+				maxSize = Long.parseLong(size) * 1024 * 1024;
+			} catch (NumberFormatException e) {
+				log.warn("Invalid size of the type cache: " + size);
+			}
+		}
+		return new PersistentTypeCache(new File(directory), maxSize);
+	}
+
+	public File getDirectory() {
+		return directory;
+	}
+
+	/**
+	 * @return the size in bytes that the entries may occupy before the least recently used entries are deleted.
+	 */
+	public long getMaxSize() {
+		return maxSize;
+	}
+
+	/**
+	 * @return the cached type or <code>null</code> if the type is not cached or one of its class files changed.
+	 */
+	public JvmDeclaredType load(BinaryClass clazz, ClassLoader classLoader) {
+		String key = getKey(clazz.getName(), classLoader);
+		if (key == null) {
+			return null;
+		}
+		File file = getFile(hash(key.getBytes(StandardCharsets.UTF_8)));
+		if (!file.isFile()) {
+			return null;
+		}
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			if (in.readInt() != VERSION) {
+				return null;
+			}
+			if (!key.equals(in.readUTF())) {
+				return null;
+			}
+			int nestedTypes = in.readInt();
+			for (int i = 0; i < nestedTypes; i++) {
+				String name = in.readUTF();
+				String nestedKey = in.readUTF();
+				if (!nestedKey.equals(Strings.nullToEmpty(getKey(name, classLoader)))) {
+					return null;
+				}
+			}
+			byte[] data = new byte[in.readInt()];
+			in.readFully(data);
+			BinaryResourceImpl resource = new BinaryResourceImpl(clazz.getResourceURI());
+			resource.load(new ByteArrayInputStream(data), null);
+			JvmDeclaredType result = (JvmDeclaredType) resource.getContents().get(0);
+			resource.getContents().clear();
+			// the modification time tells which entries were used recently when the cache is pruned
+			file.setLastModified(System.currentTimeMillis());
+			return result;
+		} catch (IOException | RuntimeException e) {
+			if (log.isDebugEnabled()) {
+				log.debug("Could not read cached type " + clazz.getName() + " from " + file, e);
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * Writes a copy of the given type that has been built from the class file of the given class to the cache.
+	 */
+	public void store(BinaryClass clazz, ClassLoader classLoader, JvmDeclaredType type) {
+		if (pruned.compareAndSet(false, true)) {
+			prune();
+		}
+		String key = getKey(clazz.getName(), classLoader);
+		if (key == null) {
+			return;
+		}
+		File file = getFile(hash(key.getBytes(StandardCharsets.UTF_8)));
+		File tempFile = null;
+		try {
+			Map<String, String> nestedTypes = Maps.newLinkedHashMap();
+			for (JvmDeclaredType nestedType : EcoreUtil2.eAllOfType(type, JvmDeclaredType.class)) {
+				String name = nestedType.getIdentifier();
+				nestedTypes.put(name, Strings.nullToEmpty(getKey(name, classLoader)));
+			}
+			BinaryResourceImpl resource = new BinaryResourceImpl(clazz.getResourceURI());
+			resource.getContents().add(EcoreUtil2.cloneWithProxies(type));
+			ByteArrayOutputStream data = new ByteArrayOutputStream();
+			resource.save(data, null);
+
+			file.getParentFile().mkdirs();
+			tempFile = File.createTempFile(file.getName(), ".tmp", file.getParentFile());
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+				out.writeInt(VERSION);
+				out.writeUTF(key);
+				out.writeInt(nestedTypes.size());
+				for (Map.Entry<String, String> nestedType : nestedTypes.entrySet()) {
+					out.writeUTF(nestedType.getKey());
+					out.writeUTF(nestedType.getValue());
+				}
+				out.writeInt(data.size());
+				data.writeTo(out);
+			}
+			try {
+				Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+		} catch (IOException | RuntimeException e) {
+			if (log.isDebugEnabled()) {
+				log.debug("Could not cache type " + clazz.getName() + " in " + file, e);
+			}
+			if (tempFile != null) {
+				tempFile.delete();
+			}
+		}
+	}
+
+	/**
+	 * Deletes the least recently used entries until the cache occupies at most three quarters of its
+	 * {@link #getMaxSize() maximum size}, if it exceeds it, as well as temporary files that have been left behind by
+	 * aborted processes. The cache is pruned once per instance before the first entry is stored.
+	 */
+	public void prune() {
+		File[] buckets = directory.listFiles();
+		if (buckets == null) {
+			return;
+		}
+		long now = System.currentTimeMillis();
+		List<File> entries = Lists.newArrayList();
+		long size = 0;
+		for (File bucket : buckets) {
+			File[] files = bucket.listFiles();
+			if (files == null) {
+				continue;
+			}
+			for (File file : files) {
+				if (file.getName().endsWith(".type")) {
+					entries.add(file);
+					size += file.length();
+				} else if (file.getName().endsWith(".tmp") && now - file.lastModified() > STALE_TEMP_FILE_AGE) {
+					file.delete();
+				}
+			}
+		}
+		if (size <= maxSize) {
+			return;
+		}
+		final Map<File, Long> lastModified = Maps.newHashMapWithExpectedSize(entries.size());
+		for (File entry : entries) {
+			lastModified.put(entry, entry.lastModified());
+		}
+		Collections.sort(entries, new Comparator<File>() {
+			@Override
+			public int compare(File o1, File o2) {
+				return Long.compare(lastModified.get(o1), lastModified.get(o2));
+			}
+		});
+		long targetSize = maxSize / 4 * 3;
+		for (File entry : entries) {
+			if (size <= targetSize) {
+				break;
+			}
+			long length = entry.length();
+			if (entry.delete()) {
+				size -= length;
+			}
+		}
+	}
+
+	/**
+	 * Computes the key of the class file of the given type without reading it. The key of a class file in a jar
+	 * consists of the path, size and modification time of the jar and the name of the type, the key of a class file in
+	 * a folder of the path, size and modification time of the class file itself. The class files of the runtime image
+	 * are keyed by the Java installation and version.
+	 *
+	 * @return the key or <code>null</code> if the class file does not exist.
+	 */
+	protected String getKey(String binaryName, ClassLoader classLoader) {
+		URL url = classLoader.getResource(binaryName.replace('.', '/') + ".class");
+		if (url == null) {
+			return null;
+		}
+		String protocol = url.getProtocol();
+		if ("jar".equals(protocol)) {
+			String path = url.getPath();
+			int separator = path.indexOf("!/");
+			File jar = separator != -1 ? toFile(path.substring(0, separator)) : null;
+			if (jar != null) {
+				return "jar|" + jar.getAbsolutePath() + '|' + jar.length() + '|' + jar.lastModified() + '|' + binaryName;
+			}
+		} else if ("file".equals(protocol)) {
+			File file = toFile(url.toString());
+			if (file != null) {
+				return "file|" + file.getAbsolutePath() + '|' + file.length() + '|' + file.lastModified();
+			}
+		} else if ("jrt".equals(protocol)) {
+			return "jrt|" + System.getProperty("java.home") + '|' + System.getProperty("java.runtime.version") + '|'
+					+ binaryName;
+		}
+		byte[] bytes = new BinaryClass(binaryName, classLoader).getBytes();
+		if (bytes == null) {
+			return null;
+		}
+		return "hash|" + hash(bytes);
+	}
+
+	private File toFile(String url) {
+		try {
+			URI uri = new URI(url);
+			if ("file".equals(uri.getScheme())) {
+				return new File(uri);
+			}
+		} catch (URISyntaxException | IllegalArgumentException e) {
+			// not a local file
+		}
+		return null;
+	}
+
+	/**
+	 * Entries are distributed to subdirectories by the first two characters of their hash.
+	 */
+	protected File getFile(String hash) {
+		return new File(new File(directory, hash.substring(0, 2)), hash + ".type");
+	}
+
+	protected String hash(byte[] bytes) {
+		if (bytes == null) {
+			return "";
+		}
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-1").digest(bytes);
+			StringBuilder result = new StringBuilder(digest.length * 2);
+			for (byte b : digest) {
+				result.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+			}
+			return result.toString();
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+}
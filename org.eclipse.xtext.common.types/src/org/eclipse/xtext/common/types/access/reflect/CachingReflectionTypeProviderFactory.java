@@ -19,12 +19,33 @@ import com.google.inject.Singleton;
 @Singleton
 public class CachingReflectionTypeProviderFactory extends ReflectionTypeProviderFactory {
 
+	/**
+	 * The system property that makes the {@link #CachingReflectionTypeProviderFactory(ClassLoader, TypeResourceServices)
+	 * injected} factories read class files instead of reflecting the classes.
+	 * 
+	 * @since 2.14
+	 */
+	public static final String USE_CLASS_FILES_PROPERTY = "org.eclipse.xtext.common.types.reflect.useClassFiles";
+
 	private CachingReflectionTypeFactory reusedFactory;
 
 	@Inject
 	public CachingReflectionTypeProviderFactory(ClassLoader classLoader, TypeResourceServices services) {
+		this(classLoader, services, Boolean.getBoolean(USE_CLASS_FILES_PROPERTY));
+	}
+
+	/**
+	 * @param useClassFiles
+	 *            whether the types are built from the class files of the classes with a
+	 *            {@link ClassFileReflectionTypeFactory}.
+	 * @since 2.14
+	 */
+	public CachingReflectionTypeProviderFactory(ClassLoader classLoader, TypeResourceServices services, boolean useClassFiles) {
 		super(classLoader, services);
-		ReflectionTypeFactory factoryDelegate = new ReflectionTypeFactory(new ReflectURIHelper());
+		ReflectURIHelper uriHelper = new ReflectURIHelper();
+		ReflectionTypeFactory factoryDelegate = useClassFiles
+				? new ClassFileReflectionTypeFactory(uriHelper, classLoader)
+				: new ReflectionTypeFactory(uriHelper);
 		reusedFactory = new CachingReflectionTypeFactory(factoryDelegate);
 	}
 	
@@ -0,0 +1,95 @@
+/*******************************************************************************
+ * Copyright (c) 2018 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.common.types.access.reflect;
+
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.log4j.Logger;
+import org.eclipse.xtext.common.types.JvmDeclaredType;
+import org.eclipse.xtext.common.types.access.binary.BinaryClass;
+import org.eclipse.xtext.common.types.access.binary.asm.BoundedClassFileBytesAccess;
+import org.eclipse.xtext.common.types.access.binary.asm.ClassFileBytesAccess;
+import org.eclipse.xtext.common.types.access.impl.DeclaredTypeFactory;
+
+import com.google.common.collect.MapMaker;
+
+/**
+ * A {@link ReflectionTypeFactory} that builds the types from the class files of the given classes rather than with
+ * {@code java.lang.reflect}. Reflecting the members of a class loads all the classes that appear in their signatures,
+ * whereas reading the class file loads nothing. The created types have the same URIs as the reflected ones.
+ *
+ * Classes without a class file, e.g. generated proxies, are reflected.
+ *
+ * @since 2.14
+ */
+public class ClassFileReflectionTypeFactory extends ReflectionTypeFactory {
+
+	private static final Logger log = Logger.getLogger(ClassFileReflectionTypeFactory.class);
+
+	private final ClassLoader bootClassFileLoader;
+
+	/**
+	 * The bytes are cached by class name, thus each defining class loader has its own cache. The caches do not
+	 * reference their class loaders.
+	 */
+	private final ConcurrentMap<ClassLoader, ClassFileBytesAccess> bytesAccesses = new MapMaker().weakKeys().makeMap();
+
+	/**
+	 * @param bootClassFileLoader
+	 *            the class loader that reads the class files of the classes of the boot class loader.
+	 */
+	public ClassFileReflectionTypeFactory(ReflectURIHelper uriHelper, ClassLoader bootClassFileLoader) {
+		super(uriHelper);
+		this.bootClassFileLoader = bootClassFileLoader;
+	}
+
+	@Override
+	public JvmDeclaredType createType(Class<?> clazz) {
+		ClassLoader classLoader = clazz.getClassLoader() != null ? clazz.getClassLoader() : bootClassFileLoader;
+		if (classLoader != null && !clazz.isAnonymousClass() && !clazz.isSynthetic()) {
+			BinaryClass binaryClass = new BinaryClass(clazz.getName(), classLoader);
+			if (getBytesAccess(classLoader).getBytes(binaryClass) != null) {
+				try {
+					JvmDeclaredType result = getDeclaredTypeFactory(classLoader).createType(binaryClass);
+					if (result != null) {
+						return result;
+					}
+				} catch (RuntimeException e) {
+					if (log.isDebugEnabled()) {
+						log.debug("Could not read the class file of " + clazz.getName(), e);
+					}
+				}
+			}
+		}
+		return super.createType(clazz);
+	}
+
+	/**
+	 * A factory is cheap to create and references the class loader, thus it is not retained, which would keep the
+	 * class loader and its classes alive.
+	 */
+	protected DeclaredTypeFactory getDeclaredTypeFactory(ClassLoader classLoader) {
+		return new DeclaredTypeFactory(getBytesAccess(classLoader), classLoader);
+	}
+
+	/**
+	 * @return the access to the class files of the given class loader.
+	 */
+	protected ClassFileBytesAccess getBytesAccess(ClassLoader classLoader) {
+		ClassFileBytesAccess result = bytesAccesses.get(classLoader);
+		if (result == null) {
+			ClassFileBytesAccess created = new BoundedClassFileBytesAccess();
+			result = bytesAccesses.putIfAbsent(classLoader, created);
+			if (result == null) {
+				result = created;
+			}
+		}
+		return result;
+	}
+
+}
@@ -547,9 +547,43 @@ public abstract class JvmDeclaredTypeImplCustom extends JvmDeclaredTypeImpl {
 		}
 	}
 	
+	/**
+	 * Whether the members of this type are added by an initializer of its resource.
+	 */
+	private volatile boolean isPendingMembers = false;
+	
+	/**
+	 * Marks this type to materialize its members on first access. Unlike the
+	 * {@link #setPendingInitialization(boolean) pending initialization}, only the access to the members
+	 * triggers the initializers of the {@link JvmMemberInitializableResource resource}.
+	 * 
+	 * @since 2.14
+	 */
+	public void setPendingMembers(boolean hasPendingMembers) {
+		this.isPendingMembers = hasPendingMembers;
+	}
+	
+	/**
+	 * @since 2.14
+	 */
+	protected void checkPendingMembers() {
+		if (!isPendingMembers) {
+			return;
+		}
+		Resource resource = this.eResource();
+		if (resource instanceof JvmMemberInitializableResource) {
+			JvmMemberInitializableResource initializableResource = (JvmMemberInitializableResource) resource;
+			initializableResource.ensureJvmMembersInitialized();
+			if (!initializableResource.isInitializingJvmMembers()) {
+				isPendingMembers = false;
+			}
+		}
+	}
+	
 	@Override
 	public EList<EObject> eContents() {
 		checkPendingInitialization();
+		checkPendingMembers();
 		return super.eContents();
 	}
 	
@@ -568,6 +602,9 @@ public abstract class JvmDeclaredTypeImplCustom extends JvmDeclaredTypeImpl {
 	@Override
 	public boolean eIsSet(int featureID) {
 		checkPendingInitialization();
+		if (featureID == TypesPackage.JVM_DECLARED_TYPE__MEMBERS) {
+			checkPendingMembers();
+		}
 		return super.eIsSet(featureID);
 	}
 	
@@ -605,6 +642,7 @@ public abstract class JvmDeclaredTypeImplCustom extends JvmDeclaredTypeImpl {
 	@Override
 	public EList<JvmMember> getMembers() {
 		checkPendingInitialization();
+		checkPendingMembers();
 		return super.getMembers();
 	}
 	
@@ -6,7 +6,15 @@ import java.util.List
 import org.eclipse.emf.common.util.URI
 import org.eclipse.xtext.common.types.JvmGenericType
 import org.eclipse.xtext.common.types.JvmParameterizedTypeReference
+import org.eclipse.xtext.common.types.TypesPackage
 import org.eclipse.xtext.common.types.access.IJvmTypeProvider
+import org.eclipse.xtext.common.types.descriptions.EObjectDescriptionBasedStubGenerator
+import org.eclipse.xtext.java.resource.DietParseCache
+import org.eclipse.xtext.java.resource.JavaConfig
+import org.eclipse.xtext.java.resource.JavaResource
+import org.eclipse.xtext.java.resource.NameEnvironmentCache
+import org.eclipse.xtext.naming.QualifiedName
+import org.eclipse.xtext.resource.IEObjectDescription
 import org.eclipse.xtext.resource.IResourceDescription
 import org.eclipse.xtext.resource.XtextResourceSet
 import org.eclipse.xtext.resource.impl.ChunkedResourceDescriptions
@@ -18,6 +26,7 @@ import org.junit.Assert
 import org.junit.Test
 import org.junit.runner.RunWith
 import org.eclipse.xtext.common.types.JvmBooleanAnnotationValue
+import org.eclipse.xtext.common.types.JvmEnumerationType
 
 @RunWith(XtextRunner)
 @InjectWith(JavaInjectorProvider)
@@ -103,6 +112,175 @@ class JavaSourceLanguageTest {
         Assert.assertNotNull(clazz.declaredOperations.head)
     }
 
+    @Test def void testBatchCompilation() {
+        val rs = resourceSet('MySuperClass.java' -> '''
+            public class MySuperClass {
+                interface InnerType {}
+            }
+        ''', 'MySubClass.java' -> '''
+            public class MySubClass extends MySuperClass {
+                public InnerType doStuff(InnerType some) {
+                    return some;
+                }
+            }
+        ''')
+        val config = new JavaConfig
+        config.batchCompilation = true
+        config.attachToEmfObject(rs)
+        val superResource = rs.resources.findFirst[URI.toString.endsWith('MySuperClass.java')] as JavaResource
+        val resource = rs.resources.findFirst[URI.toString.endsWith('MySubClass.java')] as JavaResource
+        val clazz = resource.contents.head as JvmGenericType
+        Assert.assertTrue(superResource.initialized)
+        val nestedType = (superResource.contents.head as JvmGenericType).allNestedTypes.head
+        Assert.assertSame(nestedType, clazz.declaredOperations.head.returnType.type)
+    }
+
+    @Test def void testEnumMembers() {
+        val rs = resourceSet('MyEnum.java' -> '''
+            public enum MyEnum {
+                A, B;
+                public static final int CONSTANT = 42;
+                @Deprecated
+                public <T extends CharSequence> T identity(T t) {
+                    return t;
+                }
+            }
+        ''')
+        val enumType = rs.resources.head.contents.head as JvmEnumerationType
+        Assert.assertEquals(#['A', 'B'], enumType.literals.map[simpleName])
+        val constant = enumType.declaredFields.findFirst[simpleName == 'CONSTANT']
+        Assert.assertEquals(42, constant.constantValue)
+        val identity = enumType.declaredOperations.findFirst[simpleName == 'identity']
+        Assert.assertTrue(identity.deprecated)
+        Assert.assertEquals('T', identity.returnType.simpleName)
+        Assert.assertNotNull(enumType.declaredOperations.findFirst[simpleName == 'values'])
+    }
+
+    @Test def void testSharedNameEnvironmentCache() {
+        val rs = resourceSet('MyClass.java' -> '''
+            public class MyClass extends java.util.ArrayList<String> {
+            }
+        ''')
+        val clazz = rs.resources.head.contents.head as JvmGenericType
+        Assert.assertEquals('java.util.ArrayList<java.lang.String>', clazz.superTypes.head.identifier)
+        val cache = NameEnvironmentCache.findInEmfObject(rs)
+        val name = QualifiedName.create('java', 'util', 'ArrayList')
+        val classLoader = rs.classpathURIContext as ClassLoader
+        Assert.assertSame(cache.getClassFileReader(name, classLoader), cache.getClassFileReader(name, classLoader))
+        Assert.assertNull(cache.getClassFileReader(QualifiedName.create('does', 'not', 'Exist'), classLoader))
+    }
+
+    @Test def void testSharedStubSources() {
+        val superDescription = resourceDesriptionManager.getResourceDescription(resourceSet('MySuperClass.java' -> '''
+            public class MySuperClass {
+            }
+        ''').resources.head)
+        val rs = resourceSet('MyClass.java' -> '''
+            public class MyClass extends MySuperClass {
+            }
+        ''', 'MyOtherClass.java' -> '''
+            public class MyOtherClass extends MySuperClass {
+            }
+        ''')
+        // the index contains a type whose resource is not loaded, thus a stub is compiled
+        ChunkedResourceDescriptions.findInEmfObject(rs).getContainer('default').addDescription(superDescription.URI,
+            superDescription)
+        val superType = superDescription.getExportedObjectsByType(TypesPackage.Literals.JVM_DECLARED_TYPE).head
+        val failingStubGenerator = new EObjectDescriptionBasedStubGenerator {
+            override getJavaStubSource(IEObjectDescription description, IResourceDescription resourceDescription) {
+                throw new AssertionError('The stub of ' + description.qualifiedName + ' was generated again')
+            }
+        }
+        val clazz = rs.resources.findFirst[URI.toString.endsWith('/MyClass.java')].contents.head as JvmGenericType
+        Assert.assertEquals('MySuperClass', clazz.superTypes.head.identifier)
+        val cache = NameEnvironmentCache.findInEmfObject(rs)
+        val stub = cache.getStubSource(superType, superDescription, failingStubGenerator)
+        val otherClazz = rs.resources.findFirst[URI.toString.endsWith('/MyOtherClass.java')].contents.head as JvmGenericType
+        Assert.assertEquals('MySuperClass', otherClazz.superTypes.head.identifier)
+        Assert.assertSame(stub, cache.getStubSource(superType, superDescription, failingStubGenerator))
+    }
+
+    @Test def void testStubSourceRegeneratedAfterIndexChange() {
+        val rs = resourceSet('MyClass.java' -> '''
+            public class MyClass {
+            }
+        ''')
+        val cache = NameEnvironmentCache.getOrCreate(rs)
+        val stubGenerator = new EObjectDescriptionBasedStubGenerator
+        val oldDescription = resourceDesriptionManager.getResourceDescription(resourceSet('MyType.java' -> '''
+            public class MyType {
+            }
+        ''').resources.head)
+        val oldType = oldDescription.getExportedObjectsByType(TypesPackage.Literals.JVM_DECLARED_TYPE).head
+        val oldStub = cache.getStubSource(oldType, oldDescription, stubGenerator)
+        Assert.assertSame(oldStub, cache.getStubSource(oldType, oldDescription, stubGenerator))
+        val newDescription = resourceDesriptionManager.getResourceDescription(resourceSet('MyType.java' -> '''
+            public class MyType {
+                public static class Nested {}
+            }
+        ''').resources.head)
+        val newType = newDescription.getExportedObjectsByType(TypesPackage.Literals.JVM_DECLARED_TYPE).findFirst[
+            qualifiedName.segmentCount == 1 && qualifiedName.lastSegment == 'MyType'
+        ]
+        val newStub = cache.getStubSource(newType, newDescription, stubGenerator)
+        Assert.assertNotSame(oldStub, newStub)
+        Assert.assertTrue(newStub, newStub.contains('Nested'))
+    }
+
+    @Test def void testSharedIndexedPackages() {
+        val rs = resourceSet('foo/bar/MyType.java' -> '''
+            package foo.bar;
+            public class MyType {
+                public static class Nested {}
+            }
+        ''')
+        val index = ChunkedResourceDescriptions.findInEmfObject(rs)
+        val cache = NameEnvironmentCache.getOrCreate(rs)
+        val packages = cache.getIndexedPackages(index)
+        Assert.assertEquals(#{QualifiedName.create('foo'), QualifiedName.create('foo', 'bar')}, packages)
+        Assert.assertSame(packages, cache.getIndexedPackages(index))
+        cache.forgetIndexedPackages
+        Assert.assertNotSame(packages, cache.getIndexedPackages(index))
+    }
+
+    @Test def void testLowerCaseTypeName() {
+        val rs = resourceSet('lower.java' -> '''
+            public class lower {
+                public static class inner {}
+            }
+        ''', 'User.java' -> '''
+            public class User {
+                public lower.inner field;
+            }
+        ''')
+        val resource = rs.resources.findFirst[URI.toString.endsWith('User.java')]
+        val clazz = resource.contents.head as JvmGenericType
+        Assert.assertEquals('lower$inner', clazz.declaredFields.head.type.identifier)
+    }
+
+    @Test def void testDietParseReuse() {
+        val rs = resourceSet('MyClass.java' -> '''
+            public class MyClass {
+                public String name;
+                public static class Nested {
+                    public Integer count() { return 0; }
+                }
+            }
+        ''')
+        val resource = rs.resources.head as JavaResource
+        val contents = resource.originalSource.toCharArray
+        val cache = DietParseCache.findInEmfObject(rs)
+        Assert.assertNotNull(cache.get(resource.URI, contents))
+        Assert.assertNull(cache.get(resource.URI, 'public class Other {}'.toCharArray))
+        val clazz = resource.contents.head as JvmGenericType
+        Assert.assertEquals('java.lang.String', clazz.declaredFields.head.type.identifier)
+        // the member types and methods of the reused unit belong to the compilation as well
+        val nested = clazz.members.filter(JvmGenericType).head
+        Assert.assertEquals('java.lang.Integer', nested.declaredOperations.head.returnType.identifier)
+        // the compiler has taken the unit
+        Assert.assertNull(cache.get(resource.URI, contents))
+    }
+
     @Inject Provider<XtextResourceSet> resourceSetProvider
     @Inject IResourceDescription.Manager resourceDesriptionManager
     @Inject IJvmTypeProvider.Factory typeProviderFactory
@@ -1,11 +1,13 @@
 package org.eclipse.xtext.java.tests;
 
 import com.google.common.base.Objects;
+import com.google.common.collect.Iterables;
 import com.google.inject.Inject;
 import com.google.inject.Provider;
 import java.io.OutputStream;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.resource.Resource;
@@ -14,13 +16,24 @@ import org.eclipse.xtext.common.types.JvmAnnotationReference;
 import org.eclipse.xtext.common.types.JvmAnnotationValue;
 import org.eclipse.xtext.common.types.JvmBooleanAnnotationValue;
 import org.eclipse.xtext.common.types.JvmDeclaredType;
+import org.eclipse.xtext.common.types.JvmEnumerationLiteral;
+import org.eclipse.xtext.common.types.JvmEnumerationType;
+import org.eclipse.xtext.common.types.JvmField;
 import org.eclipse.xtext.common.types.JvmGenericType;
 import org.eclipse.xtext.common.types.JvmOperation;
 import org.eclipse.xtext.common.types.JvmParameterizedTypeReference;
 import org.eclipse.xtext.common.types.JvmType;
 import org.eclipse.xtext.common.types.JvmTypeReference;
+import org.eclipse.xtext.common.types.TypesPackage;
 import org.eclipse.xtext.common.types.access.IJvmTypeProvider;
+import org.eclipse.xtext.common.types.descriptions.EObjectDescriptionBasedStubGenerator;
+import org.eclipse.xtext.java.resource.DietParseCache;
+import org.eclipse.xtext.java.resource.JavaConfig;
+import org.eclipse.xtext.java.resource.JavaResource;
+import org.eclipse.xtext.java.resource.NameEnvironmentCache;
 import org.eclipse.xtext.java.tests.JavaInjectorProvider;
+import org.eclipse.xtext.naming.QualifiedName;
+import org.eclipse.xtext.resource.IEObjectDescription;
 import org.eclipse.xtext.resource.IResourceDescription;
 import org.eclipse.xtext.resource.XtextResourceSet;
 import org.eclipse.xtext.resource.impl.ChunkedResourceDescriptions;
@@ -212,6 +225,307 @@ public class JavaSourceLanguageTest {
     Assert.assertNotNull(IterableExtensions.<JvmOperation>head(clazz.getDeclaredOperations()));
   }
   
+  @Test
+  public void testBatchCompilation() {
+    StringConcatenation _builder = new StringConcatenation();
+    _builder.append("public class MySuperClass {");
+    _builder.newLine();
+    _builder.append("    ");
+    _builder.append("interface InnerType {}");
+    _builder.newLine();
+    _builder.append("}");
+    _builder.newLine();
+    Pair<String, String> _mappedTo = Pair.<String, String>of("MySuperClass.java", _builder.toString());
+    StringConcatenation _builder_1 = new StringConcatenation();
+    _builder_1.append("public class MySubClass extends MySuperClass {");
+    _builder_1.newLine();
+    _builder_1.append("    ");
+    _builder_1.append("public InnerType doStuff(InnerType some) {");
+    _builder_1.newLine();
+    _builder_1.append("        ");
+    _builder_1.append("return some;");
+    _builder_1.newLine();
+    _builder_1.append("    ");
+    _builder_1.append("}");
+    _builder_1.newLine();
+    _builder_1.append("}");
+    _builder_1.newLine();
+    Pair<String, String> _mappedTo_1 = Pair.<String, String>of("MySubClass.java", _builder_1.toString());
+    final XtextResourceSet rs = this.resourceSet(_mappedTo, _mappedTo_1);
+    final JavaConfig config = new JavaConfig();
+    config.setBatchCompilation(true);
+    config.attachToEmfObject(rs);
+    final Function1<Resource, Boolean> _function = (Resource it) -> {
+      return Boolean.valueOf(it.getURI().toString().endsWith("MySuperClass.java"));
+    };
+    Resource _findFirst = IterableExtensions.<Resource>findFirst(rs.getResources(), _function);
+    final JavaResource superResource = ((JavaResource) _findFirst);
+    final Function1<Resource, Boolean> _function_1 = (Resource it) -> {
+      return Boolean.valueOf(it.getURI().toString().endsWith("MySubClass.java"));
+    };
+    Resource _findFirst_1 = IterableExtensions.<Resource>findFirst(rs.getResources(), _function_1);
+    final JavaResource resource = ((JavaResource) _findFirst_1);
+    EObject _head = IterableExtensions.<EObject>head(resource.getContents());
+    final JvmGenericType clazz = ((JvmGenericType) _head);
+    Assert.assertTrue(superResource.isInitialized());
+    EObject _head_1 = IterableExtensions.<EObject>head(superResource.getContents());
+    final JvmDeclaredType nestedType = IterableExtensions.<JvmDeclaredType>head(((JvmGenericType) _head_1).getAllNestedTypes());
+    Assert.assertSame(nestedType, IterableExtensions.<JvmOperation>head(clazz.getDeclaredOperations()).getReturnType().getType());
+  }
+  
+  @Test
+  public void testEnumMembers() {
+    StringConcatenation _builder = new StringConcatenation();
+    _builder.append("public enum MyEnum {");
+    _builder.newLine();
+    _builder.append("    ");
+    _builder.append("A, B;");
+    _builder.newLine();
+    _builder.append("    ");
+    _builder.append("public static final int CONSTANT = 42;");
+    _builder.newLine();
+    _builder.append("    ");
+    _builder.append("@Deprecated");
+    _builder.newLine();
+    _builder.append("    ");
+    _builder.append("public <T extends CharSequence> T identity(T t) {");
+    _builder.newLine();
+    _builder.append("        ");
+    _builder.append("return t;");
+    _builder.newLine();
+    _builder.append("    ");
+    _builder.append("}");
+    _builder.newLine();
+    _builder.append("}");
+    _builder.newLine();
+    Pair<String, String> _mappedTo = Pair.<String, String>of("MyEnum.java", _builder.toString());
+    final XtextResourceSet rs = this.resourceSet(_mappedTo);
+    EObject _head = IterableExtensions.<EObject>head(IterableExtensions.<Resource>head(rs.getResources()).getContents());
+    final JvmEnumerationType enumType = ((JvmEnumerationType) _head);
+    final Function1<JvmEnumerationLiteral, String> _function = (JvmEnumerationLiteral it) -> {
+      return it.getSimpleName();
+    };
+    Assert.assertEquals(Collections.<String>unmodifiableList(CollectionLiterals.<String>newArrayList("A", "B")), ListExtensions.<JvmEnumerationLiteral, String>map(enumType.getLiterals(), _function));
+    final Function1<JvmField, Boolean> _function_1 = (JvmField it) -> {
+      String _simpleName = it.getSimpleName();
+      return Boolean.valueOf(Objects.equal(_simpleName, "CONSTANT"));
+    };
+    final JvmField constant = IterableExtensions.<JvmField>findFirst(enumType.getDeclaredFields(), _function_1);
+    Assert.assertEquals(Integer.valueOf(42), constant.getConstantValue());
+    final Function1<JvmOperation, Boolean> _function_2 = (JvmOperation it) -> {
+      String _simpleName = it.getSimpleName();
+      return Boolean.valueOf(Objects.equal(_simpleName, "identity"));
+    };
+    final JvmOperation identity = IterableExtensions.<JvmOperation>findFirst(enumType.getDeclaredOperations(), _function_2);
+    Assert.assertTrue(identity.isDeprecated());
+    Assert.assertEquals("T", identity.getReturnType().getSimpleName());
+    final Function1<JvmOperation, Boolean> _function_3 = (JvmOperation it) -> {
+      String _simpleName = it.getSimpleName();
+      return Boolean.valueOf(Objects.equal(_simpleName, "values"));
+    };
+    Assert.assertNotNull(IterableExtensions.<JvmOperation>findFirst(enumType.getDeclaredOperations(), _function_3));
+  }
+  
+  @Test
+  public void testSharedNameEnvironmentCache() {
+    StringConcatenation _builder = new StringConcatenation();
+    _builder.append("public class MyClass extends java.util.ArrayList<String> {");
+    _builder.newLine();
+    _builder.append("}");
+    _builder.newLine();
+    Pair<String, String> _mappedTo = Pair.<String, String>of("MyClass.java", _builder.toString());
+    final XtextResourceSet rs = this.resourceSet(_mappedTo);
+    EObject _head = IterableExtensions.<EObject>head(IterableExtensions.<Resource>head(rs.getResources()).getContents());
+    final JvmGenericType clazz = ((JvmGenericType) _head);
+    Assert.assertEquals("java.util.ArrayList<java.lang.String>", IterableExtensions.<JvmTypeReference>head(clazz.getSuperTypes()).getIdentifier());
+    final NameEnvironmentCache cache = NameEnvironmentCache.findInEmfObject(rs);
+    final QualifiedName name = QualifiedName.create("java", "util", "ArrayList");
+    Object _classpathURIContext = rs.getClasspathURIContext();
+    final ClassLoader classLoader = ((ClassLoader) _classpathURIContext);
+    Assert.assertSame(cache.getClassFileReader(name, classLoader), cache.getClassFileReader(name, classLoader));
+    Assert.assertNull(cache.getClassFileReader(QualifiedName.create("does", "not", "Exist"), classLoader));
+  }
+  
+  @Test
+  public void testSharedStubSources() {
+    StringConcatenation _builder = new StringConcatenation();
+    _builder.append("public class MySuperClass {");
+    _builder.newLine();
+    _builder.append("}");
+    _builder.newLine();
+    Pair<String, String> _mappedTo = Pair.<String, String>of("MySuperClass.java", _builder.toString());
+    final IResourceDescription superDescription = this.resourceDesriptionManager.getResourceDescription(IterableExtensions.<Resource>head(this.resourceSet(_mappedTo).getResources()));
+    StringConcatenation _builder_1 = new StringConcatenation();
+    _builder_1.append("public class MyClass extends MySuperClass {");
+    _builder_1.newLine();
+    _builder_1.append("}");
+    _builder_1.newLine();
+    Pair<String, String> _mappedTo_1 = Pair.<String, String>of("MyClass.java", _builder_1.toString());
+    StringConcatenation _builder_2 = new StringConcatenation();
+    _builder_2.append("public class MyOtherClass extends MySuperClass {");
+    _builder_2.newLine();
+    _builder_2.append("}");
+    _builder_2.newLine();
+    Pair<String, String> _mappedTo_2 = Pair.<String, String>of("MyOtherClass.java", _builder_2.toString());
+    final XtextResourceSet rs = this.resourceSet(_mappedTo_1, _mappedTo_2);
+    ChunkedResourceDescriptions.findInEmfObject(rs).getContainer("default").addDescription(superDescription.getURI(), superDescription);
+    final IEObjectDescription superType = IterableExtensions.<IEObjectDescription>head(superDescription.getExportedObjectsByType(TypesPackage.Literals.JVM_DECLARED_TYPE));
+    final EObjectDescriptionBasedStubGenerator failingStubGenerator = new EObjectDescriptionBasedStubGenerator() {
+      @Override
+      public String getJavaStubSource(final IEObjectDescription description, final IResourceDescription resourceDescription) {
+        QualifiedName _qualifiedName = description.getQualifiedName();
+        String _plus = ("The stub of " + _qualifiedName);
+        String _plus_1 = (_plus + " was generated again");
+        throw new AssertionError(_plus_1);
+      }
+    };
+    final Function1<Resource, Boolean> _function = (Resource it) -> {
+      return Boolean.valueOf(it.getURI().toString().endsWith("/MyClass.java"));
+    };
+    EObject _head = IterableExtensions.<EObject>head(IterableExtensions.<Resource>findFirst(rs.getResources(), _function).getContents());
+    final JvmGenericType clazz = ((JvmGenericType) _head);
+    Assert.assertEquals("MySuperClass", IterableExtensions.<JvmTypeReference>head(clazz.getSuperTypes()).getIdentifier());
+    final NameEnvironmentCache cache = NameEnvironmentCache.findInEmfObject(rs);
+    final String stub = cache.getStubSource(superType, superDescription, failingStubGenerator);
+    final Function1<Resource, Boolean> _function_1 = (Resource it) -> {
+      return Boolean.valueOf(it.getURI().toString().endsWith("/MyOtherClass.java"));
+    };
+    EObject _head_1 = IterableExtensions.<EObject>head(IterableExtensions.<Resource>findFirst(rs.getResources(), _function_1).getContents());
+    final JvmGenericType otherClazz = ((JvmGenericType) _head_1);
+    Assert.assertEquals("MySuperClass", IterableExtensions.<JvmTypeReference>head(otherClazz.getSuperTypes()).getIdentifier());
+    Assert.assertSame(stub, cache.getStubSource(superType, superDescription, failingStubGenerator));
+  }
+  
+  @Test
+  public void testStubSourceRegeneratedAfterIndexChange() {
+    StringConcatenation _builder = new StringConcatenation();
+    _builder.append("public class MyClass {");
+    _builder.newLine();
+    _builder.append("}");
+    _builder.newLine();
+    Pair<String, String> _mappedTo = Pair.<String, String>of("MyClass.java", _builder.toString());
+    final XtextResourceSet rs = this.resourceSet(_mappedTo);
+    final NameEnvironmentCache cache = NameEnvironmentCache.getOrCreate(rs);
+    final EObjectDescriptionBasedStubGenerator stubGenerator = new EObjectDescriptionBasedStubGenerator();
+    StringConcatenation _builder_1 = new StringConcatenation();
+    _builder_1.append("public class MyType {");
+    _builder_1.newLine();
+    _builder_1.append("}");
+    _builder_1.newLine();
+    Pair<String, String> _mappedTo_1 = Pair.<String, String>of("MyType.java", _builder_1.toString());
+    final IResourceDescription oldDescription = this.resourceDesriptionManager.getResourceDescription(IterableExtensions.<Resource>head(this.resourceSet(_mappedTo_1).getResources()));
+    final IEObjectDescription oldType = IterableExtensions.<IEObjectDescription>head(oldDescription.getExportedObjectsByType(TypesPackage.Literals.JVM_DECLARED_TYPE));
+    final String oldStub = cache.getStubSource(oldType, oldDescription, stubGenerator);
+    Assert.assertSame(oldStub, cache.getStubSource(oldType, oldDescription, stubGenerator));
+    StringConcatenation _builder_2 = new StringConcatenation();
+    _builder_2.append("public class MyType {");
+    _builder_2.newLine();
+    _builder_2.append("    ");
+    _builder_2.append("public static class Nested {}");
+    _builder_2.newLine();
+    _builder_2.append("}");
+    _builder_2.newLine();
+    Pair<String, String> _mappedTo_2 = Pair.<String, String>of("MyType.java", _builder_2.toString());
+    final IResourceDescription newDescription = this.resourceDesriptionManager.getResourceDescription(IterableExtensions.<Resource>head(this.resourceSet(_mappedTo_2).getResources()));
+    final Function1<IEObjectDescription, Boolean> _function = (IEObjectDescription it) -> {
+      return Boolean.valueOf(((it.getQualifiedName().getSegmentCount() == 1) && Objects.equal(it.getQualifiedName().getLastSegment(), "MyType")));
+    };
+    final IEObjectDescription newType = IterableExtensions.<IEObjectDescription>findFirst(newDescription.getExportedObjectsByType(TypesPackage.Literals.JVM_DECLARED_TYPE), _function);
+    final String newStub = cache.getStubSource(newType, newDescription, stubGenerator);
+    Assert.assertNotSame(oldStub, newStub);
+    Assert.assertTrue(newStub, newStub.contains("Nested"));
+  }
+  
+  @Test
+  public void testSharedIndexedPackages() {
+    StringConcatenation _builder = new StringConcatenation();
+    _builder.append("package foo.bar;");
+    _builder.newLine();
+    _builder.append("public class MyType {");
+    _builder.newLine();
+    _builder.append("    ");
+    _builder.append("public static class Nested {}");
+    _builder.newLine();
+    _builder.append("}");
+    _builder.newLine();
+    Pair<String, String> _mappedTo = Pair.<String, String>of("foo/bar/MyType.java", _builder.toString());
+    final XtextResourceSet rs = this.resourceSet(_mappedTo);
+    final ChunkedResourceDescriptions index = ChunkedResourceDescriptions.findInEmfObject(rs);
+    final NameEnvironmentCache cache = NameEnvironmentCache.getOrCreate(rs);
+    final Set<QualifiedName> packages = cache.getIndexedPackages(index);
+    QualifiedName _create = QualifiedName.create("foo");
+    QualifiedName _create_1 = QualifiedName.create("foo", "bar");
+    Assert.assertEquals(Collections.<QualifiedName>unmodifiableSet(CollectionLiterals.<QualifiedName>newHashSet(_create, _create_1)), packages);
+    Assert.assertSame(packages, cache.getIndexedPackages(index));
+    cache.forgetIndexedPackages();
+    Assert.assertNotSame(packages, cache.getIndexedPackages(index));
+  }
+  
+  @Test
+  public void testLowerCaseTypeName() {
+    StringConcatenation _builder = new StringConcatenation();
+    _builder.append("public class lower {");
+    _builder.newLine();
+    _builder.append("    ");
+    _builder.append("public static class inner {}");
+    _builder.newLine();
+    _builder.append("}");
+    _builder.newLine();
+    Pair<String, String> _mappedTo = Pair.<String, String>of("lower.java", _builder.toString());
+    StringConcatenation _builder_1 = new StringConcatenation();
+    _builder_1.append("public class User {");
+    _builder_1.newLine();
+    _builder_1.append("    ");
+    _builder_1.append("public lower.inner field;");
+    _builder_1.newLine();
+    _builder_1.append("}");
+    _builder_1.newLine();
+    Pair<String, String> _mappedTo_1 = Pair.<String, String>of("User.java", _builder_1.toString());
+    final XtextResourceSet rs = this.resourceSet(_mappedTo, _mappedTo_1);
+    final Function1<Resource, Boolean> _function = (Resource it) -> {
+      return Boolean.valueOf(it.getURI().toString().endsWith("User.java"));
+    };
+    final Resource resource = IterableExtensions.<Resource>findFirst(rs.getResources(), _function);
+    EObject _head = IterableExtensions.<EObject>head(resource.getContents());
+    final JvmGenericType clazz = ((JvmGenericType) _head);
+    Assert.assertEquals("lower$inner", IterableExtensions.<JvmField>head(clazz.getDeclaredFields()).getType().getIdentifier());
+  }
+  
+  @Test
+  public void testDietParseReuse() {
+    StringConcatenation _builder = new StringConcatenation();
+    _builder.append("public class MyClass {");
+    _builder.newLine();
+    _builder.append("    ");
+    _builder.append("public String name;");
+    _builder.newLine();
+    _builder.append("    ");
+    _builder.append("public static class Nested {");
+    _builder.newLine();
+    _builder.append("        ");
+    _builder.append("public Integer count() { return 0; }");
+    _builder.newLine();
+    _builder.append("    ");
+    _builder.append("}");
+    _builder.newLine();
+    _builder.append("}");
+    _builder.newLine();
+    Pair<String, String> _mappedTo = Pair.<String, String>of("MyClass.java", _builder.toString());
+    final XtextResourceSet rs = this.resourceSet(_mappedTo);
+    Resource _head = IterableExtensions.<Resource>head(rs.getResources());
+    final JavaResource resource = ((JavaResource) _head);
+    final char[] contents = resource.getOriginalSource().toCharArray();
+    final DietParseCache cache = DietParseCache.findInEmfObject(rs);
+    Assert.assertNotNull(cache.get(resource.getURI(), contents));
+    Assert.assertNull(cache.get(resource.getURI(), "public class Other {}".toCharArray()));
+    EObject _head_1 = IterableExtensions.<EObject>head(resource.getContents());
+    final JvmGenericType clazz = ((JvmGenericType) _head_1);
+    Assert.assertEquals("java.lang.String", IterableExtensions.<JvmField>head(clazz.getDeclaredFields()).getType().getIdentifier());
+    final JvmGenericType nested = IterableExtensions.<JvmGenericType>head(Iterables.<JvmGenericType>filter(clazz.getMembers(), JvmGenericType.class));
+    Assert.assertEquals("java.lang.Integer", IterableExtensions.<JvmOperation>head(nested.getDeclaredOperations()).getReturnType().getIdentifier());
+    Assert.assertNull(cache.get(resource.getURI(), contents));
+  }
+  
   @Inject
   private Provider<XtextResourceSet> resourceSetProvider;
   
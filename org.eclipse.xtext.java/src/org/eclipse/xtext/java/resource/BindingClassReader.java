@@ -0,0 +1,508 @@
+/*******************************************************************************
+ * Copyright (c) 2018 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.java.resource;
+
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jdt.internal.compiler.ast.AbstractMethodDeclaration;
+import org.eclipse.jdt.internal.compiler.ast.AbstractVariableDeclaration;
+import org.eclipse.jdt.internal.compiler.ast.CompilationUnitDeclaration;
+import org.eclipse.jdt.internal.compiler.ast.FieldDeclaration;
+import org.eclipse.jdt.internal.compiler.ast.TypeDeclaration;
+import org.eclipse.jdt.internal.compiler.impl.Constant;
+import org.eclipse.jdt.internal.compiler.lookup.AnnotationBinding;
+import org.eclipse.jdt.internal.compiler.lookup.ArrayBinding;
+import org.eclipse.jdt.internal.compiler.lookup.ElementValuePair;
+import org.eclipse.jdt.internal.compiler.lookup.FieldBinding;
+import org.eclipse.jdt.internal.compiler.lookup.MethodBinding;
+import org.eclipse.jdt.internal.compiler.lookup.ReferenceBinding;
+import org.eclipse.jdt.internal.compiler.lookup.SourceTypeBinding;
+import org.eclipse.jdt.internal.compiler.lookup.TagBits;
+import org.eclipse.jdt.internal.compiler.lookup.TypeBinding;
+import org.eclipse.jdt.internal.compiler.lookup.TypeIds;
+import org.eclipse.xtext.common.types.JvmDeclaredType;
+import org.eclipse.xtext.common.types.access.binary.BinaryClass;
+import org.eclipse.xtext.common.types.access.binary.asm.JvmDeclaredTypeBuilder;
+import org.objectweb.asm.AnnotationVisitor;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.FieldVisitor;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * Visits the types of a compilation unit like a {@link org.objectweb.asm.ClassReader ClassReader} visits class files,
+ * but reads the signatures, modifiers, constants and annotations from the JDT bindings. This allows to build the
+ * {@link JvmDeclaredType JvmDeclaredTypes} of Java source files with the {@link JvmDeclaredTypeBuilder} without
+ * generating and reading byte code. The visited information matches the class files that JDT would generate.
+ *
+ * <p>
+ * The bindings have to be {@link org.eclipse.jdt.internal.compiler.lookup.CompilationUnitScope#faultInTypes() faulted
+ * in} and the compiler has to {@link org.eclipse.jdt.internal.compiler.impl.CompilerOptions#storeAnnotations store the
+ * annotations}.
+ * </p>
+ *
+ * @since 2.14
+ */
+public class BindingClassReader implements Opcodes {
+
+	private final Map<String, TypeDeclaration> typeDeclarations = Maps.newHashMap();
+
+	private final List<String> topLevelTypeNames = Lists.newArrayList();
+
+	public BindingClassReader(CompilationUnitDeclaration unit) {
+		if (unit.types != null) {
+			for (TypeDeclaration type : unit.types) {
+				if (type.binding != null) {
+					topLevelTypeNames.add(getName(type.binding).replace('/', '.'));
+					collectTypeDeclarations(type);
+				}
+			}
+		}
+	}
+
+	private void collectTypeDeclarations(TypeDeclaration type) {
+		typeDeclarations.put(getName(type.binding), type);
+		if (type.memberTypes != null) {
+			for (TypeDeclaration memberType : type.memberTypes) {
+				if (memberType.binding != null) {
+					collectTypeDeclarations(memberType);
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return the binary names of the top level types of the compilation unit.
+	 */
+	public List<String> getTopLevelTypeNames() {
+		return topLevelTypeNames;
+	}
+
+	/**
+	 * Builds the top level type with the given binary name and its nested types.
+	 *
+	 * @return the type or <code>null</code> if the compilation unit does not declare such a type.
+	 */
+	public JvmDeclaredType buildType(String typeName) {
+		JvmDeclaredTypeBuilder builder = new JvmDeclaredTypeBuilder(new BinaryClass(typeName, null), null, null) {
+			@Override
+			protected boolean accept(BinaryClass binaryClass, ClassVisitor visitor) {
+				return BindingClassReader.this.accept(binaryClass.getName(), visitor);
+			}
+		};
+		return builder.buildType();
+	}
+
+	/**
+	 * Lets the visitor visit the type with the given binary name.
+	 *
+	 * @return <code>false</code> if the compilation unit does not declare such a type.
+	 */
+	public boolean accept(String typeName, ClassVisitor visitor) {
+		TypeDeclaration type = typeDeclarations.get(typeName.replace('.', '/'));
+		if (type == null) {
+			return false;
+		}
+		SourceTypeBinding binding = type.binding;
+		AnnotationBinding[] annotations = binding.getAnnotations();
+		visitor.visit(V1_8, getAccessFlags(binding), getName(binding), toString(binding.genericSignature()),
+				getSuperName(binding), getInterfaceNames(binding));
+		acceptAnnotations(visitor, annotations);
+		if (type.memberTypes != null) {
+			for (TypeDeclaration memberType : type.memberTypes) {
+				if (memberType.binding != null) {
+					visitor.visitInnerClass(getName(memberType.binding), getName(binding),
+							String.valueOf(memberType.binding.sourceName()), getInnerClassAccessFlags(memberType.binding));
+				}
+			}
+		}
+		if (type.fields != null) {
+			for (FieldDeclaration field : type.fields) {
+				if (field.getKind() != AbstractVariableDeclaration.INITIALIZER && field.binding != null) {
+					acceptField(visitor, field.binding);
+				}
+			}
+		}
+		if (type.methods != null) {
+			for (AbstractMethodDeclaration method : type.methods) {
+				if (!method.isClinit() && method.binding != null) {
+					acceptMethod(visitor, method.binding);
+				}
+			}
+		}
+		if (binding.isEnum()) {
+			String descriptor = toString(binding.signature());
+			acceptEnd(visitor.visitMethod(ACC_PUBLIC | ACC_STATIC, "values", "()[" + descriptor, null, null));
+			acceptEnd(visitor.visitMethod(ACC_PUBLIC | ACC_STATIC, "valueOf", "(Ljava/lang/String;)" + descriptor, null,
+					null));
+		}
+		visitor.visitEnd();
+		return true;
+	}
+
+	protected void acceptField(ClassVisitor visitor, FieldBinding field) {
+		AnnotationBinding[] annotations = field.getAnnotations();
+		int access = field.getAccessFlags();
+		if (field.isDeprecated()) {
+			access |= ACC_DEPRECATED;
+		}
+		FieldVisitor fieldVisitor = visitor.visitField(access, String.valueOf(field.name), toString(field.type.signature()),
+				toString(field.genericSignature()), getConstantValue(field));
+		if (fieldVisitor != null) {
+			for (AnnotationBinding annotation : annotations) {
+				if (isPersistent(annotation)) {
+					acceptAnnotation(fieldVisitor.visitAnnotation(getDescriptor(annotation), isVisible(annotation)), annotation);
+				}
+			}
+			fieldVisitor.visitEnd();
+		}
+	}
+
+	protected void acceptMethod(ClassVisitor visitor, MethodBinding method) {
+		AnnotationBinding[] annotations = method.getAnnotations();
+		int access = method.getAccessFlags();
+		if (method.isDeprecated()) {
+			access |= ACC_DEPRECATED;
+		}
+		String[] exceptions = null;
+		if (method.thrownExceptions != null && method.thrownExceptions.length != 0) {
+			exceptions = new String[method.thrownExceptions.length];
+			for (int i = 0; i < exceptions.length; i++) {
+				exceptions[i] = toString(method.thrownExceptions[i].erasure().constantPoolName());
+			}
+		}
+		MethodVisitor methodVisitor = visitor.visitMethod(access, String.valueOf(method.selector), getDescriptor(method),
+				toString(method.genericSignature()), exceptions);
+		if (methodVisitor == null) {
+			return;
+		}
+		if (method.declaringClass.isAnnotationType()) {
+			Object defaultValue = method.getDefaultValue();
+			if (defaultValue != null) {
+				AnnotationVisitor defaultVisitor = methodVisitor.visitAnnotationDefault();
+				if (defaultVisitor != null) {
+					acceptValue(defaultVisitor, null, defaultValue, method.returnType);
+					defaultVisitor.visitEnd();
+				}
+			}
+		}
+		for (AnnotationBinding annotation : annotations) {
+			if (isPersistent(annotation)) {
+				acceptAnnotation(methodVisitor.visitAnnotation(getDescriptor(annotation), isVisible(annotation)), annotation);
+			}
+		}
+		AnnotationBinding[][] parameterAnnotations = method.getParameterAnnotations();
+		if (parameterAnnotations != null) {
+			for (int i = 0; i < parameterAnnotations.length; i++) {
+				if (parameterAnnotations[i] != null) {
+					for (AnnotationBinding annotation : parameterAnnotations[i]) {
+						if (isPersistent(annotation)) {
+							acceptAnnotation(methodVisitor.visitParameterAnnotation(i, getDescriptor(annotation),
+									isVisible(annotation)), annotation);
+						}
+					}
+				}
+			}
+		}
+		methodVisitor.visitEnd();
+	}
+
+	protected void acceptAnnotations(ClassVisitor visitor, AnnotationBinding[] annotations) {
+		for (AnnotationBinding annotation : annotations) {
+			if (isPersistent(annotation)) {
+				acceptAnnotation(visitor.visitAnnotation(getDescriptor(annotation), isVisible(annotation)), annotation);
+			}
+		}
+	}
+
+	protected void acceptAnnotation(AnnotationVisitor visitor, AnnotationBinding annotation) {
+		if (visitor == null) {
+			return;
+		}
+		for (ElementValuePair pair : annotation.getElementValuePairs()) {
+			MethodBinding element = pair.getMethodBinding();
+			if (element != null && pair.getValue() != null) {
+				acceptValue(visitor, String.valueOf(pair.getName()), pair.getValue(), element.returnType);
+			}
+		}
+		visitor.visitEnd();
+	}
+
+	/**
+	 * Visits an element value the way the {@link org.objectweb.asm.ClassReader ClassReader} does, i.e. non-empty
+	 * arrays of primitive values are visited at once.
+	 */
+	protected void acceptValue(AnnotationVisitor visitor, String name, Object value, TypeBinding type) {
+		if (type.isArrayType()) {
+			TypeBinding componentType = ((ArrayBinding) type).elementsType();
+			Object[] values = value instanceof Object[] ? (Object[]) value : new Object[] { value };
+			if (values.length != 0 && componentType.isBaseType()) {
+				Object primitiveValues = toPrimitiveArray(values, componentType);
+				if (primitiveValues != null) {
+					visitor.visit(name, primitiveValues);
+					return;
+				}
+			}
+			AnnotationVisitor arrayVisitor = visitor.visitArray(name);
+			if (arrayVisitor != null) {
+				for (Object element : values) {
+					if (element != null) {
+						acceptValue(arrayVisitor, null, element, componentType);
+					}
+				}
+				arrayVisitor.visitEnd();
+			}
+		} else if (value instanceof Constant) {
+			Object constantValue = toAnnotationValue((Constant) value, type);
+			if (constantValue != null) {
+				visitor.visit(name, constantValue);
+			}
+		} else if (value instanceof TypeBinding) {
+			visitor.visit(name, Type.getType(toString(((TypeBinding) value).erasure().signature())));
+		} else if (value instanceof FieldBinding) {
+			FieldBinding literal = (FieldBinding) value;
+			visitor.visitEnum(name, toString(literal.declaringClass.signature()), String.valueOf(literal.name));
+		} else if (value instanceof AnnotationBinding) {
+			AnnotationBinding annotation = (AnnotationBinding) value;
+			acceptAnnotation(visitor.visitAnnotation(name, getDescriptor(annotation)), annotation);
+		}
+	}
+
+	/**
+	 * Annotations with source retention and annotations that only target type uses are not written to class files.
+	 */
+	protected boolean isPersistent(AnnotationBinding annotation) {
+		ReferenceBinding annotationType = annotation.getAnnotationType();
+		if (annotationType == null || !annotationType.isValidBinding()) {
+			return false;
+		}
+		long metaTagBits = annotationType.getAnnotationTagBits();
+		if ((metaTagBits & (TagBits.AnnotationForTypeParameter | TagBits.AnnotationForTypeUse)) != 0
+				&& (metaTagBits & TagBits.SE7AnnotationTargetMASK) == 0) {
+			return false;
+		}
+		return (metaTagBits & TagBits.AnnotationRetentionMASK) != TagBits.AnnotationSourceRetention;
+	}
+
+	protected boolean isVisible(AnnotationBinding annotation) {
+		long metaTagBits = annotation.getAnnotationType().getAnnotationTagBits();
+		return (metaTagBits & TagBits.AnnotationRetentionMASK) == TagBits.AnnotationRuntimeRetention;
+	}
+
+	protected int getAccessFlags(SourceTypeBinding type) {
+		int access = type.getAccessFlags();
+		if (type.isPrivate()) {
+			access &= ~ACC_PUBLIC;
+		}
+		if (type.isProtected()) {
+			access |= ACC_PUBLIC;
+		}
+		access &= ~(ACC_STRICT | ACC_PROTECTED | ACC_PRIVATE | ACC_STATIC | ACC_SYNCHRONIZED | ACC_NATIVE);
+		if (!type.isInterface()) {
+			access |= ACC_SUPER;
+		}
+		if (type.isDeprecated()) {
+			access |= ACC_DEPRECATED;
+		}
+		return access;
+	}
+
+	protected int getInnerClassAccessFlags(SourceTypeBinding memberType) {
+		int access = memberType.getAccessFlags();
+		if (memberType.isInterface()) {
+			access |= ACC_STATIC;
+		}
+		return access;
+	}
+
+	/**
+	 * The descriptor of constructors contains the synthetic parameters of enums and inner classes, like the class
+	 * file does.
+	 */
+	protected String getDescriptor(MethodBinding method) {
+		StringBuilder result = new StringBuilder("(");
+		if (method.isConstructor()) {
+			ReferenceBinding declaringClass = method.declaringClass;
+			if (declaringClass.isEnum()) {
+				result.append("Ljava/lang/String;I");
+			} else if (declaringClass.isMemberType() && !declaringClass.isStatic()) {
+				result.append(declaringClass.enclosingType().erasure().signature());
+			}
+		}
+		for (TypeBinding parameter : method.parameters) {
+			result.append(parameter.signature());
+		}
+		result.append(')');
+		result.append(method.returnType.signature());
+		return result.toString();
+	}
+
+	protected String getDescriptor(AnnotationBinding annotation) {
+		return toString(annotation.getAnnotationType().signature());
+	}
+
+	protected String getName(ReferenceBinding type) {
+		return toString(type.constantPoolName());
+	}
+
+	protected String getSuperName(SourceTypeBinding type) {
+		ReferenceBinding superclass = type.superclass();
+		if (superclass == null) {
+			return null;
+		}
+		return toString(superclass.erasure().constantPoolName());
+	}
+
+	protected String[] getInterfaceNames(SourceTypeBinding type) {
+		ReferenceBinding[] superInterfaces = type.superInterfaces();
+		if (superInterfaces == null || superInterfaces.length == 0) {
+			return null;
+		}
+		String[] result = new String[superInterfaces.length];
+		for (int i = 0; i < result.length; i++) {
+			result[i] = toString(superInterfaces[i].erasure().constantPoolName());
+		}
+		return result;
+	}
+
+	/**
+	 * @return the value of the constant value attribute of the field, i.e. booleans, bytes, chars and shorts are
+	 *         represented as integers.
+	 */
+	protected Object getConstantValue(FieldBinding field) {
+		Constant constant = field.constant();
+		if (constant == null || constant == Constant.NotAConstant) {
+			return null;
+		}
+		switch (field.type.id) {
+			case TypeIds.T_boolean:
+				return constant.booleanValue() ? 1 : 0;
+			case TypeIds.T_char:
+				return (int) constant.charValue();
+			case TypeIds.T_byte:
+			case TypeIds.T_short:
+			case TypeIds.T_int:
+				return constant.intValue();
+			case TypeIds.T_long:
+				return constant.longValue();
+			case TypeIds.T_float:
+				return constant.floatValue();
+			case TypeIds.T_double:
+				return constant.doubleValue();
+			case TypeIds.T_JavaLangString:
+				return constant.stringValue();
+			default:
+				return null;
+		}
+	}
+
+	protected Object toAnnotationValue(Constant constant, TypeBinding type) {
+		switch (type.id) {
+			case TypeIds.T_boolean:
+				return constant.booleanValue();
+			case TypeIds.T_char:
+				return constant.charValue();
+			case TypeIds.T_byte:
+				return constant.byteValue();
+			case TypeIds.T_short:
+				return constant.shortValue();
+			case TypeIds.T_int:
+				return constant.intValue();
+			case TypeIds.T_long:
+				return constant.longValue();
+			case TypeIds.T_float:
+				return constant.floatValue();
+			case TypeIds.T_double:
+				return constant.doubleValue();
+			case TypeIds.T_JavaLangString:
+				return constant.stringValue();
+			default:
+				return null;
+		}
+	}
+
+	/**
+	 * @return the primitive array or <code>null</code> if not all values are constants.
+	 */
+	protected Object toPrimitiveArray(Object[] values, TypeBinding componentType) {
+		for (Object value : values) {
+			if (!(value instanceof Constant)) {
+				return null;
+			}
+		}
+		int length = values.length;
+		switch (componentType.id) {
+			case TypeIds.T_boolean: {
+				boolean[] result = new boolean[length];
+				for (int i = 0; i < length; i++)
+					result[i] = ((Constant) values[i]).booleanValue();
+				return result;
+			}
+			case TypeIds.T_char: {
+				char[] result = new char[length];
+				for (int i = 0; i < length; i++)
+					result[i] = ((Constant) values[i]).charValue();
+				return result;
+			}
+			case TypeIds.T_byte: {
+				byte[] result = new byte[length];
+				for (int i = 0; i < length; i++)
+					result[i] = ((Constant) values[i]).byteValue();
+				return result;
+			}
+			case TypeIds.T_short: {
+				short[] result = new short[length];
+				for (int i = 0; i < length; i++)
+					result[i] = ((Constant) values[i]).shortValue();
+				return result;
+			}
+			case TypeIds.T_int: {
+				int[] result = new int[length];
+				for (int i = 0; i < length; i++)
+					result[i] = ((Constant) values[i]).intValue();
+				return result;
+			}
+			case TypeIds.T_long: {
+				long[] result = new long[length];
+				for (int i = 0; i < length; i++)
+					result[i] = ((Constant) values[i]).longValue();
+				return result;
+			}
+			case TypeIds.T_float: {
+				float[] result = new float[length];
+				for (int i = 0; i < length; i++)
+					result[i] = ((Constant) values[i]).floatValue();
+				return result;
+			}
+			case TypeIds.T_double: {
+				double[] result = new double[length];
+				for (int i = 0; i < length; i++)
+					result[i] = ((Constant) values[i]).doubleValue();
+				return result;
+			}
+			default:
+				return null;
+		}
+	}
+
+	private void acceptEnd(MethodVisitor visitor) {
+		if (visitor != null) {
+			visitor.visitEnd();
+		}
+	}
+
+	private static String toString(char[] chars) {
+		return chars == null ? null : String.valueOf(chars);
+	}
+
+}
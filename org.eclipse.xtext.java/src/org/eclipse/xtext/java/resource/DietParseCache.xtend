@@ -0,0 +1,78 @@
+/*******************************************************************************
+ * Copyright (c) 2018 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.java.resource
+
+import com.google.common.cache.Cache
+import com.google.common.cache.CacheBuilder
+import java.util.Arrays
+import org.eclipse.emf.common.util.URI
+import org.eclipse.emf.ecore.resource.ResourceSet
+import org.eclipse.jdt.internal.compiler.ast.CompilationUnitDeclaration
+import org.eclipse.xtext.util.internal.EmfAdaptable
+
+/**
+ * Keeps the compilation units that have been diet parsed for the stubs of the Java resources of a resource set, thus
+ * computing the stubs again or installing the full types does not parse them again. The units are kept by the URI of
+ * their resource and are only answered for the contents that they have been parsed from, even if the resource has been
+ * reloaded in the meantime. They are softly referenced.
+ * 
+ * @since 2.14
+ */
+@EmfAdaptable
+class DietParseCache {
+
+	val Cache<URI, CompilationUnitDeclaration> units = CacheBuilder.newBuilder.softValues.build
+
+	/**
+	 * @return the cache of the resource set, which is attached on demand.
+	 */
+	def static DietParseCache getOrCreate(ResourceSet resourceSet) {
+		synchronized (resourceSet) {
+			var result = findInEmfObject(resourceSet)
+			if (result === null) {
+				result = new DietParseCache
+				result.attachToEmfObject(resourceSet)
+			}
+			return result
+		}
+	}
+
+	/**
+	 * @return the unit that has been parsed from the given contents or <code>null</code>.
+	 */
+	def CompilationUnitDeclaration get(URI uri, char[] contents) {
+		val result = units.getIfPresent(uri)
+		if (result !== null && isParsedFrom(result, contents)) {
+			return result
+		}
+		return null
+	}
+
+	def void put(URI uri, CompilationUnitDeclaration unit) {
+		units.put(uri, unit)
+	}
+
+	/**
+	 * Removes the unit of the given resource. Units that are compiled have to be removed, since the compiler binds them.
+	 * 
+	 * @return the unit that has been parsed from the given contents or <code>null</code>.
+	 */
+	def CompilationUnitDeclaration remove(URI uri, char[] contents) {
+		val result = units.getIfPresent(uri)
+		// only one compiler may take the unit
+		if (result !== null && units.asMap.remove(uri, result) && isParsedFrom(result, contents)) {
+			return result
+		}
+		return null
+	}
+
+	protected def boolean isParsedFrom(CompilationUnitDeclaration unit, char[] contents) {
+		Arrays.equals(unit.compilationResult.compilationUnit.contents, contents)
+	}
+
+}
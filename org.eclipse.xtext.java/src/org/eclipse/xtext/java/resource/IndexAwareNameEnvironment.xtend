@@ -2,12 +2,13 @@ package org.eclipse.xtext.java.resource
 
 import java.util.ArrayList
 import java.util.Map
+import java.util.Set
 import org.eclipse.jdt.internal.compiler.batch.CompilationUnit
-import org.eclipse.jdt.internal.compiler.classfmt.ClassFileReader
 import org.eclipse.jdt.internal.compiler.env.INameEnvironment
 import org.eclipse.jdt.internal.compiler.env.NameEnvironmentAnswer
 import org.eclipse.xtend.lib.annotations.FinalFieldsConstructor
 import org.eclipse.xtext.common.types.TypesPackage
+import org.eclipse.xtext.common.types.access.binary.ClassPathIndex
 import org.eclipse.xtext.common.types.descriptions.EObjectDescriptionBasedStubGenerator
 import org.eclipse.xtext.naming.QualifiedName
 import org.eclipse.xtext.resource.IResourceDescriptions
@@ -21,9 +22,25 @@ import org.eclipse.emf.ecore.resource.Resource
 	val EObjectDescriptionBasedStubGenerator stubGenerator
 
 	Map<QualifiedName, NameEnvironmentAnswer> cache = newHashMap()
+	NameEnvironmentCache sharedCache
+	Map<QualifiedName, Boolean> knownPackages = newHashMap()
+	Set<QualifiedName> indexedPackages
     
 	override cleanup() {
 		cache.clear
+		knownPackages.clear
+		indexedPackages = null
+	}
+
+	/**
+	 * @return the cache that is shared by the name environments of the resource set.
+	 * @since 2.14
+	 */
+	protected def NameEnvironmentCache getSharedCache() {
+		if (sharedCache === null) {
+			sharedCache = NameEnvironmentCache.getOrCreate(resource.resourceSet)
+		}
+		return sharedCache
 	}
 
 	override findType(char[][] compoundTypeName) {
@@ -43,17 +60,15 @@ import org.eclipse.emf.ecore.resource.Resource
 			val source = if (res instanceof JavaResource) {
 			    (res as JavaResource).originalSource
 			} else {
-			    stubGenerator.getJavaStubSource(candidate, resourceDescription)
+			    getSharedCache().getStubSource(candidate, resourceDescription, stubGenerator)
 			}
 			result = new NameEnvironmentAnswer(new CompilationUnit(source.toCharArray, className.toString('/')+'.java', null), null)
 		} else {
-			val fileName = className.toString('/') + ".class"
-			val url = classLoader.getResource(fileName)
-			if (url === null) {
+			val reader = getSharedCache().getClassFileReader(className, classLoader)
+			if (reader === null) {
 				cache.put(className, null)
 				return null;
 			}
-			val reader = ClassFileReader.read(url.openStream, fileName)
 			result = new NameEnvironmentAnswer(reader, null)
 		}
 		cache.put(className, result)
@@ -71,7 +86,45 @@ import org.eclipse.emf.ecore.resource.Resource
 		if (packageName === null || packageName.length == 0) {
 			return false;
 		}
-		// Mostly working hack
-		return Character.isLowerCase(packageName.head)
+		val segments = new ArrayList<String>
+		if (parentPackageName !== null) {
+			segments += parentPackageName.map[String.valueOf(it)]
+		}
+		segments += String.valueOf(packageName)
+		val name = QualifiedName.create(segments)
+		var result = knownPackages.get(name)
+		if (result === null) {
+			result = isPackage(name)
+			knownPackages.put(name, result)
+		}
+		return result
+	}
+
+	/**
+	 * @return whether the index or the class path contain types in the given package or in one of its subpackages.
+	 * @since 2.14
+	 */
+	protected def boolean isPackage(QualifiedName packageName) {
+		if (getIndexedPackages().contains(packageName)) {
+			return true
+		}
+		val index = ClassPathIndex.get(classLoader)
+		if (index === null) {
+			// the packages of class paths that cannot be indexed are recognized by the naming convention
+			return Character.isLowerCase(packageName.lastSegment.charAt(0))
+		}
+		return index.isPackage(packageName.toString('/'))
+	}
+
+	/**
+	 * @return the packages of the types in the index and their parent packages, which are shared by the name
+	 *         environments of the resource set.
+	 * @since 2.14
+	 */
+	protected def Set<QualifiedName> getIndexedPackages() {
+		if (indexedPackages === null) {
+			indexedPackages = getSharedCache().getIndexedPackages(resourceDescriptions)
+		}
+		return indexedPackages
 	}
 }	
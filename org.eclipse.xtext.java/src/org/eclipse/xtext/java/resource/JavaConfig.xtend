@@ -8,4 +8,9 @@ import org.eclipse.xtext.util.internal.EmfAdaptable
 class JavaConfig {
     @Accessors JavaVersion javaSourceLevel
     @Accessors JavaVersion javaTargetLevel
+    /**
+     * Whether the first Java resource that installs its types compiles all pending Java resources of the resource set.
+     * @since 2.14
+     */
+    @Accessors boolean batchCompilation
 }
\ No newline at end of file
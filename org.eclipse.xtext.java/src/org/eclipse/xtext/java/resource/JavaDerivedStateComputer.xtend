@@ -1,8 +1,7 @@
 package org.eclipse.xtext.java.resource
 
 import com.google.inject.Inject
-import java.util.Arrays
-import java.util.List
+import java.util.Map
 import org.eclipse.emf.common.util.EList
 import org.eclipse.emf.ecore.EObject
 import org.eclipse.emf.ecore.resource.Resource
@@ -10,7 +9,9 @@ import org.eclipse.emf.ecore.resource.ResourceSet
 import org.eclipse.jdt.internal.compiler.CompilationResult
 import org.eclipse.jdt.internal.compiler.Compiler
 import org.eclipse.jdt.internal.compiler.DefaultErrorHandlingPolicies
+import org.eclipse.jdt.internal.compiler.ast.CompilationUnitDeclaration
 import org.eclipse.jdt.internal.compiler.ast.TypeDeclaration
+import org.eclipse.jdt.internal.compiler.env.ICompilationUnit
 import org.eclipse.jdt.internal.compiler.impl.CompilerOptions
 import org.eclipse.jdt.internal.compiler.parser.Parser
 import org.eclipse.jdt.internal.compiler.problem.DefaultProblemFactory
@@ -18,9 +19,6 @@ import org.eclipse.jdt.internal.compiler.problem.ProblemReporter
 import org.eclipse.xtext.common.types.JvmDeclaredType
 import org.eclipse.xtext.common.types.JvmGenericType
 import org.eclipse.xtext.common.types.TypesFactory
-import org.eclipse.xtext.common.types.access.binary.BinaryClass
-import org.eclipse.xtext.common.types.access.binary.asm.ClassFileBytesAccess
-import org.eclipse.xtext.common.types.access.binary.asm.JvmDeclaredTypeBuilder
 import org.eclipse.xtext.common.types.descriptions.EObjectDescriptionBasedStubGenerator
 import org.eclipse.xtext.parser.antlr.IReferableElementsUnloader
 import org.eclipse.xtext.resource.IResourceDescriptionsProvider
@@ -47,12 +45,18 @@ class JavaDerivedStateComputer {
 		if (resource.isInfoFile)
 			return;
 		val compilationUnit = getCompilationUnit(resource)
-		val parser = new Parser(new ProblemReporter(
-				DefaultErrorHandlingPolicies.proceedWithAllProblems(),
-				resource.compilerOptions,
-				new DefaultProblemFactory()), true)
-		val compilationResult = new CompilationResult(compilationUnit, 0, 1, -1)
-		val result = parser.dietParse(compilationUnit, compilationResult)
+		// the unit is kept for the full installation of the types
+		val cache = if (resource.resourceSet !== null) DietParseCache.getOrCreate(resource.resourceSet)
+		var result = cache?.get(resource.URI, compilationUnit.contents)
+		if (result === null) {
+			val parser = new Parser(new ProblemReporter(
+					DefaultErrorHandlingPolicies.proceedWithAllProblems(),
+					resource.compilerOptions,
+					new DefaultProblemFactory()), true)
+			val compilationResult = new CompilationResult(compilationUnit, 0, 1, -1)
+			result = parser.dietParse(compilationUnit, compilationResult)
+			cache?.put(resource.URI, result)
+		}
 		if (result.types !== null) {
 			for (type : result.types) {
 				val packageName = result.currentPackage?.importName?.map[String.valueOf(it)]?.join('.')
@@ -104,39 +108,119 @@ class JavaDerivedStateComputer {
 	def void installFull(Resource resource) {
 		if (resource.isInfoFile)
 			return;
-		val compilationUnit = getCompilationUnit(resource)
-		val classLoader = getClassLoader(resource)
+		installFull(#[resource])
+	}
+	
+	/**
+	 * Compiles the compilation units of all given resources in a single compiler run and installs the resulting
+	 * types. Units that refer to each other are thus parsed and resolved only once. The types are built from the
+	 * bindings of the compiler, method bodies are neither resolved nor translated to byte code.
+	 * 
+	 * @since 2.14
+	 */
+	def void installFull(Iterable<? extends Resource> resources) {
+		val resourceByUnit = <ICompilationUnit, Resource>newLinkedHashMap
+		for (resource : resources) {
+			if (!resource.isInfoFile)
+				resourceByUnit.put(getCompilationUnit(resource), resource)
+		}
+		if (resourceByUnit.empty)
+			return;
+		val first = resourceByUnit.values.head
+		val classLoader = getClassLoader(first)
 		
-		val data = resourceDescriptionsProvider.getResourceDescriptions(resource.resourceSet)
+		val data = resourceDescriptionsProvider.getResourceDescriptions(first.resourceSet)
 		if (data === null)
 			throw new IllegalStateException("no index installed")
 		// TODO use container manager
-		val nameEnv = new IndexAwareNameEnvironment(resource, classLoader, data, stubGenerator)
-		val compiler = new Compiler(nameEnv, DefaultErrorHandlingPolicies.proceedWithAllProblems(), resource.compilerOptions, [
-			if (Arrays.equals(it.fileName, compilationUnit.fileName)) {
-				val map = newHashMap
-				var List<String> topLevelTypes = newArrayList
-				for (cf : it.getClassFiles()) {
-					val className = cf.compoundName.map[String.valueOf(it)].join('.')
-					map.put(className, cf.bytes)
-					if (!cf.isNestedType) {
-						topLevelTypes += className
-					}
+		val nameEnv = new IndexAwareNameEnvironment(first, classLoader, data, stubGenerator)
+		val compiler = new Compiler(nameEnv, DefaultErrorHandlingPolicies.proceedWithAllProblems(), first.compilerOptions, [
+			// the types are installed from the bindings, see process
+		], new DefaultProblemFactory()) {
+			override initializeParser() {
+				parser = createParser(problemReporter, options, resourceByUnit)
+			}
+
+			override process(CompilationUnitDeclaration unit, int i) {
+				// units that are answered by the name environment are compiled, too
+				val resource = resourceByUnit.get(unit.compilationResult.compilationUnit)
+				if (resource === null)
+					return;
+				lookupEnvironment.unitBeingCompleted = unit
+				try {
+					unit.scope?.faultInTypes
+					installTypes(resource, unit)
+				} finally {
+					lookupEnvironment.unitBeingCompleted = null
 				}
-				val inMemClassLoader = new InMemoryClassLoader(map, classLoader)
-				for (topLevel : topLevelTypes) {
-					try {
-                        val builder = new JvmDeclaredTypeBuilder(new BinaryClass(topLevel, inMemClassLoader),
-                            new ClassFileBytesAccess(), inMemClassLoader)
-                        val type = builder.buildType
-                        resource.contents += type
-                    } catch (Throwable t) {
-                        throw new IllegalStateException("could not load type '" + topLevel + "'", t)
-                    }
+			}
+		}
+		compiler.compile(resourceByUnit.keySet.toList)
+	}
+	
+	/**
+	 * @return a parser that reuses the units that have been diet parsed for the stubs of the given resources.
+	 * @since 2.14
+	 */
+	protected def Parser createParser(ProblemReporter problemReporter, CompilerOptions options,
+		Map<ICompilationUnit, Resource> resourceByUnit) {
+		return new Parser(problemReporter, options.parseLiteralExpressionsAsConstants) {
+			override dietParse(ICompilationUnit sourceUnit, CompilationResult compilationResult) {
+				val resource = resourceByUnit.get(sourceUnit)
+				val cached = if (resource?.resourceSet !== null)
+						DietParseCache.findInEmfObject(resource.resourceSet)?.remove(resource.URI, sourceUnit.contents)
+				if (cached === null) {
+					return super.dietParse(sourceUnit, compilationResult)
 				}
+				// the compiler identifies the unit by its compilation result
+				compilationResult.lineSeparatorPositions = cached.compilationResult.lineSeparatorPositions
+				cached.compilationResult = compilationResult
+				if (cached.types !== null) {
+					for (type : cached.types) {
+						setCompilationResult(type, compilationResult)
+					}
+				}
+				return cached
 			}
-		], new DefaultProblemFactory())
-		compiler.compile(#[compilationUnit])
+		}
+	}
+
+	/**
+	 * Makes the given type, its methods and its member types report to the compilation result of the compilation that
+	 * reuses their diet parsed unit.
+	 * 
+	 * @since 2.14
+	 */
+	protected def void setCompilationResult(TypeDeclaration type, CompilationResult compilationResult) {
+		type.compilationResult = compilationResult
+		if (type.methods !== null) {
+			for (method : type.methods) {
+				method.compilationResult = compilationResult
+			}
+		}
+		if (type.memberTypes !== null) {
+			for (memberType : type.memberTypes) {
+				setCompilationResult(memberType, compilationResult)
+			}
+		}
+	}
+	
+	/**
+	 * Builds the types of the compilation unit from its bindings, which have to be faulted in.
+	 * 
+	 * @since 2.14
+	 */
+	protected def void installTypes(Resource resource, CompilationUnitDeclaration unit) {
+		val reader = new BindingClassReader(unit)
+		for (topLevel : reader.topLevelTypeNames) {
+			try {
+				val type = reader.buildType(topLevel)
+				if (type !== null)
+					resource.contents += type
+			} catch (Throwable t) {
+				throw new IllegalStateException("could not load type '" + topLevel + "'", t)
+			}
+		}
 	}
 	
 	protected def isInfoFile(Resource resource) {
@@ -170,6 +254,8 @@ class JavaDerivedStateComputer {
         compilerOptions.sourceLevel = sourceLevel
         compilerOptions.produceMethodParameters = true
         compilerOptions.produceReferenceInfo = true
+        // the types of the resources are built from the annotation bindings
+        compilerOptions.storeAnnotations = true
         // these fields have been introduces in JDT 3.7
         try {
             CompilerOptions.getField("originalSourceLevel").setLong(compilerOptions, targetLevel)
@@ -82,7 +82,10 @@ class JavaResource extends ResourceImpl implements IJavaSchemeUriResolver, ISync
 			if (isLoaded && !isLoading && !initializing && !initialized ) {
 				try {
 					eSetDeliver(false)
-					installFull
+					if (isBatchCompilation)
+						installFullBatch
+					else
+						installFull
 				} finally {
 					eSetDeliver(true)
 				}
@@ -109,6 +112,49 @@ class JavaResource extends ResourceImpl implements IJavaSchemeUriResolver, ISync
 		]
 	}
 	
+	/**
+	 * Installs the types of this resource and of all other Java resources of the resource set that are loaded but not
+	 * initialized yet. The resources are compiled in a single compiler run.
+	 * 
+	 * @since 2.14
+	 */
+	def installFullBatch() {
+		val others = <JavaResource>newArrayList
+		if (resourceSet !== null) {
+			for (other : resourceSet.resources.filter(JavaResource).toList) {
+				if (other !== this && other.isLoaded && !other.isLoading && !other.initializing && !other.initialized) {
+					others += other
+				}
+			}
+		}
+		initializing[
+			for (other : others) {
+				other.eSetDeliver(false)
+				other.initializing = true
+			}
+			try {
+				derivedStateComputer.installFull(#[this] + others)
+				initialized = true
+				for (other : others) {
+					other.initialized = true
+				}
+			} finally {
+				for (other : others) {
+					other.initializing = false
+					other.eSetDeliver(true)
+				}
+			}
+		]
+	}
+	
+	/**
+	 * @since 2.14
+	 */
+	protected def boolean isBatchCompilation() {
+		val config = if (resourceSet !== null) JavaConfig.findInEmfObject(resourceSet)
+		return config !== null && config.batchCompilation
+	}
+	
 	private def initializing(() => void init) {
 		try {
 			initializing = true
@@ -0,0 +1,205 @@
+/*******************************************************************************
+ * Copyright (c) 2018 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.java.resource
+
+import com.google.common.collect.MapMaker
+import java.lang.ref.ReferenceQueue
+import java.lang.ref.WeakReference
+import java.util.Map
+import java.util.Set
+import java.util.concurrent.ConcurrentHashMap
+import org.eclipse.emf.ecore.resource.ResourceSet
+import org.eclipse.jdt.internal.compiler.classfmt.ClassFileReader
+import org.eclipse.xtext.common.types.TypesPackage
+import org.eclipse.xtext.common.types.access.binary.ClassPathIndex
+import org.eclipse.xtext.common.types.descriptions.EObjectDescriptionBasedStubGenerator
+import org.eclipse.xtext.naming.QualifiedName
+import org.eclipse.xtext.resource.IEObjectDescription
+import org.eclipse.xtext.resource.IResourceDescription
+import org.eclipse.xtext.resource.IResourceDescriptions
+import org.eclipse.xtext.util.internal.EmfAdaptable
+
+/**
+ * Caches the class file readers and the stub sources of the {@link IndexAwareNameEnvironment name environments} of a
+ * resource set, thus they are shared by all Java resources of the resource set and by all of their compilations.
+ * 
+ * <p>
+ * The class file readers are fully initialized and thus immutable. They are discarded when the class loader of the
+ * resource set changes. A stub source is reused as long as the index contains the resource description that it has
+ * been generated from, i.e. an index delta for its resource invalidates it. Stub sources whose resource description
+ * has been garbage collected are removed.
+ * </p>
+ * 
+ * <p>
+ * The packages of the types in an index are computed once per index instance. They are forgotten when an index that is
+ * an {@link IResourceDescription.Event.Source} fires a delta. Clients that change an index that does not fire events,
+ * e.g. a {@link org.eclipse.xtext.resource.impl.ResourceDescriptionsData ResourceDescriptionsData}, while Java
+ * resources are compiled have to call {@link #forgetIndexedPackages()}.
+ * </p>
+ * 
+ * @since 2.14
+ */
+@EmfAdaptable
+class NameEnvironmentCache {
+
+	val Map<QualifiedName, ClassFileReader> classFileReaders = new ConcurrentHashMap
+	val Set<QualifiedName> missingClasses = ConcurrentHashMap.newKeySet
+	val Map<QualifiedName, StubSource> stubSources = new ConcurrentHashMap
+	val ReferenceQueue<IResourceDescription> clearedStubSources = new ReferenceQueue
+	val Map<IResourceDescriptions, Set<QualifiedName>> indexedPackages = new MapMaker().weakKeys.makeMap
+	volatile ClassLoader classLoader
+
+	/**
+	 * A stub source that does not keep the resource description alive that it has been generated from.
+	 */
+	protected static class StubSource extends WeakReference<IResourceDescription> {
+		val QualifiedName typeName
+		val String source
+
+		new(QualifiedName typeName, String source, IResourceDescription resourceDescription,
+			ReferenceQueue<IResourceDescription> queue) {
+			super(resourceDescription, queue)
+			this.typeName = typeName
+			this.source = source
+		}
+	}
+
+	/**
+	 * Tells a cache about index deltas without keeping its resource set alive.
+	 */
+	static class IndexListener implements IResourceDescription.Event.Listener {
+		val WeakReference<NameEnvironmentCache> cache
+		val IResourceDescription.Event.Source source
+
+		new(NameEnvironmentCache cache, IResourceDescription.Event.Source source) {
+			this.cache = new WeakReference(cache)
+			this.source = source
+		}
+
+		override descriptionsChanged(IResourceDescription.Event event) {
+			source.removeListener(this)
+			cache.get?.indexedPackages?.remove(source)
+		}
+	}
+
+	/**
+	 * @return the cache of the resource set, which is attached on demand.
+	 */
+	def static NameEnvironmentCache getOrCreate(ResourceSet resourceSet) {
+		synchronized (resourceSet) {
+			var result = findInEmfObject(resourceSet)
+			if (result === null) {
+				result = new NameEnvironmentCache
+				result.attachToEmfObject(resourceSet)
+			}
+			return result
+		}
+	}
+
+	/**
+	 * @return the reader of the class file with the given name or <code>null</code> if the class loader does not find it.
+	 */
+	def ClassFileReader getClassFileReader(QualifiedName className, ClassLoader classLoader) {
+		useClassLoader(classLoader)
+		val cached = classFileReaders.get(className)
+		if (cached !== null || missingClasses.contains(className)) {
+			return cached
+		}
+		val fileName = className.toString('/') + ".class"
+		val index = ClassPathIndex.get(classLoader)
+		val url = if (index === null || index.mightContain(fileName)) classLoader.getResource(fileName)
+		if (url === null) {
+			missingClasses += className
+			return null
+		}
+		val stream = url.openStream
+		try {
+			// fully initialized readers do not decode their bytes lazily, thus they may be used by several compilations
+			val reader = ClassFileReader.read(stream, fileName, true)
+			return classFileReaders.putIfAbsent(className, reader) ?: reader
+		} finally {
+			stream.close
+		}
+	}
+
+	/**
+	 * @return the Java stub of the given type, which is generated unless it has been generated from the same resource
+	 *         description before.
+	 */
+	def String getStubSource(IEObjectDescription type, IResourceDescription resourceDescription,
+		EObjectDescriptionBasedStubGenerator stubGenerator) {
+		removeClearedStubSources
+		val cached = stubSources.get(type.qualifiedName)
+		if (cached !== null && cached.get === resourceDescription) {
+			return cached.source
+		}
+		val source = stubGenerator.getJavaStubSource(type, resourceDescription)
+		stubSources.put(type.qualifiedName,
+			new StubSource(type.qualifiedName, source, resourceDescription, clearedStubSources))
+		return source
+	}
+
+	/**
+	 * Removes the stub sources whose resource descriptions have been garbage collected, e.g. since an index delta
+	 * replaced them.
+	 */
+	protected def void removeClearedStubSources() {
+		var cleared = clearedStubSources.poll
+		while (cleared !== null) {
+			val stubSource = cleared as StubSource
+			stubSources.remove(stubSource.typeName, stubSource)
+			cleared = clearedStubSources.poll
+		}
+	}
+
+	/**
+	 * @return the packages of the types in the given index and their parent packages.
+	 */
+	def Set<QualifiedName> getIndexedPackages(IResourceDescriptions index) {
+		val cached = indexedPackages.get(index)
+		if (cached !== null) {
+			return cached
+		}
+		val types = <QualifiedName>newHashSet
+		val packages = <QualifiedName>newHashSet
+		for (type : index.getExportedObjectsByType(TypesPackage.Literals.JVM_DECLARED_TYPE)) {
+			types += type.qualifiedName
+			var name = type.qualifiedName.skipLast(1)
+			while (name.segmentCount > 0 && packages.add(name)) {
+				name = name.skipLast(1)
+			}
+		}
+		// nested types are prefixed with the name of their outer type
+		packages.removeAll(types)
+		if (indexedPackages.putIfAbsent(index, packages) === null && index instanceof IResourceDescription.Event.Source) {
+			val source = index as IResourceDescription.Event.Source
+			source.addListener(new IndexListener(this, source))
+		}
+		return packages
+	}
+
+	/**
+	 * Forgets the packages of all indexes, e.g. since an index that does not fire events has been changed.
+	 */
+	def void forgetIndexedPackages() {
+		indexedPackages.clear
+	}
+
+	protected def void useClassLoader(ClassLoader classLoader) {
+		if (this.classLoader !== classLoader) {
+			synchronized (this) {
+				if (this.classLoader !== classLoader) {
+					classFileReaders.clear
+					missingClasses.clear
+					this.classLoader = classLoader
+				}
+			}
+		}
+	}
+
+}
@@ -0,0 +1,127 @@
+/**
+ * Copyright (c) 2018 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.xtext.java.resource;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.util.Arrays;
+import java.util.List;
+import org.eclipse.emf.common.notify.Adapter;
+import org.eclipse.emf.common.notify.Notifier;
+import org.eclipse.emf.common.notify.impl.AdapterImpl;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.jdt.internal.compiler.ast.CompilationUnitDeclaration;
+import org.eclipse.xtext.util.internal.EmfAdaptable;
+
+/**
+ * Keeps the compilation units that have been diet parsed for the stubs of the Java resources of a resource set, thus
+ * computing the stubs again or installing the full types does not parse them again. The units are kept by the URI of
+ * their resource and are only answered for the contents that they have been parsed from, even if the resource has been
+ * reloaded in the meantime. They are softly referenced.
+ * 
+ * @since 2.14
+ */
+@EmfAdaptable
+@SuppressWarnings("all")
+public class DietParseCache {
+  public static class DietParseCacheAdapter extends AdapterImpl {
+    private DietParseCache element;
+    
+    public DietParseCacheAdapter(final DietParseCache element) {
+      this.element = element;
+    }
+    
+    public DietParseCache get() {
+      return this.element;
+    }
+    
+    @Override
+    public boolean isAdapterForType(final Object object) {
+      return object == DietParseCache.class;
+    }
+  }
+  
+  private final Cache<URI, CompilationUnitDeclaration> units = CacheBuilder.newBuilder().softValues().<URI, CompilationUnitDeclaration>build();
+  
+  /**
+   * @return the cache of the resource set, which is attached on demand.
+   */
+  public static DietParseCache getOrCreate(final ResourceSet resourceSet) {
+    synchronized (resourceSet) {
+      DietParseCache result = DietParseCache.findInEmfObject(resourceSet);
+      if ((result == null)) {
+        DietParseCache _dietParseCache = new DietParseCache();
+        result = _dietParseCache;
+        result.attachToEmfObject(resourceSet);
+      }
+      return result;
+    }
+  }
+  
+  /**
+   * @return the unit that has been parsed from the given contents or <code>null</code>.
+   */
+  public CompilationUnitDeclaration get(final URI uri, final char[] contents) {
+    final CompilationUnitDeclaration result = this.units.getIfPresent(uri);
+    if (((result != null) && this.isParsedFrom(result, contents))) {
+      return result;
+    }
+    return null;
+  }
+  
+  public void put(final URI uri, final CompilationUnitDeclaration unit) {
+    this.units.put(uri, unit);
+  }
+  
+  /**
+   * Removes the unit of the given resource. Units that are compiled have to be removed, since the compiler binds them.
+   * 
+   * @return the unit that has been parsed from the given contents or <code>null</code>.
+   */
+  public CompilationUnitDeclaration remove(final URI uri, final char[] contents) {
+    final CompilationUnitDeclaration result = this.units.getIfPresent(uri);
+    if ((((result != null) && this.units.asMap().remove(uri, result)) && this.isParsedFrom(result, contents))) {
+      return result;
+    }
+    return null;
+  }
+  
+  protected boolean isParsedFrom(final CompilationUnitDeclaration unit, final char[] contents) {
+    return Arrays.equals(unit.compilationResult.compilationUnit.getContents(), contents);
+  }
+  
+  public static DietParseCache findInEmfObject(final Notifier emfObject) {
+    for (Adapter adapter : emfObject.eAdapters()) {
+    	if (adapter instanceof DietParseCache.DietParseCacheAdapter) {
+    		return ((DietParseCache.DietParseCacheAdapter) adapter).get();
+    	}
+    }
+    return null;
+  }
+  
+  public static DietParseCache removeFromEmfObject(final Notifier emfObject) {
+    List<Adapter> adapters = emfObject.eAdapters();
+    for(int i = 0, max = adapters.size(); i < max; i++) {
+    	Adapter adapter = adapters.get(i);
+    	if (adapter instanceof DietParseCache.DietParseCacheAdapter) {
+    		emfObject.eAdapters().remove(i);
+    		return ((DietParseCache.DietParseCacheAdapter) adapter).get();
+    	}
+    }
+    return null;
+  }
+  
+  public void attachToEmfObject(final Notifier emfObject) {
+    DietParseCache result = findInEmfObject(emfObject);
+    if (result != null)
+    	throw new IllegalStateException("The given EMF object already contains an adapter for DietParseCache");
+    DietParseCache.DietParseCacheAdapter adapter = new DietParseCache.DietParseCacheAdapter(this);
+    emfObject.eAdapters().add(adapter);
+  }
+}
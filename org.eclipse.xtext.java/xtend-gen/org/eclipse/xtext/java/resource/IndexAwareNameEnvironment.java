@@ -1,9 +1,10 @@
 package org.eclipse.xtext.java.resource;
 
-import java.net.URL;
+import com.google.common.collect.Iterables;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.jdt.internal.compiler.batch.CompilationUnit;
 import org.eclipse.jdt.internal.compiler.classfmt.ClassFileReader;
@@ -11,15 +12,16 @@ import org.eclipse.jdt.internal.compiler.env.INameEnvironment;
 import org.eclipse.jdt.internal.compiler.env.NameEnvironmentAnswer;
 import org.eclipse.xtend.lib.annotations.FinalFieldsConstructor;
 import org.eclipse.xtext.common.types.TypesPackage;
+import org.eclipse.xtext.common.types.access.binary.ClassPathIndex;
 import org.eclipse.xtext.common.types.descriptions.EObjectDescriptionBasedStubGenerator;
 import org.eclipse.xtext.java.resource.JavaResource;
+import org.eclipse.xtext.java.resource.NameEnvironmentCache;
 import org.eclipse.xtext.naming.QualifiedName;
 import org.eclipse.xtext.resource.IEObjectDescription;
 import org.eclipse.xtext.resource.IResourceDescription;
 import org.eclipse.xtext.resource.IResourceDescriptions;
 import org.eclipse.xtext.xbase.lib.CollectionLiterals;
 import org.eclipse.xtext.xbase.lib.Conversions;
-import org.eclipse.xtext.xbase.lib.Exceptions;
 import org.eclipse.xtext.xbase.lib.Functions.Function1;
 import org.eclipse.xtext.xbase.lib.IterableExtensions;
 import org.eclipse.xtext.xbase.lib.ListExtensions;
@@ -37,9 +39,28 @@ public class IndexAwareNameEnvironment implements INameEnvironment {
   
   private Map<QualifiedName, NameEnvironmentAnswer> cache = CollectionLiterals.<QualifiedName, NameEnvironmentAnswer>newHashMap();
   
+  private NameEnvironmentCache sharedCache;
+  
+  private Map<QualifiedName, Boolean> knownPackages = CollectionLiterals.<QualifiedName, Boolean>newHashMap();
+  
+  private Set<QualifiedName> indexedPackages;
+  
   @Override
   public void cleanup() {
     this.cache.clear();
+    this.knownPackages.clear();
+    this.indexedPackages = null;
+  }
+  
+  /**
+   * @return the cache that is shared by the name environments of the resource set.
+   * @since 2.14
+   */
+  protected NameEnvironmentCache getSharedCache() {
+    if ((this.sharedCache == null)) {
+      this.sharedCache = NameEnvironmentCache.getOrCreate(this.resource.getResourceSet());
+    }
+    return this.sharedCache;
   }
   
   @Override
@@ -52,46 +73,39 @@ public class IndexAwareNameEnvironment implements INameEnvironment {
   }
   
   public NameEnvironmentAnswer findType(final QualifiedName className) {
-    try {
-      boolean _containsKey = this.cache.containsKey(className);
-      if (_containsKey) {
-        return this.cache.get(className);
-      }
-      final IEObjectDescription candidate = IterableExtensions.<IEObjectDescription>head(this.resourceDescriptions.getExportedObjects(TypesPackage.Literals.JVM_DECLARED_TYPE, className, false));
-      NameEnvironmentAnswer result = null;
-      if ((candidate != null)) {
-        final IResourceDescription resourceDescription = this.resourceDescriptions.getResourceDescription(candidate.getEObjectURI().trimFragment());
-        final Resource res = this.resource.getResourceSet().getResource(resourceDescription.getURI(), false);
-        String _xifexpression = null;
-        if ((res instanceof JavaResource)) {
-          _xifexpression = ((JavaResource) res).getOriginalSource();
-        } else {
-          _xifexpression = this.stubGenerator.getJavaStubSource(candidate, resourceDescription);
-        }
-        final String source = _xifexpression;
-        char[] _charArray = source.toCharArray();
-        String _string = className.toString("/");
-        String _plus = (_string + ".java");
-        CompilationUnit _compilationUnit = new CompilationUnit(_charArray, _plus, null);
-        NameEnvironmentAnswer _nameEnvironmentAnswer = new NameEnvironmentAnswer(_compilationUnit, null);
-        result = _nameEnvironmentAnswer;
+    boolean _containsKey = this.cache.containsKey(className);
+    if (_containsKey) {
+      return this.cache.get(className);
+    }
+    final IEObjectDescription candidate = IterableExtensions.<IEObjectDescription>head(this.resourceDescriptions.getExportedObjects(TypesPackage.Literals.JVM_DECLARED_TYPE, className, false));
+    NameEnvironmentAnswer result = null;
+    if ((candidate != null)) {
+      final IResourceDescription resourceDescription = this.resourceDescriptions.getResourceDescription(candidate.getEObjectURI().trimFragment());
+      final Resource res = this.resource.getResourceSet().getResource(resourceDescription.getURI(), false);
+      String _xifexpression = null;
+      if ((res instanceof JavaResource)) {
+        _xifexpression = ((JavaResource) res).getOriginalSource();
       } else {
-        String _string_1 = className.toString("/");
-        final String fileName = (_string_1 + ".class");
-        final URL url = this.classLoader.getResource(fileName);
-        if ((url == null)) {
-          this.cache.put(className, null);
-          return null;
-        }
-        final ClassFileReader reader = ClassFileReader.read(url.openStream(), fileName);
-        NameEnvironmentAnswer _nameEnvironmentAnswer_1 = new NameEnvironmentAnswer(reader, null);
-        result = _nameEnvironmentAnswer_1;
+        _xifexpression = this.getSharedCache().getStubSource(candidate, resourceDescription, this.stubGenerator);
+      }
+      final String source = _xifexpression;
+      char[] _charArray = source.toCharArray();
+      String _string = className.toString("/");
+      String _plus = (_string + ".java");
+      CompilationUnit _compilationUnit = new CompilationUnit(_charArray, _plus, null);
+      NameEnvironmentAnswer _nameEnvironmentAnswer = new NameEnvironmentAnswer(_compilationUnit, null);
+      result = _nameEnvironmentAnswer;
+    } else {
+      final ClassFileReader reader = this.getSharedCache().getClassFileReader(className, this.classLoader);
+      if ((reader == null)) {
+        this.cache.put(className, null);
+        return null;
       }
-      this.cache.put(className, result);
-      return result;
-    } catch (Throwable _e) {
-      throw Exceptions.sneakyThrow(_e);
+      NameEnvironmentAnswer _nameEnvironmentAnswer_1 = new NameEnvironmentAnswer(reader, null);
+      result = _nameEnvironmentAnswer_1;
     }
+    this.cache.put(className, result);
+    return result;
   }
   
   @Override
@@ -112,7 +126,51 @@ public class IndexAwareNameEnvironment implements INameEnvironment {
     if (((packageName == null) || (packageName.length == 0))) {
       return false;
     }
-    return Character.isLowerCase((IterableExtensions.<Character>head(((Iterable<Character>)Conversions.doWrapArray(packageName)))).charValue());
+    final ArrayList<String> segments = new ArrayList<String>();
+    if ((parentPackageName != null)) {
+      final Function1<char[], String> _function = (char[] it) -> {
+        return String.valueOf(it);
+      };
+      List<String> _map = ListExtensions.<char[], String>map(((List<char[]>)Conversions.doWrapArray(parentPackageName)), _function);
+      Iterables.<String>addAll(segments, _map);
+    }
+    String _valueOf = String.valueOf(packageName);
+    segments.add(_valueOf);
+    final QualifiedName name = QualifiedName.create(segments);
+    Boolean result = this.knownPackages.get(name);
+    if ((result == null)) {
+      result = Boolean.valueOf(this.isPackage(name));
+      this.knownPackages.put(name, result);
+    }
+    return (result).booleanValue();
+  }
+  
+  /**
+   * @return whether the index or the class path contain types in the given package or in one of its subpackages.
+   * @since 2.14
+   */
+  protected boolean isPackage(final QualifiedName packageName) {
+    boolean _contains = this.getIndexedPackages().contains(packageName);
+    if (_contains) {
+      return true;
+    }
+    final ClassPathIndex index = ClassPathIndex.get(this.classLoader);
+    if ((index == null)) {
+      return Character.isLowerCase(packageName.getLastSegment().charAt(0));
+    }
+    return index.isPackage(packageName.toString("/"));
+  }
+  
+  /**
+   * @return the packages of the types in the index and their parent packages, which are shared by the name
+   *         environments of the resource set.
+   * @since 2.14
+   */
+  protected Set<QualifiedName> getIndexedPackages() {
+    if ((this.indexedPackages == null)) {
+      this.indexedPackages = this.getSharedCache().getIndexedPackages(this.resourceDescriptions);
+    }
+    return this.indexedPackages;
   }
   
   public IndexAwareNameEnvironment(final Resource resource, final ClassLoader classLoader, final IResourceDescriptions resourceDescriptions, final EObjectDescriptionBasedStubGenerator stubGenerator) {
@@ -35,6 +35,13 @@ public class JavaConfig {
   @Accessors
   private JavaVersion javaTargetLevel;
   
+  /**
+   * Whether the first Java resource that installs its types compiles all pending Java resources of the resource set.
+   * @since 2.14
+   */
+  @Accessors
+  private boolean batchCompilation;
+  
   public static JavaConfig findInEmfObject(final Notifier emfObject) {
     for (Adapter adapter : emfObject.eAdapters()) {
     	if (adapter instanceof JavaConfig.JavaConfigAdapter) {
@@ -81,4 +88,21 @@ public class JavaConfig {
   public void setJavaTargetLevel(final JavaVersion javaTargetLevel) {
     this.javaTargetLevel = javaTargetLevel;
   }
+  
+  /**
+   * Whether the first Java resource that installs its types compiles all pending Java resources of the resource set.
+   * @since 2.14
+   */
+  @Pure
+  public boolean isBatchCompilation() {
+    return this.batchCompilation;
+  }
+  
+  /**
+   * Whether the first Java resource that installs its types compiles all pending Java resources of the resource set.
+   * @since 2.14
+   */
+  public void setBatchCompilation(final boolean batchCompilation) {
+    this.batchCompilation = batchCompilation;
+  }
 }
@@ -2,19 +2,20 @@ package org.eclipse.xtext.java.resource;
 
 import com.google.common.base.Objects;
 import com.google.inject.Inject;
-import java.util.Arrays;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import org.apache.log4j.Logger;
 import org.eclipse.emf.common.util.EList;
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.emf.ecore.resource.ResourceSet;
-import org.eclipse.jdt.internal.compiler.ClassFile;
 import org.eclipse.jdt.internal.compiler.CompilationResult;
 import org.eclipse.jdt.internal.compiler.DefaultErrorHandlingPolicies;
 import org.eclipse.jdt.internal.compiler.ICompilerRequestor;
 import org.eclipse.jdt.internal.compiler.IErrorHandlingPolicy;
+import org.eclipse.jdt.internal.compiler.ast.AbstractMethodDeclaration;
 import org.eclipse.jdt.internal.compiler.ast.CompilationUnitDeclaration;
 import org.eclipse.jdt.internal.compiler.ast.ImportReference;
 import org.eclipse.jdt.internal.compiler.ast.TypeDeclaration;
@@ -22,6 +23,7 @@ import org.eclipse.jdt.internal.compiler.ast.TypeParameter;
 import org.eclipse.jdt.internal.compiler.batch.CompilationUnit;
 import org.eclipse.jdt.internal.compiler.env.ICompilationUnit;
 import org.eclipse.jdt.internal.compiler.impl.CompilerOptions;
+import org.eclipse.jdt.internal.compiler.lookup.CompilationUnitScope;
 import org.eclipse.jdt.internal.compiler.parser.Parser;
 import org.eclipse.jdt.internal.compiler.problem.DefaultProblemFactory;
 import org.eclipse.jdt.internal.compiler.problem.ProblemReporter;
@@ -30,11 +32,9 @@ import org.eclipse.xtext.common.types.JvmGenericType;
 import org.eclipse.xtext.common.types.JvmMember;
 import org.eclipse.xtext.common.types.JvmTypeParameter;
 import org.eclipse.xtext.common.types.TypesFactory;
-import org.eclipse.xtext.common.types.access.binary.BinaryClass;
-import org.eclipse.xtext.common.types.access.binary.asm.ClassFileBytesAccess;
-import org.eclipse.xtext.common.types.access.binary.asm.JvmDeclaredTypeBuilder;
 import org.eclipse.xtext.common.types.descriptions.EObjectDescriptionBasedStubGenerator;
-import org.eclipse.xtext.java.resource.InMemoryClassLoader;
+import org.eclipse.xtext.java.resource.BindingClassReader;
+import org.eclipse.xtext.java.resource.DietParseCache;
 import org.eclipse.xtext.java.resource.IndexAwareNameEnvironment;
 import org.eclipse.xtext.java.resource.JavaConfig;
 import org.eclipse.xtext.java.resource.JavaResource;
@@ -79,13 +79,30 @@ public class JavaDerivedStateComputer {
       return;
     }
     final CompilationUnit compilationUnit = this.getCompilationUnit(resource);
-    IErrorHandlingPolicy _proceedWithAllProblems = DefaultErrorHandlingPolicies.proceedWithAllProblems();
-    CompilerOptions _compilerOptions = this.getCompilerOptions(resource);
-    DefaultProblemFactory _defaultProblemFactory = new DefaultProblemFactory();
-    ProblemReporter _problemReporter = new ProblemReporter(_proceedWithAllProblems, _compilerOptions, _defaultProblemFactory);
-    final Parser parser = new Parser(_problemReporter, true);
-    final CompilationResult compilationResult = new CompilationResult(compilationUnit, 0, 1, (-1));
-    final CompilationUnitDeclaration result = parser.dietParse(compilationUnit, compilationResult);
+    DietParseCache _xifexpression = null;
+    ResourceSet _resourceSet = resource.getResourceSet();
+    boolean _tripleNotEquals = (_resourceSet != null);
+    if (_tripleNotEquals) {
+      _xifexpression = DietParseCache.getOrCreate(resource.getResourceSet());
+    }
+    final DietParseCache cache = _xifexpression;
+    CompilationUnitDeclaration _get = null;
+    if (cache!=null) {
+      _get=cache.get(resource.getURI(), compilationUnit.getContents());
+    }
+    CompilationUnitDeclaration result = _get;
+    if ((result == null)) {
+      IErrorHandlingPolicy _proceedWithAllProblems = DefaultErrorHandlingPolicies.proceedWithAllProblems();
+      CompilerOptions _compilerOptions = this.getCompilerOptions(resource);
+      DefaultProblemFactory _defaultProblemFactory = new DefaultProblemFactory();
+      ProblemReporter _problemReporter = new ProblemReporter(_proceedWithAllProblems, _compilerOptions, _defaultProblemFactory);
+      final Parser parser = new Parser(_problemReporter, true);
+      final CompilationResult compilationResult = new CompilationResult(compilationUnit, 0, 1, (-1));
+      result = parser.dietParse(compilationUnit, compilationResult);
+      if (cache!=null) {
+        cache.put(resource.getURI(), result);
+      }
+    }
     if ((result.types != null)) {
       for (final TypeDeclaration type : result.types) {
         {
@@ -174,56 +191,152 @@ public class JavaDerivedStateComputer {
     if (_isInfoFile) {
       return;
     }
-    final CompilationUnit compilationUnit = this.getCompilationUnit(resource);
-    final ClassLoader classLoader = this.getClassLoader(resource);
-    final IResourceDescriptions data = this.resourceDescriptionsProvider.getResourceDescriptions(resource.getResourceSet());
+    this.installFull(Collections.<Resource>unmodifiableList(CollectionLiterals.<Resource>newArrayList(resource)));
+  }
+  
+  /**
+   * Compiles the compilation units of all given resources in a single compiler run and installs the resulting
+   * types. Units that refer to each other are thus parsed and resolved only once. The types are built from the
+   * bindings of the compiler, method bodies are neither resolved nor translated to byte code.
+   * 
+   * @since 2.14
+   */
+  public void installFull(final Iterable<? extends Resource> resources) {
+    final LinkedHashMap<ICompilationUnit, Resource> resourceByUnit = CollectionLiterals.<ICompilationUnit, Resource>newLinkedHashMap();
+    for (final Resource resource : resources) {
+      boolean _isInfoFile = this.isInfoFile(resource);
+      boolean _not = (!_isInfoFile);
+      if (_not) {
+        resourceByUnit.put(this.getCompilationUnit(resource), resource);
+      }
+    }
+    boolean _isEmpty = resourceByUnit.isEmpty();
+    if (_isEmpty) {
+      return;
+    }
+    final Resource first = IterableExtensions.<Resource>head(resourceByUnit.values());
+    final ClassLoader classLoader = this.getClassLoader(first);
+    final IResourceDescriptions data = this.resourceDescriptionsProvider.getResourceDescriptions(first.getResourceSet());
     if ((data == null)) {
       throw new IllegalStateException("no index installed");
     }
-    final IndexAwareNameEnvironment nameEnv = new IndexAwareNameEnvironment(resource, classLoader, data, this.stubGenerator);
+    final IndexAwareNameEnvironment nameEnv = new IndexAwareNameEnvironment(first, classLoader, data, this.stubGenerator);
     IErrorHandlingPolicy _proceedWithAllProblems = DefaultErrorHandlingPolicies.proceedWithAllProblems();
-    CompilerOptions _compilerOptions = this.getCompilerOptions(resource);
+    CompilerOptions _compilerOptions = this.getCompilerOptions(first);
     final ICompilerRequestor _function = (CompilationResult it) -> {
-      boolean _equals = Arrays.equals(it.fileName, compilationUnit.fileName);
-      if (_equals) {
-        final HashMap<String, byte[]> map = CollectionLiterals.<String, byte[]>newHashMap();
-        List<String> topLevelTypes = CollectionLiterals.<String>newArrayList();
-        ClassFile[] _classFiles = it.getClassFiles();
-        for (final ClassFile cf : _classFiles) {
-          {
-            final Function1<char[], String> _function_1 = (char[] it_1) -> {
-              return String.valueOf(it_1);
-            };
-            final String className = IterableExtensions.join(ListExtensions.<char[], String>map(((List<char[]>)Conversions.doWrapArray(cf.getCompoundName())), _function_1), ".");
-            map.put(className, cf.getBytes());
-            if ((!cf.isNestedType)) {
-              topLevelTypes.add(className);
-            }
+    };
+    DefaultProblemFactory _defaultProblemFactory = new DefaultProblemFactory();
+    final org.eclipse.jdt.internal.compiler.Compiler compiler = new org.eclipse.jdt.internal.compiler.Compiler(nameEnv, _proceedWithAllProblems, _compilerOptions, _function, _defaultProblemFactory) {
+      @Override
+      public void initializeParser() {
+        this.parser = JavaDerivedStateComputer.this.createParser(this.problemReporter, this.options, resourceByUnit);
+      }
+      
+      @Override
+      public void process(final CompilationUnitDeclaration unit, final int i) {
+        final Resource resource = resourceByUnit.get(unit.compilationResult.compilationUnit);
+        if ((resource == null)) {
+          return;
+        }
+        this.lookupEnvironment.unitBeingCompleted = unit;
+        try {
+          CompilationUnitScope _scope = unit.scope;
+          if (_scope!=null) {
+            _scope.faultInTypes();
+          }
+          JavaDerivedStateComputer.this.installTypes(resource, unit);
+        } finally {
+          this.lookupEnvironment.unitBeingCompleted = null;
+        }
+      }
+    };
+    compiler.compile(((ICompilationUnit[])Conversions.unwrapArray(IterableExtensions.<ICompilationUnit>toList(resourceByUnit.keySet()), ICompilationUnit.class)));
+  }
+  
+  /**
+   * @return a parser that reuses the units that have been diet parsed for the stubs of the given resources.
+   * @since 2.14
+   */
+  protected Parser createParser(final ProblemReporter problemReporter, final CompilerOptions options, final Map<ICompilationUnit, Resource> resourceByUnit) {
+    boolean _parseLiteralExpressionsAsConstants = options.parseLiteralExpressionsAsConstants;
+    return new Parser(problemReporter, _parseLiteralExpressionsAsConstants) {
+      @Override
+      public CompilationUnitDeclaration dietParse(final ICompilationUnit sourceUnit, final CompilationResult compilationResult) {
+        final Resource resource = resourceByUnit.get(sourceUnit);
+        CompilationUnitDeclaration _xifexpression = null;
+        ResourceSet _resourceSet = null;
+        if (resource!=null) {
+          _resourceSet=resource.getResourceSet();
+        }
+        boolean _tripleNotEquals = (_resourceSet != null);
+        if (_tripleNotEquals) {
+          DietParseCache _findInEmfObject = DietParseCache.findInEmfObject(resource.getResourceSet());
+          CompilationUnitDeclaration _remove = null;
+          if (_findInEmfObject!=null) {
+            _remove=_findInEmfObject.remove(resource.getURI(), sourceUnit.getContents());
           }
+          _xifexpression = _remove;
+        }
+        final CompilationUnitDeclaration cached = _xifexpression;
+        if ((cached == null)) {
+          return super.dietParse(sourceUnit, compilationResult);
         }
-        final InMemoryClassLoader inMemClassLoader = new InMemoryClassLoader(map, classLoader);
-        for (final String topLevel : topLevelTypes) {
-          try {
-            BinaryClass _binaryClass = new BinaryClass(topLevel, inMemClassLoader);
-            ClassFileBytesAccess _classFileBytesAccess = new ClassFileBytesAccess();
-            final JvmDeclaredTypeBuilder builder = new JvmDeclaredTypeBuilder(_binaryClass, _classFileBytesAccess, inMemClassLoader);
-            final JvmDeclaredType type = builder.buildType();
-            EList<EObject> _contents = resource.getContents();
-            _contents.add(type);
-          } catch (final Throwable _t) {
-            if (_t instanceof Throwable) {
-              final Throwable t = (Throwable)_t;
-              throw new IllegalStateException((("could not load type \'" + topLevel) + "\'"), t);
-            } else {
-              throw Exceptions.sneakyThrow(_t);
-            }
+        compilationResult.lineSeparatorPositions = cached.compilationResult.lineSeparatorPositions;
+        cached.compilationResult = compilationResult;
+        if ((cached.types != null)) {
+          for (final TypeDeclaration type : cached.types) {
+            JavaDerivedStateComputer.this.setCompilationResult(type, compilationResult);
           }
         }
+        return cached;
       }
     };
-    DefaultProblemFactory _defaultProblemFactory = new DefaultProblemFactory();
-    final org.eclipse.jdt.internal.compiler.Compiler compiler = new org.eclipse.jdt.internal.compiler.Compiler(nameEnv, _proceedWithAllProblems, _compilerOptions, _function, _defaultProblemFactory);
-    compiler.compile(new ICompilationUnit[] { compilationUnit });
+  }
+  
+  /**
+   * Makes the given type, its methods and its member types report to the compilation result of the compilation that
+   * reuses their diet parsed unit.
+   * 
+   * @since 2.14
+   */
+  protected void setCompilationResult(final TypeDeclaration type, final CompilationResult compilationResult) {
+    type.compilationResult = compilationResult;
+    if ((type.methods != null)) {
+      for (final AbstractMethodDeclaration method : type.methods) {
+        method.compilationResult = compilationResult;
+      }
+    }
+    if ((type.memberTypes != null)) {
+      for (final TypeDeclaration memberType : type.memberTypes) {
+        this.setCompilationResult(memberType, compilationResult);
+      }
+    }
+  }
+  
+  /**
+   * Builds the types of the compilation unit from its bindings, which have to be faulted in.
+   * 
+   * @since 2.14
+   */
+  protected void installTypes(final Resource resource, final CompilationUnitDeclaration unit) {
+    final BindingClassReader reader = new BindingClassReader(unit);
+    List<String> _topLevelTypeNames = reader.getTopLevelTypeNames();
+    for (final String topLevel : _topLevelTypeNames) {
+      try {
+        final JvmDeclaredType type = reader.buildType(topLevel);
+        if ((type != null)) {
+          EList<EObject> _contents = resource.getContents();
+          _contents.add(type);
+        }
+      } catch (final Throwable _t) {
+        if (_t instanceof Throwable) {
+          final Throwable t = (Throwable)_t;
+          throw new IllegalStateException((("could not load type \'" + topLevel) + "\'"), t);
+        } else {
+          throw Exceptions.sneakyThrow(_t);
+        }
+      }
+    }
   }
   
   protected boolean isInfoFile(final Resource resource) {
@@ -291,6 +404,7 @@ public class JavaDerivedStateComputer {
       compilerOptions.sourceLevel = sourceLevel;
       compilerOptions.produceMethodParameters = true;
       compilerOptions.produceReferenceInfo = true;
+      compilerOptions.storeAnnotations = true;
       try {
         CompilerOptions.class.getField("originalSourceLevel").setLong(compilerOptions, targetLevel);
       } catch (final Throwable _t) {
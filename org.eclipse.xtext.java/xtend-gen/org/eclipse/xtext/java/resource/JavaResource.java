@@ -1,12 +1,15 @@
 package org.eclipse.xtext.java.resource;
 
 import com.google.common.base.Objects;
+import com.google.common.collect.Iterables;
 import com.google.common.io.CharStreams;
 import com.google.inject.Inject;
 import com.google.inject.Provider;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import org.eclipse.emf.common.util.EList;
@@ -28,12 +31,15 @@ import org.eclipse.xtext.common.types.access.impl.AbstractClassMirror;
 import org.eclipse.xtext.common.types.access.impl.AbstractJvmTypeProvider;
 import org.eclipse.xtext.common.types.access.impl.IndexedJvmTypeAccess;
 import org.eclipse.xtext.common.types.access.impl.URIHelperConstants;
+import org.eclipse.xtext.java.resource.JavaConfig;
 import org.eclipse.xtext.java.resource.JavaDerivedStateComputer;
 import org.eclipse.xtext.parser.IEncodingProvider;
 import org.eclipse.xtext.resource.IFragmentProvider;
 import org.eclipse.xtext.resource.ISynchronizable;
 import org.eclipse.xtext.util.concurrent.IUnitOfWork;
+import org.eclipse.xtext.xbase.lib.CollectionLiterals;
 import org.eclipse.xtext.xbase.lib.Exceptions;
+import org.eclipse.xtext.xbase.lib.IterableExtensions;
 import org.eclipse.xtext.xbase.lib.ObjectExtensions;
 import org.eclipse.xtext.xbase.lib.Procedures.Procedure0;
 import org.eclipse.xtext.xbase.lib.Procedures.Procedure1;
@@ -162,7 +168,12 @@ public class JavaResource extends ResourceImpl implements IJavaSchemeUriResolver
         if ((((this.isLoaded && (!this.isLoading)) && (!this.initializing)) && (!this.initialized))) {
           try {
             this.eSetDeliver(false);
-            this.installFull();
+            boolean _isBatchCompilation = this.isBatchCompilation();
+            if (_isBatchCompilation) {
+              this.installFullBatch();
+            } else {
+              this.installFull();
+            }
           } finally {
             this.eSetDeliver(true);
           }
@@ -195,6 +206,64 @@ public class JavaResource extends ResourceImpl implements IJavaSchemeUriResolver
     this.initializing(_function);
   }
   
+  /**
+   * Installs the types of this resource and of all other Java resources of the resource set that are loaded but not
+   * initialized yet. The resources are compiled in a single compiler run.
+   * 
+   * @since 2.14
+   */
+  public void installFullBatch() {
+    final ArrayList<JavaResource> others = CollectionLiterals.<JavaResource>newArrayList();
+    ResourceSet _resourceSet = this.getResourceSet();
+    boolean _tripleNotEquals = (_resourceSet != null);
+    if (_tripleNotEquals) {
+      List<JavaResource> _list = IterableExtensions.<JavaResource>toList(Iterables.<JavaResource>filter(this.getResourceSet().getResources(), JavaResource.class));
+      for (final JavaResource other : _list) {
+        if ((((((other != this) && other.isLoaded) && (!other.isLoading)) && (!other.initializing)) && (!other.initialized))) {
+          others.add(other);
+        }
+      }
+    }
+    final Procedure0 _function = () -> {
+      for (final JavaResource other_1 : others) {
+        {
+          other_1.eSetDeliver(false);
+          other_1.initializing = true;
+        }
+      }
+      try {
+        Iterable<JavaResource> _plus = Iterables.<JavaResource>concat(Collections.<JavaResource>unmodifiableList(CollectionLiterals.<JavaResource>newArrayList(this)), others);
+        this.derivedStateComputer.installFull(_plus);
+        this.initialized = true;
+        for (final JavaResource other_2 : others) {
+          other_2.initialized = true;
+        }
+      } finally {
+        for (final JavaResource other_3 : others) {
+          {
+            other_3.initializing = false;
+            other_3.eSetDeliver(true);
+          }
+        }
+      }
+    };
+    this.initializing(_function);
+  }
+  
+  /**
+   * @since 2.14
+   */
+  protected boolean isBatchCompilation() {
+    JavaConfig _xifexpression = null;
+    ResourceSet _resourceSet = this.getResourceSet();
+    boolean _tripleNotEquals = (_resourceSet != null);
+    if (_tripleNotEquals) {
+      _xifexpression = JavaConfig.findInEmfObject(this.getResourceSet());
+    }
+    final JavaConfig config = _xifexpression;
+    return ((config != null) && config.isBatchCompilation());
+  }
+  
   private void initializing(final Procedure0 init) {
     try {
       this.initializing = true;
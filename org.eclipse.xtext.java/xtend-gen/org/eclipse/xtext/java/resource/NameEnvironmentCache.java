@@ -0,0 +1,298 @@
+/**
+ * Copyright (c) 2018 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.xtext.java.resource;
+
+import com.google.common.collect.MapMaker;
+import java.io.InputStream;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.net.URL;
+import java.util.List;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.eclipse.emf.common.notify.Adapter;
+import org.eclipse.emf.common.notify.Notifier;
+import org.eclipse.emf.common.notify.impl.AdapterImpl;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.jdt.internal.compiler.classfmt.ClassFileReader;
+import org.eclipse.xtext.common.types.TypesPackage;
+import org.eclipse.xtext.common.types.access.binary.ClassPathIndex;
+import org.eclipse.xtext.common.types.descriptions.EObjectDescriptionBasedStubGenerator;
+import org.eclipse.xtext.naming.QualifiedName;
+import org.eclipse.xtext.resource.IEObjectDescription;
+import org.eclipse.xtext.resource.IResourceDescription;
+import org.eclipse.xtext.resource.IResourceDescriptions;
+import org.eclipse.xtext.util.internal.EmfAdaptable;
+import org.eclipse.xtext.xbase.lib.CollectionLiterals;
+import org.eclipse.xtext.xbase.lib.Exceptions;
+
+/**
+ * Caches the class file readers and the stub sources of the {@link IndexAwareNameEnvironment name environments} of a
+ * resource set, thus they are shared by all Java resources of the resource set and by all of their compilations.
+ * 
+ * <p>
+ * The class file readers are fully initialized and thus immutable. They are discarded when the class loader of the
+ * resource set changes. A stub source is reused as long as the index contains the resource description that it has
+ * been generated from, i.e. an index delta for its resource invalidates it. Stub sources whose resource description
+ * has been garbage collected are removed.
+ * </p>
+ * 
+ * <p>
+ * The packages of the types in an index are computed once per index instance. They are forgotten when an index that is
+ * an {@link IResourceDescription.Event.Source} fires a delta. Clients that change an index that does not fire events,
+ * e.g. a {@link org.eclipse.xtext.resource.impl.ResourceDescriptionsData ResourceDescriptionsData}, while Java
+ * resources are compiled have to call {@link #forgetIndexedPackages()}.
+ * </p>
+ * 
+ * @since 2.14
+ */
+@EmfAdaptable
+@SuppressWarnings("all")
+public class NameEnvironmentCache {
+  public static class NameEnvironmentCacheAdapter extends AdapterImpl {
+    private NameEnvironmentCache element;
+    
+    public NameEnvironmentCacheAdapter(final NameEnvironmentCache element) {
+      this.element = element;
+    }
+    
+    public NameEnvironmentCache get() {
+      return this.element;
+    }
+    
+    @Override
+    public boolean isAdapterForType(final Object object) {
+      return object == NameEnvironmentCache.class;
+    }
+  }
+  
+  /**
+   * A stub source that does not keep the resource description alive that it has been generated from.
+   */
+  protected static class StubSource extends WeakReference<IResourceDescription> {
+    private final QualifiedName typeName;
+    
+    private final String source;
+    
+    public StubSource(final QualifiedName typeName, final String source, final IResourceDescription resourceDescription, final ReferenceQueue<IResourceDescription> queue) {
+      super(resourceDescription, queue);
+      this.typeName = typeName;
+      this.source = source;
+    }
+  }
+  
+  /**
+   * Tells a cache about index deltas without keeping its resource set alive.
+   */
+  public static class IndexListener implements IResourceDescription.Event.Listener {
+    private final WeakReference<NameEnvironmentCache> cache;
+    
+    private final IResourceDescription.Event.Source source;
+    
+    public IndexListener(final NameEnvironmentCache cache, final IResourceDescription.Event.Source source) {
+      WeakReference<NameEnvironmentCache> _weakReference = new WeakReference<NameEnvironmentCache>(cache);
+      this.cache = _weakReference;
+      this.source = source;
+    }
+    
+    @Override
+    public void descriptionsChanged(final IResourceDescription.Event event) {
+      this.source.removeListener(this);
+      NameEnvironmentCache _get = this.cache.get();
+      Map<IResourceDescriptions, Set<QualifiedName>> _indexedPackages = null;
+      if (_get!=null) {
+        _indexedPackages=_get.indexedPackages;
+      }
+      if (_indexedPackages!=null) {
+        _indexedPackages.remove(this.source);
+      }
+    }
+  }
+  
+  private final Map<QualifiedName, ClassFileReader> classFileReaders = new ConcurrentHashMap<QualifiedName, ClassFileReader>();
+  
+  private final Set<QualifiedName> missingClasses = ConcurrentHashMap.<QualifiedName>newKeySet();
+  
+  private final Map<QualifiedName, NameEnvironmentCache.StubSource> stubSources = new ConcurrentHashMap<QualifiedName, NameEnvironmentCache.StubSource>();
+  
+  private final ReferenceQueue<IResourceDescription> clearedStubSources = new ReferenceQueue<IResourceDescription>();
+  
+  private final Map<IResourceDescriptions, Set<QualifiedName>> indexedPackages = new MapMaker().weakKeys().<IResourceDescriptions, Set<QualifiedName>>makeMap();
+  
+  private volatile ClassLoader classLoader;
+  
+  /**
+   * @return the cache of the resource set, which is attached on demand.
+   */
+  public static NameEnvironmentCache getOrCreate(final ResourceSet resourceSet) {
+    synchronized (resourceSet) {
+      NameEnvironmentCache result = NameEnvironmentCache.findInEmfObject(resourceSet);
+      if ((result == null)) {
+        NameEnvironmentCache _nameEnvironmentCache = new NameEnvironmentCache();
+        result = _nameEnvironmentCache;
+        result.attachToEmfObject(resourceSet);
+      }
+      return result;
+    }
+  }
+  
+  /**
+   * @return the reader of the class file with the given name or <code>null</code> if the class loader does not find it.
+   */
+  public ClassFileReader getClassFileReader(final QualifiedName className, final ClassLoader classLoader) {
+    try {
+      this.useClassLoader(classLoader);
+      final ClassFileReader cached = this.classFileReaders.get(className);
+      if (((cached != null) || this.missingClasses.contains(className))) {
+        return cached;
+      }
+      String _string = className.toString("/");
+      final String fileName = (_string + ".class");
+      final ClassPathIndex index = ClassPathIndex.get(classLoader);
+      URL _xifexpression = null;
+      if (((index == null) || index.mightContain(fileName))) {
+        _xifexpression = classLoader.getResource(fileName);
+      }
+      final URL url = _xifexpression;
+      if ((url == null)) {
+        this.missingClasses.add(className);
+        return null;
+      }
+      final InputStream stream = url.openStream();
+      try {
+        final ClassFileReader reader = ClassFileReader.read(stream, fileName, true);
+        ClassFileReader _elvis = null;
+        ClassFileReader _putIfAbsent = this.classFileReaders.putIfAbsent(className, reader);
+        if (_putIfAbsent != null) {
+          _elvis = _putIfAbsent;
+        } else {
+          _elvis = reader;
+        }
+        return _elvis;
+      } finally {
+        stream.close();
+      }
+    } catch (Throwable _e) {
+      throw Exceptions.sneakyThrow(_e);
+    }
+  }
+  
+  /**
+   * @return the Java stub of the given type, which is generated unless it has been generated from the same resource
+   *         description before.
+   */
+  public String getStubSource(final IEObjectDescription type, final IResourceDescription resourceDescription, final EObjectDescriptionBasedStubGenerator stubGenerator) {
+    this.removeClearedStubSources();
+    final NameEnvironmentCache.StubSource cached = this.stubSources.get(type.getQualifiedName());
+    if (((cached != null) && (cached.get() == resourceDescription))) {
+      return cached.source;
+    }
+    final String source = stubGenerator.getJavaStubSource(type, resourceDescription);
+    QualifiedName _qualifiedName = type.getQualifiedName();
+    QualifiedName _qualifiedName_1 = type.getQualifiedName();
+    NameEnvironmentCache.StubSource _stubSource = new NameEnvironmentCache.StubSource(_qualifiedName_1, source, resourceDescription, this.clearedStubSources);
+    this.stubSources.put(_qualifiedName, _stubSource);
+    return source;
+  }
+  
+  /**
+   * Removes the stub sources whose resource descriptions have been garbage collected, e.g. since an index delta
+   * replaced them.
+   */
+  protected void removeClearedStubSources() {
+    Reference<? extends IResourceDescription> cleared = this.clearedStubSources.poll();
+    while ((cleared != null)) {
+      {
+        final NameEnvironmentCache.StubSource stubSource = ((NameEnvironmentCache.StubSource) cleared);
+        this.stubSources.remove(stubSource.typeName, stubSource);
+        cleared = this.clearedStubSources.poll();
+      }
+    }
+  }
+  
+  /**
+   * @return the packages of the types in the given index and their parent packages.
+   */
+  public Set<QualifiedName> getIndexedPackages(final IResourceDescriptions index) {
+    final Set<QualifiedName> cached = this.indexedPackages.get(index);
+    if ((cached != null)) {
+      return cached;
+    }
+    final HashSet<QualifiedName> types = CollectionLiterals.<QualifiedName>newHashSet();
+    final HashSet<QualifiedName> packages = CollectionLiterals.<QualifiedName>newHashSet();
+    Iterable<IEObjectDescription> _exportedObjectsByType = index.getExportedObjectsByType(TypesPackage.Literals.JVM_DECLARED_TYPE);
+    for (final IEObjectDescription type : _exportedObjectsByType) {
+      {
+        QualifiedName _qualifiedName = type.getQualifiedName();
+        types.add(_qualifiedName);
+        QualifiedName name = type.getQualifiedName().skipLast(1);
+        while (((name.getSegmentCount() > 0) && packages.add(name))) {
+          name = name.skipLast(1);
+        }
+      }
+    }
+    packages.removeAll(types);
+    if (((this.indexedPackages.putIfAbsent(index, packages) == null) && (index instanceof IResourceDescription.Event.Source))) {
+      final IResourceDescription.Event.Source source = ((IResourceDescription.Event.Source) index);
+      NameEnvironmentCache.IndexListener _indexListener = new NameEnvironmentCache.IndexListener(this, source);
+      source.addListener(_indexListener);
+    }
+    return packages;
+  }
+  
+  /**
+   * Forgets the packages of all indexes, e.g. since an index that does not fire events has been changed.
+   */
+  public void forgetIndexedPackages() {
+    this.indexedPackages.clear();
+  }
+  
+  protected void useClassLoader(final ClassLoader classLoader) {
+    if ((this.classLoader != classLoader)) {
+      synchronized (this) {
+        if ((this.classLoader != classLoader)) {
+          this.classFileReaders.clear();
+          this.missingClasses.clear();
+          this.classLoader = classLoader;
+        }
+      }
+    }
+  }
+  
+  public static NameEnvironmentCache findInEmfObject(final Notifier emfObject) {
+    for (Adapter adapter : emfObject.eAdapters()) {
+    	if (adapter instanceof NameEnvironmentCache.NameEnvironmentCacheAdapter) {
+    		return ((NameEnvironmentCache.NameEnvironmentCacheAdapter) adapter).get();
+    	}
+    }
+    return null;
+  }
+  
+  public static NameEnvironmentCache removeFromEmfObject(final Notifier emfObject) {
+    List<Adapter> adapters = emfObject.eAdapters();
+    for(int i = 0, max = adapters.size(); i < max; i++) {
+    	Adapter adapter = adapters.get(i);
+    	if (adapter instanceof NameEnvironmentCache.NameEnvironmentCacheAdapter) {
+    		emfObject.eAdapters().remove(i);
+    		return ((NameEnvironmentCache.NameEnvironmentCacheAdapter) adapter).get();
+    	}
+    }
+    return null;
+  }
+  
+  public void attachToEmfObject(final Notifier emfObject) {
+    NameEnvironmentCache result = findInEmfObject(emfObject);
+    if (result != null)
+    	throw new IllegalStateException("The given EMF object already contains an adapter for NameEnvironmentCache");
+    NameEnvironmentCache.NameEnvironmentCacheAdapter adapter = new NameEnvironmentCache.NameEnvironmentCacheAdapter(this);
+    emfObject.eAdapters().add(adapter);
+  }
+}
@@ -19,10 +19,13 @@ import org.eclipse.emf.ecore.EClass;
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.EReference;
 import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
 import org.eclipse.emf.ecore.util.EcoreUtil;
 import org.eclipse.xtext.common.types.JvmDeclaredType;
 import org.eclipse.xtext.common.types.JvmTypeParameter;
 import org.eclipse.xtext.common.types.JvmTypeParameterDeclarator;
+import org.eclipse.xtext.common.types.access.IBatchJvmTypeProvider;
+import org.eclipse.xtext.common.types.access.IJvmTypeProvider;
 import org.eclipse.xtext.naming.IQualifiedNameConverter;
 import org.eclipse.xtext.naming.IQualifiedNameProvider;
 import org.eclipse.xtext.naming.QualifiedName;
@@ -64,6 +67,7 @@ public class XImportSectionNamespaceScopeProvider extends AbstractGlobalScopeDel
 	@Inject private IQualifiedNameProvider qualifiedNameProvider;
 	@Inject private IQualifiedNameConverter qualifiedNameConverter;
 	@Inject private IImportsConfiguration importsConfiguration;
+	@Inject private IJvmTypeProvider.Factory typeProviderFactory;
 	
 	public IQualifiedNameProvider getQualifiedNameProvider() {
 		return qualifiedNameProvider;
@@ -206,11 +210,38 @@ public class XImportSectionNamespaceScopeProvider extends AbstractGlobalScopeDel
 			return Collections.emptyList();
 		XImportSection importSection = importsConfiguration.getImportSection((XtextResource) context.eResource());
 		if(importSection != null) {
+			findImportedTypes(importSection);
 			return getImportedNamespaceResolvers(importSection, ignoreCase);
 		}
 		return Collections.emptyList();
 	}
 	
+	/**
+	 * Looks up the explicitly imported types at once if the type provider of the resource set supports
+	 * {@link IBatchJvmTypeProvider batch lookups}, since the imported names are requested one after another
+	 * once the imports are in scope.
+	 * @since 2.14
+	 */
+	protected void findImportedTypes(XImportSection importSection) {
+		Resource resource = importSection.eResource();
+		ResourceSet resourceSet = resource != null ? resource.getResourceSet() : null;
+		if (resourceSet == null)
+			return;
+		IJvmTypeProvider typeProvider = typeProviderFactory.findTypeProvider(resourceSet);
+		if (!(typeProvider instanceof IBatchJvmTypeProvider))
+			return;
+		List<String> names = Lists.newArrayList();
+		for (XImportDeclaration imp: importSection.getImportDeclarations()) {
+			if (!imp.isStatic() && !imp.isWildcard()) {
+				String name = imp.getImportedTypeName();
+				if (!Strings.isEmpty(name))
+					names.add(name);
+			}
+		}
+		if (names.size() > 1)
+			((IBatchJvmTypeProvider) typeProvider).findTypesByName(names, false);
+	}
+	
 	protected IImportsConfiguration getImportsConfiguration() {
 		return importsConfiguration;
 	}